@@ -3,6 +3,8 @@ module org.monarchinitiative.svart {
     exports org.monarchinitiative.svart.assembly;
     exports org.monarchinitiative.svart.sequence;
     exports org.monarchinitiative.svart.interval;
+    exports org.monarchinitiative.svart.liftover;
+    exports org.monarchinitiative.svart.variant;
     exports org.monarchinitiative.svart.variantkey;
     exports org.monarchinitiative.svart.vcf;
 }
\ No newline at end of file
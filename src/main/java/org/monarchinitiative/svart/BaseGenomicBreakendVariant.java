@@ -173,22 +173,34 @@ public abstract class BaseGenomicBreakendVariant<T extends GenomicBreakendVarian
         return true;
     }
 
+    /**
+     * Breakend variants are equal to any other {@link GenomicBreakendVariant} implementation with the same event id,
+     * breakends, ref and alt, from which all the other properties of the variant are derived.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        if (!super.equals(o)) return false;
-        BaseGenomicBreakendVariant<?> that = (BaseGenomicBreakendVariant<?>) o;
-        return eventId.equals(that.eventId) &&
-                left.equals(that.left) &&
-                right.equals(that.right) &&
-                ref.equals(that.ref) &&
-                alt.equals(that.alt);
+        if (!(o instanceof GenomicBreakendVariant that)) return false;
+        return eventId.equals(that.eventId()) &&
+                left.equals(that.left()) &&
+                right.equals(that.right()) &&
+                ref.equals(that.ref()) &&
+                alt.equals(that.alt());
     }
 
+    /**
+     * The hash is of the event id, the contigs and positions of the breakends, ref and alt, which a compact
+     * implementation can compute without creating its breakends.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), eventId, left, right, ref, alt);
+        int result = eventId.hashCode();
+        result = 31 * result + left.contigId();
+        result = 31 * result + left.startZeroBased();
+        result = 31 * result + right.contigId();
+        result = 31 * result + right.startZeroBased();
+        result = 31 * result + ref.hashCode();
+        return 31 * result + alt.hashCode();
     }
 
     @Override
@@ -2,8 +2,8 @@ package org.monarchinitiative.svart;
 
 import org.monarchinitiative.svart.coordinates.CoordinatesFormat;
 import org.monarchinitiative.svart.sequence.NucleotideSeq;
-import org.monarchinitiative.svart.variant.AlleleCache;
-import org.monarchinitiative.svart.variant.IdCache;
+import org.monarchinitiative.svart.variant.internal.AlleleCache;
+import org.monarchinitiative.svart.variant.internal.IdCache;
 
 import java.util.Objects;
 
@@ -1,5 +1,6 @@
 package org.monarchinitiative.svart;
 
+import org.monarchinitiative.svart.variant.CompactGenomicBreakendVariant;
 import org.monarchinitiative.svart.variant.DefaultGenomicBreakendVariant;
 import org.monarchinitiative.svart.vcf.VcfBreakendFormatter;
 import org.monarchinitiative.svart.vcf.VcfBreakendResolver;
@@ -69,6 +70,9 @@ public interface GenomicBreakendVariant extends GenomicVariant {
      * once 'resolved' into a {@link GenomicBreakendVariant} using a {@link VcfBreakendResolver}
      * the REF and ALT alleles will represent the actual sequence changes on that strand. In order to return back to VCF convention,
      * the {@link VcfBreakendFormatter} can be used to re-construct the REF and ALT alleles
+     * <p>
+     * Precise breakends with short, ACGT-only REF and ALT alleles will be returned as a {@link CompactGenomicBreakendVariant}
+     * otherwise a {@link DefaultGenomicBreakendVariant} will be returned.
      *
      * @param eventId The VCF event ID
      * @param left  The left {@link GenomicBreakend}
@@ -78,6 +82,9 @@ public interface GenomicBreakendVariant extends GenomicVariant {
      * @return a {@link GenomicBreakendVariant} composed of the input values.
      */
     static GenomicBreakendVariant of(String eventId, GenomicBreakend left, GenomicBreakend right, String ref, String alt) {
+        if (CompactGenomicBreakendVariant.canBeCompactBreakendVariant(left, right, ref, alt)) {
+            return CompactGenomicBreakendVariant.of(eventId, left, right, ref, alt);
+        }
         return DefaultGenomicBreakendVariant.of(eventId, left, right, ref, alt);
     }
 
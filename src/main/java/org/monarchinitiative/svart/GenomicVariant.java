@@ -2,6 +2,8 @@ package org.monarchinitiative.svart;
 
 import org.monarchinitiative.svart.sequence.NucleotideSeq;
 import org.monarchinitiative.svart.variant.*;
+import org.monarchinitiative.svart.variant.internal.AlleleCache;
+import org.monarchinitiative.svart.variant.internal.IdCache;
 import org.monarchinitiative.svart.vcf.VcfBreakendFormatter;
 import org.monarchinitiative.svart.vcf.VcfBreakendResolver;
 import org.monarchinitiative.svart.vcf.VcfConverter;
@@ -127,6 +129,10 @@ public interface GenomicVariant extends GenomicRegion {
     }
 
     static int compare(GenomicVariant x, GenomicVariant y) {
+        if (x instanceof CompactSequenceVariant compactX && y instanceof CompactSequenceVariant compactY) {
+            // avoids decoding the coordinates and alleles
+            return CompactSequenceVariant.compare(compactX, compactY);
+        }
         int result = GenomicInterval.compare(x, y);
         if (result == 0) {
             result = x.ref().compareTo(y.ref());
@@ -215,7 +221,7 @@ public interface GenomicVariant extends GenomicRegion {
         if (alt.length() == 1 && (alt.charAt(0) == '*' || alt.charAt(0) == '.')) {
             return AlleleCache.cacheAllele(alt);
         }
-        return VariantType.isSymbolic(alt) ? alt : validateAllele(alt, false);
+        return VariantType.isSymbolic(alt) ? AlleleCache.cacheAllele(alt) : validateAllele(alt, false);
     }
 
     private static String validateAllele(String allele, boolean isRef) {
@@ -0,0 +1,511 @@
+package org.monarchinitiative.svart.liftover;
+
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Converts {@link GenomicRegion} and {@link GenomicVariant} coordinates from one {@link GenomicAssembly} to another
+ * using a UCSC <a href="https://genome.ucsc.edu/goldenPath/help/chain.html">chain file</a>, such as
+ * hg19ToHg38.over.chain.gz, where the reference (t) sequences of the chains are contigs of the source assembly and the
+ * query (q) sequences are contigs of the target assembly.
+ * <pre>
+ * LiftOver liftOver = LiftOver.of(Path.of("hg19ToHg38.over.chain.gz"), GenomicAssemblies.GRCh37p13(), GenomicAssemblies.GRCh38p13());
+ * LiftOverResult&lt;GenomicVariant&gt; result = liftOver.liftOver(variant);
+ * if (result.isLifted()) {
+ *     GenomicVariant lifted = result.lifted();
+ * }
+ * </pre>
+ * The aligned blocks of the chains are indexed in sorted arrays for each source contig. Where the chains overlap on the
+ * source contig, the overlapping bases are assigned to the chain with the highest score, so each base maps to at most one
+ * target position. A region is lifted if its first and last bases are aligned by the same chain and at least
+ * {@link Builder#minMatch(double)} of its bases are aligned. The alleles of a sequence variant must be contained in a
+ * single aligned block, otherwise it fails with {@link LiftOverFailure#SPANS_GAP}. Where a chain aligns to the negative
+ * strand of the target contig the region is lifted to the opposite strand and converted back using
+ * {@link GenomicRegion#withStrand(Strand)}, so the lifted region is on the same strand as the input, with the alleles of
+ * variants being reverse-complemented. Breakend variants are not lifted.
+ * <p>
+ * The {@link #liftOverAll(Stream)} and {@link #liftOverAll(List)} methods should be used for variants sorted by contig
+ * and position, as the block containing the previous variant is used as the starting point of the next search.
+ * <p>
+ * Chains with a contig not found in the source or target assembly are ignored. Instances of this class are thread-safe.
+ */
+public final class LiftOver {
+
+    private static final int CURSOR_SCAN_LENGTH = 16;
+
+    private final GenomicAssembly sourceAssembly;
+    private final GenomicAssembly targetAssembly;
+    private final double minMatch;
+    private final Map<Contig, ContigBlocks> blocksByContig;
+
+    private LiftOver(Builder builder, Map<Contig, ContigBlocks> blocksByContig) {
+        this.sourceAssembly = builder.sourceAssembly;
+        this.targetAssembly = builder.targetAssembly;
+        this.minMatch = builder.minMatch;
+        this.blocksByContig = blocksByContig;
+    }
+
+    /**
+     * Reads the chain file, which may be gzipped, using the default settings.
+     *
+     * @throws UncheckedIOException     if the chain file cannot be read
+     * @throws IllegalArgumentException if the chain file is malformed or the size of a contig does not match the assembly
+     */
+    public static LiftOver of(Path chainFile, GenomicAssembly sourceAssembly, GenomicAssembly targetAssembly) {
+        return builder(chainFile, sourceAssembly, targetAssembly).build();
+    }
+
+    public static Builder builder(Path chainFile, GenomicAssembly sourceAssembly, GenomicAssembly targetAssembly) {
+        return new Builder(chainFile, sourceAssembly, targetAssembly);
+    }
+
+    public GenomicAssembly sourceAssembly() {
+        return sourceAssembly;
+    }
+
+    public GenomicAssembly targetAssembly() {
+        return targetAssembly;
+    }
+
+    public double minMatch() {
+        return minMatch;
+    }
+
+    /**
+     * Lifts the region to the target assembly, keeping its strand and {@link CoordinateSystem}.
+     */
+    public LiftOverResult<GenomicRegion> liftOver(GenomicRegion region) {
+        return liftOver(region, new Cursor());
+    }
+
+    /**
+     * Lifts the variant to the target assembly, keeping its strand, {@link CoordinateSystem}, id and alleles, which are
+     * reverse-complemented if the variant is lifted to the opposite strand.
+     */
+    public LiftOverResult<GenomicVariant> liftOver(GenomicVariant variant) {
+        return liftOver(variant, new Cursor());
+    }
+
+    /**
+     * Lifts the variants, which should be sorted by contig and position, in order.
+     */
+    public List<LiftOverResult<GenomicVariant>> liftOverAll(List<? extends GenomicVariant> variants) {
+        Cursor cursor = new Cursor();
+        List<LiftOverResult<GenomicVariant>> results = new ArrayList<>(variants.size());
+        for (GenomicVariant variant : variants) {
+            results.add(liftOver(variant, cursor));
+        }
+        return results;
+    }
+
+    /**
+     * Lazily lifts the variants, which should be sorted by contig and position, returning a sequential stream of
+     * results in the same order.
+     */
+    public Stream<LiftOverResult<GenomicVariant>> liftOverAll(Stream<? extends GenomicVariant> variants) {
+        Cursor cursor = new Cursor();
+        return variants.sequential().map(variant -> liftOver(variant, cursor));
+    }
+
+    private LiftOverResult<GenomicRegion> liftOver(GenomicRegion region, Cursor cursor) {
+        GenomicRegion positive = region.withStrand(Strand.POSITIVE);
+        Mapping mapping = map(positive, false, cursor);
+        if (mapping == null) {
+            return LiftOverResult.failed(region, cursor.failure);
+        }
+        GenomicRegion lifted = GenomicRegion.of(mapping.contig(), mapping.strand(), mapping.coordinates(positive.coordinates()));
+        return LiftOverResult.lifted(region, lifted.withStrand(region.strand()));
+    }
+
+    private LiftOverResult<GenomicVariant> liftOver(GenomicVariant variant, Cursor cursor) {
+        if (variant.isBreakend()) {
+            return LiftOverResult.failed(variant, LiftOverFailure.UNSUPPORTED_VARIANT);
+        }
+        GenomicVariant positive = variant.withStrand(Strand.POSITIVE);
+        Mapping mapping = map(positive, !positive.isSymbolic(), cursor);
+        if (mapping == null) {
+            return LiftOverResult.failed(variant, cursor.failure);
+        }
+        GenomicVariant lifted = GenomicVariant.of(mapping.contig(), positive.id(), mapping.strand(), mapping.coordinates(positive.coordinates()),
+                positive.ref(), positive.alt(), positive.changeLength(), positive.mateId(), positive.eventId());
+        return LiftOverResult.lifted(variant, lifted.withStrand(variant.strand()));
+    }
+
+    /**
+     * Maps a region on the positive strand, returning null if it cannot be mapped with the reason being set as the
+     * {@link Cursor#failure}, which avoids allocating a result for the common case of a failure.
+     */
+    private Mapping map(GenomicRegion region, boolean singleBlock, Cursor cursor) {
+        ContigBlocks blocks = cursor.blocks(region.contig());
+        if (blocks == null) {
+            return cursor.fail(LiftOverFailure.UNKNOWN_CONTIG);
+        }
+        int start = region.startZeroBased();
+        int end = region.endZeroBased();
+        if (start == end) {
+            // an empty region lies between two bases, which must be in the same block
+            int block = start == 0 ? -1 : cursor.find(start - 1);
+            if (block < 0 || blocks.ends[block] == start) {
+                return cursor.fail(LiftOverFailure.UNMAPPED);
+            }
+            int targetStart = blocks.targetStart(block, start);
+            return new Mapping(blocks.chains[block], targetStart, targetStart);
+        }
+        int first = cursor.find(start);
+        int last = first < 0 ? -1 : cursor.find(end - 1);
+        if (first < 0 || last < 0) {
+            return cursor.fail(LiftOverFailure.UNMAPPED);
+        }
+        Chain chain = blocks.chains[first];
+        if (chain != blocks.chains[last]) {
+            return cursor.fail(LiftOverFailure.SPLIT);
+        }
+        if (first != last) {
+            if (singleBlock) {
+                return cursor.fail(LiftOverFailure.SPANS_GAP);
+            }
+            long aligned = 0;
+            for (int i = first; i <= last; i++) {
+                if (blocks.chains[i] == chain) {
+                    aligned += Math.min(end, blocks.ends[i]) - Math.max(start, blocks.starts[i]);
+                }
+            }
+            if (aligned < minMatch * (end - start)) {
+                return cursor.fail(LiftOverFailure.PARTIALLY_MAPPED);
+            }
+        }
+        return new Mapping(chain, blocks.targetStart(first, start), blocks.targetStart(last, end - 1) + 1);
+    }
+
+    /**
+     * Zero-based coordinates on the strand of the target contig aligned by a chain.
+     */
+    private record Mapping(Chain chain, int start, int end) {
+
+        Contig contig() {
+            return chain.target();
+        }
+
+        Strand strand() {
+            return chain.targetStrand();
+        }
+
+        Coordinates coordinates(Coordinates source) {
+            return Coordinates.of(CoordinateSystem.ZERO_BASED, start, source.startConfidenceInterval(), end, source.endConfidenceInterval())
+                    .withCoordinateSystem(source.coordinateSystem());
+        }
+    }
+
+    private record Chain(long id, long score, Contig target, Strand targetStrand) {
+    }
+
+    /**
+     * The non-overlapping aligned blocks of a source contig sorted by start, with zero-based coordinates.
+     */
+    private record ContigBlocks(int[] starts, int[] ends, int[] targetStarts, Chain[] chains) {
+
+        int targetStart(int block, int position) {
+            return targetStarts[block] + position - starts[block];
+        }
+
+        /**
+         * Returns the index of the block containing the position, or -1, searching from the given index.
+         */
+        int find(int position, int fromIndex) {
+            int low = fromIndex;
+            int high = starts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= position) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            // high is the last block starting at or before the position
+            return high >= 0 && ends[high] > position ? high : -1;
+        }
+    }
+
+    /**
+     * Remembers the block found by the previous search, so that the blocks of sorted input are found with a short
+     * forward scan rather than a binary search, along with the reason the previous region could not be mapped.
+     * Not thread-safe.
+     */
+    private final class Cursor {
+
+        private Contig contig;
+        private ContigBlocks blocks;
+        private int index;
+        private LiftOverFailure failure;
+
+        private Mapping fail(LiftOverFailure failure) {
+            this.failure = failure;
+            return null;
+        }
+
+        private ContigBlocks blocks(Contig contig) {
+            if (contig != this.contig) {
+                this.contig = contig;
+                this.blocks = blocksByContig.get(contig);
+                this.index = 0;
+            }
+            return blocks;
+        }
+
+        private int find(int position) {
+            int[] starts = blocks.starts;
+            int i = index;
+            if (i < starts.length && starts[i] <= position) {
+                int limit = Math.min(starts.length, i + CURSOR_SCAN_LENGTH);
+                while (i < limit && blocks.ends[i] <= position) {
+                    i++;
+                }
+                if (i < limit) {
+                    index = i;
+                    return starts[i] <= position ? i : -1;
+                }
+                i = blocks.find(position, i);
+            } else {
+                i = blocks.find(position, 0);
+            }
+            if (i >= 0) {
+                index = i;
+            }
+            return i;
+        }
+    }
+
+    public static class Builder {
+
+        private final Path chainFile;
+        private final GenomicAssembly sourceAssembly;
+        private final GenomicAssembly targetAssembly;
+        private double minMatch = 0.95;
+
+        private Builder(Path chainFile, GenomicAssembly sourceAssembly, GenomicAssembly targetAssembly) {
+            this.chainFile = Objects.requireNonNull(chainFile);
+            this.sourceAssembly = Objects.requireNonNull(sourceAssembly);
+            this.targetAssembly = Objects.requireNonNull(targetAssembly);
+        }
+
+        /**
+         * The minimum fraction of the bases of a region which must be aligned for it to be lifted, 0.95 by default as
+         * for the UCSC liftOver tool.
+         */
+        public Builder minMatch(double minMatch) {
+            if (minMatch < 0 || minMatch > 1) {
+                throw new IllegalArgumentException("minMatch must be between 0 and 1");
+            }
+            this.minMatch = minMatch;
+            return this;
+        }
+
+        /**
+         * @throws UncheckedIOException     if the chain file cannot be read
+         * @throws IllegalArgumentException if the chain file is malformed or the size of a contig does not match the
+         * assembly
+         */
+        public LiftOver build() {
+            try (BufferedReader reader = openChainFile(chainFile)) {
+                return new LiftOver(this, ChainParser.parse(reader, sourceAssembly, targetAssembly));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static BufferedReader openChainFile(Path chainFile) throws IOException {
+            InputStream inputStream = Files.newInputStream(chainFile);
+            if (chainFile.getFileName().toString().endsWith(".gz")) {
+                inputStream = new GZIPInputStream(inputStream);
+            }
+            return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Reads the chains and builds the non-overlapping blocks of each source contig, assigning the bases aligned by more
+     * than one chain to the chain with the highest score.
+     */
+    private static final class ChainParser {
+
+        private record ParsedChain(Chain chain, Contig source, int[] blocks) {
+        }
+
+        private static Map<Contig, ContigBlocks> parse(BufferedReader reader, GenomicAssembly sourceAssembly, GenomicAssembly targetAssembly) throws IOException {
+            List<ParsedChain> chains = new ArrayList<>();
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (!line.startsWith("chain")) {
+                    throw new IllegalArgumentException("Expected chain header at line " + lineNumber + " but found '" + line + "'");
+                }
+                String[] header = line.trim().split("\\s+");
+                if (header.length < 12) {
+                    throw new IllegalArgumentException("Malformed chain header at line " + lineNumber + ": '" + line + "'");
+                }
+                long score = (long) Double.parseDouble(header[1]);
+                Contig source = resolveContig(sourceAssembly, header[2], Integer.parseInt(header[3]), header[4]);
+                int sourcePosition = Integer.parseInt(header[5]);
+                Contig target = resolveContig(targetAssembly, header[7], Integer.parseInt(header[8]), "+");
+                Strand targetStrand = Strand.parseStrand(header[9]);
+                int targetPosition = Integer.parseInt(header[10]);
+                long id = header.length > 12 ? Long.parseLong(header[12]) : chains.size();
+
+                // triples of source start, source end and target start
+                int[] blocks = new int[48];
+                int size = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        break;
+                    }
+                    int[] fields = parseBlockLine(line, lineNumber);
+                    if (size + 3 > blocks.length) {
+                        blocks = Arrays.copyOf(blocks, 2 * blocks.length);
+                    }
+                    blocks[size++] = sourcePosition;
+                    blocks[size++] = sourcePosition + fields[0];
+                    blocks[size++] = targetPosition;
+                    sourcePosition += fields[0] + fields[1];
+                    targetPosition += fields[0] + fields[2];
+                }
+                if (source != null && target != null) {
+                    chains.add(new ParsedChain(new Chain(id, score, target, targetStrand), source, Arrays.copyOf(blocks, size)));
+                }
+            }
+            return index(chains);
+        }
+
+        private static Contig resolveContig(GenomicAssembly assembly, String name, int size, String strand) {
+            if (!"+".equals(strand)) {
+                throw new IllegalArgumentException("Chain reference sequence " + name + " must be on the + strand");
+            }
+            Contig contig = assembly.contigByName(name);
+            if (contig.isUnknown()) {
+                return null;
+            }
+            if (contig.length() != size) {
+                throw new IllegalArgumentException("Chain sequence '" + name + "' has size " + size + " but contig " + contig.name() + " in " + assembly.name() + " has length " + contig.length());
+            }
+            return contig;
+        }
+
+        /**
+         * Parses the block size and the gaps in the source and target following it, which are absent for the last
+         * block of a chain.
+         */
+        private static int[] parseBlockLine(String line, int lineNumber) {
+            int[] fields = new int[3];
+            int field = 0;
+            int i = 0;
+            int length = line.length();
+            while (i < length) {
+                while (i < length && Character.isWhitespace(line.charAt(i))) {
+                    i++;
+                }
+                int start = i;
+                while (i < length && !Character.isWhitespace(line.charAt(i))) {
+                    i++;
+                }
+                if (start == i) {
+                    break;
+                }
+                if (field == fields.length) {
+                    throw new IllegalArgumentException("Malformed chain block at line " + lineNumber + ": '" + line + "'");
+                }
+                try {
+                    fields[field++] = Integer.parseInt(line, start, i, 10);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed chain block at line " + lineNumber + ": '" + line + "'", e);
+                }
+            }
+            if (field != 1 && field != 3) {
+                throw new IllegalArgumentException("Malformed chain block at line " + lineNumber + ": '" + line + "'");
+            }
+            return fields;
+        }
+
+        private static Map<Contig, ContigBlocks> index(List<ParsedChain> chains) {
+            chains.sort(Comparator.comparingLong((ParsedChain chain) -> chain.chain().score()).reversed()
+                    .thenComparingLong(chain -> chain.chain().id()));
+            // the source intervals already assigned to a chain, keyed by start
+            Map<Contig, TreeMap<Integer, Integer>> covered = new HashMap<>();
+            Map<Contig, List<int[]>> pieces = new HashMap<>();
+            Map<Contig, List<Chain>> pieceChains = new HashMap<>();
+            for (ParsedChain parsed : chains) {
+                TreeMap<Integer, Integer> contigCovered = covered.computeIfAbsent(parsed.source(), k -> new TreeMap<>());
+                List<int[]> contigPieces = pieces.computeIfAbsent(parsed.source(), k -> new ArrayList<>());
+                List<Chain> contigChains = pieceChains.computeIfAbsent(parsed.source(), k -> new ArrayList<>());
+                int[] blocks = parsed.blocks();
+                List<int[]> added = new ArrayList<>();
+                for (int b = 0; b < blocks.length; b += 3) {
+                    subtractCovered(contigCovered, blocks[b], blocks[b + 1], blocks[b + 2], added);
+                }
+                for (int[] piece : added) {
+                    contigCovered.put(piece[0], piece[1]);
+                    contigPieces.add(piece);
+                    contigChains.add(parsed.chain());
+                }
+            }
+
+            Map<Contig, ContigBlocks> blocksByContig = new HashMap<>();
+            for (Map.Entry<Contig, List<int[]>> entry : pieces.entrySet()) {
+                List<int[]> contigPieces = entry.getValue();
+                List<Chain> contigChains = pieceChains.get(entry.getKey());
+                Integer[] order = new Integer[contigPieces.size()];
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, Comparator.comparingInt(i -> contigPieces.get(i)[0]));
+                int[] starts = new int[order.length];
+                int[] ends = new int[order.length];
+                int[] targetStarts = new int[order.length];
+                Chain[] blockChains = new Chain[order.length];
+                for (int i = 0; i < order.length; i++) {
+                    int[] piece = contigPieces.get(order[i]);
+                    starts[i] = piece[0];
+                    ends[i] = piece[1];
+                    targetStarts[i] = piece[2];
+                    blockChains[i] = contigChains.get(order[i]);
+                }
+                blocksByContig.put(entry.getKey(), new ContigBlocks(starts, ends, targetStarts, blockChains));
+            }
+            return Map.copyOf(blocksByContig);
+        }
+
+        /**
+         * Adds the parts of the block [start, end) which are not already covered to the pieces.
+         */
+        private static void subtractCovered(TreeMap<Integer, Integer> covered, int start, int end, int targetStart, List<int[]> pieces) {
+            int position = start;
+            Map.Entry<Integer, Integer> floor = covered.floorEntry(position);
+            if (floor != null && floor.getValue() > position) {
+                position = floor.getValue();
+            }
+            while (position < end) {
+                Map.Entry<Integer, Integer> next = covered.ceilingEntry(position);
+                int pieceEnd = next == null ? end : Math.min(end, next.getKey());
+                if (pieceEnd > position) {
+                    pieces.add(new int[]{position, pieceEnd, targetStart + position - start});
+                }
+                if (next == null || next.getKey() >= end) {
+                    break;
+                }
+                position = next.getValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.monarchinitiative.svart.liftover;
+
+/**
+ * The reasons a {@link org.monarchinitiative.svart.GenomicRegion} could not be lifted over.
+ */
+public enum LiftOverFailure {
+
+    /**
+     * The contig has no chains to the target assembly.
+     */
+    UNKNOWN_CONTIG,
+
+    /**
+     * The start or end of the region is not in an aligned block.
+     */
+    UNMAPPED,
+
+    /**
+     * The start and end of the region are aligned by different chains.
+     */
+    SPLIT,
+
+    /**
+     * The REF allele of a sequence variant spans a gap in the alignment, so cannot be lifted without changing the
+     * alleles.
+     */
+    SPANS_GAP,
+
+    /**
+     * Fewer than the minimum fraction of the bases of the region are aligned by the chain.
+     */
+    PARTIALLY_MAPPED,
+
+    /**
+     * The variant type, i.e. breakends, cannot be lifted over.
+     */
+    UNSUPPORTED_VARIANT
+}
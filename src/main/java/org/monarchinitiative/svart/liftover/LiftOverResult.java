@@ -0,0 +1,35 @@
+package org.monarchinitiative.svart.liftover;
+
+import org.monarchinitiative.svart.GenomicRegion;
+
+import java.util.Objects;
+
+/**
+ * The result of lifting over a {@link GenomicRegion}, which is either the lifted region or the reason it could not be
+ * lifted.
+ *
+ * @param source  the input region
+ * @param lifted  the region on the target assembly, or null if the liftover failed
+ * @param failure the reason for the failure, or null if the region was lifted
+ */
+public record LiftOverResult<T extends GenomicRegion>(T source, T lifted, LiftOverFailure failure) {
+
+    public LiftOverResult {
+        Objects.requireNonNull(source);
+        if ((lifted == null) == (failure == null)) {
+            throw new IllegalArgumentException("Exactly one of lifted or failure must be set");
+        }
+    }
+
+    public static <T extends GenomicRegion> LiftOverResult<T> lifted(T source, T lifted) {
+        return new LiftOverResult<>(source, Objects.requireNonNull(lifted), null);
+    }
+
+    public static <T extends GenomicRegion> LiftOverResult<T> failed(T source, LiftOverFailure failure) {
+        return new LiftOverResult<>(source, null, Objects.requireNonNull(failure));
+    }
+
+    public boolean isLifted() {
+        return lifted != null;
+    }
+}
@@ -0,0 +1,275 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.variant.internal.TwoBitBaseCodec;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Extracts the reference sequence context around variants, along with the same context with the variant applied,
+ * i.e. the alt haplotype. The ref context of a variant is the reference sequence from {@link #flankLength()} bases
+ * before the start of the variant to {@link #flankLength()} bases after the end, and the alt context is the same
+ * flanking sequence with the ALT allele in place of the REF allele. Both are returned on the {@link Strand} of the
+ * variant and are clipped at the ends of the contig. For example, with a flank length of 2:
+ * <pre>
+ * reference: ACGTACGT
+ * variant:   4 T&gt;G
+ * ref:       CGTAC
+ * alt:       CGGAC
+ * </pre>
+ * The batch {@link #extract(Iterable, BasesConsumer)} and {@link #extractPacked(Iterable, PackedBasesConsumer)} methods
+ * should be used for variants sorted by contig and position, as the reference is read in large chunks which are
+ * streamed through once per contig. The contexts are written to buffers which are re-used for each variant, so no
+ * objects are allocated per variant other than by the consumer. Symbolic variants are skipped, as their alt context is
+ * undefined.
+ * <p>
+ * Instances of this class are thread-safe, with each extraction using its own buffers.
+ */
+public final class FlankingSequenceExtractor {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Receives the ref and alt context of a variant as ASCII bases. The arrays are re-used for the following variants,
+     * so must be copied if required after the method returns.
+     */
+    @FunctionalInterface
+    public interface BasesConsumer<T extends GenomicVariant> {
+
+        void accept(T variant, byte[] ref, int refLength, byte[] alt, int altLength);
+    }
+
+    /**
+     * Receives the ref and alt context of a variant packed using the {@link TwoBitBaseCodec}, in the format of
+     * {@link ReferenceSequence#packedBases(Contig, int, int)}, with the lengths being the number of bases. The arrays are
+     * re-used for the following variants, so must be copied if required after the method returns.
+     */
+    @FunctionalInterface
+    public interface PackedBasesConsumer<T extends GenomicVariant> {
+
+        void accept(T variant, long[] ref, int refLength, long[] alt, int altLength);
+    }
+
+    private final ReferenceSequence referenceSequence;
+    private final int flankLength;
+
+    private FlankingSequenceExtractor(ReferenceSequence referenceSequence, int flankLength) {
+        this.referenceSequence = Objects.requireNonNull(referenceSequence);
+        if (flankLength < 0) {
+            throw new IllegalArgumentException("flankLength must not be negative");
+        }
+        this.flankLength = flankLength;
+    }
+
+    public static FlankingSequenceExtractor of(ReferenceSequence referenceSequence, int flankLength) {
+        return new FlankingSequenceExtractor(referenceSequence, flankLength);
+    }
+
+    public ReferenceSequence referenceSequence() {
+        return referenceSequence;
+    }
+
+    public int flankLength() {
+        return flankLength;
+    }
+
+    /**
+     * Returns the ref context of a single variant.
+     *
+     * @throws IllegalArgumentException if the variant is symbolic or the sequence of the variant contig is not in the
+     * {@link ReferenceSequence}
+     */
+    public byte[] refContext(GenomicVariant variant) {
+        Extraction extraction = extractSingle(variant);
+        return Arrays.copyOf(extraction.ref, extraction.refLength);
+    }
+
+    /**
+     * Returns the alt context of a single variant.
+     *
+     * @throws IllegalArgumentException if the variant is symbolic or the sequence of the variant contig is not in the
+     * {@link ReferenceSequence}
+     */
+    public byte[] altContext(GenomicVariant variant) {
+        Extraction extraction = extractSingle(variant);
+        return Arrays.copyOf(extraction.alt, extraction.altLength);
+    }
+
+    private Extraction extractSingle(GenomicVariant variant) {
+        Extraction extraction = new Extraction(0);
+        if (!extraction.extract(variant)) {
+            throw new IllegalArgumentException("Cannot extract the context of symbolic variant " + variant);
+        }
+        return extraction;
+    }
+
+    /**
+     * Passes the ref and alt context of each non-symbolic variant to the consumer, in order.
+     *
+     * @return the number of variants passed to the consumer
+     * @throws IllegalArgumentException if the sequence of a variant contig is not in the {@link ReferenceSequence}
+     */
+    public <T extends GenomicVariant> long extract(Iterable<T> variants, BasesConsumer<? super T> consumer) {
+        return extract(variants.iterator(), consumer);
+    }
+
+    /**
+     * Consumes the stream sequentially, as for {@link #extract(Iterable, BasesConsumer)}.
+     */
+    public <T extends GenomicVariant> long extract(Stream<T> variants, BasesConsumer<? super T> consumer) {
+        return extract(variants.sequential().iterator(), consumer);
+    }
+
+    private <T extends GenomicVariant> long extract(Iterator<T> variants, BasesConsumer<? super T> consumer) {
+        Extraction extraction = new Extraction(CHUNK_SIZE);
+        long count = 0;
+        while (variants.hasNext()) {
+            T variant = variants.next();
+            if (extraction.extract(variant)) {
+                consumer.accept(variant, extraction.ref, extraction.refLength, extraction.alt, extraction.altLength);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Passes the packed ref and alt context of each non-symbolic variant to the consumer, in order. Variants with a
+     * context containing bases other than A, C, G or T, e.g. in a gap of the reference, cannot be packed and are
+     * skipped.
+     *
+     * @return the number of variants passed to the consumer
+     * @throws IllegalArgumentException if the sequence of a variant contig is not in the {@link ReferenceSequence}
+     */
+    public <T extends GenomicVariant> long extractPacked(Iterable<T> variants, PackedBasesConsumer<? super T> consumer) {
+        return extractPacked(variants.iterator(), consumer);
+    }
+
+    /**
+     * Consumes the stream sequentially, as for {@link #extractPacked(Iterable, PackedBasesConsumer)}.
+     */
+    public <T extends GenomicVariant> long extractPacked(Stream<T> variants, PackedBasesConsumer<? super T> consumer) {
+        return extractPacked(variants.sequential().iterator(), consumer);
+    }
+
+    private <T extends GenomicVariant> long extractPacked(Iterator<T> variants, PackedBasesConsumer<? super T> consumer) {
+        Extraction extraction = new Extraction(CHUNK_SIZE);
+        long[] packedRef = new long[0];
+        long[] packedAlt = new long[0];
+        long count = 0;
+        while (variants.hasNext()) {
+            T variant = variants.next();
+            if (extraction.extract(variant)
+                && TwoBitBaseCodec.isJustACGT(extraction.ref, 0, extraction.refLength)
+                && TwoBitBaseCodec.isJustACGT(extraction.alt, 0, extraction.altLength)) {
+                packedRef = pack(extraction.ref, extraction.refLength, packedRef);
+                packedAlt = pack(extraction.alt, extraction.altLength, packedAlt);
+                consumer.accept(variant, packedRef, extraction.refLength, packedAlt, extraction.altLength);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long[] pack(byte[] bases, int length, long[] packed) {
+        int words = (length + 31) / 32;
+        long[] result = packed.length < words ? new long[Math.max(words, 2 * packed.length)] : packed;
+        for (int i = 0; i < words; i++) {
+            int offset = i * 32;
+            result[i] = TwoBitBaseCodec.encodeBases(bases, offset, Math.min(32, length - offset));
+        }
+        return result;
+    }
+
+    /**
+     * Holds the buffers and cached chunk of reference sequence of an extraction. Not thread-safe.
+     */
+    private final class Extraction {
+
+        private final byte[] chunk;
+        private Contig chunkContig;
+        private int chunkStart;
+        private int chunkEnd;
+
+        private byte[] ref = new byte[64];
+        private int refLength;
+        private byte[] alt = new byte[64];
+        private int altLength;
+
+        private Extraction(int chunkSize) {
+            this.chunk = new byte[chunkSize];
+        }
+
+        /**
+         * Writes the ref and alt context of the variant to the buffers, returning false for symbolic variants.
+         */
+        private boolean extract(GenomicVariant variant) {
+            if (variant.isSymbolic()) {
+                return false;
+            }
+            Contig contig = variant.contig();
+            int start = variant.startZeroBased(Strand.POSITIVE);
+            int end = variant.endZeroBased(Strand.POSITIVE);
+            int contextStart = Math.max(0, start - flankLength);
+            int contextEnd = Math.min(contig.length(), end + flankLength);
+
+            refLength = contextEnd - contextStart;
+            ref = ensureCapacity(ref, refLength);
+            read(contig, contextStart, contextEnd, ref);
+
+            String variantAlt = variant.alt();
+            int upstreamLength = start - contextStart;
+            int downstreamLength = contextEnd - end;
+            altLength = upstreamLength + variantAlt.length() + downstreamLength;
+            alt = ensureCapacity(alt, altLength);
+            System.arraycopy(ref, 0, alt, 0, upstreamLength);
+            boolean positive = variant.strand() == Strand.POSITIVE;
+            // write the ALT allele on the positive strand, upper-cased to match the reference bases
+            for (int i = 0, length = variantAlt.length(); i < length; i++) {
+                char base = positive ? variantAlt.charAt(i) : NucleotideSeq.reverseComplement(variantAlt.charAt(length - 1 - i));
+                alt[upstreamLength + i] = MappedReferenceSequence.upperCase((byte) base);
+            }
+            System.arraycopy(ref, refLength - downstreamLength, alt, upstreamLength + variantAlt.length(), downstreamLength);
+
+            if (!positive) {
+                reverseComplement(ref, refLength);
+                reverseComplement(alt, altLength);
+            }
+            return true;
+        }
+
+        private void read(Contig contig, int start, int end, byte[] dst) {
+            int length = end - start;
+            if (length > chunk.length) {
+                referenceSequence.bases(contig, start, end, dst, 0);
+                return;
+            }
+            if (contig != chunkContig || start < chunkStart || end > chunkEnd) {
+                // sorted input only moves forward through the contig
+                chunkContig = null;
+                chunkStart = start;
+                chunkEnd = Math.min(contig.length(), start + chunk.length);
+                referenceSequence.bases(contig, chunkStart, chunkEnd, chunk, 0);
+                chunkContig = contig;
+            }
+            System.arraycopy(chunk, start - chunkStart, dst, 0, length);
+        }
+
+        private static byte[] ensureCapacity(byte[] buffer, int length) {
+            return buffer.length < length ? new byte[Math.max(length, 2 * buffer.length)] : buffer;
+        }
+
+        private static void reverseComplement(byte[] bases, int length) {
+            for (int i = 0, j = length - 1; i <= j; i++, j--) {
+                byte base = bases[i];
+                bases[i] = (byte) NucleotideSeq.reverseComplement((char) bases[j]);
+                bases[j] = (byte) NucleotideSeq.reverseComplement((char) base);
+            }
+        }
+    }
+}
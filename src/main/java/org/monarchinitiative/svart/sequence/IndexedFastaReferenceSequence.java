@@ -0,0 +1,114 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ReferenceSequence} backed by an uncompressed FASTA file indexed using samtools faidx. The lines of each sequence
+ * are memory-mapped, with the offset of a base being calculated from the line length and width found in the index.
+ */
+final class IndexedFastaReferenceSequence extends MappedReferenceSequence<IndexedFastaReferenceSequence.FastaSequence> {
+
+    /**
+     * A sequence from the .fai index, mapped from the offset of the first base.
+     *
+     * @param lineBases the number of bases on each line
+     * @param lineWidth the number of bytes in each line, including the line terminator
+     */
+    record FastaSequence(Contig contig, int length, int lineBases, int lineWidth, ByteBuffer buffer) implements MappedSequence {
+
+        int offset(int position) {
+            return (position / lineBases) * lineWidth + position % lineBases;
+        }
+    }
+
+    private IndexedFastaReferenceSequence(FileChannel channel, GenomicAssembly genomicAssembly, List<FastaSequence> sequences) {
+        super(channel, genomicAssembly, sequences);
+    }
+
+    static IndexedFastaReferenceSequence open(Path fastaPath, Path faiPath, GenomicAssembly genomicAssembly) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(fastaPath, StandardOpenOption.READ);
+            List<FastaSequence> sequences = readIndex(channel, faiPath, genomicAssembly);
+            return new IndexedFastaReferenceSequence(channel, genomicAssembly, sequences);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    private static List<FastaSequence> readIndex(FileChannel channel, Path faiPath, GenomicAssembly genomicAssembly) throws IOException {
+        List<FastaSequence> sequences = new ArrayList<>();
+        long fileSize = channel.size();
+        try (BufferedReader reader = Files.newBufferedReader(faiPath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                // NAME LENGTH OFFSET LINEBASES LINEWIDTH [QUALOFFSET]
+                String[] fields = line.split("\t");
+                if (fields.length < 5) {
+                    throw new IllegalArgumentException("Invalid FASTA index line '" + line + "'");
+                }
+                long length = Long.parseLong(fields[1]);
+                Contig contig = resolveContig(genomicAssembly, fields[0], length);
+                if (contig == null) {
+                    continue;
+                }
+                long offset = Long.parseLong(fields[2]);
+                int lineBases = Integer.parseInt(fields[3]);
+                int lineWidth = Integer.parseInt(fields[4]);
+                if (lineBases <= 0 || lineWidth < lineBases) {
+                    throw new IllegalArgumentException("Invalid FASTA index line '" + line + "'");
+                }
+                int intLength = (int) length;
+                long mappedLength = intLength == 0 ? 0 : (long) ((intLength - 1) / lineBases) * lineWidth + (intLength - 1) % lineBases + 1;
+                if (mappedLength > Integer.MAX_VALUE || offset + mappedLength > fileSize) {
+                    throw new IllegalArgumentException("Sequence '" + fields[0] + "' extends beyond the end of the FASTA file");
+                }
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, mappedLength);
+                sequences.add(new FastaSequence(contig, intLength, lineBases, lineWidth, buffer));
+            }
+        }
+        return sequences;
+    }
+
+    @Override
+    byte base(FastaSequence sequence, int position) {
+        return upperCase(sequence.buffer().get(sequence.offset(position)));
+    }
+
+    @Override
+    void bases(FastaSequence sequence, int start, int end, byte[] dst, int dstOffset) {
+        ByteBuffer buffer = sequence.buffer();
+        int lineBases = sequence.lineBases();
+        int position = start;
+        int dstPosition = dstOffset;
+        // copy the remainder of each line, skipping the line terminators
+        while (position < end) {
+            int count = Math.min(end - position, lineBases - position % lineBases);
+            buffer.get(sequence.offset(position), dst, dstPosition, count);
+            position += count;
+            dstPosition += count;
+        }
+        for (int i = dstOffset; i < dstPosition; i++) {
+            dst[i] = upperCase(dst[i]);
+        }
+    }
+}
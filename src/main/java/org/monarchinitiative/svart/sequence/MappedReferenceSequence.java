@@ -0,0 +1,137 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.CoordinatesOutOfBoundsException;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Base class for the memory-mapped {@link ReferenceSequence} implementations, which holds the mapped sequences indexed
+ * by {@link Contig#id()}. As all reads from the mapped buffers use absolute positions, the buffers are never modified
+ * after the instance is created and can be safely shared between threads.
+ */
+abstract class MappedReferenceSequence<T extends MappedReferenceSequence.MappedSequence> implements ReferenceSequence {
+
+    /**
+     * The region of the file holding the sequence of a contig.
+     */
+    interface MappedSequence {
+
+        Contig contig();
+
+        int length();
+    }
+
+    private final FileChannel channel;
+    private final GenomicAssembly genomicAssembly;
+    private final Object[] sequences;
+
+    MappedReferenceSequence(FileChannel channel, GenomicAssembly genomicAssembly, Collection<T> sequences) {
+        this.channel = channel;
+        this.genomicAssembly = genomicAssembly;
+        int maxContigId = genomicAssembly.contigs().stream().mapToInt(Contig::id).max().orElse(0);
+        this.sequences = new Object[maxContigId + 1];
+        for (T sequence : sequences) {
+            this.sequences[sequence.contig().id()] = sequence;
+        }
+    }
+
+    /**
+     * Resolves the contig name found in the file using the assembly, checking the length of the sequence is that of the
+     * contig. Returns null for names not found in the assembly.
+     */
+    static Contig resolveContig(GenomicAssembly genomicAssembly, String name, long length) {
+        Contig contig = genomicAssembly.contigByName(name);
+        if (contig.isUnknown()) {
+            return null;
+        }
+        if (contig.length() != length) {
+            throw new IllegalArgumentException("Sequence '" + name + "' has length " + length + " but contig " + contig.name() + " in " + genomicAssembly.name() + " has length " + contig.length());
+        }
+        return contig;
+    }
+
+    static ByteBuffer read(FileChannel channel, long position, int length, ByteOrder byteOrder) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(byteOrder);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalArgumentException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    static byte upperCase(byte base) {
+        return base >= 'a' && base <= 'z' ? (byte) (base - ('a' - 'A')) : base;
+    }
+
+    /**
+     * Returns the mapped sequence of the contig, checking that the zero-based start and exclusive end are within it.
+     */
+    @SuppressWarnings("unchecked")
+    T sequence(Contig contig, int start, int end) {
+        int id = contig.id();
+        T sequence = id >= 0 && id < sequences.length ? (T) sequences[id] : null;
+        if (sequence == null || sequence.contig() != contig && !sequence.contig().equals(contig)) {
+            throw new IllegalArgumentException("No sequence for contig " + contig.name() + " in " + genomicAssembly.name());
+        }
+        if (start < 0 || end < start || end > sequence.length()) {
+            throw new CoordinatesOutOfBoundsException("Coordinates " + start + "-" + end + " out of bounds for contig " + contig.name() + " of length " + sequence.length());
+        }
+        return sequence;
+    }
+
+    @Override
+    public GenomicAssembly genomicAssembly() {
+        return genomicAssembly;
+    }
+
+    @Override
+    public boolean containsContig(Contig contig) {
+        int id = contig.id();
+        return id >= 0 && id < sequences.length && sequences[id] != null && ((MappedSequence) sequences[id]).contig().equals(contig);
+    }
+
+    @Override
+    public byte base(Contig contig, int position) {
+        return base(sequence(contig, position, position + 1), position);
+    }
+
+    abstract byte base(T sequence, int position);
+
+    @Override
+    public void bases(Contig contig, int start, int end, byte[] dst, int dstOffset) {
+        T sequence = sequence(contig, start, end);
+        int length = end - start;
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+        bases(sequence, start, end, dst, dstOffset);
+    }
+
+    abstract void bases(T sequence, int start, int end, byte[] dst, int dstOffset);
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
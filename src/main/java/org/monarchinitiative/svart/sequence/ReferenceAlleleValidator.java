@@ -0,0 +1,314 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Validates the {@link GenomicVariant#ref()} of variants against a {@link ReferenceSequence}, for example in order to
+ * detect VCF files called against a different assembly to the one declared, or the results of a failed liftover.
+ * <p>
+ * The {@link #validate(Stream)} method checks a stream of variants sorted by contig and position, splitting it into
+ * chunks of consecutive variants on the same contig which are checked in parallel using the {@link Executor} of the
+ * validator. As the variants of a chunk are sorted, the reference pages are accessed sequentially. The number of
+ * variants checked and mismatched are counted for each contig, with the validation stopping early once any contig has a
+ * mismatch rate greater than the {@link Builder#maxMismatchRate(double)} after at least
+ * {@link Builder#minVariants(int)} variants of the contig have been checked. With the default settings an assembly
+ * mismatch is therefore reported after the first few thousand variants rather than the whole file.
+ * <pre>
+ * ReferenceAlleleValidator validator = ReferenceAlleleValidator.of(referenceSequence);
+ * ReferenceAlleleValidator.Report report = validator.validate(variants);
+ * if (report.stoppedEarly()) {
+ *     // report.contigMismatches() holds the per-contig mismatch rates
+ * }
+ * </pre>
+ * The REF allele is compared case-insensitively, with an 'N' in either the REF allele or the reference matching any
+ * base. Only the padding base of symbolic variants is checked and breakend variants are not checked. Variants extending
+ * beyond the end of the contig are counted as mismatches, whereas variants on contigs not found in the
+ * {@link ReferenceSequence} are only counted in the {@link Report#missingContig()} total.
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public final class ReferenceAlleleValidator {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final ReferenceSequence referenceSequence;
+    private final int minVariants;
+    private final double maxMismatchRate;
+    private final Executor executor;
+    private final int maxChunksInFlight;
+
+    private ReferenceAlleleValidator(Builder builder) {
+        this.referenceSequence = Objects.requireNonNull(builder.referenceSequence);
+        this.minVariants = builder.minVariants;
+        this.maxMismatchRate = builder.maxMismatchRate;
+        this.executor = builder.executor;
+        this.maxChunksInFlight = builder.maxChunksInFlight;
+    }
+
+    /**
+     * Returns a validator with the default settings, which uses the {@link ForkJoinPool#commonPool()}.
+     */
+    public static ReferenceAlleleValidator of(ReferenceSequence referenceSequence) {
+        return builder(referenceSequence).build();
+    }
+
+    public static Builder builder(ReferenceSequence referenceSequence) {
+        return new Builder(referenceSequence);
+    }
+
+    public ReferenceSequence referenceSequence() {
+        return referenceSequence;
+    }
+
+    /**
+     * Returns true if the REF allele of the variant matches the reference sequence, or the variant cannot be checked.
+     *
+     * @throws IllegalArgumentException if the sequence of the variant contig is not in the {@link ReferenceSequence}
+     */
+    public boolean matches(GenomicVariant variant) {
+        if (variant.isBreakend()) {
+            return true;
+        }
+        String ref = variant.ref();
+        boolean symbolic = variant.isSymbolic();
+        int length = symbolic ? Math.min(1, ref.length()) : ref.length();
+        if (length == 0) {
+            return true;
+        }
+        Contig contig = variant.contig();
+        boolean positive = variant.strand() == Strand.POSITIVE;
+        // the first base of the ref allele on the positive strand, with the padding base of symbolic variants always
+        // being at the start
+        int start = positive || symbolic ? variant.startZeroBased(Strand.POSITIVE) : variant.endZeroBased(Strand.POSITIVE) - length;
+        if (start < 0 || start + length > contig.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char refBase = positive ? ref.charAt(i) : NucleotideSeq.reverseComplement(ref.charAt(length - 1 - i));
+            if (!basesMatch(refBase, referenceSequence.base(contig, start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean basesMatch(char refBase, byte referenceBase) {
+        char upperCase = Character.toUpperCase(refBase);
+        return upperCase == referenceBase || upperCase == 'N' || referenceBase == 'N';
+    }
+
+    /**
+     * Checks the REF allele of the variants, which should be sorted by contig and position, until the stream is
+     * exhausted or a contig has a mismatch rate greater than the maximum. The stream is consumed sequentially, with
+     * the checking of the variants being performed in parallel.
+     *
+     * @return the number of variants checked and mismatched for each contig.
+     */
+    public Report validate(Stream<? extends GenomicVariant> variants) {
+        Map<Contig, ContigCounts> counts = new ConcurrentHashMap<>();
+        AtomicLong missingContig = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        Semaphore chunksInFlight = new Semaphore(maxChunksInFlight);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        Iterator<? extends GenomicVariant> iterator = variants.sequential().iterator();
+        List<GenomicVariant> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (!stop.get() && iterator.hasNext()) {
+            GenomicVariant variant = iterator.next();
+            if (!chunk.isEmpty() && (chunk.size() == CHUNK_SIZE || !sameContig(chunk.get(0), variant))) {
+                tasks.add(submit(chunk, counts, missingContig, stop, chunksInFlight));
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+            chunk.add(variant);
+        }
+        if (!chunk.isEmpty() && !stop.get()) {
+            tasks.add(submit(chunk, counts, missingContig, stop, chunksInFlight));
+        }
+        try {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        List<ContigMismatches> contigMismatches = counts.values().stream()
+                .map(ContigCounts::toContigMismatches)
+                .sorted(Comparator.comparingInt(contigMismatch -> contigMismatch.contig().id()))
+                .toList();
+        return new Report(contigMismatches, missingContig.get(), stop.get());
+    }
+
+    private static boolean sameContig(GenomicVariant x, GenomicVariant y) {
+        return x.contig() == y.contig() || x.contig().equals(y.contig());
+    }
+
+    private CompletableFuture<Void> submit(List<GenomicVariant> chunk, Map<Contig, ContigCounts> counts, AtomicLong missingContig, AtomicBoolean stop, Semaphore chunksInFlight) {
+        chunksInFlight.acquireUninterruptibly();
+        try {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    check(chunk, counts, missingContig, stop);
+                } finally {
+                    chunksInFlight.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            chunksInFlight.release();
+            throw e;
+        }
+    }
+
+    private void check(List<GenomicVariant> chunk, Map<Contig, ContigCounts> counts, AtomicLong missingContig, AtomicBoolean stop) {
+        if (stop.get()) {
+            return;
+        }
+        // all the variants of a chunk are on the same contig
+        Contig contig = chunk.get(0).contig();
+        if (!referenceSequence.containsContig(contig)) {
+            missingContig.addAndGet(chunk.size());
+            return;
+        }
+        long checked = 0;
+        long mismatches = 0;
+        for (GenomicVariant variant : chunk) {
+            if (variant.isBreakend()) {
+                continue;
+            }
+            checked++;
+            if (!matches(variant)) {
+                mismatches++;
+            }
+        }
+        ContigCounts contigCounts = counts.computeIfAbsent(contig, ContigCounts::new);
+        contigCounts.add(checked, mismatches);
+        if (contigCounts.exceeds(minVariants, maxMismatchRate)) {
+            stop.set(true);
+        }
+    }
+
+    private static class ContigCounts {
+
+        private final Contig contig;
+        private long checked;
+        private long mismatches;
+
+        private ContigCounts(Contig contig) {
+            this.contig = contig;
+        }
+
+        private synchronized void add(long checked, long mismatches) {
+            this.checked += checked;
+            this.mismatches += mismatches;
+        }
+
+        private synchronized boolean exceeds(int minVariants, double maxMismatchRate) {
+            return checked >= minVariants && (double) mismatches / checked > maxMismatchRate;
+        }
+
+        private synchronized ContigMismatches toContigMismatches() {
+            return new ContigMismatches(contig, checked, mismatches);
+        }
+    }
+
+    /**
+     * The number of variants checked and those with a REF allele not matching the reference for a contig.
+     */
+    public record ContigMismatches(Contig contig, long checked, long mismatches) {
+
+        public double mismatchRate() {
+            return checked == 0 ? 0 : (double) mismatches / checked;
+        }
+    }
+
+    /**
+     * The results of a validation.
+     *
+     * @param contigMismatches the counts for each contig checked, sorted by contig id
+     * @param missingContig    the number of variants on contigs not found in the reference sequence
+     * @param stoppedEarly     true if the validation stopped before the end of the input, due to a contig exceeding
+     *                         the maximum mismatch rate
+     */
+    public record Report(List<ContigMismatches> contigMismatches, long missingContig, boolean stoppedEarly) {
+
+        public long checked() {
+            return contigMismatches.stream().mapToLong(ContigMismatches::checked).sum();
+        }
+
+        public long mismatches() {
+            return contigMismatches.stream().mapToLong(ContigMismatches::mismatches).sum();
+        }
+
+        public double mismatchRate() {
+            long checked = checked();
+            return checked == 0 ? 0 : (double) mismatches() / checked;
+        }
+    }
+
+    public static class Builder {
+
+        private final ReferenceSequence referenceSequence;
+        private int minVariants = 1000;
+        private double maxMismatchRate = 0.05;
+        private Executor executor = ForkJoinPool.commonPool();
+        private int maxChunksInFlight = 2 * Runtime.getRuntime().availableProcessors();
+
+        private Builder(ReferenceSequence referenceSequence) {
+            this.referenceSequence = Objects.requireNonNull(referenceSequence);
+        }
+
+        /**
+         * The minimum number of variants of a contig to check before stopping due to its mismatch rate, 1000 by default.
+         */
+        public Builder minVariants(int minVariants) {
+            if (minVariants < 1) {
+                throw new IllegalArgumentException("minVariants must be greater than 0");
+            }
+            this.minVariants = minVariants;
+            return this;
+        }
+
+        /**
+         * The mismatch rate of a contig above which the validation stops, 0.05 by default. A value of 1.0 disables
+         * stopping early.
+         */
+        public Builder maxMismatchRate(double maxMismatchRate) {
+            if (maxMismatchRate < 0 || maxMismatchRate > 1) {
+                throw new IllegalArgumentException("maxMismatchRate must be between 0 and 1");
+            }
+            this.maxMismatchRate = maxMismatchRate;
+            return this;
+        }
+
+        /**
+         * The executor used to check the chunks of variants, the {@link ForkJoinPool#commonPool()} by default. Use
+         * {@code Runnable::run} to check the variants in the calling thread.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * The maximum number of chunks of variants read from the input waiting to be checked, which bounds the memory
+         * used. Twice the number of available processors by default.
+         */
+        public Builder maxChunksInFlight(int maxChunksInFlight) {
+            if (maxChunksInFlight < 1) {
+                throw new IllegalArgumentException("maxChunksInFlight must be greater than 0");
+            }
+            this.maxChunksInFlight = maxChunksInFlight;
+            return this;
+        }
+
+        public ReferenceAlleleValidator build() {
+            return new ReferenceAlleleValidator(this);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.CoordinatesOutOfBoundsException;
+import org.monarchinitiative.svart.GenomicRegion;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.variant.internal.TwoBitBaseCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Random access to the reference sequence of the {@link Contig} of a {@link GenomicAssembly}. Sequences are identified
+ * in the underlying file by any of the names known to the {@link GenomicAssembly} (e.g. '1', 'chr1' or 'NC_000001.11'),
+ * with any sequences not found in the assembly being ignored.
+ * <p>
+ * Bases are returned as upper-case ASCII, i.e. any soft-masking is not retained, with gaps in UCSC .2bit files being
+ * returned as 'N'. All positions are zero-based, on the {@link Strand#POSITIVE} strand, with the end being exclusive.
+ * The {@link #bases(GenomicRegion)} and {@link #sequence(GenomicRegion)} methods return the sequence on the strand of
+ * the region, reverse-complementing it if required.
+ * <pre>
+ * try (ReferenceSequence referenceSequence = ReferenceSequence.open(Path.of("hg38.2bit"), GenomicAssemblies.GRCh38p13())) {
+ *     String sequence = referenceSequence.sequence(variant);
+ * }
+ * </pre>
+ * The implementations provided memory-map the file so that bases are read directly from the page cache without any
+ * intermediate copies, and are thread-safe, with any number of threads able to read from the same instance.
+ */
+public interface ReferenceSequence extends AutoCloseable {
+
+    /**
+     * Opens a UCSC .2bit file if the file name ends with '.2bit', or an indexed FASTA file otherwise.
+     *
+     * @see #twoBit(Path, GenomicAssembly)
+     * @see #indexedFasta(Path, GenomicAssembly)
+     */
+    static ReferenceSequence open(Path path, GenomicAssembly genomicAssembly) {
+        return path.getFileName().toString().endsWith(".2bit") ? twoBit(path, genomicAssembly) : indexedFasta(path, genomicAssembly);
+    }
+
+    /**
+     * Opens a UCSC .2bit file, as described at https://genome.ucsc.edu/FAQ/FAQformat.html#format7.
+     *
+     * @throws java.io.UncheckedIOException if the file could not be read
+     * @throws IllegalArgumentException if the file is not a .2bit file or the length of a sequence differs from that of
+     * the contig in the assembly
+     */
+    static ReferenceSequence twoBit(Path twoBitPath, GenomicAssembly genomicAssembly) {
+        return TwoBitReferenceSequence.open(twoBitPath, genomicAssembly);
+    }
+
+    /**
+     * Opens an uncompressed FASTA file using the samtools faidx index found alongside it, i.e. 'genome.fa.fai' for
+     * 'genome.fa'.
+     *
+     * @see #indexedFasta(Path, Path, GenomicAssembly)
+     */
+    static ReferenceSequence indexedFasta(Path fastaPath, GenomicAssembly genomicAssembly) {
+        return indexedFasta(fastaPath, fastaPath.resolveSibling(fastaPath.getFileName() + ".fai"), genomicAssembly);
+    }
+
+    /**
+     * Opens an uncompressed FASTA file using the samtools faidx index. Bgzip-compressed FASTA files are not supported.
+     *
+     * @throws java.io.UncheckedIOException if the files could not be read
+     * @throws IllegalArgumentException if the index is invalid or the length of a sequence differs from that of the
+     * contig in the assembly
+     */
+    static ReferenceSequence indexedFasta(Path fastaPath, Path faiPath, GenomicAssembly genomicAssembly) {
+        return IndexedFastaReferenceSequence.open(fastaPath, faiPath, genomicAssembly);
+    }
+
+    GenomicAssembly genomicAssembly();
+
+    /**
+     * @return true if the sequence of the contig is available.
+     */
+    boolean containsContig(Contig contig);
+
+    /**
+     * Returns the base at the zero-based position.
+     *
+     * @throws IllegalArgumentException if the sequence of the contig is not available
+     * @throws CoordinatesOutOfBoundsException if the position is outside the contig
+     */
+    byte base(Contig contig, int position);
+
+    /**
+     * Copies the bases from the zero-based start to the exclusive end into the array from the offset.
+     *
+     * @throws IllegalArgumentException if the sequence of the contig is not available
+     * @throws CoordinatesOutOfBoundsException if the start or end are outside the contig, or the end is before the start
+     * @throws IndexOutOfBoundsException if the bases do not fit in the array
+     */
+    void bases(Contig contig, int start, int end, byte[] dst, int dstOffset);
+
+    /**
+     * Returns the bases from the zero-based start to the exclusive end.
+     *
+     * @see #bases(Contig, int, int, byte[], int)
+     */
+    default byte[] bases(Contig contig, int start, int end) {
+        if (end < start) {
+            throw new CoordinatesOutOfBoundsException("End " + end + " is before start " + start);
+        }
+        byte[] bases = new byte[end - start];
+        bases(contig, start, end, bases, 0);
+        return bases;
+    }
+
+    /**
+     * Returns the bases of the region on the strand of the region.
+     */
+    default byte[] bases(GenomicRegion region) {
+        byte[] bases = bases(region.contig(), region.startZeroBased(Strand.POSITIVE), region.endZeroBased(Strand.POSITIVE));
+        return region.strand() == Strand.NEGATIVE ? NucleotideSeq.reverseComplement(bases) : bases;
+    }
+
+    /**
+     * Returns the sequence of the region on the strand of the region.
+     */
+    default String sequence(GenomicRegion region) {
+        return new String(bases(region), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the bases from the zero-based start to the exclusive end packed using the {@link TwoBitBaseCodec}, 32 bases
+     * to each long. Each long holds the bases exactly as {@link TwoBitBaseCodec#encodeAllele(String)} would for the
+     * corresponding 32 bases, with the final long holding any remaining bases. Sequences of up to 32 bases are therefore
+     * returned as a single long with the same value as the {@link TwoBitBaseCodec} encoded allele.
+     *
+     * @throws IllegalArgumentException if the sequence contains bases other than A, C, G or T
+     * @see #bases(Contig, int, int, byte[], int)
+     */
+    default long[] packedBases(Contig contig, int start, int end) {
+        byte[] bases = bases(contig, start, end);
+        if (!TwoBitBaseCodec.isJustACGT(bases, 0, bases.length)) {
+            throw new IllegalArgumentException("Sequence " + contig.name() + ":" + start + "-" + end + " contains bases other than A, C, G or T");
+        }
+        long[] packed = new long[(bases.length + 31) / 32];
+        for (int i = 0; i < packed.length; i++) {
+            int offset = i * 32;
+            packed[i] = TwoBitBaseCodec.encodeBases(bases, offset, Math.min(32, bases.length - offset));
+        }
+        return packed;
+    }
+
+    /**
+     * Closes the underlying file. Note that any memory-mapped regions are only released once garbage collected.
+     *
+     * @throws java.io.UncheckedIOException if the file could not be closed
+     */
+    @Override
+    void close();
+}
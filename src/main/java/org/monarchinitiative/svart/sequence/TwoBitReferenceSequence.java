@@ -0,0 +1,171 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link ReferenceSequence} backed by a UCSC .2bit file. The packed DNA of each sequence is memory-mapped, with the
+ * blocks of N bases being read when the file is opened. Both version 0 (32-bit offsets) and version 1 (64-bit offsets)
+ * files are supported, in either byte order. The soft-masked blocks are ignored.
+ */
+final class TwoBitReferenceSequence extends MappedReferenceSequence<TwoBitReferenceSequence.TwoBitSequence> {
+
+    private static final int SIGNATURE = 0x1A412743;
+    private static final int HEADER_BYTES = 16;
+    // T=00, C=01, A=10, G=11 with the first base in the most significant bits of each byte
+    private static final byte[] TWO_BIT_BASES = {'T', 'C', 'A', 'G'};
+    // the four bases held in each packed byte
+    private static final byte[] PACKED_BYTE_BASES = new byte[256 * 4];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            for (int j = 0; j < 4; j++) {
+                PACKED_BYTE_BASES[i * 4 + j] = TWO_BIT_BASES[(i >>> (6 - 2 * j)) & 0b11];
+            }
+        }
+    }
+
+    /**
+     * A sequence with its packed DNA mapped and the sorted, non-overlapping blocks of N bases.
+     */
+    record TwoBitSequence(Contig contig, int length, int[] nBlockStarts, int[] nBlockEnds, ByteBuffer buffer) implements MappedSequence {
+
+        /**
+         * Returns the index of the first N block ending after the position.
+         */
+        int firstNBlockEndingAfter(int position) {
+            int index = Arrays.binarySearch(nBlockEnds, position);
+            return index < 0 ? -index - 1 : index + 1;
+        }
+    }
+
+    private TwoBitReferenceSequence(FileChannel channel, GenomicAssembly genomicAssembly, List<TwoBitSequence> sequences) {
+        super(channel, genomicAssembly, sequences);
+    }
+
+    static TwoBitReferenceSequence open(Path twoBitPath, GenomicAssembly genomicAssembly) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(twoBitPath, StandardOpenOption.READ);
+            List<TwoBitSequence> sequences = readSequences(channel, genomicAssembly);
+            return new TwoBitReferenceSequence(channel, genomicAssembly, sequences);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    private static List<TwoBitSequence> readSequences(FileChannel channel, GenomicAssembly genomicAssembly) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_BYTES) {
+            throw new IllegalArgumentException("Not a .2bit file - file too short");
+        }
+        ByteBuffer header = read(channel, 0, HEADER_BYTES, ByteOrder.LITTLE_ENDIAN);
+        ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
+        if (header.getInt(0) != SIGNATURE) {
+            byteOrder = ByteOrder.BIG_ENDIAN;
+            header.order(byteOrder);
+            if (header.getInt(0) != SIGNATURE) {
+                throw new IllegalArgumentException("Not a .2bit file - invalid signature");
+            }
+        }
+        int version = header.getInt(4);
+        if (version != 0 && version != 1) {
+            throw new IllegalArgumentException("Unsupported .2bit version " + version);
+        }
+        int sequenceCount = header.getInt(8);
+        int offsetBytes = version == 0 ? Integer.BYTES : Long.BYTES;
+        // each index entry is a name size byte, the name of up to 255 bytes and the offset
+        long maxIndexBytes = (long) sequenceCount * (1 + 255 + offsetBytes);
+        ByteBuffer index = read(channel, HEADER_BYTES, (int) Math.min(maxIndexBytes, fileSize - HEADER_BYTES), byteOrder);
+        List<TwoBitSequence> sequences = new ArrayList<>();
+        byte[] nameBytes = new byte[255];
+        for (int i = 0; i < sequenceCount; i++) {
+            int nameSize = Byte.toUnsignedInt(index.get());
+            index.get(nameBytes, 0, nameSize);
+            String name = new String(nameBytes, 0, nameSize, StandardCharsets.US_ASCII);
+            long offset = version == 0 ? Integer.toUnsignedLong(index.getInt()) : index.getLong();
+            TwoBitSequence sequence = readSequence(channel, genomicAssembly, name, offset, byteOrder);
+            if (sequence != null) {
+                sequences.add(sequence);
+            }
+        }
+        return sequences;
+    }
+
+    private static TwoBitSequence readSequence(FileChannel channel, GenomicAssembly genomicAssembly, String name, long offset, ByteOrder byteOrder) throws IOException {
+        ByteBuffer counts = read(channel, offset, 2 * Integer.BYTES, byteOrder);
+        long length = Integer.toUnsignedLong(counts.getInt());
+        Contig contig = resolveContig(genomicAssembly, name, length);
+        if (contig == null) {
+            return null;
+        }
+        int nBlockCount = counts.getInt();
+        long position = offset + 2 * Integer.BYTES;
+        // the N blocks followed by the mask block count
+        ByteBuffer nBlocks = read(channel, position, nBlockCount * 2 * Integer.BYTES + Integer.BYTES, byteOrder);
+        int[] nBlockStarts = new int[nBlockCount];
+        int[] nBlockEnds = new int[nBlockCount];
+        for (int i = 0; i < nBlockCount; i++) {
+            nBlockStarts[i] = nBlocks.getInt();
+        }
+        for (int i = 0; i < nBlockCount; i++) {
+            nBlockEnds[i] = nBlockStarts[i] + nBlocks.getInt();
+        }
+        int maskBlockCount = nBlocks.getInt();
+        position += nBlocks.capacity() + (long) maskBlockCount * 2 * Integer.BYTES + Integer.BYTES;
+        long packedLength = (length + 3) / 4;
+        if (position + packedLength > channel.size()) {
+            throw new IllegalArgumentException("Sequence '" + name + "' extends beyond the end of the .2bit file");
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, packedLength);
+        return new TwoBitSequence(contig, (int) length, nBlockStarts, nBlockEnds, buffer);
+    }
+
+    @Override
+    byte base(TwoBitSequence sequence, int position) {
+        int nBlock = sequence.firstNBlockEndingAfter(position);
+        if (nBlock < sequence.nBlockStarts().length && sequence.nBlockStarts()[nBlock] <= position) {
+            return 'N';
+        }
+        int packed = Byte.toUnsignedInt(sequence.buffer().get(position >>> 2));
+        return PACKED_BYTE_BASES[packed * 4 + (position & 0b11)];
+    }
+
+    @Override
+    void bases(TwoBitSequence sequence, int start, int end, byte[] dst, int dstOffset) {
+        ByteBuffer buffer = sequence.buffer();
+        int dstPosition = dstOffset;
+        int position = start;
+        while (position < end) {
+            int packed = Byte.toUnsignedInt(buffer.get(position >>> 2));
+            // the remaining bases in the packed byte
+            int count = Math.min(end - position, 4 - (position & 0b11));
+            System.arraycopy(PACKED_BYTE_BASES, packed * 4 + (position & 0b11), dst, dstPosition, count);
+            position += count;
+            dstPosition += count;
+        }
+        int[] nBlockStarts = sequence.nBlockStarts();
+        int[] nBlockEnds = sequence.nBlockEnds();
+        for (int i = sequence.firstNBlockEndingAfter(start); i < nBlockStarts.length && nBlockStarts[i] < end; i++) {
+            int from = Math.max(start, nBlockStarts[i]);
+            int to = Math.min(end, nBlockEnds[i]);
+            Arrays.fill(dst, dstOffset + from - start, dstOffset + to - start, (byte) 'N');
+        }
+    }
+}
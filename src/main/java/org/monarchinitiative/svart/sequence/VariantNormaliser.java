@@ -0,0 +1,289 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.sequence.VariantTrimmer.BaseRetentionStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Normalises sequence variants against a {@link ReferenceSequence}, as described by the
+ * <a href="https://genome.sph.umich.edu/wiki/Variant_Normalization">VT Normalise</a> algorithm and implemented by
+ * vt normalize and bcftools norm. Unlike the {@link VariantTrimmer}, which can only trim the bases common to the REF
+ * and ALT alleles, the normaliser will also slide insertions and deletions to the left through any repeated sequence so
+ * that all representations of the same change are normalised to the same variant.
+ * <p>
+ * Normalised variants are parsimonious and left-aligned, with the {@link BaseRetentionStrategy} determining how the
+ * alleles of insertions and deletions are represented once normalised. The {@link VariantTrimmer#retainingCommonBase()}
+ * strategy produces VCF style alleles padded with the preceding reference base (or the following base for changes at
+ * the start of the contig) and the {@link VariantTrimmer#removingCommonBase()} strategy produces empty alleles as used
+ * by SPDI or the VOCA.
+ * <pre>
+ * VariantNormaliser normaliser = VariantNormaliser.of(referenceSequence, VariantTrimmer.retainingCommonBase());
+ * // chr1:5 ACA&gt;A in the sequence TCACACAG is normalised to chr1:1 TCA&gt;T
+ * GenomicVariant normalised = normaliser.normalise(variant);
+ * </pre>
+ * Alternatively, variants can be shifted to the 3' end of their strand for HGVS using
+ * {@link #threePrimeShifting(ReferenceSequence, BaseRetentionStrategy)}.
+ * <p>
+ * Variants are normalised on the {@link Strand#POSITIVE} strand and returned on the strand and in the
+ * {@link CoordinateSystem} of the input variant, along with its id. Variants which are already normalised, are symbolic
+ * or have identical REF and ALT alleles are returned unchanged. Note that no check is made that the REF allele matches
+ * the reference sequence.
+ * <p>
+ * When normalising many variants the {@link #normaliseAll(List)} and {@link #normaliseAll(Stream)} methods should be
+ * used, as these read the reference sequence in chunks which, for input sorted by position, are re-used by successive
+ * variants. Repeats are scanned by comparing the reference bytes directly to the alleles, with new alleles only being
+ * created once the variant has been shifted. Instances of this class are thread-safe.
+ */
+public final class VariantNormaliser {
+
+    // large enough to hold the repeats that the majority of indels are shifted through
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final ReferenceSequence referenceSequence;
+    private final BaseRetentionStrategy baseRetentionStrategy;
+    private final boolean retainingCommonBase;
+    private final boolean threePrimeShifting;
+
+    private VariantNormaliser(ReferenceSequence referenceSequence, BaseRetentionStrategy baseRetentionStrategy, boolean threePrimeShifting) {
+        this.referenceSequence = Objects.requireNonNull(referenceSequence);
+        this.threePrimeShifting = threePrimeShifting;
+        this.baseRetentionStrategy = Objects.requireNonNull(baseRetentionStrategy);
+        if (baseRetentionStrategy != VariantTrimmer.retainingCommonBase() && baseRetentionStrategy != VariantTrimmer.removingCommonBase()) {
+            throw new IllegalArgumentException("Unsupported base retention strategy " + baseRetentionStrategy);
+        }
+        this.retainingCommonBase = baseRetentionStrategy == VariantTrimmer.retainingCommonBase();
+    }
+
+    /**
+     * Returns a normaliser which left-aligns variants on the {@link Strand#POSITIVE} strand, as required for VCF.
+     *
+     * @param baseRetentionStrategy either {@link VariantTrimmer#retainingCommonBase()} or
+     *                              {@link VariantTrimmer#removingCommonBase()}
+     * @throws IllegalArgumentException for any other {@link BaseRetentionStrategy}
+     */
+    public static VariantNormaliser of(ReferenceSequence referenceSequence, BaseRetentionStrategy baseRetentionStrategy) {
+        return new VariantNormaliser(referenceSequence, baseRetentionStrategy, false);
+    }
+
+    /**
+     * Returns a normaliser which shifts variants to the most 3' position on the strand of the variant, as required by
+     * the HGVS <a href="https://varnomen.hgvs.org/recommendations/general/">3' rule</a>. This should generally be used
+     * along with {@link VariantTrimmer#removingCommonBase()}.
+     * <p>
+     * Unlike the {@link VariantTrimmer#rightShiftingTrimmer(BaseRetentionStrategy)}, the shift is relative to the
+     * {@link Strand} of the variant, so a variant on the {@link Strand#NEGATIVE} strand, e.g. for reporting relative to
+     * a transcript on the negative strand, is shifted towards the start of the contig.
+     *
+     * @param baseRetentionStrategy either {@link VariantTrimmer#retainingCommonBase()} or
+     *                              {@link VariantTrimmer#removingCommonBase()}
+     * @throws IllegalArgumentException for any other {@link BaseRetentionStrategy}
+     */
+    public static VariantNormaliser threePrimeShifting(ReferenceSequence referenceSequence, BaseRetentionStrategy baseRetentionStrategy) {
+        return new VariantNormaliser(referenceSequence, baseRetentionStrategy, true);
+    }
+
+    public ReferenceSequence referenceSequence() {
+        return referenceSequence;
+    }
+
+    public BaseRetentionStrategy baseRetentionStrategy() {
+        return baseRetentionStrategy;
+    }
+
+    /**
+     * @return true if variants are shifted to the 3' end of their strand rather than left-aligned.
+     */
+    public boolean isThreePrimeShifting() {
+        return threePrimeShifting;
+    }
+
+    /**
+     * Returns the normalised variant, or the input variant if it is already normalised.
+     *
+     * @throws IllegalArgumentException if the sequence of the variant contig is not in the {@link ReferenceSequence}
+     */
+    public GenomicVariant normalise(GenomicVariant variant) {
+        return normalise(variant, referenceSequence::base);
+    }
+
+    /**
+     * Normalises the variants in order, returning a new list of the normalised variants. Normalised variants may have
+     * a different position to the input variants, so sorted input may not remain sorted.
+     *
+     * @see #normalise(GenomicVariant)
+     */
+    public List<GenomicVariant> normaliseAll(List<? extends GenomicVariant> variants) {
+        ReferenceWindow referenceWindow = new ReferenceWindow(referenceSequence);
+        List<GenomicVariant> normalised = new ArrayList<>(variants.size());
+        for (GenomicVariant variant : variants) {
+            normalised.add(normalise(variant, referenceWindow));
+        }
+        return normalised;
+    }
+
+    /**
+     * Lazily normalises the variants of the stream, which is always processed sequentially.
+     *
+     * @see #normaliseAll(List)
+     */
+    public Stream<GenomicVariant> normaliseAll(Stream<? extends GenomicVariant> variants) {
+        ReferenceWindow referenceWindow = new ReferenceWindow(referenceSequence);
+        return variants.sequential().map(variant -> normalise(variant, referenceWindow));
+    }
+
+    private GenomicVariant normalise(GenomicVariant variant, Bases bases) {
+        if (variant.isSymbolic()) {
+            return variant;
+        }
+        GenomicVariant positive = variant.withStrand(Strand.POSITIVE);
+        String ref = positive.ref();
+        String alt = positive.alt();
+        if (ref.equals(alt)) {
+            return variant;
+        }
+        // the 3' end of a variant on the negative strand is to the left on the positive strand
+        boolean shiftRight = threePrimeShifting && variant.strand() == Strand.POSITIVE;
+        Contig contig = positive.contig();
+        int start = positive.startZeroBased(Strand.POSITIVE);
+        // trim the common bases from the end opposite to the shift first, leaving the trimmed alleles from the offset
+        int refLength = ref.length();
+        int altLength = alt.length();
+        int offset = 0;
+        if (shiftRight) {
+            offset = commonPrefixLength(ref, alt, refLength, altLength);
+            refLength -= offset;
+            altLength -= offset;
+            int suffix = commonSuffixLength(ref, alt, offset, refLength, altLength);
+            refLength -= suffix;
+            altLength -= suffix;
+        } else {
+            int suffix = commonSuffixLength(ref, alt, 0, refLength, altLength);
+            refLength -= suffix;
+            altLength -= suffix;
+            offset = commonPrefixLength(ref, alt, refLength, altLength);
+            refLength -= offset;
+            altLength -= offset;
+        }
+        start += offset;
+        String trimmedRef = ref.substring(offset, offset + refLength);
+        String trimmedAlt = alt.substring(offset, offset + altLength);
+        if (refLength == 0 || altLength == 0) {
+            String indel = refLength == 0 ? trimmedAlt : trimmedRef;
+            int indelLength = indel.length();
+            int shift = shiftRight ? shiftRight(bases, contig, start + refLength, indel) : -shiftLeft(bases, contig, start, indel);
+            start += shift;
+            // sliding the bases one to the left rotates them one to the right and vice versa
+            int rotation = Math.floorMod(-shift, indelLength);
+            if (rotation != 0) {
+                String rotated = indel.substring(indelLength - rotation) + indel.substring(0, indelLength - rotation);
+                trimmedRef = refLength == 0 ? "" : rotated;
+                trimmedAlt = refLength == 0 ? rotated : "";
+            }
+            if (retainingCommonBase) {
+                if (start > 0) {
+                    char padding = (char) bases.base(contig, start - 1);
+                    trimmedRef = padding + trimmedRef;
+                    trimmedAlt = padding + trimmedAlt;
+                    start--;
+                } else {
+                    char padding = (char) bases.base(contig, trimmedRef.length());
+                    trimmedRef = trimmedRef + padding;
+                    trimmedAlt = trimmedAlt + padding;
+                }
+            }
+        }
+        int positiveStart = positive.startZeroBased(Strand.POSITIVE);
+        if (start == positiveStart && trimmedRef.equals(ref) && trimmedAlt.equals(alt)) {
+            return variant;
+        }
+        int outputStart = variant.coordinateSystem() == CoordinateSystem.ONE_BASED ? start + 1 : start;
+        GenomicVariant normalised = GenomicVariant.of(contig, variant.id(), Strand.POSITIVE, variant.coordinateSystem(), outputStart, trimmedRef, trimmedAlt);
+        return normalised.withStrand(variant.strand());
+    }
+
+    private static int commonPrefixLength(String ref, String alt, int refLength, int altLength) {
+        int length = 0;
+        while (length < refLength && length < altLength && ref.charAt(length) == alt.charAt(length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static int commonSuffixLength(String ref, String alt, int offset, int refLength, int altLength) {
+        int length = 0;
+        while (length < refLength && length < altLength && ref.charAt(offset + refLength - 1 - length) == alt.charAt(offset + altLength - 1 - length)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of positions the inserted or deleted bases starting at the zero-based start can slide left,
+     * i.e. while the preceding reference base matches the last base of the rotated bases.
+     */
+    private static int shiftLeft(Bases bases, Contig contig, int start, String indel) {
+        int indelLength = indel.length();
+        int shift = 0;
+        while (start - shift > 0 && bases.base(contig, start - shift - 1) == indel.charAt(Math.floorMod(indelLength - 1 - shift, indelLength))) {
+            shift++;
+        }
+        return shift;
+    }
+
+    /**
+     * Returns the number of positions the inserted or deleted bases ending at the zero-based exclusive end can slide
+     * right, i.e. while the following reference base matches the first base of the rotated bases.
+     */
+    private static int shiftRight(Bases bases, Contig contig, int end, String indel) {
+        int indelLength = indel.length();
+        int contigLength = contig.length();
+        int shift = 0;
+        while (end + shift < contigLength && bases.base(contig, end + shift) == indel.charAt(shift % indelLength)) {
+            shift++;
+        }
+        return shift;
+    }
+
+    @FunctionalInterface
+    private interface Bases {
+        byte base(Contig contig, int position);
+    }
+
+    /**
+     * Caches a chunk of the reference sequence around the last position read, so that variants sorted by position only
+     * read the reference once per chunk. Not thread-safe.
+     */
+    private static class ReferenceWindow implements Bases {
+
+        private final ReferenceSequence referenceSequence;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private Contig contig;
+        private int chunkStart;
+        private int chunkEnd;
+
+        private ReferenceWindow(ReferenceSequence referenceSequence) {
+            this.referenceSequence = referenceSequence;
+        }
+
+        @Override
+        public byte base(Contig contig, int position) {
+            if (contig != this.contig || position < chunkStart || position >= chunkEnd) {
+                if (position < 0 || position >= contig.length()) {
+                    // let the reference report the error
+                    return referenceSequence.base(contig, position);
+                }
+                // indels are shifted left, so leave some of the chunk before the position
+                this.contig = null;
+                chunkStart = Math.max(0, position - CHUNK_SIZE / 4);
+                chunkEnd = Math.min(contig.length(), chunkStart + CHUNK_SIZE);
+                referenceSequence.bases(contig, chunkStart, chunkEnd, chunk, 0);
+                this.contig = contig;
+            }
+            return chunk[position - chunkStart];
+        }
+    }
+}
@@ -24,7 +24,8 @@ import java.util.Objects;
  * <p>
  * Normalisation
  * <p>
- * Normalisation is related to trimming, but is currently not supported by this library.
+ * Normalisation is related to trimming, but requires the reference sequence in order to left-align variants in repeated
+ * regions. This is supported by the {@link VariantNormaliser}.
  * <p>
  * <a href="https://genome.sph.umich.edu/wiki/Variant_Normalization">VT Normalise</a> published as
  * <a href="https://doi.org/10.1093/bioinformatics/btv112">Unified representation of genetic variants</a> VCF-specific left-shifted algorithm
@@ -116,7 +117,9 @@ public abstract class VariantTrimmer {
 
     /**
      * Returns an instance of a {@link VariantTrimmer} which will "right-shift" any input variants. This should be used
-     * for variants to be reported in HGVS along with {@link #removingCommonBase()}.
+     * for variants to be reported in HGVS along with {@link #removingCommonBase()}. Note that this only trims the
+     * alleles, for shifting variants to the most 3' position of a repeat use
+     * {@link VariantNormaliser#threePrimeShifting(ReferenceSequence, BaseRetentionStrategy)}.
      *
      * @param baseRetentionStrategy Indicates how the trimmer will handle any common prefix or suffix between the REF and
      *                             ALT allele, once trimmed.
@@ -202,7 +205,8 @@ public abstract class VariantTrimmer {
             return new VariantPosition(start, ref, alt);
         }
 
-        // Can't do left alignment as have no reference seq and are assuming this has happened already.
+        // Can't do left alignment as have no reference seq and are assuming this has happened already - use the
+        // VariantNormaliser with a ReferenceSequence for this.
         // Therefore check the sequence is first right trimmed, then left trimmed as per the wiki link above.
 
         // trim right side
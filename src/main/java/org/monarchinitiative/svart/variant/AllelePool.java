@@ -0,0 +1,297 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.variant.internal.AlleleCache;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe pool for interning multi-base allele strings. Multi-sample or multi-file workflows will create
+ * many variants with identical alleles, each of which would otherwise hold its own copy of the String. Interning these
+ * ensures that only a single instance of each allele is retained while it is in the pool.
+ * <p>
+ * The pool is split into a number of segments, each backed by a {@link ConcurrentHashMap} so that finding a pooled
+ * allele takes no lock. Only adding an allele locks its segment, which once full evicts an entry using the CLOCK
+ * approximation of least-recently used: each hit marks its entry as referenced and eviction removes the first entry
+ * found unreferenced, clearing the marks it passes. Eviction only removes the pooled reference, so existing variants are
+ * unaffected. Alleles longer than the configured maximum length are returned as-is as these are unlikely to be shared.
+ * <p>
+ * The default pool, used by {@link AlleleCache#cacheAllele(String)}, can be configured using the system properties
+ * {@code svart.allelePool.maxSize} (default {@value #DEFAULT_MAX_SIZE}, 0 disables pooling) and
+ * {@code svart.allelePool.maxAlleleLength} (default {@value #DEFAULT_MAX_ALLELE_LENGTH}), or replaced at runtime using
+ * {@link #setDefaultPool(AllelePool)}.
+ */
+public final class AllelePool {
+
+    public static final int DEFAULT_MAX_SIZE = 100_000;
+    public static final int DEFAULT_MAX_ALLELE_LENGTH = 1_000;
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+    // estimated sizes, assuming compressed oops and compact (LATIN1) strings
+    private static final int STRING_SHALLOW_SIZE = 24;
+    private static final int ARRAY_HEADER_SIZE = 16;
+
+    private static volatile AllelePool defaultPool = new AllelePool(
+            Integer.getInteger("svart.allelePool.maxSize", DEFAULT_MAX_SIZE),
+            Integer.getInteger("svart.allelePool.maxAlleleLength", DEFAULT_MAX_ALLELE_LENGTH)
+    );
+
+    private final int maxSize;
+    private final int maxAlleleLength;
+    private final Segment[] segments;
+    private final int segmentMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    private AllelePool(int maxSize, int maxAlleleLength) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize must be >= 0, got " + maxSize);
+        }
+        if (maxAlleleLength < 0) {
+            throw new IllegalArgumentException("maxAlleleLength must be >= 0, got " + maxAlleleLength);
+        }
+        this.maxSize = maxSize;
+        this.maxAlleleLength = maxAlleleLength;
+        int segmentCount = segmentCount(maxSize);
+        this.segments = new Segment[segmentCount];
+        int segmentCapacity = segmentCount == 0 ? 0 : Math.max(1, maxSize / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    private static int segmentCount(int maxSize) {
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * MIN_SEGMENT_SIZE <= maxSize) {
+            segmentCount <<= 1;
+        }
+        return maxSize == 0 ? 0 : segmentCount;
+    }
+
+    /**
+     * Creates a new pool holding a maximum of maxSize alleles of up to maxAlleleLength bases.
+     *
+     * @param maxSize         the maximum number of alleles retained by the pool. A size of 0 disables the pool.
+     * @param maxAlleleLength the maximum length of an allele to be pooled.
+     * @return a new {@link AllelePool}
+     * @throws IllegalArgumentException if either of the values are negative.
+     */
+    public static AllelePool of(int maxSize, int maxAlleleLength) {
+        return new AllelePool(maxSize, maxAlleleLength);
+    }
+
+    /**
+     * @return a new {@link AllelePool} with a maximum size of 0, which will not retain any alleles.
+     */
+    public static AllelePool disabled() {
+        return new AllelePool(0, 0);
+    }
+
+    /**
+     * @return the {@link AllelePool} currently used for interning alleles of newly created variants.
+     */
+    public static AllelePool defaultPool() {
+        return defaultPool;
+    }
+
+    /**
+     * Replaces the default {@link AllelePool} used for interning alleles of newly created variants.
+     *
+     * @param allelePool the new default pool.
+     */
+    public static void setDefaultPool(AllelePool allelePool) {
+        if (allelePool == null) {
+            throw new IllegalArgumentException("allelePool cannot be null");
+        }
+        defaultPool = allelePool;
+    }
+
+    /**
+     * Returns the pooled instance of an allele, adding the allele to the pool if not already present. Alleles of a
+     * single base should be cached using the {@link AlleleCache} and alleles longer than the maximum allele length are
+     * returned unchanged.
+     *
+     * @param allele the allele to intern
+     * @return the pooled or original instance of the input allele
+     */
+    public String intern(String allele) {
+        int length = allele.length();
+        if (segmentMask < 0 || length > maxAlleleLength || length < 2) {
+            return allele;
+        }
+        int hash = allele.hashCode();
+        String pooled = segments[(hash ^ (hash >>> 16)) & segmentMask].intern(allele);
+        if (pooled == null) {
+            misses.increment();
+            return allele;
+        }
+        hits.increment();
+        if (pooled != allele) {
+            bytesSaved.add(estimateSize(length));
+        }
+        return pooled;
+    }
+
+    private static long estimateSize(int length) {
+        // String instance plus its byte[] padded to an 8 byte boundary
+        return STRING_SHALLOW_SIZE + ((ARRAY_HEADER_SIZE + length + 7L) & ~7L);
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public int maxAlleleLength() {
+        return maxAlleleLength;
+    }
+
+    /**
+     * @return the current number of alleles held in the pool.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of requests for which a pooled allele was found.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of requests for which the allele was added to the pool.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the ratio of pooled requests to total requests, or 0 if there have been no requests.
+     */
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum();
+        return requestCount == 0 ? 0.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Returns an estimate of the number of heap bytes saved by returning a pooled instance in place of a duplicate
+     * String. This assumes the duplicates would otherwise have been retained.
+     *
+     * @return the estimated number of bytes saved.
+     */
+    public long bytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Removes all alleles from the pool and resets the metrics.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        hits.reset();
+        misses.reset();
+        bytesSaved.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "AllelePool{" +
+               "maxSize=" + maxSize +
+               ", maxAlleleLength=" + maxAlleleLength +
+               ", size=" + size() +
+               ", hitCount=" + hitCount() +
+               ", missCount=" + missCount() +
+               ", hitRate=" + hitRate() +
+               ", bytesSaved=" + bytesSaved() +
+               '}';
+    }
+
+    /**
+     * Map of pooled alleles with a CLOCK of its entries. Lookups are lock-free, while additions, evictions and clearing
+     * are synchronised on the segment.
+     */
+    private static final class Segment {
+
+        private final ConcurrentHashMap<String, Entry> entries;
+        private final Entry[] clock;
+        private int hand = 0;
+        private int count = 0;
+
+        private Segment(int capacity) {
+            this.entries = new ConcurrentHashMap<>(capacity);
+            this.clock = new Entry[capacity];
+        }
+
+        /**
+         * Returns the pooled instance of the allele, or null if the allele was added to the segment.
+         */
+        private String intern(String allele) {
+            Entry entry = entries.get(allele);
+            if (entry == null) {
+                synchronized (this) {
+                    entry = entries.get(allele);
+                    if (entry == null) {
+                        add(new Entry(allele));
+                        return null;
+                    }
+                }
+            }
+            // avoid writing to an entry which is already marked, as most hits will be for these
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            return entry.allele;
+        }
+
+        private void add(Entry entry) {
+            if (count < clock.length) {
+                clock[count++] = entry;
+            } else {
+                Entry eldest = clock[hand];
+                while (eldest.referenced) {
+                    eldest.referenced = false;
+                    hand = (hand + 1) % clock.length;
+                    eldest = clock[hand];
+                }
+                entries.remove(eldest.allele);
+                clock[hand] = entry;
+                hand = (hand + 1) % clock.length;
+            }
+            entries.put(entry.allele, entry);
+        }
+
+        private int size() {
+            return entries.size();
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+            Arrays.fill(clock, null);
+            hand = 0;
+            count = 0;
+        }
+    }
+
+    private static final class Entry {
+
+        private final String allele;
+        private volatile boolean referenced = false;
+
+        private Entry(String allele) {
+            this.allele = allele;
+        }
+    }
+}
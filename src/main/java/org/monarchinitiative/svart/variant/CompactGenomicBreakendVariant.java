@@ -0,0 +1,313 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.*;
+
+import static org.monarchinitiative.svart.variant.internal.TwoBitBaseCodec.*;
+
+/**
+ * A {@link GenomicBreakendVariant} implementation which stores the positions, strands and coordinate system of both
+ * breakends in two longs along with references to the (shared) {@link Contig} instances and identifiers. The ref and
+ * inserted alt sequence are stored using the same 2-bit encoding scheme as the {@link CompactSequenceVariant}.
+ * <p>
+ * A {@link DefaultGenomicBreakendVariant} requires another two {@link DefaultGenomicBreakend} and their
+ * {@link Coordinates} along with the ref and alt Strings, totalling about 160 bytes on the heap per instance excluding
+ * the identifiers. This class requires 48 bytes. The limitations are that this class can only represent precise
+ * breakends with a maximum total length of 26 bases for the sum of the ref and inserted alt alleles, with a ref of at
+ * most 15 bases, which only contain the bases A, C, G or T. This will cover the vast majority of breakends found in short-read SV callers.
+ * <p>
+ * Instances are created automatically by the {@link GenomicBreakendVariant#of} static factory method when the input
+ * can be represented by this class.
+ */
+public record CompactGenomicBreakendVariant(Contig contig, String id, Contig mateContig, String mateId, String eventId,
+                                            long positions, long bits) implements GenomicBreakendVariant, Comparable<GenomicVariant> {
+
+    public static final int MAX_BASES = 26;
+    // positions
+    // 64               32                0
+    // | left pos (0-based) | right pos (0-based) |
+    //
+    // bits
+    // 64       60       55         3             2              1                0
+    // | refLen | altLen | refBits | altBits | rightStrand | leftStrand | coordinateSystem
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+    private static final long REF_LENGTH_OFFSET = 60L;
+    private static final long ALT_LENGTH_OFFSET = 55L;
+    private static final long REF_LENGTH_MASK = 0b1111L;
+    private static final long ALT_LENGTH_MASK = 0b11111L;
+    private static final long RIGHT_STRAND_BIT = 1L << 2;
+    private static final long LEFT_STRAND_BIT = 1L << 1;
+    private static final long COORDINATE_SYSTEM_BIT = 1L;
+
+    public CompactGenomicBreakendVariant {
+        id = GenomicVariant.cacheId(id);
+        mateId = GenomicVariant.cacheId(mateId);
+        eventId = GenomicVariant.cacheId(eventId);
+    }
+
+    /**
+     * Creates a new {@link CompactGenomicBreakendVariant} from the input values. Use the
+     * {@link #canBeCompactBreakendVariant(GenomicBreakend, GenomicBreakend, String, String)} method to check the input
+     * can be represented by this class, or use the {@link GenomicBreakendVariant#of} method to automatically select the
+     * most suitable implementation.
+     *
+     * @param eventId The VCF event ID
+     * @param left    The left {@link GenomicBreakend}
+     * @param right   The right {@link GenomicBreakend}
+     * @param ref     The REF allele <b>AS IT WOULD BE REPRESENTED ON THE LEFT BREAKEND STRAND</b>
+     * @param alt     Any inserted bases <b>AS IT WOULD BE REPRESENTED ON THE RIGHT BREAKEND STRAND</b> if any, or empty.
+     * @throws IllegalArgumentException if the input values cannot be represented in compact form.
+     */
+    public static CompactGenomicBreakendVariant of(String eventId, GenomicBreakend left, GenomicBreakend right, String ref, String alt) {
+        if (!canBeCompactBreakendVariant(left, right, ref, alt)) {
+            throw new IllegalArgumentException("Unable to represent left=" + left + ", right=" + right + ", ref=" + ref + ", alt=" + alt + " as compact breakend variant. Breakends must be precise and length of (ref + alt) must be <= " + MAX_BASES + " bases with ref <= " + REF_LENGTH_MASK + " bases and only contain characters [A, C, G, T, a, c, g, t].");
+        }
+        Contig mateContig = right.isUnresolved() ? Contig.unknown() : right.contig();
+        long positions = ((long) left.startZeroBased() << Integer.SIZE) | (right.startZeroBased() & POSITION_MASK);
+        long bits = toBits(left.strand(), right.strand(), left.coordinateSystem(), ref, alt);
+        return new CompactGenomicBreakendVariant(left.contig(), left.id(), mateContig, right.id(), eventId, positions, bits);
+    }
+
+    /**
+     * Returns true if a breakend variant can be represented as a {@link CompactGenomicBreakendVariant}.
+     *
+     * @param left  The left {@link GenomicBreakend}
+     * @param right The right {@link GenomicBreakend}
+     * @param ref   The ref allele.
+     * @param alt   The inserted alt sequence.
+     * @return true if both breakends are precise and the ref and alt allele can be represented in compact form.
+     */
+    public static boolean canBeCompactBreakendVariant(GenomicBreakend left, GenomicBreakend right, String ref, String alt) {
+        return ref.length() <= REF_LENGTH_MASK && alt.length() <= ALT_LENGTH_MASK && ref.length() + alt.length() <= MAX_BASES
+               && isJustACGT(ref) && isJustACGT(alt)
+               // the left and right breakends are re-created on demand, so only the default implementations can be used
+               && left instanceof DefaultGenomicBreakend
+               && (right instanceof DefaultGenomicBreakend || (right.isUnresolved() && right.contig().isUnknown()))
+               && left.coordinateSystem() == right.coordinateSystem()
+               && left.isPrecise() && right.isPrecise();
+    }
+
+    private static long toBits(Strand leftStrand, Strand rightStrand, CoordinateSystem coordinateSystem, String ref, String alt) {
+        long refLength = ref.length();
+        long altLength = alt.length();
+        long bits = (refLength << REF_LENGTH_OFFSET) | (altLength << ALT_LENGTH_OFFSET);
+        bits |= encodeAllele(ref) << ALT_LENGTH_OFFSET - (refLength << 1);
+        bits |= encodeAllele(alt) << ALT_LENGTH_OFFSET - ((refLength + altLength) << 1);
+        return bits
+               | (rightStrand == Strand.POSITIVE ? RIGHT_STRAND_BIT : 0L)
+               | (leftStrand == Strand.POSITIVE ? LEFT_STRAND_BIT : 0L)
+               | (coordinateSystem == CoordinateSystem.ONE_BASED ? COORDINATE_SYSTEM_BIT : 0L);
+    }
+
+    private int refLength() {
+        return (int) ((bits >>> REF_LENGTH_OFFSET) & REF_LENGTH_MASK);
+    }
+
+    private int altLength() {
+        return (int) ((bits >>> ALT_LENGTH_OFFSET) & ALT_LENGTH_MASK);
+    }
+
+    private int leftPosition() {
+        return (int) (positions >>> Integer.SIZE);
+    }
+
+    private int rightPosition() {
+        return (int) (positions & POSITION_MASK);
+    }
+
+    private Strand rightStrand() {
+        return (bits & RIGHT_STRAND_BIT) == 0 ? Strand.NEGATIVE : Strand.POSITIVE;
+    }
+
+    private Coordinates breakendCoordinates(int zeroBasedPosition) {
+        return isZeroBased() ? Coordinates.of(CoordinateSystem.ZERO_BASED, zeroBasedPosition, zeroBasedPosition) : Coordinates.of(CoordinateSystem.ONE_BASED, zeroBasedPosition + 1, zeroBasedPosition);
+    }
+
+    @Override
+    public GenomicBreakend left() {
+        return DefaultGenomicBreakend.of(contig, id, strand(), breakendCoordinates(leftPosition()));
+    }
+
+    @Override
+    public GenomicBreakend right() {
+        if (mateContig.isUnknown()) {
+            return GenomicBreakend.unresolved(coordinateSystem(), mateId);
+        }
+        return DefaultGenomicBreakend.of(mateContig, mateId, rightStrand(), breakendCoordinates(rightPosition()));
+    }
+
+    /**
+     * @return the coordinates of the left breakend, as for the {@link DefaultGenomicBreakendVariant}
+     */
+    @Override
+    public Coordinates coordinates() {
+        return breakendCoordinates(leftPosition());
+    }
+
+    @Override
+    public CoordinateSystem coordinateSystem() {
+        return isZeroBased() ? CoordinateSystem.ZERO_BASED : CoordinateSystem.ONE_BASED;
+    }
+
+    @Override
+    public boolean isZeroBased() {
+        return (bits & COORDINATE_SYSTEM_BIT) == 0;
+    }
+
+    @Override
+    public boolean isOneBased() {
+        return !isZeroBased();
+    }
+
+    /**
+     * @return strand of the left breakend
+     */
+    @Override
+    public Strand strand() {
+        return (bits & LEFT_STRAND_BIT) == 0 ? Strand.NEGATIVE : Strand.POSITIVE;
+    }
+
+    @Override
+    public int start() {
+        return leftPosition() + (int) (bits & COORDINATE_SYSTEM_BIT) - refLength();
+    }
+
+    @Override
+    public int end() {
+        return leftPosition();
+    }
+
+    @Override
+    public int length() {
+        return Coordinates.length(coordinateSystem(), start(), end());
+    }
+
+    @Override
+    public boolean isPrecise() {
+        return true;
+    }
+
+    @Override
+    public ConfidenceInterval startConfidenceInterval() {
+        return ConfidenceInterval.precise();
+    }
+
+    @Override
+    public ConfidenceInterval endConfidenceInterval() {
+        return ConfidenceInterval.precise();
+    }
+
+    @Override
+    public String ref() {
+        return decodeAllele(refLength(), (int) ALT_LENGTH_OFFSET - 2, bits);
+    }
+
+    @Override
+    public String alt() {
+        return decodeAllele(altLength(), (int) ALT_LENGTH_OFFSET - 2 - (refLength() << 1), bits);
+    }
+
+    /**
+     * @return length of the sequence inserted between breakends
+     */
+    @Override
+    public int changeLength() {
+        return altLength();
+    }
+
+    @Override
+    public VariantType variantType() {
+        return VariantType.BND;
+    }
+
+    @Override
+    public boolean isSymbolic() {
+        return true;
+    }
+
+    @Override
+    public boolean isBreakend() {
+        return true;
+    }
+
+    @Override
+    public CompactGenomicBreakendVariant withCoordinateSystem(CoordinateSystem coordinateSystem) {
+        if (this.coordinateSystem() == coordinateSystem) {
+            return this;
+        }
+        // positions are stored as zero-based so only the coordinate system bit needs toggling
+        return new CompactGenomicBreakendVariant(contig, id, mateContig, mateId, eventId, positions, bits ^ COORDINATE_SYSTEM_BIT);
+    }
+
+    /**
+     * This method returns the unchanged breakend variant, since <em>left</em> and <em>right</em> breakend might be
+     * located on different strands. See {@link BaseGenomicBreakendVariant#withStrand(Strand)} for details.
+     *
+     * @param other target strand
+     * @return this variant with <em>no change</em>
+     */
+    @Override
+    public CompactGenomicBreakendVariant withStrand(Strand other) {
+        return this;
+    }
+
+    @Override
+    public CompactGenomicBreakendVariant toOppositeStrand() {
+        return this;
+    }
+
+    @Override
+    public int compareTo(GenomicVariant o) {
+        return GenomicVariant.compare(this, o);
+    }
+
+    /**
+     * Breakend variants are equal to any other {@link GenomicBreakendVariant} with the same event id, breakends, ref and
+     * alt, as for the {@link BaseGenomicBreakendVariant}, so that a {@link DefaultGenomicBreakendVariant} of the same
+     * breakends is equal to this. Two instances of this class are compared by their contig ids, ids and bits, without
+     * creating their breakends and alleles.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof CompactGenomicBreakendVariant that) {
+            return positions == that.positions &&
+                   bits == that.bits &&
+                   contig.id() == that.contig.id() &&
+                   mateContig.id() == that.mateContig.id() &&
+                   eventId.equals(that.eventId) &&
+                   id.equals(that.id) &&
+                   mateId.equals(that.mateId);
+        }
+        if (!(o instanceof GenomicBreakendVariant that)) return false;
+        return eventId.equals(that.eventId()) &&
+               left().equals(that.left()) &&
+               right().equals(that.right()) &&
+               ref().equals(that.ref()) &&
+               alt().equals(that.alt());
+    }
+
+    /**
+     * The same hash as the {@link BaseGenomicBreakendVariant}, computed from the packed positions and alleles.
+     */
+    @Override
+    public int hashCode() {
+        int result = eventId.hashCode();
+        result = 31 * result + contig.id();
+        result = 31 * result + leftPosition();
+        result = 31 * result + mateContig.id();
+        result = 31 * result + rightPosition();
+        result = 31 * result + hashAllele(refLength(), (int) ALT_LENGTH_OFFSET - 2, bits);
+        return 31 * result + hashAllele(altLength(), (int) ALT_LENGTH_OFFSET - 2 - (refLength() << 1), bits);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactGenomicBreakendVariant{" +
+               "eventId='" + eventId + '\'' +
+               ", left=" + left() +
+               ", right=" + right() +
+               ", ref=" + ref() +
+               ", alt='" + alt() + '\'' +
+               '}';
+    }
+}
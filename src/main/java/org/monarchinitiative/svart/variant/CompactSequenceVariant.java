@@ -1,10 +1,11 @@
 package org.monarchinitiative.svart.variant;
 
 import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.variant.internal.IdCodec;
 
 import java.util.Objects;
 
-import static org.monarchinitiative.svart.variant.TwoBitBaseCodec.*;
+import static org.monarchinitiative.svart.variant.internal.TwoBitBaseCodec.*;
 
 /**
  * A {@link GenomicVariant} implementation which stores all strand, coordinates and allele information as a single long.
@@ -17,8 +18,14 @@ import static org.monarchinitiative.svart.variant.TwoBitBaseCodec.*;
  * are that this class can only represent small, precise sequence variants with a maximum total length of 11 bases for
  * the sum of the ref and alt alleles. Given this will cover ~90% of most short-read variants, this class could provide
  * substantial memory savings.
+ * <p>
+ * The variant identifier is held as an int using the {@link IdCodec}, so that rsIDs and missing identifiers do not
+ * require a separate String instance per variant. Any other identifier is held as the {@link #literalId()}, which is
+ * null for int-encoded identifiers. The {@link #id()} method creates a new String for each call for an rsID, so where
+ * only the rs number is needed it should be read from the {@link #encodedId()}. The {@link VariantType} is derived from
+ * the encoded alleles rather than being stored.
  */
-public record CompactSequenceVariant(Contig contig, String id, VariantType variantType, long bits) implements GenomicVariant, Comparable<GenomicVariant> {
+public record CompactSequenceVariant(Contig contig, int encodedId, String literalId, long bits) implements GenomicVariant, Comparable<GenomicVariant> {
 
     public static final int MAX_BASES = 11;
     // 64     32       28       24       22    (22 - refLen) (22 - (refLen + altLen)) therefore max 22 bits = 11 bases (ref + alt)
@@ -36,6 +43,27 @@ public record CompactSequenceVariant(Contig contig, String id, VariantType varia
     private static final long COORDINATE_SYSTEM_OFFSET = 0L; // last bit
     private static final long COORDINATE_SYSTEM_BIT = 1L << COORDINATE_SYSTEM_OFFSET; // 1L last bit
 
+    public CompactSequenceVariant {
+        if (encodedId == IdCodec.LITERAL) {
+            Objects.requireNonNull(literalId, "literalId cannot be null for a literal encoded id");
+        } else {
+            literalId = null;
+        }
+    }
+
+    public CompactSequenceVariant(Contig contig, String id, long bits) {
+        this(contig, IdCodec.encodeId(id), id, bits);
+    }
+
+    /**
+     * @deprecated the {@link VariantType} is derived from the alleles encoded in the bits, so the given type is ignored.
+     * Use {@link #CompactSequenceVariant(Contig, String, long)} instead.
+     */
+    @Deprecated(since = "2.0.0")
+    public CompactSequenceVariant(Contig contig, String id, VariantType variantType, long bits) {
+        this(contig, id, bits);
+    }
+
     public static CompactSequenceVariant of(Contig contig, Strand strand, Coordinates coordinates, String ref, String alt) {
         return of(contig, "", strand, coordinates, ref, alt);
     }
@@ -60,8 +88,7 @@ public record CompactSequenceVariant(Contig contig, String id, VariantType varia
         Coordinates.validateCoordinatesOnContig(contig, coordinateSystem, start, end);
 
         long bits = toBits(strand, coordinateSystem, start, ref, alt);
-        VariantType variantType = VariantType.parseType(ref, alt);
-        return new CompactSequenceVariant(contig, GenomicVariant.cacheId(id), variantType, bits);
+        return new CompactSequenceVariant(contig, id, bits);
     }
 
     /**
@@ -96,14 +123,65 @@ public record CompactSequenceVariant(Contig contig, String id, VariantType varia
 
     private static final long ALLELE_LEN_MASK = 0b1111L;
 
-    private int refLength() {
+    private static int refLength(long bits) {
         return (int) ((bits >> REF_LENGTH_OFFSET) & ALLELE_LEN_MASK);
     }
 
-    private int altLength() {
+    private static int altLength(long bits) {
         return (int) ((bits >> ALT_LENGTH_OFFSET) & ALLELE_LEN_MASK);
     }
 
+    private int refLength() {
+        return refLength(bits);
+    }
+
+    /**
+     * Returns the {@link VariantType} of the encoded alleles, as would be returned by
+     * {@link VariantType#parseType(String, String)} for the ref and alt, without decoding them.
+     */
+    @Override
+    public VariantType variantType() {
+        int refLength = refLength();
+        int altLength = altLength();
+        long refOffset = ALT_LENGTH_OFFSET - ((long) refLength << 1);
+        long altOffset = refOffset - ((long) altLength << 1);
+        long ref = (bits >>> refOffset) & alleleMask(refLength);
+        long alt = (bits >>> altOffset) & alleleMask(altLength);
+        if (refLength == altLength) {
+            if (refLength == 1) {
+                return VariantType.SNV;
+            }
+            return reverseComplementAllele(refLength, refOffset, bits) == alt ? VariantType.INV : VariantType.MNV;
+        }
+        if (altLength < refLength && isPrefixOrSuffix(alt, altLength, ref, refLength)) {
+            return VariantType.DEL;
+        }
+        if (refLength < altLength && isPrefixOrSuffix(ref, refLength, alt, altLength)) {
+            return VariantType.INS;
+        }
+        return VariantType.DELINS;
+    }
+
+    private static long alleleMask(int alleleLength) {
+        return (1L << (alleleLength << 1)) - 1;
+    }
+
+    private static boolean isPrefixOrSuffix(long allele, int alleleLength, long other, int otherLength) {
+        return other >>> ((otherLength - alleleLength) << 1) == allele || (other & alleleMask(alleleLength)) == allele;
+    }
+
+    private int altLength() {
+        return altLength(bits);
+    }
+
+    /**
+     * @return the variant identifier, decoded from the {@link #encodedId()} and {@link #literalId()}
+     */
+    @Override
+    public String id() {
+        return IdCodec.decodeId(encodedId, literalId);
+    }
+
     /**
      * @return
      */
@@ -156,15 +234,30 @@ public record CompactSequenceVariant(Contig contig, String id, VariantType varia
         if (this.strand() == other) {
             return this;
         }
+        return new CompactSequenceVariant(contig, encodedId, literalId, oppositeStrandBits(contig, bits));
+    }
+
+    /**
+     * Returns the bits of a variant on the positive strand of the contig, i.e. the {@link #bits()} of
+     * {@code withStrand(Strand.POSITIVE)}, without creating a {@link CompactSequenceVariant} instance. This allows
+     * variants stored as bits, e.g. in a column of a table, to be processed in bulk.
+     *
+     * @param contig the contig of the variant
+     * @param bits   the {@link #bits()} of a variant on the contig
+     */
+    public static long positiveStrandBits(Contig contig, long bits) {
+        return (bits & STRAND_BIT) != 0 ? bits : oppositeStrandBits(contig, bits);
+    }
+
+    private static long oppositeStrandBits(Contig contig, long bits) {
+        int refLength = refLength(bits);
+        int altLength = altLength(bits);
         // flip start
-        long oppositeStart = contig.length() - (long) end();
+        long oppositeStart = contig.length() - ((bits >> START_OFFSET) + refLength);
         long otherStrandBits = oppositeStart << START_OFFSET
-                               // set strand bit if positive and coordinate system bit if one-based
-                               | (other == Strand.POSITIVE ? STRAND_BIT : 0L) |
-                               (coordinateSystem() == CoordinateSystem.ONE_BASED ? COORDINATE_SYSTEM_BIT : 0L);
+                               // flip the strand bit and keep the coordinate system bit
+                               | (~bits & STRAND_BIT) | (bits & COORDINATE_SYSTEM_BIT);
         // no need to change ref or alt lengths
-        int refLength = refLength();
-        int altLength = altLength();
         otherStrandBits |= ((long) refLength << REF_LENGTH_OFFSET) | (altLength << ALT_LENGTH_OFFSET);
 
         long refOffset = ALT_LENGTH_OFFSET - (refLength << 1);
@@ -174,7 +267,7 @@ public record CompactSequenceVariant(Contig contig, String id, VariantType varia
         long altRevCompBits = reverseComplementAllele(altLength, altOffset, bits) << altOffset;
         otherStrandBits |= refRevCompBits | altRevCompBits;
 
-        return new CompactSequenceVariant(contig, id, variantType, otherStrandBits);
+        return otherStrandBits;
     }
 
     /**
@@ -188,7 +281,7 @@ public record CompactSequenceVariant(Contig contig, String id, VariantType varia
         }
         // toggle coordinate system bit
         long coordinateSystemBits = bits ^ COORDINATE_SYSTEM_BIT;
-        return new CompactSequenceVariant(contig, id, variantType, coordinateSystemBits);
+        return new CompactSequenceVariant(contig, encodedId, literalId, coordinateSystemBits);
     }
 
     /**
@@ -368,9 +461,68 @@ public record CompactSequenceVariant(Contig contig, String id, VariantType varia
         return GenomicVariant.compare(this, o);
     }
 
+    /**
+     * Compares two {@link CompactSequenceVariant} directly from their bits, with exactly the same result as
+     * {@link GenomicVariant#compare(GenomicVariant, GenomicVariant)} but without decoding the coordinates or alleles.
+     * <p>
+     * Variants are ordered by contig, zero-based start then end, which given equal starts is the ref length, strand,
+     * ref, change length, alt and finally coordinate system. Once the starts and ref lengths are equal the ref alleles
+     * occupy the same bits of both variants, and likewise for the alt alleles once the alt lengths are equal, so these
+     * can be compared as numbers. As the bases are encoded in alphabetical order this gives the same result as comparing
+     * the allele Strings.
+     */
+    public static int compare(CompactSequenceVariant x, CompactSequenceVariant y) {
+        int result = Contig.compare(x.contig, y.contig);
+        if (result != 0) {
+            return result;
+        }
+        long xBits = x.bits;
+        long yBits = y.bits;
+        // zero-based start
+        result = Integer.compare((int) (xBits >> START_OFFSET), (int) (yBits >> START_OFFSET));
+        if (result != 0) {
+            return result;
+        }
+        // end, given equal starts
+        int refLength = refLength(xBits);
+        result = Integer.compare(refLength, refLength(yBits));
+        if (result != 0) {
+            return result;
+        }
+        // Strand.POSITIVE < Strand.NEGATIVE where the strand bit is set for POSITIVE
+        result = Long.compare(yBits & STRAND_BIT, xBits & STRAND_BIT);
+        if (result != 0) {
+            return result;
+        }
+        long refOffset = ALT_LENGTH_OFFSET - (refLength << 1);
+        long refMask = (1L << (refLength << 1)) - 1;
+        result = Long.compare((xBits >>> refOffset) & refMask, (yBits >>> refOffset) & refMask);
+        if (result != 0) {
+            return result;
+        }
+        // change length, given equal ref lengths
+        int altLength = altLength(xBits);
+        result = Integer.compare(altLength, altLength(yBits));
+        if (result != 0) {
+            return result;
+        }
+        long altOffset = refOffset - (altLength << 1);
+        long altMask = (1L << (altLength << 1)) - 1;
+        result = Long.compare((xBits >>> altOffset) & altMask, (yBits >>> altOffset) & altMask);
+        if (result != 0) {
+            return result;
+        }
+        // CoordinateSystem.ZERO_BASED < CoordinateSystem.ONE_BASED where the bit is set for ONE_BASED
+        return Long.compare(xBits & COORDINATE_SYSTEM_BIT, yBits & COORDINATE_SYSTEM_BIT);
+    }
+
+    /**
+     * The variant type is derived from the alleles encoded in the bits, and equal contigs will have the same id, so
+     * these are sufficient to compute the hash without boxing or hashing the whole {@link Contig}.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(contig, bits, variantType);
+        return 31 * contig.id() + Long.hashCode(bits);
     }
 
 
@@ -379,21 +531,21 @@ public record CompactSequenceVariant(Contig contig, String id, VariantType varia
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         CompactSequenceVariant that = (CompactSequenceVariant) o;
-        return contig.equals(that.contig()) && bits == that.bits && variantType == that.variantType;
+        return contig.equals(that.contig()) && bits == that.bits;
     }
 
     @Override
     public String toString() {
         return "CompactSequenceVariant{" +
                "contig=" + contig().id() +
-               ", id='" + id + '\'' +
+               ", id='" + id() + '\'' +
                ", strand=" + strand() +
                ", coordinateSystem=" + coordinateSystem() +
                ", start=" + start() +
                ", end=" + end() +
                ", ref='" + ref() + '\'' +
                ", alt='" + alt() + '\'' +
-               ", variantType=" + variantType +
+               ", variantType=" + variantType() +
                ", length=" + length() +
                ", changeLength=" + changeLength() +
                '}';
@@ -0,0 +1,145 @@
+package org.monarchinitiative.svart.variant;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A map of {@link CompactSequenceVariant} keys to values which stores each key as primitive values in an
+ * open-addressing hash table, rather than as object references in a {@link java.util.HashMap}. See
+ * {@link CompactVariantSet} for details of key equality.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <V> the type of mapped values
+ */
+public final class CompactVariantMap<V> extends CompactVariantTable {
+
+    private Object[] values;
+
+    private CompactVariantMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    public static <V> CompactVariantMap<V> of() {
+        return new CompactVariantMap<>(0);
+    }
+
+    /**
+     * @param expectedSize the number of entries expected to be added to the map.
+     * @return a new empty {@link CompactVariantMap} able to hold the expected number of entries without resizing.
+     */
+    public static <V> CompactVariantMap<V> withExpectedSize(int expectedSize) {
+        return new CompactVariantMap<>(expectedSize);
+    }
+
+    /**
+     * Associates the value with the variant, replacing any existing value.
+     *
+     * @param variant the variant key
+     * @param value   the value to associate with the variant
+     * @return the previous value associated with the variant, or null if there was none.
+     * @throws IllegalArgumentException if the variant contig is not from the same assembly as the existing keys.
+     */
+    public V put(CompactSequenceVariant variant, V value) {
+        int contigKey = addContigKey(variant.contig());
+        int slot = findSlot(contigKey, variant.bits());
+        if (slot >= 0) {
+            V previous = valueAt(slot);
+            values[slot] = value;
+            return previous;
+        }
+        int inserted = insert(-(slot + 1), contigKey, variant.bits(), variant.encodedId(), variant.literalId());
+        values[inserted] = value;
+        return null;
+    }
+
+    /**
+     * Associates the value with the variant only if the variant is not already present or is mapped to null.
+     *
+     * @return the existing value associated with the variant, or null if the value was added.
+     */
+    public V putIfAbsent(CompactSequenceVariant variant, V value) {
+        int contigKey = addContigKey(variant.contig());
+        int slot = findSlot(contigKey, variant.bits());
+        if (slot >= 0) {
+            V existing = valueAt(slot);
+            if (existing == null) {
+                values[slot] = value;
+            }
+            return existing;
+        }
+        int inserted = insert(-(slot + 1), contigKey, variant.bits(), variant.encodedId(), variant.literalId());
+        values[inserted] = value;
+        return null;
+    }
+
+    public V get(CompactSequenceVariant variant) {
+        int slot = slotOf(variant);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    public V getOrDefault(CompactSequenceVariant variant, V defaultValue) {
+        int slot = slotOf(variant);
+        return slot < 0 ? defaultValue : valueAt(slot);
+    }
+
+    public boolean containsKey(CompactSequenceVariant variant) {
+        return slotOf(variant) >= 0;
+    }
+
+    /**
+     * Removes the variant from this map if present.
+     *
+     * @param variant the variant key to remove
+     * @return the value associated with the variant, or null if there was none.
+     */
+    public V remove(CompactSequenceVariant variant) {
+        int slot = slotOf(variant);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = valueAt(slot);
+        removeSlot(slot);
+        return previous;
+    }
+
+    /**
+     * Performs the action for each entry in this map. Variant keys are re-created from their stored values.
+     *
+     * @param action the action to be performed for each entry
+     */
+    public void forEach(BiConsumer<? super CompactSequenceVariant, ? super V> action) {
+        for (int slot = nextOccupiedSlot(0); slot >= 0; slot = nextOccupiedSlot(slot + 1)) {
+            action.accept(variantAt(slot), valueAt(slot));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        values = new Object[capacity];
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = null;
+    }
+
+    @Override
+    Object[] values() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactVariantMap{size=" + size + '}';
+    }
+}
@@ -0,0 +1,126 @@
+package org.monarchinitiative.svart.variant;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A set of {@link CompactSequenceVariant} which stores each variant as primitive values in an open-addressing hash
+ * table, rather than as object references in a {@link java.util.HashSet}. This avoids retaining the variant instances
+ * and the per-entry node objects of the java.util collections, and allows for fast de-duplication of large numbers of
+ * variants. Iteration re-creates equal variant instances from the stored values, including their identifiers.
+ * <p>
+ * As for {@link CompactSequenceVariant#equals(Object)}, variants are considered equal if they have the same contig,
+ * coordinates, strand and alleles and the first identifier added for a variant is retained. All variants must be from
+ * the same assembly.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class CompactVariantSet extends CompactVariantTable implements Iterable<CompactSequenceVariant> {
+
+    private CompactVariantSet(int expectedSize) {
+        super(expectedSize);
+    }
+
+    public static CompactVariantSet of() {
+        return new CompactVariantSet(0);
+    }
+
+    /**
+     * @param expectedSize the number of variants expected to be added to the set.
+     * @return a new empty {@link CompactVariantSet} able to hold the expected number of variants without resizing.
+     */
+    public static CompactVariantSet withExpectedSize(int expectedSize) {
+        return new CompactVariantSet(expectedSize);
+    }
+
+    /**
+     * Adds the variant to this set if not already present.
+     *
+     * @param variant the variant to add
+     * @return true if the set did not already contain the variant.
+     * @throws IllegalArgumentException if the variant contig is not from the same assembly as the existing variants.
+     */
+    public boolean add(CompactSequenceVariant variant) {
+        int contigKey = addContigKey(variant.contig());
+        int slot = findSlot(contigKey, variant.bits());
+        if (slot >= 0) {
+            return false;
+        }
+        insert(-(slot + 1), contigKey, variant.bits(), variant.encodedId(), variant.literalId());
+        return true;
+    }
+
+    public boolean contains(CompactSequenceVariant variant) {
+        return slotOf(variant) >= 0;
+    }
+
+    /**
+     * Removes the variant from this set if present.
+     *
+     * @param variant the variant to remove
+     * @return true if the set contained the variant.
+     */
+    public boolean remove(CompactSequenceVariant variant) {
+        int slot = slotOf(variant);
+        if (slot < 0) {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    @Override
+    public Iterator<CompactSequenceVariant> iterator() {
+        return new Iterator<>() {
+            private int next = nextOccupiedSlot(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public CompactSequenceVariant next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                CompactSequenceVariant variant = variantAt(next);
+                next = nextOccupiedSlot(next + 1);
+                return variant;
+            }
+        };
+    }
+
+    public Stream<CompactSequenceVariant> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size, Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    void allocateValues(int capacity) {
+        // no values
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        // no values
+    }
+
+    @Override
+    void clearValue(int slot) {
+        // no values
+    }
+
+    @Override
+    Object[] values() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactVariantSet{size=" + size + '}';
+    }
+}
@@ -0,0 +1,247 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.Contig;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table of {@link CompactSequenceVariant} keys, stored as parallel primitive arrays of the contig
+ * id, bits and encoded identifier of each variant, with any literal identifier held in a parallel array. Keys are equal if they have equal contigs and bits, as for
+ * {@link CompactSequenceVariant#equals(Object)}. Collisions are resolved using linear probing with backward-shift
+ * deletion, so no tombstones are required.
+ * <p>
+ * Only the contig id is stored per-entry, with the {@link Contig} instances held in a lookup table indexed by id. A
+ * table can therefore only hold variants from a single assembly - attempting to add a variant on a different contig
+ * with the same id as an existing one will throw an {@link IllegalArgumentException}.
+ * <p>
+ * This class is not thread-safe.
+ */
+abstract sealed class CompactVariantTable permits CompactVariantSet, CompactVariantMap {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final ContigTable contigs = new ContigTable();
+
+    // contig id + 1, 0 indicates an empty slot
+    int[] contigKeys;
+    long[] bits;
+    int[] encodedIds;
+    String[] literalIds;
+    int size;
+    private int mask;
+    private int resizeThreshold;
+
+    CompactVariantTable(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must be >= 0, got " + expectedSize);
+        }
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long required = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR);
+        int capacity = MIN_CAPACITY;
+        while (capacity < required && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        contigKeys = new int[capacity];
+        bits = new long[capacity];
+        encodedIds = new int[capacity];
+        literalIds = new String[capacity];
+        allocateValues(capacity);
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Hook for sub-classes storing a value per key to allocate their value array.
+     */
+    abstract void allocateValues(int capacity);
+
+    /**
+     * Hook for sub-classes storing a value per key to move the value from one slot to another.
+     */
+    abstract void moveValue(int from, int to);
+
+    /**
+     * Hook for sub-classes storing a value per key to clear the value at the slot.
+     */
+    abstract void clearValue(int slot);
+
+    static int hash(int contigKey, long bits) {
+        // murmur3 fmix64 finaliser of the combined key
+        long h = bits ^ ((long) contigKey * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Returns the key for the variant contig, or 0 if the contig is not present in this table.
+     */
+    final int lookupContigKey(Contig contig) {
+        return contigs.contains(contig) ? contig.id() + 1 : 0;
+    }
+
+    /**
+     * Returns the key for the variant contig, adding it to the contig table if not already present.
+     */
+    final int addContigKey(Contig contig) {
+        return contigs.add(contig) + 1;
+    }
+
+    final Contig contig(int contigKey) {
+        return contigs.get(contigKey - 1);
+    }
+
+    /**
+     * Returns the slot containing the key, or -(insertion slot + 1) if the key is not present.
+     */
+    final int findSlot(int contigKey, long keyBits) {
+        int slot = hash(contigKey, keyBits) & mask;
+        while (true) {
+            int slotKey = contigKeys[slot];
+            if (slotKey == 0) {
+                return -(slot + 1);
+            }
+            if (slotKey == contigKey && bits[slot] == keyBits) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Returns the slot index for a {@link CompactSequenceVariant} or a negative value if not present.
+     */
+    final int slotOf(CompactSequenceVariant variant) {
+        int contigKey = lookupContigKey(variant.contig());
+        return contigKey == 0 ? -1 : findSlot(contigKey, variant.bits());
+    }
+
+    /**
+     * Inserts the key into the empty slot, returning the slot into which the key was written which may differ from the
+     * input slot if the table was resized.
+     */
+    final int insert(int emptySlot, int contigKey, long keyBits, int encodedId, String literalId) {
+        int slot = emptySlot;
+        if (size >= resizeThreshold) {
+            resize();
+            slot = -(findSlot(contigKey, keyBits) + 1);
+        }
+        contigKeys[slot] = contigKey;
+        bits[slot] = keyBits;
+        encodedIds[slot] = encodedId;
+        literalIds[slot] = literalId;
+        size++;
+        return slot;
+    }
+
+    private void resize() {
+        int capacity = contigKeys.length;
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("Unable to resize table - maximum capacity of " + MAX_CAPACITY + " reached");
+        }
+        int[] oldContigKeys = contigKeys;
+        long[] oldBits = bits;
+        int[] oldEncodedIds = encodedIds;
+        String[] oldLiteralIds = literalIds;
+        Object[] oldValues = values();
+        allocate(capacity << 1);
+        for (int i = 0; i < oldContigKeys.length; i++) {
+            int contigKey = oldContigKeys[i];
+            if (contigKey != 0) {
+                int slot = -(findSlot(contigKey, oldBits[i]) + 1);
+                contigKeys[slot] = contigKey;
+                bits[slot] = oldBits[i];
+                encodedIds[slot] = oldEncodedIds[i];
+                literalIds[slot] = oldLiteralIds[i];
+                if (oldValues != null) {
+                    values()[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the value array of a sub-class storing values, or null.
+     */
+    abstract Object[] values();
+
+    /**
+     * Removes the entry at the slot and shifts back any following entries in the probe sequence.
+     */
+    final void removeSlot(int slot) {
+        int free = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            int contigKey = contigKeys[next];
+            if (contigKey == 0) {
+                break;
+            }
+            int home = hash(contigKey, bits[next]) & mask;
+            // move the entry back if its home slot is not cyclically within (free, next]
+            boolean inRange = free <= next ? free < home && home <= next : free < home || home <= next;
+            if (!inRange) {
+                contigKeys[free] = contigKey;
+                bits[free] = bits[next];
+                encodedIds[free] = encodedIds[next];
+                literalIds[free] = literalIds[next];
+                moveValue(next, free);
+                free = next;
+            }
+        }
+        contigKeys[free] = 0;
+        bits[free] = 0;
+        encodedIds[free] = 0;
+        literalIds[free] = null;
+        clearValue(free);
+        size--;
+    }
+
+    final CompactSequenceVariant variantAt(int slot) {
+        return new CompactSequenceVariant(contig(contigKeys[slot]), encodedIds[slot], literalIds[slot], bits[slot]);
+    }
+
+    /**
+     * Returns the next occupied slot at or after the from index, or -1 if there are none.
+     */
+    final int nextOccupiedSlot(int from) {
+        for (int i = from; i < contigKeys.length; i++) {
+            if (contigKeys[i] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(contigKeys, 0);
+        Arrays.fill(bits, 0L);
+        Arrays.fill(encodedIds, 0);
+        Arrays.fill(literalIds, null);
+        Object[] values = values();
+        if (values != null) {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+}
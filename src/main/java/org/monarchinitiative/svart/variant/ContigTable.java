@@ -0,0 +1,63 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.Contig;
+
+import java.util.Arrays;
+
+/**
+ * Lookup table of {@link Contig} indexed by their id, used by classes storing only the contig id of a variant. All
+ * contigs added must be from the same assembly, i.e. there can only be a single contig for any given id.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class ContigTable {
+
+    private Contig[] contigs = new Contig[32];
+
+    /**
+     * Adds the contig to this table if not already present.
+     *
+     * @return the id of the contig
+     * @throws IllegalArgumentException if a different contig with the same id has already been added.
+     */
+    int add(Contig contig) {
+        int id = contig.id();
+        if (id < 0) {
+            throw new IllegalArgumentException("Contig id must be >= 0, got " + id + " for contig " + contig.name());
+        }
+        if (id >= contigs.length) {
+            contigs = Arrays.copyOf(contigs, Math.max(id + 1, contigs.length << 1));
+        }
+        Contig existing = contigs[id];
+        if (existing == null) {
+            contigs[id] = contig;
+        } else if (existing != contig && !existing.equals(contig)) {
+            throw new IllegalArgumentException("Contig " + contig.name() + " with id " + id + " does not match existing contig " + existing.name() + ". Variants must all be from the same assembly.");
+        }
+        return id;
+    }
+
+    /**
+     * @return true if this table contains the contig.
+     */
+    boolean contains(Contig contig) {
+        int id = contig.id();
+        if (id < 0 || id >= contigs.length) {
+            return false;
+        }
+        Contig existing = contigs[id];
+        return existing != null && (existing == contig || existing.equals(contig));
+    }
+
+    /**
+     * @return the contig with the given id
+     * @throws IllegalArgumentException if there is no contig with the given id in this table.
+     */
+    Contig get(int id) {
+        Contig contig = id >= 0 && id < contigs.length ? contigs[id] : null;
+        if (contig == null) {
+            throw new IllegalArgumentException("Unknown contig id " + id);
+        }
+        return contig;
+    }
+}
@@ -61,6 +61,9 @@ public final class DefaultGenomicBreakendVariant extends BaseGenomicBreakendVari
 
     public static class Builder extends BaseGenomicBreakendVariant.Builder<Builder> {
 
+        private Builder() {
+        }
+
         @Override
         public DefaultGenomicBreakendVariant build() {
             return new DefaultGenomicBreakendVariant(self());
@@ -0,0 +1,427 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.GenomicVariant;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sorts streams of {@link GenomicVariant} which are too large to fit into memory into
+ * {@link GenomicVariant#naturalOrder()}.
+ * <p>
+ * The input is read in runs of up to {@link Builder#maxVariantsInMemory(int)} variants, which are sorted using the
+ * {@link GenomicVariantSorter} and written to temporary files in the {@link Builder#tempDirectory(Path)}. These are
+ * then lazily merged to produce the sorted output. If the number of runs exceeds the {@link Builder#mergeFactor(int)}
+ * the runs are first merged into larger intermediate runs to limit the number of open files. If the input fits into
+ * a single run no temporary files are written.
+ * <p>
+ * Optionally, variants which compare as equal, i.e. are identical apart from their identifiers, can be de-duplicated
+ * with only the first variant from the input being retained. The sort is otherwise stable.
+ * <p>
+ * The returned {@link Stream} should be closed after use, ideally using a try-with-resources block, in order to delete
+ * any remaining temporary files. These will also be deleted once the stream has been fully consumed. Variants are
+ * returned as the library implementation matching their kind, so sub-classes of {@link org.monarchinitiative.svart.BaseGenomicVariant}
+ * or other custom implementations will not be returned as their original type.
+ * <pre>
+ * ExternalGenomicVariantSorter sorter = ExternalGenomicVariantSorter.builder()
+ *     .maxVariantsInMemory(5_000_000)
+ *     .tempDirectory(Path.of("/scratch"))
+ *     .deduplicate(true)
+ *     .build();
+ * try (Stream&lt;GenomicVariant&gt; sorted = sorter.sort(variants)) {
+ *     sorted.forEach(...);
+ * }
+ * </pre>
+ */
+public final class ExternalGenomicVariantSorter {
+
+    public static final int DEFAULT_MAX_VARIANTS_IN_MEMORY = 1_000_000;
+    public static final int DEFAULT_MERGE_FACTOR = 128;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int RECORD_BUFFER_SIZE = 256;
+
+    private final int maxVariantsInMemory;
+    private final int mergeFactor;
+    private final Path tempDirectory;
+    private final boolean deduplicate;
+
+    private ExternalGenomicVariantSorter(Builder builder) {
+        this.maxVariantsInMemory = builder.maxVariantsInMemory;
+        this.mergeFactor = builder.mergeFactor;
+        this.tempDirectory = builder.tempDirectory;
+        this.deduplicate = builder.deduplicate;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reads all the input variants, returning a lazily-merged {@link Stream} of the variants sorted into
+     * {@link GenomicVariant#naturalOrder()}. All variants must be from the same assembly. The input stream is not
+     * closed by this method.
+     *
+     * @param variants the variants to be sorted
+     * @return a {@link Stream} of the sorted variants which should be closed after use.
+     * @throws UncheckedIOException if the temporary run files could not be written or read.
+     * @throws IllegalArgumentException if the variants are not all from the same assembly.
+     */
+    public Stream<GenomicVariant> sort(Stream<? extends GenomicVariant> variants) {
+        return sort(variants.iterator());
+    }
+
+    /**
+     * Reads all the input variants, returning a lazily-merged {@link Stream} of the variants sorted into
+     * {@link GenomicVariant#naturalOrder()}. All variants must be from the same assembly.
+     *
+     * @param variants the variants to be sorted
+     * @return a {@link Stream} of the sorted variants which should be closed after use.
+     * @throws UncheckedIOException if the temporary run files could not be written or read.
+     * @throws IllegalArgumentException if the variants are not all from the same assembly.
+     */
+    public Stream<GenomicVariant> sort(Iterator<? extends GenomicVariant> variants) {
+        GenomicVariantCodec codec = GenomicVariantCodec.of(new ContigTable());
+        List<Run> runs = new ArrayList<>();
+        GenomicVariant[] buffer = new GenomicVariant[Math.min(maxVariantsInMemory, 1024)];
+        int size = 0;
+        try {
+            while (variants.hasNext()) {
+                if (size == buffer.length) {
+                    if (size == maxVariantsInMemory) {
+                        runs.add(writeRun(buffer, size, codec));
+                        Arrays.fill(buffer, null);
+                        size = 0;
+                    } else {
+                        buffer = Arrays.copyOf(buffer, (int) Math.min(maxVariantsInMemory, buffer.length * 2L));
+                    }
+                }
+                buffer[size++] = variants.next();
+            }
+            if (runs.isEmpty()) {
+                GenomicVariantSorter.sort(buffer, 0, size);
+                Iterator<GenomicVariant> sorted = Arrays.asList(buffer).subList(0, size).iterator();
+                return toStream(deduplicate ? new DeduplicatingIterator(sorted) : sorted, () -> {});
+            }
+            if (size > 0) {
+                runs.add(writeRun(buffer, size, codec));
+            }
+            // release the buffer for collection before merging
+            buffer = null;
+            while (runs.size() > mergeFactor) {
+                runs = mergeRuns(runs, codec);
+            }
+        } catch (IOException e) {
+            deleteRuns(runs);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteRuns(runs);
+            throw e;
+        }
+        try {
+            MergingIterator merged = new MergingIterator(runs, codec);
+            return toStream(merged, merged::close);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Stream<GenomicVariant> toStream(Iterator<GenomicVariant> iterator, Runnable onClose) {
+        Spliterator<GenomicVariant> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(onClose);
+    }
+
+    private Run writeRun(GenomicVariant[] variants, int size, GenomicVariantCodec codec) throws IOException {
+        GenomicVariantSorter.sort(variants, 0, size);
+        Iterator<GenomicVariant> sorted = Arrays.asList(variants).subList(0, size).iterator();
+        return writeRun(deduplicate ? new DeduplicatingIterator(sorted) : sorted, codec);
+    }
+
+    /*
+     * Runs are written as the GenomicVariantCodec encoding of each variant prefixed by its length.
+     */
+    private Run writeRun(Iterator<GenomicVariant> sorted, GenomicVariantCodec codec) throws IOException {
+        Path path = Files.createTempFile(tempDirectory, "svart-sort-", ".run");
+        long count = 0;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BUFFER_SIZE);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE))) {
+            while (sorted.hasNext()) {
+                GenomicVariant variant = sorted.next();
+                record = ensureCapacity(record, codec.maxEncodedSize(variant));
+                int length = codec.encode(variant, record.clear());
+                out.writeInt(length);
+                out.write(record.array(), 0, length);
+                count++;
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return new Run(path, count);
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        return buffer.capacity() < capacity ? ByteBuffer.allocate(Math.max(capacity, buffer.capacity() * 2)) : buffer;
+    }
+
+    private List<Run> mergeRuns(List<Run> runs, GenomicVariantCodec codec) throws IOException {
+        List<Run> merged = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i += mergeFactor) {
+            List<Run> group = runs.subList(i, Math.min(i + mergeFactor, runs.size()));
+            // the merged runs are deleted on closing the iterator
+            try (MergingIterator iterator = new MergingIterator(new ArrayList<>(group), codec)) {
+                merged.add(writeRun(iterator, codec));
+            } catch (IOException | RuntimeException e) {
+                deleteRuns(merged);
+                deleteRuns(runs.subList(i, runs.size()));
+                throw e;
+            }
+        }
+        return merged;
+    }
+
+    private static void deleteRuns(List<Run> runs) {
+        for (Run run : runs) {
+            run.delete();
+        }
+    }
+
+    private record Run(Path path, long count) {
+
+        private void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // nothing more can be done, the file will remain in the temp directory
+            }
+        }
+    }
+
+    /**
+     * Reads the variants of a {@link Run} in order.
+     */
+    private static final class RunReader implements Closeable {
+
+        private final Run run;
+        private final int runIndex;
+        private final DataInputStream in;
+        private long remaining;
+        private ByteBuffer record = ByteBuffer.allocate(RECORD_BUFFER_SIZE);
+        private GenomicVariant head;
+
+        private RunReader(Run run, int runIndex) throws IOException {
+            this.run = run;
+            this.runIndex = runIndex;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.path()), BUFFER_SIZE));
+            this.remaining = run.count();
+        }
+
+        private boolean advance(GenomicVariantCodec codec) throws IOException {
+            if (remaining == 0) {
+                head = null;
+                return false;
+            }
+            int length = in.readInt();
+            record = ensureCapacity(record, length);
+            in.readFully(record.array(), 0, length);
+            head = codec.decode(record.clear().limit(length));
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                run.delete();
+            }
+        }
+    }
+
+    /**
+     * K-way merge of sorted runs. Variants which compare as equal are returned in the order of their runs so that the
+     * merge is stable, and are de-duplicated if required.
+     */
+    private final class MergingIterator implements Iterator<GenomicVariant>, Closeable {
+
+        private final List<RunReader> readers = new ArrayList<>();
+        private final PriorityQueue<RunReader> queue;
+        private final GenomicVariantCodec codec;
+        private GenomicVariant previous;
+        private GenomicVariant next;
+        private boolean closed = false;
+
+        private MergingIterator(List<Run> runs, GenomicVariantCodec codec) throws IOException {
+            this.codec = codec;
+            this.queue = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+                int result = GenomicVariant.compare(a.head, b.head);
+                return result == 0 ? Integer.compare(a.runIndex, b.runIndex) : result;
+            });
+            try {
+                for (int i = 0; i < runs.size(); i++) {
+                    RunReader reader = new RunReader(runs.get(i), i);
+                    readers.add(reader);
+                    if (reader.advance(codec)) {
+                        queue.add(reader);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                deleteRuns(runs);
+                throw e;
+            }
+            this.next = findNext();
+        }
+
+        private GenomicVariant findNext() {
+            try {
+                while (!queue.isEmpty()) {
+                    RunReader reader = queue.poll();
+                    GenomicVariant variant = reader.head;
+                    if (reader.advance(codec)) {
+                        queue.add(reader);
+                    }
+                    if (!deduplicate || previous == null || GenomicVariant.compare(previous, variant) != 0) {
+                        previous = variant;
+                        return variant;
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+            close();
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public GenomicVariant next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            GenomicVariant current = next;
+            next = findNext();
+            return current;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            IOException exception = null;
+            for (RunReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+            if (exception != null) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+    }
+
+    /**
+     * Removes consecutive variants which compare as equal from an iterator of sorted variants.
+     */
+    private static final class DeduplicatingIterator implements Iterator<GenomicVariant> {
+
+        private final Iterator<GenomicVariant> sorted;
+        private GenomicVariant next;
+
+        private DeduplicatingIterator(Iterator<GenomicVariant> sorted) {
+            this.sorted = sorted;
+            this.next = sorted.hasNext() ? sorted.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public GenomicVariant next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            GenomicVariant current = next;
+            next = null;
+            while (sorted.hasNext()) {
+                GenomicVariant candidate = sorted.next();
+                if (GenomicVariant.compare(current, candidate) != 0) {
+                    next = candidate;
+                    break;
+                }
+            }
+            return current;
+        }
+    }
+
+    public static class Builder {
+
+        private int maxVariantsInMemory = DEFAULT_MAX_VARIANTS_IN_MEMORY;
+        private int mergeFactor = DEFAULT_MERGE_FACTOR;
+        private Path tempDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+        private boolean deduplicate = false;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxVariantsInMemory the maximum number of variants to be held in memory while sorting each run.
+         */
+        public Builder maxVariantsInMemory(int maxVariantsInMemory) {
+            if (maxVariantsInMemory < 1) {
+                throw new IllegalArgumentException("maxVariantsInMemory must be > 0, got " + maxVariantsInMemory);
+            }
+            this.maxVariantsInMemory = maxVariantsInMemory;
+            return this;
+        }
+
+        /**
+         * @param mergeFactor the maximum number of runs to merge at once, limiting the number of open files.
+         */
+        public Builder mergeFactor(int mergeFactor) {
+            if (mergeFactor < 2) {
+                throw new IllegalArgumentException("mergeFactor must be > 1, got " + mergeFactor);
+            }
+            this.mergeFactor = mergeFactor;
+            return this;
+        }
+
+        /**
+         * @param tempDirectory the directory in which to write the temporary run files.
+         */
+        public Builder tempDirectory(Path tempDirectory) {
+            this.tempDirectory = Objects.requireNonNull(tempDirectory, "tempDirectory cannot be null");
+            return this;
+        }
+
+        /**
+         * @param deduplicate whether variants which compare as equal should be removed from the output.
+         */
+        public Builder deduplicate(boolean deduplicate) {
+            this.deduplicate = deduplicate;
+            return this;
+        }
+
+        public ExternalGenomicVariantSorter build() {
+            return new ExternalGenomicVariantSorter(this);
+        }
+    }
+}
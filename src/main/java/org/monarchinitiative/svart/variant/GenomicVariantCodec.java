@@ -0,0 +1,453 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.variant.internal.IdCodec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Compact binary encoding of {@link GenomicVariant} to and from {@link ByteBuffer}, for example for storing variants in
+ * a key-value store or sending them between processes. Contigs are written as their id and resolved against the
+ * {@link GenomicAssembly} of the codec, so the same assembly must be used to encode and decode the variants.
+ * <p>
+ * Each record starts with a single header byte holding the format {@link #VERSION} and the kind of variant, followed by
+ * the fields of the variant. Integers are written as variable-length values, so that small values such as the length of
+ * an allele or a confidence interval bound take a single byte. The bits of a {@link CompactSequenceVariant} and the
+ * positions and bits of a {@link CompactGenomicBreakendVariant} are written as-is, and identifiers in the canonical
+ * rsID form are written as their rs number. An SNV with an rsID is encoded in at most 15 bytes.
+ * <p>
+ * Variants are decoded as the library implementation matching their kind, which will be the same as the input for any
+ * of the library implementations - i.e. {@link CompactSequenceVariant}, {@link DefaultSequenceVariant},
+ * {@link DefaultSymbolicVariant}, {@link DefaultGenomicBreakendVariant} and {@link CompactGenomicBreakendVariant}. A
+ * decoded variant will be equal to the original and have the same identifiers, with the exception of null identifiers
+ * which are decoded as an empty String.
+ * <p>
+ * Apart from the decoded variants themselves and their String fields, encoding and decoding do not allocate. Instances
+ * of this class are immutable and thread-safe.
+ *
+ * <pre>
+ * GenomicVariantCodec codec = GenomicVariantCodec.of(GenomicAssemblies.GRCh38p13());
+ * ByteBuffer buffer = ByteBuffer.allocate(codec.maxEncodedSize(variant));
+ * codec.encode(variant, buffer);
+ * buffer.flip();
+ * GenomicVariant decoded = codec.decode(buffer);
+ * </pre>
+ */
+public final class GenomicVariantCodec {
+
+    /**
+     * Version of the binary format written by this class.
+     */
+    public static final int VERSION = 1;
+
+    private static final int KIND_MASK = 0x0F;
+    private static final int VERSION_SHIFT = 4;
+
+    private static final int COMPACT_SEQUENCE = 0;
+    private static final int SEQUENCE = 1;
+    private static final int SYMBOLIC = 2;
+    private static final int BREAKEND = 3;
+    private static final int COMPACT_BREAKEND = 4;
+
+    // region flags
+    private static final int NEGATIVE_STRAND = 1;
+    private static final int ONE_BASED = 1 << 1;
+    private static final int IMPRECISE = 1 << 2;
+    private static final int UNRESOLVED = 1 << 3;
+
+    private static final int MAX_VARINT_BYTES = 5;
+    // header, contig, flags, start, 4 confidence interval bounds, end and change length
+    private static final int MAX_REGION_BYTES = 1 + MAX_VARINT_BYTES * 8;
+
+    private final GenomicAssembly assembly;
+    // resolves the contigs in place of the assembly for codecs of variants whose assembly is not known up front
+    private final ContigTable contigs;
+
+    private GenomicVariantCodec(GenomicAssembly assembly, ContigTable contigs) {
+        this.assembly = assembly;
+        this.contigs = contigs;
+    }
+
+    public static GenomicVariantCodec of(GenomicAssembly assembly) {
+        return new GenomicVariantCodec(Objects.requireNonNull(assembly, "assembly must not be null"), null);
+    }
+
+    /**
+     * Returns a codec resolving the contigs using the {@link ContigTable}, to which the contigs of the encoded variants
+     * are added. Such a codec can only decode the variants it has encoded itself, and has no {@link #assembly()}.
+     */
+    static GenomicVariantCodec of(ContigTable contigs) {
+        return new GenomicVariantCodec(null, Objects.requireNonNull(contigs, "contigs must not be null"));
+    }
+
+    /**
+     * @return the assembly used to resolve the contigs of the variants
+     */
+    public GenomicAssembly assembly() {
+        return assembly;
+    }
+
+    /**
+     * Returns an upper bound on the number of bytes required to encode the variant, suitable for sizing a buffer.
+     */
+    public int maxEncodedSize(GenomicVariant variant) {
+        if (variant instanceof CompactSequenceVariant compact) {
+            return 1 + MAX_VARINT_BYTES + Long.BYTES + maxIdSize(compact.literalId());
+        }
+        if (variant instanceof CompactGenomicBreakendVariant compact) {
+            return 1 + MAX_VARINT_BYTES * 2 + Long.BYTES * 2 + maxIdSize(compact.id()) + maxIdSize(compact.mateId()) + maxIdSize(compact.eventId());
+        }
+        if (variant instanceof GenomicBreakendVariant breakendVariant) {
+            GenomicBreakend left = breakendVariant.left();
+            GenomicBreakend right = breakendVariant.right();
+            return 1 + MAX_REGION_BYTES * 2 + maxIdSize(breakendVariant.eventId()) + maxIdSize(left.id()) + maxIdSize(right.id())
+                    + maxStringSize(variant.ref()) + maxStringSize(variant.alt());
+        }
+        return MAX_REGION_BYTES + maxIdSize(variant.id()) + maxStringSize(variant.ref()) + maxStringSize(variant.alt())
+                + maxIdSize(variant.mateId()) + maxIdSize(variant.eventId());
+    }
+
+    private static int maxIdSize(String id) {
+        return id == null ? MAX_VARINT_BYTES : MAX_VARINT_BYTES + maxStringSize(id);
+    }
+
+    private static int maxStringSize(String value) {
+        // UTF-8 requires at most 3 bytes per UTF-16 char
+        return MAX_VARINT_BYTES + value.length() * 3;
+    }
+
+    /**
+     * Writes the variant to the buffer starting at its current position, advancing the position past the encoded
+     * variant.
+     *
+     * @return the number of bytes written
+     * @throws IllegalArgumentException          if the variant contig is not part of the assembly of this codec.
+     * @throws java.nio.BufferOverflowException  if there is insufficient space remaining in the buffer. Use
+     *                                           {@link #maxEncodedSize(GenomicVariant)} to ensure the buffer is large
+     *                                           enough.
+     */
+    public int encode(GenomicVariant variant, ByteBuffer buffer) {
+        int start = buffer.position();
+        if (variant instanceof CompactSequenceVariant compact) {
+            writeHeader(buffer, COMPACT_SEQUENCE);
+            writeUnsignedVarint(buffer, contigId(compact.contig()));
+            buffer.putLong(compact.bits());
+            writeEncodedId(buffer, compact);
+        } else if (variant instanceof CompactGenomicBreakendVariant compact) {
+            writeHeader(buffer, COMPACT_BREAKEND);
+            writeUnsignedVarint(buffer, contigId(compact.contig()));
+            writeUnsignedVarint(buffer, contigId(compact.mateContig()));
+            buffer.putLong(compact.positions());
+            buffer.putLong(compact.bits());
+            writeId(buffer, compact.id());
+            writeId(buffer, compact.mateId());
+            writeId(buffer, compact.eventId());
+        } else if (variant instanceof GenomicBreakendVariant breakendVariant) {
+            writeHeader(buffer, BREAKEND);
+            writeId(buffer, breakendVariant.eventId());
+            writeBreakend(buffer, breakendVariant.left());
+            writeBreakend(buffer, breakendVariant.right());
+            writeString(buffer, variant.ref());
+            writeString(buffer, variant.alt());
+        } else if (variant.isSymbolic()) {
+            writeHeader(buffer, SYMBOLIC);
+            writeRegion(buffer, variant);
+            writeId(buffer, variant.id());
+            writeString(buffer, variant.ref());
+            writeString(buffer, variant.alt());
+            writeSignedVarint(buffer, variant.changeLength());
+            writeId(buffer, variant.mateId());
+            writeId(buffer, variant.eventId());
+        } else {
+            writeHeader(buffer, SEQUENCE);
+            writeRegion(buffer, variant);
+            writeId(buffer, variant.id());
+            writeString(buffer, variant.ref());
+            writeString(buffer, variant.alt());
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * Reads a variant from the buffer starting at its current position, advancing the position past the encoded
+     * variant.
+     *
+     * @throws IllegalArgumentException          if the record was written by an unsupported version of the format, or
+     *                                           refers to a contig which is not part of the assembly of this codec.
+     * @throws java.nio.BufferUnderflowException if the buffer does not contain a complete record.
+     */
+    public GenomicVariant decode(ByteBuffer buffer) {
+        int header = buffer.get() & 0xFF;
+        int version = header >>> VERSION_SHIFT;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported encoding version " + version + ", expected " + VERSION);
+        }
+        int kind = header & KIND_MASK;
+        return switch (kind) {
+            case COMPACT_SEQUENCE -> {
+                Contig contig = contig(readUnsignedVarint(buffer));
+                long bits = buffer.getLong();
+                yield readCompactSequenceVariant(buffer, contig, bits);
+            }
+            case SEQUENCE -> {
+                int flags = buffer.get();
+                Contig contig = contig(readUnsignedVarint(buffer));
+                Coordinates coordinates = readCoordinates(buffer, flags);
+                String id = readId(buffer);
+                String ref = readString(buffer);
+                String alt = readString(buffer);
+                yield DefaultSequenceVariant.of(contig, id, strand(flags), coordinates, ref, alt);
+            }
+            case SYMBOLIC -> {
+                int flags = buffer.get();
+                Contig contig = contig(readUnsignedVarint(buffer));
+                Coordinates coordinates = readCoordinates(buffer, flags);
+                String id = readId(buffer);
+                String ref = readString(buffer);
+                String alt = readString(buffer);
+                int changeLength = readSignedVarint(buffer);
+                String mateId = readId(buffer);
+                String eventId = readId(buffer);
+                yield DefaultSymbolicVariant.of(contig, id, strand(flags), coordinates, ref, alt, changeLength, mateId, eventId);
+            }
+            case BREAKEND -> {
+                String eventId = readId(buffer);
+                GenomicBreakend left = readBreakend(buffer);
+                GenomicBreakend right = readBreakend(buffer);
+                String ref = readString(buffer);
+                String alt = readString(buffer);
+                yield DefaultGenomicBreakendVariant.of(eventId, left, right, ref, alt);
+            }
+            case COMPACT_BREAKEND -> {
+                Contig contig = contig(readUnsignedVarint(buffer));
+                Contig mateContig = contig(readUnsignedVarint(buffer));
+                long positions = buffer.getLong();
+                long bits = buffer.getLong();
+                String id = readId(buffer);
+                String mateId = readId(buffer);
+                String eventId = readId(buffer);
+                yield new CompactGenomicBreakendVariant(contig, id, mateContig, mateId, eventId, positions, bits);
+            }
+            default -> throw new IllegalArgumentException("Unknown variant kind " + kind);
+        };
+    }
+
+    private static void writeHeader(ByteBuffer buffer, int kind) {
+        buffer.put((byte) (VERSION << VERSION_SHIFT | kind));
+    }
+
+    int contigId(Contig contig) {
+        if (contigs != null) {
+            return contigs.add(contig);
+        }
+        int id = contig.id();
+        Contig known = assembly.contigById(id);
+        if (known != contig && !known.equals(contig)) {
+            throw new IllegalArgumentException("Contig " + contig.name() + " with id " + id + " is not part of assembly " + assembly.name());
+        }
+        return id;
+    }
+
+    Contig contig(int id) {
+        if (contigs != null) {
+            return contigs.get(id);
+        }
+        Contig contig = assembly.contigById(id);
+        if (id != 0 && contig.isUnknown()) {
+            throw new IllegalArgumentException("Unknown contig id " + id + " for assembly " + assembly.name());
+        }
+        return contig;
+    }
+
+    private void writeRegion(ByteBuffer buffer, GenomicRegion region) {
+        Coordinates coordinates = region.coordinates();
+        boolean imprecise = !coordinates.isPrecise();
+        int flags = (region.strand() == Strand.NEGATIVE ? NEGATIVE_STRAND : 0)
+                | (coordinates.coordinateSystem() == CoordinateSystem.ONE_BASED ? ONE_BASED : 0)
+                | (imprecise ? IMPRECISE : 0);
+        buffer.put((byte) flags);
+        writeUnsignedVarint(buffer, contigId(region.contig()));
+        writeUnsignedVarint(buffer, coordinates.start());
+        writeSignedVarint(buffer, coordinates.end() - coordinates.start());
+        if (imprecise) {
+            writeConfidenceInterval(buffer, coordinates.startConfidenceInterval());
+            writeConfidenceInterval(buffer, coordinates.endConfidenceInterval());
+        }
+    }
+
+    private static Coordinates readCoordinates(ByteBuffer buffer, int flags) {
+        CoordinateSystem coordinateSystem = (flags & ONE_BASED) != 0 ? CoordinateSystem.ONE_BASED : CoordinateSystem.ZERO_BASED;
+        int start = readUnsignedVarint(buffer);
+        int end = start + readSignedVarint(buffer);
+        if ((flags & IMPRECISE) == 0) {
+            return Coordinates.of(coordinateSystem, start, end);
+        }
+        ConfidenceInterval startCi = readConfidenceInterval(buffer);
+        ConfidenceInterval endCi = readConfidenceInterval(buffer);
+        return Coordinates.of(coordinateSystem, start, startCi, end, endCi);
+    }
+
+    private static Strand strand(int flags) {
+        return (flags & NEGATIVE_STRAND) != 0 ? Strand.NEGATIVE : Strand.POSITIVE;
+    }
+
+    private static void writeConfidenceInterval(ByteBuffer buffer, ConfidenceInterval confidenceInterval) {
+        writeSignedVarint(buffer, confidenceInterval.lowerBound());
+        writeSignedVarint(buffer, confidenceInterval.upperBound());
+    }
+
+    private static ConfidenceInterval readConfidenceInterval(ByteBuffer buffer) {
+        int lowerBound = readSignedVarint(buffer);
+        int upperBound = readSignedVarint(buffer);
+        return lowerBound == 0 && upperBound == 0 ? ConfidenceInterval.precise() : ConfidenceInterval.of(lowerBound, upperBound);
+    }
+
+    private void writeBreakend(ByteBuffer buffer, GenomicBreakend breakend) {
+        if (breakend.isUnresolved()) {
+            buffer.put((byte) (UNRESOLVED | (breakend.coordinateSystem() == CoordinateSystem.ONE_BASED ? ONE_BASED : 0)));
+        } else {
+            writeRegion(buffer, breakend);
+        }
+        writeId(buffer, breakend.id());
+    }
+
+    private GenomicBreakend readBreakend(ByteBuffer buffer) {
+        int flags = buffer.get();
+        if ((flags & UNRESOLVED) != 0) {
+            CoordinateSystem coordinateSystem = (flags & ONE_BASED) != 0 ? CoordinateSystem.ONE_BASED : CoordinateSystem.ZERO_BASED;
+            return GenomicBreakend.unresolved(coordinateSystem, readId(buffer));
+        }
+        Contig contig = contig(readUnsignedVarint(buffer));
+        Coordinates coordinates = readCoordinates(buffer, flags);
+        return GenomicBreakend.of(contig, readId(buffer), strand(flags), coordinates);
+    }
+
+    /*
+     * Identifiers are written with a tag using the IdCodec values, with the literal String following the LITERAL tag.
+     */
+    private static void writeId(ByteBuffer buffer, String id) {
+        if (id == null || id.isEmpty()) {
+            writeSignedVarint(buffer, IdCodec.EMPTY);
+        } else if (id.length() == 1 && id.charAt(0) == '.') {
+            writeSignedVarint(buffer, IdCodec.MISSING);
+        } else {
+            int rsNumber = IdCodec.parseRsNumber(id);
+            if (rsNumber > 0) {
+                writeSignedVarint(buffer, rsNumber);
+            } else {
+                writeLiteralId(buffer, id);
+            }
+        }
+    }
+
+    private static void writeLiteralId(ByteBuffer buffer, String id) {
+        writeSignedVarint(buffer, IdCodec.LITERAL);
+        writeString(buffer, id);
+    }
+
+    private static String readId(ByteBuffer buffer) {
+        int tag = readSignedVarint(buffer);
+        return tag >= IdCodec.MISSING ? IdCodec.decodeId(tag) : readString(buffer);
+    }
+
+    /**
+     * Writes the identifier of the {@link CompactSequenceVariant} directly from its encoded value.
+     */
+    static void writeEncodedId(ByteBuffer buffer, CompactSequenceVariant variant) {
+        int encodedId = variant.encodedId();
+        if (encodedId == IdCodec.LITERAL) {
+            writeLiteralId(buffer, variant.literalId());
+        } else {
+            writeSignedVarint(buffer, encodedId);
+        }
+    }
+
+    /**
+     * Reads an identifier written by {@link #writeEncodedId(ByteBuffer, CompactSequenceVariant)} from the buffer,
+     * returning the {@link CompactSequenceVariant} of the contig and bits with that identifier.
+     */
+    static CompactSequenceVariant readCompactSequenceVariant(ByteBuffer buffer, Contig contig, long bits) {
+        int tag = readSignedVarint(buffer);
+        if (tag >= IdCodec.MISSING) {
+            return new CompactSequenceVariant(contig, tag, null, bits);
+        }
+        return new CompactSequenceVariant(contig, IdCodec.LITERAL, readString(buffer), bits);
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        int length = value.length();
+        if (isAscii(value)) {
+            // alleles and most identifiers are ASCII, so can be written without an intermediate byte array
+            writeUnsignedVarint(buffer, length);
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeUnsignedVarint(buffer, bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = readUnsignedVarint(buffer);
+        if (length == 0) {
+            return "";
+        }
+        if (buffer.hasArray()) {
+            int position = buffer.position();
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            String value = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+            buffer.position(position + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeUnsignedVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readUnsignedVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length int");
+    }
+
+    static void writeSignedVarint(ByteBuffer buffer, int value) {
+        // zig-zag encoding so that small negative values also take a single byte
+        writeUnsignedVarint(buffer, (value << 1) ^ (value >> 31));
+    }
+
+    static int readSignedVarint(ByteBuffer buffer) {
+        int value = readUnsignedVarint(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
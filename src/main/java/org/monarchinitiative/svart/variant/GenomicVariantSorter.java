@@ -0,0 +1,209 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.GenomicVariant;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Utility class for sorting large numbers of {@link GenomicVariant} into {@link GenomicVariant#naturalOrder()}.
+ * <p>
+ * The natural order compares the contig id, start, start confidence interval and end before any of the alleles or
+ * other fields. These leading fields are packed into a pair of long keys per variant which are sorted using an LSD
+ * radix sort, skipping any byte positions which are identical across all the keys. The full comparator is then only
+ * used to order runs of variants with identical keys, for example multi-allelic sites, which will be short for most
+ * real data. The resulting order is identical to sorting using {@link GenomicVariant#naturalOrder()}.
+ * <p>
+ * The sort is stable and requires about 32 bytes of temporary storage per variant in addition to the input.
+ */
+public final class GenomicVariantSorter {
+
+    // below this size the overhead of creating the keys is greater than the cost of a comparison sort
+    private static final int RADIX_SORT_THRESHOLD = 2048;
+    private static final int RADIX = 256;
+    private static final int BYTES_PER_KEY = Long.BYTES;
+
+    private GenomicVariantSorter() {
+    }
+
+    /**
+     * Sorts the array of variants into {@link GenomicVariant#naturalOrder()}.
+     *
+     * @param variants the variants to be sorted
+     */
+    public static <T extends GenomicVariant> void sort(T[] variants) {
+        sort(variants, 0, variants.length);
+    }
+
+    /**
+     * Sorts the specified range of the array of variants into {@link GenomicVariant#naturalOrder()}.
+     *
+     * @param variants  the variants to be sorted
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param toIndex   the index of the last element, exclusive, to be sorted
+     */
+    public static <T extends GenomicVariant> void sort(T[] variants, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > variants.length || fromIndex > toIndex) {
+            throw new IllegalArgumentException("Illegal range fromIndex=" + fromIndex + ", toIndex=" + toIndex + " for array of length " + variants.length);
+        }
+        int length = toIndex - fromIndex;
+        if (length < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(variants, fromIndex, toIndex, GenomicVariant.naturalOrder());
+            return;
+        }
+        long[] primaryKeys = new long[length];
+        long[] secondaryKeys = new long[length];
+        for (int i = 0; i < length; i++) {
+            GenomicVariant variant = variants[fromIndex + i];
+            primaryKeys[i] = primaryKey(variant);
+            secondaryKeys[i] = secondaryKey(variant);
+        }
+        int[] order = radixSort(primaryKeys, secondaryKeys);
+
+        Object[] sorted = new Object[length];
+        for (int i = 0; i < length; i++) {
+            sorted[i] = variants[fromIndex + order[i]];
+        }
+        System.arraycopy(sorted, 0, variants, fromIndex, length);
+        sortTies(variants, fromIndex, primaryKeys);
+    }
+
+    /**
+     * Sorts the list of variants into {@link GenomicVariant#naturalOrder()}.
+     *
+     * @param variants the variants to be sorted
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends GenomicVariant> void sort(List<T> variants) {
+        GenomicVariant[] array = variants.toArray(new GenomicVariant[0]);
+        sort(array);
+        ListIterator<T> iterator = variants.listIterator();
+        for (GenomicVariant variant : array) {
+            iterator.next();
+            iterator.set((T) variant);
+        }
+    }
+
+    /**
+     * The contig id and zero-based start. The sign-bit of the start is flipped so that the unsigned 32-bit value
+     * sorts in the same order as the signed int.
+     */
+    private static long primaryKey(GenomicVariant variant) {
+        return ((long) variant.contig().id() << Integer.SIZE) | ((variant.startZeroBased() ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The start confidence interval length and end. The end is identical in both coordinate systems.
+     */
+    private static long secondaryKey(GenomicVariant variant) {
+        return ((long) variant.startConfidenceInterval().length() << Integer.SIZE) | ((variant.end() ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the stable sort order of the keys, sorting first by the primary key and then the secondary key. The
+     * key arrays are sorted in place.
+     */
+    private static int[] radixSort(long[] primaryKeys, long[] secondaryKeys) {
+        int length = primaryKeys.length;
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        int[] orderBuffer = new int[length];
+        long[] keyBuffer = new long[length];
+        // least significant key first
+        int[][] secondaryCounts = byteCounts(secondaryKeys);
+        int[][] primaryCounts = byteCounts(primaryKeys);
+        boolean secondaryMoved = false;
+        for (int bytePosition = 0; bytePosition < BYTES_PER_KEY; bytePosition++) {
+            if (!isSingleBucket(secondaryCounts[bytePosition], length)) {
+                scatter(secondaryKeys, keyBuffer, order, orderBuffer, secondaryCounts[bytePosition], bytePosition);
+                System.arraycopy(keyBuffer, 0, secondaryKeys, 0, length);
+                int[] orderTemp = order;
+                order = orderBuffer;
+                orderBuffer = orderTemp;
+                secondaryMoved = true;
+            }
+        }
+        if (secondaryMoved) {
+            // bring the primary keys into the current order
+            for (int i = 0; i < length; i++) {
+                keyBuffer[i] = primaryKeys[order[i]];
+            }
+            System.arraycopy(keyBuffer, 0, primaryKeys, 0, length);
+        }
+        for (int bytePosition = 0; bytePosition < BYTES_PER_KEY; bytePosition++) {
+            if (!isSingleBucket(primaryCounts[bytePosition], length)) {
+                scatter(primaryKeys, keyBuffer, order, orderBuffer, primaryCounts[bytePosition], bytePosition);
+                System.arraycopy(keyBuffer, 0, primaryKeys, 0, length);
+                int[] orderTemp = order;
+                order = orderBuffer;
+                orderBuffer = orderTemp;
+            }
+        }
+        return order;
+    }
+
+    private static int[][] byteCounts(long[] keys) {
+        int[][] counts = new int[BYTES_PER_KEY][RADIX];
+        for (long key : keys) {
+            for (int bytePosition = 0; bytePosition < BYTES_PER_KEY; bytePosition++) {
+                counts[bytePosition][bucket(key, bytePosition)]++;
+            }
+        }
+        return counts;
+    }
+
+    private static boolean isSingleBucket(int[] counts, int length) {
+        for (int count : counts) {
+            if (count != 0) {
+                return count == length;
+            }
+        }
+        return true;
+    }
+
+    private static int bucket(long key, int bytePosition) {
+        int bucket = (int) (key >>> (bytePosition * Byte.SIZE)) & 0xFF;
+        // flip the sign bit of the most significant byte so that negative keys sort first
+        return bytePosition == BYTES_PER_KEY - 1 ? bucket ^ 0x80 : bucket;
+    }
+
+    private static void scatter(long[] keys, long[] keyBuffer, int[] order, int[] orderBuffer, int[] counts, int bytePosition) {
+        int[] offsets = new int[RADIX];
+        int offset = 0;
+        for (int i = 0; i < RADIX; i++) {
+            offsets[i] = offset;
+            offset += counts[i];
+        }
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            int position = offsets[bucket(key, bytePosition)]++;
+            keyBuffer[position] = key;
+            orderBuffer[position] = order[i];
+        }
+    }
+
+    /**
+     * Sorts runs of variants with identical keys using the full comparator. The primary keys are in sorted order, but
+     * the secondary keys are not so these are re-calculated from the sorted variants.
+     */
+    private static <T extends GenomicVariant> void sortTies(T[] variants, int fromIndex, long[] primaryKeys) {
+        Comparator<GenomicVariant> comparator = GenomicVariant.naturalOrder();
+        int length = primaryKeys.length;
+        int runStart = 0;
+        long runSecondaryKey = secondaryKey(variants[fromIndex]);
+        for (int i = 1; i <= length; i++) {
+            long secondaryKey = i == length ? 0 : secondaryKey(variants[fromIndex + i]);
+            if (i == length || primaryKeys[i] != primaryKeys[runStart] || secondaryKey != runSecondaryKey) {
+                if (i - runStart > 1) {
+                    Arrays.sort(variants, fromIndex + runStart, fromIndex + i, comparator);
+                }
+                runStart = i;
+                runSecondaryKey = secondaryKey;
+            }
+        }
+    }
+}
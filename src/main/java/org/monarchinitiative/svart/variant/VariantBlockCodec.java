@@ -0,0 +1,146 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.GenomicVariant;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.monarchinitiative.svart.variant.GenomicVariantCodec.*;
+
+/**
+ * Columnar encoding of a block of variants on a single contig, as used by the {@link VariantFileWriter} and
+ * {@link VariantFileReader}. {@link CompactSequenceVariant}, which form the vast majority of variants in a typical VCF
+ * file, are split into three columns:
+ * <pre>
+ * starts   zero-based start as the zig-zag delta from the previous start
+ * alleles  the lower 32 bits of the variant bits holding the 2-bit encoded alleles, strand and coordinate system
+ * ids      the identifier encoded as for the {@link GenomicVariantCodec}, i.e. canonical rsIDs as their number
+ * </pre>
+ * with any other variants written to a fourth column using the {@link GenomicVariantCodec}. The order of the variants is
+ * retained using a kind column with one byte per variant. Each column is contiguous, so that when compressed the
+ * positions, alleles and identifiers each benefit from their own redundancy.
+ * <p>
+ * The payload layout is:
+ * <pre>
+ * int     variant count
+ * int     compact variant count
+ * int     starts column length
+ * int     ids column length
+ * byte[]  kinds
+ * byte[]  starts
+ * int[]   alleles
+ * byte[]  ids
+ * byte[]  other variants
+ * </pre>
+ */
+final class VariantBlockCodec {
+
+    private static final byte COMPACT = 0;
+    private static final byte OTHER = 1;
+    private static final int HEADER_BYTES = Integer.BYTES * 4;
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+
+    private final GenomicVariantCodec codec;
+
+    VariantBlockCodec(GenomicVariantCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * @return an upper bound on the number of bytes required to encode the variants.
+     */
+    int maxEncodedSize(List<? extends GenomicVariant> variants) {
+        long size = HEADER_BYTES;
+        for (GenomicVariant variant : variants) {
+            size += 1 + codec.maxEncodedSize(variant);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Block of " + variants.size() + " variants is too large to encode");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Writes the variants, which must all be located on the same contig, to the buffer.
+     */
+    void encode(List<? extends GenomicVariant> variants, ByteBuffer buffer) {
+        int headerPosition = buffer.position();
+        buffer.position(headerPosition + HEADER_BYTES);
+        int compactCount = 0;
+        for (GenomicVariant variant : variants) {
+            boolean compact = variant instanceof CompactSequenceVariant;
+            buffer.put(compact ? COMPACT : OTHER);
+            if (compact) {
+                // fail-fast on a contig from another assembly, as the compact columns do not include the contig
+                codec.contigId(variant.contig());
+                compactCount++;
+            }
+        }
+        int startsPosition = buffer.position();
+        int previousStart = 0;
+        for (GenomicVariant variant : variants) {
+            if (variant instanceof CompactSequenceVariant compact) {
+                int start = (int) (compact.bits() >>> 32);
+                writeSignedVarint(buffer, start - previousStart);
+                previousStart = start;
+            }
+        }
+        int startsLength = buffer.position() - startsPosition;
+        for (GenomicVariant variant : variants) {
+            if (variant instanceof CompactSequenceVariant compact) {
+                buffer.putInt((int) compact.bits());
+            }
+        }
+        int idsPosition = buffer.position();
+        for (GenomicVariant variant : variants) {
+            if (variant instanceof CompactSequenceVariant compact) {
+                writeEncodedId(buffer, compact);
+            }
+        }
+        int idsLength = buffer.position() - idsPosition;
+        for (GenomicVariant variant : variants) {
+            if (!(variant instanceof CompactSequenceVariant)) {
+                codec.encode(variant, buffer);
+            }
+        }
+        buffer.putInt(headerPosition, variants.size())
+                .putInt(headerPosition + Integer.BYTES, compactCount)
+                .putInt(headerPosition + Integer.BYTES * 2, startsLength)
+                .putInt(headerPosition + Integer.BYTES * 3, idsLength);
+    }
+
+    /**
+     * Reads all the variants from the buffer, which must contain a single complete block.
+     */
+    List<GenomicVariant> decode(ByteBuffer buffer, Contig contig) {
+        int position = buffer.position();
+        int count = buffer.getInt(position);
+        int compactCount = buffer.getInt(position + Integer.BYTES);
+        int startsLength = buffer.getInt(position + Integer.BYTES * 2);
+        int idsLength = buffer.getInt(position + Integer.BYTES * 3);
+
+        int kindsPosition = position + HEADER_BYTES;
+        ByteBuffer starts = buffer.duplicate().position(kindsPosition + count);
+        int allelesPosition = starts.position() + startsLength;
+        ByteBuffer ids = buffer.duplicate().position(allelesPosition + compactCount * Integer.BYTES);
+        ByteBuffer others = buffer.duplicate().position(ids.position() + idsLength);
+
+        List<GenomicVariant> variants = new ArrayList<>(count);
+        int start = 0;
+        int allelePosition = allelesPosition;
+        for (int i = 0; i < count; i++) {
+            if (buffer.get(kindsPosition + i) == COMPACT) {
+                start += readSignedVarint(starts);
+                long bits = ((long) start << 32) | (buffer.getInt(allelePosition) & POSITION_MASK);
+                allelePosition += Integer.BYTES;
+                variants.add(readCompactSequenceVariant(ids, contig, bits));
+            } else {
+                variants.add(codec.decode(others));
+            }
+        }
+        buffer.position(others.position());
+        return variants;
+    }
+}
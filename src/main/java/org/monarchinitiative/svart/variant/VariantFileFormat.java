@@ -0,0 +1,50 @@
+package org.monarchinitiative.svart.variant;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Constants and index structures of the block-compressed variant file format written by the {@link VariantFileWriter}
+ * and read by the {@link VariantFileReader}. The file layout is:
+ * <pre>
+ * header   magic (4 bytes), format version (1 byte), assembly name (modified UTF-8 as written by DataOutput#writeUTF)
+ * blocks   deflate-compressed {@link VariantBlockCodec} payloads
+ * index    one {@link BlockIndexEntry} per block
+ * footer   index offset (8 bytes), block count (4 bytes), magic (4 bytes)
+ * </pre>
+ * All values are big-endian.
+ */
+final class VariantFileFormat {
+
+    // 'SVRT'
+    static final int MAGIC = 0x53565254;
+    static final byte VERSION = 1;
+    static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES * 2;
+
+    private VariantFileFormat() {
+    }
+
+    /**
+     * Location and extent of a single block of variants. The minStart and maxEnd are the minimum start and maximum
+     * end of the variants in the block on the positive strand in zero-based coordinates, as returned by
+     * {@link org.monarchinitiative.svart.GenomicInterval#startStd()} and
+     * {@link org.monarchinitiative.svart.GenomicInterval#endStd()}.
+     */
+    record BlockIndexEntry(int contigId, int minStart, int maxEnd, int variantCount, long offset, int compressedLength, int length) {
+
+        static final int BYTES = Integer.BYTES * 6 + Long.BYTES;
+
+        void write(ByteBuffer buffer) {
+            buffer.putInt(contigId)
+                    .putInt(minStart)
+                    .putInt(maxEnd)
+                    .putInt(variantCount)
+                    .putLong(offset)
+                    .putInt(compressedLength)
+                    .putInt(length);
+        }
+
+        static BlockIndexEntry read(ByteBuffer buffer) {
+            return new BlockIndexEntry(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getInt(), buffer.getInt());
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.Coordinates;
+import org.monarchinitiative.svart.GenomicRegion;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.variant.VariantFileFormat.BlockIndexEntry;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the block-compressed variant files written by the {@link VariantFileWriter}. The block index is loaded when the
+ * file is opened, with blocks only being read and decompressed as the returned streams are consumed. Region queries
+ * use the index to locate the first block which could contain an overlapping variant and stop once no further blocks
+ * can overlap the region, so only the blocks required are read from the file.
+ * <p>
+ * Blocks are read using positional reads by default, or can be memory-mapped by opening the reader with
+ * {@code memoryMapped} set to true. Variants are returned as the library implementation matching their kind (see
+ * {@link GenomicVariantCodec}). The {@link GenomicAssembly} used to read the file must have the same name as the one
+ * used to write it.
+ * <pre>
+ * try (VariantFileReader reader = VariantFileReader.open(path, GenomicAssemblies.GRCh38p13());
+ *      Stream&lt;GenomicVariant&gt; variants = reader.variants(region)) {
+ *     variants.forEach(...);
+ * }
+ * </pre>
+ * Instances of this class are thread-safe, with any number of streams able to be consumed concurrently.
+ */
+public final class VariantFileReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final GenomicAssembly assembly;
+    private final VariantBlockCodec blockCodec;
+    private final boolean memoryMapped;
+    private final BlockIndexEntry[] index;
+    // maximum end of the blocks on the same contig up to and including each block, which is non-decreasing
+    private final int[] maxEndUpTo;
+    // minimum start of the blocks on the same contig from each block onwards, which is non-decreasing
+    private final int[] minStartFrom;
+    private final long variantCount;
+
+    private VariantFileReader(FileChannel channel, GenomicAssembly assembly, boolean memoryMapped) throws IOException {
+        this.channel = channel;
+        this.assembly = assembly;
+        this.blockCodec = new VariantBlockCodec(GenomicVariantCodec.of(assembly));
+        this.memoryMapped = memoryMapped;
+        readHeader();
+        this.index = readIndex();
+        this.maxEndUpTo = new int[index.length];
+        this.minStartFrom = new int[index.length];
+        long count = 0;
+        for (int i = 0; i < index.length; i++) {
+            BlockIndexEntry entry = index[i];
+            boolean sameContig = i > 0 && index[i - 1].contigId() == entry.contigId();
+            maxEndUpTo[i] = sameContig ? Math.max(maxEndUpTo[i - 1], entry.maxEnd()) : entry.maxEnd();
+            count += entry.variantCount();
+        }
+        for (int i = index.length - 1; i >= 0; i--) {
+            BlockIndexEntry entry = index[i];
+            boolean sameContig = i < index.length - 1 && index[i + 1].contigId() == entry.contigId();
+            minStartFrom[i] = sameContig ? Math.min(minStartFrom[i + 1], entry.minStart()) : entry.minStart();
+        }
+        this.variantCount = count;
+    }
+
+    /**
+     * Opens the file for reading using positional reads.
+     *
+     * @throws UncheckedIOException     if the file could not be read.
+     * @throws IllegalArgumentException if the file is not a variant file, or was written using a different assembly.
+     */
+    public static VariantFileReader open(Path path, GenomicAssembly assembly) {
+        return open(path, assembly, false);
+    }
+
+    /**
+     * Opens the file for reading, optionally memory-mapping the blocks as they are read.
+     *
+     * @throws UncheckedIOException     if the file could not be read.
+     * @throws IllegalArgumentException if the file is not a variant file, or was written using a different assembly.
+     */
+    public static VariantFileReader open(Path path, GenomicAssembly assembly, boolean memoryMapped) {
+        Objects.requireNonNull(assembly, "assembly must not be null");
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new VariantFileReader(channel, assembly, memoryMapped);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private void readHeader() throws IOException {
+        // not closed, as this would close the channel
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        if (in.readInt() != VariantFileFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a variant file - invalid header");
+        }
+        int version = in.readByte();
+        if (version != VariantFileFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported variant file version " + version + ", expected " + VariantFileFormat.VERSION);
+        }
+        String assemblyName = in.readUTF();
+        if (!assemblyName.equals(assembly.name())) {
+            throw new IllegalArgumentException("File was written using assembly " + assemblyName + " but is being read using " + assembly.name());
+        }
+    }
+
+    private BlockIndexEntry[] readIndex() throws IOException {
+        long size = channel.size();
+        if (size < VariantFileFormat.FOOTER_BYTES) {
+            throw new IllegalArgumentException("Not a variant file - missing footer");
+        }
+        ByteBuffer footer = read(size - VariantFileFormat.FOOTER_BYTES, VariantFileFormat.FOOTER_BYTES);
+        long indexOffset = footer.getLong();
+        int blockCount = footer.getInt();
+        if (footer.getInt() != VariantFileFormat.MAGIC) {
+            throw new IllegalArgumentException("Not a variant file - invalid footer. The file may not have been closed after writing.");
+        }
+        ByteBuffer indexBuffer = read(indexOffset, blockCount * BlockIndexEntry.BYTES);
+        BlockIndexEntry[] entries = new BlockIndexEntry[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            entries[i] = BlockIndexEntry.read(indexBuffer);
+        }
+        return entries;
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        if (memoryMapped) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of file reading " + length + " bytes at offset " + offset);
+            }
+        }
+        return buffer.flip();
+    }
+
+    public GenomicAssembly assembly() {
+        return assembly;
+    }
+
+    /**
+     * @return the total number of variants in the file.
+     */
+    public long variantCount() {
+        return variantCount;
+    }
+
+    /**
+     * @return the number of blocks in the file.
+     */
+    public int blockCount() {
+        return index.length;
+    }
+
+    /**
+     * Returns a lazily-read {@link Stream} of all the variants in the file, in the order they were written.
+     *
+     * @throws UncheckedIOException if a block could not be read from the file when consuming the stream.
+     */
+    public Stream<GenomicVariant> variants() {
+        return IntStream.range(0, index.length)
+                .mapToObj(this::readBlock)
+                .flatMap(Function.identity());
+    }
+
+    /**
+     * Returns a lazily-read {@link Stream} of the variants overlapping the region, in the order they were written.
+     * Variants are considered to overlap the region as defined by {@link Coordinates#overlapZeroBased(int, int, int, int)},
+     * irrespective of their strand.
+     *
+     * @throws UncheckedIOException if a block could not be read from the file when consuming the stream.
+     */
+    public Stream<GenomicVariant> variants(GenomicRegion region) {
+        int contigId = region.contigId();
+        int start = region.startStd();
+        int end = region.endStd();
+        int from = firstBlock(contigId, start);
+        int to = from;
+        while (to < index.length && index[to].contigId() == contigId && minStartFrom[to] <= end) {
+            to++;
+        }
+        return IntStream.range(from, to)
+                .filter(i -> index[i].minStart() <= end && index[i].maxEnd() >= start)
+                .mapToObj(this::readBlock)
+                .flatMap(Function.identity())
+                .filter(variant -> variant.contigId() == contigId && Coordinates.overlapZeroBased(variant.startStd(), variant.endStd(), start, end));
+    }
+
+    /**
+     * Returns the index of the first block on the contig which could contain a variant ending at or after the start,
+     * or the index of the first block of the next contig if there is none.
+     */
+    private int firstBlock(int contigId, int start) {
+        int low = 0;
+        int high = index.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int midContigId = index[mid].contigId();
+            if (midContigId < contigId || midContigId == contigId && maxEndUpTo[mid] < start) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private Stream<GenomicVariant> readBlock(int block) {
+        BlockIndexEntry entry = index[block];
+        Inflater inflater = new Inflater();
+        try {
+            ByteBuffer compressed = read(entry.offset(), entry.compressedLength());
+            ByteBuffer payload = ByteBuffer.allocate(entry.length());
+            inflater.setInput(compressed);
+            while (payload.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(payload) == 0 && inflater.needsInput()) {
+                    throw new EOFException("Truncated block at offset " + entry.offset());
+                }
+            }
+            payload.flip();
+            List<GenomicVariant> variants = blockCodec.decode(payload, assembly.contigById(entry.contigId()));
+            return variants.stream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupt block at offset " + entry.offset(), e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
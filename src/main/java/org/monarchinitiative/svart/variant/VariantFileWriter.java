@@ -0,0 +1,246 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.variant.VariantFileFormat.BlockIndexEntry;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+/**
+ * Writes {@link GenomicVariant} to a block-compressed, indexed columnar file which can be read using the
+ * {@link VariantFileReader}. This allows a set of normalised variants to be persisted once and then efficiently scanned
+ * or queried by {@link org.monarchinitiative.svart.GenomicRegion} many times, without having to re-parse the original
+ * VCF file.
+ * <p>
+ * Variants are written in blocks of up to {@link Builder#blockSize(int)} variants from a single contig. Within a block
+ * the variants are stored in columns (see {@link VariantBlockCodec}) and each block is compressed using deflate. The
+ * location of each block along with the minimum start and maximum end of its variants is written to an index at the
+ * end of the file, allowing the reader to load only the blocks overlapping a region.
+ * <p>
+ * Variants must be written in {@link GenomicVariant#naturalOrder()} and all be from the {@link GenomicAssembly} of the
+ * writer. Unsorted input can be sorted using the {@link GenomicVariantSorter} or, for larger inputs, the
+ * {@link ExternalGenomicVariantSorter}. The file is not readable until this writer has been closed.
+ * <pre>
+ * try (VariantFileWriter writer = VariantFileWriter.builder().build(path, GenomicAssemblies.GRCh38p13())) {
+ *     writer.writeAll(sortedVariants);
+ * }
+ * </pre>
+ * This class is not thread-safe.
+ */
+public final class VariantFileWriter implements AutoCloseable {
+
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private final DataOutputStream out;
+    private final GenomicAssembly assembly;
+    private final VariantBlockCodec blockCodec;
+    private final int blockSize;
+    private final Deflater deflater;
+    private final List<GenomicVariant> block;
+    private final List<BlockIndexEntry> index = new ArrayList<>();
+    private ByteBuffer payload = ByteBuffer.allocate(64 * 1024);
+    private byte[] compressed = new byte[64 * 1024];
+    private long position;
+    private GenomicVariant previous;
+    private boolean closed;
+
+    private VariantFileWriter(Builder builder, Path path, GenomicAssembly assembly) throws IOException {
+        this.assembly = Objects.requireNonNull(assembly, "assembly must not be null");
+        this.blockCodec = new VariantBlockCodec(GenomicVariantCodec.of(assembly));
+        this.blockSize = builder.blockSize;
+        this.block = new ArrayList<>(blockSize);
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024));
+        this.deflater = new Deflater(builder.compressionLevel);
+        try {
+            writeHeader();
+        } catch (IOException | RuntimeException e) {
+            deflater.end();
+            closeQuietly(out);
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new writer using the default settings.
+     *
+     * @throws UncheckedIOException if the file could not be created.
+     */
+    public static VariantFileWriter of(Path path, GenomicAssembly assembly) {
+        return builder().build(path, assembly);
+    }
+
+    public GenomicAssembly assembly() {
+        return assembly;
+    }
+
+    /**
+     * Writes the variant to the file.
+     *
+     * @throws IllegalArgumentException if the variant is not in natural order with respect to the previously written
+     *                                  variant or its contig is not part of the assembly of this writer.
+     * @throws UncheckedIOException     if the variant could not be written.
+     */
+    public void write(GenomicVariant variant) {
+        if (closed) {
+            throw new IllegalStateException("Writer has been closed");
+        }
+        if (previous != null && GenomicVariant.compare(previous, variant) > 0) {
+            throw new IllegalArgumentException("Variants must be written in natural order, but " + variant + " follows " + previous);
+        }
+        if (!block.isEmpty() && (block.size() == blockSize || block.get(0).contigId() != variant.contigId())) {
+            writeBlock();
+        }
+        block.add(variant);
+        previous = variant;
+    }
+
+    /**
+     * Writes all the variants to the file. The input stream is not closed by this method.
+     *
+     * @see #write(GenomicVariant)
+     */
+    public void writeAll(Stream<? extends GenomicVariant> variants) {
+        variants.forEachOrdered(this::write);
+    }
+
+    private void writeHeader() throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (DataOutputStream headerOut = new DataOutputStream(header)) {
+            headerOut.writeInt(VariantFileFormat.MAGIC);
+            headerOut.writeByte(VariantFileFormat.VERSION);
+            headerOut.writeUTF(assembly.name());
+        }
+        out.write(header.toByteArray());
+        position += header.size();
+    }
+
+    private void writeBlock() {
+        int required = blockCodec.maxEncodedSize(block);
+        if (payload.capacity() < required) {
+            payload = ByteBuffer.allocate(Math.max(required, payload.capacity() * 2));
+        }
+        payload.clear();
+        blockCodec.encode(block, payload);
+        int length = payload.position();
+
+        deflater.reset();
+        deflater.setInput(payload.array(), 0, length);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+
+        int minStart = Integer.MAX_VALUE;
+        int maxEnd = Integer.MIN_VALUE;
+        for (GenomicVariant variant : block) {
+            minStart = Math.min(minStart, variant.startStd());
+            maxEnd = Math.max(maxEnd, variant.endStd());
+        }
+        try {
+            out.write(compressed, 0, compressedLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index.add(new BlockIndexEntry(block.get(0).contigId(), minStart, maxEnd, block.size(), position, compressedLength, length));
+        position += compressedLength;
+        block.clear();
+    }
+
+    /**
+     * Writes any remaining variants along with the block index and closes the file.
+     *
+     * @throws UncheckedIOException if the file could not be written.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            if (!block.isEmpty()) {
+                writeBlock();
+            }
+            ByteBuffer indexBuffer = ByteBuffer.allocate(index.size() * BlockIndexEntry.BYTES + VariantFileFormat.FOOTER_BYTES);
+            index.forEach(entry -> entry.write(indexBuffer));
+            indexBuffer.putLong(position)
+                    .putInt(index.size())
+                    .putInt(VariantFileFormat.MAGIC);
+            out.write(indexBuffer.array());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static class Builder {
+
+        private int blockSize = DEFAULT_BLOCK_SIZE;
+        private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+        private Builder() {
+        }
+
+        /**
+         * The maximum number of variants in each block. Smaller blocks allow more selective region queries at the
+         * cost of a larger index and a lower compression ratio.
+         */
+        public Builder blockSize(int blockSize) {
+            if (blockSize <= 0) {
+                throw new IllegalArgumentException("blockSize must be > 0, got " + blockSize);
+            }
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * The deflate compression level from 0 (no compression) to 9 (best compression), or -1 for the default level.
+         */
+        public Builder compressionLevel(int compressionLevel) {
+            if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+                throw new IllegalArgumentException("compressionLevel must be between -1 and 9, got " + compressionLevel);
+            }
+            this.compressionLevel = compressionLevel;
+            return this;
+        }
+
+        /**
+         * Creates a new writer for the file at the path, replacing any existing file.
+         *
+         * @throws UncheckedIOException if the file could not be created.
+         */
+        public VariantFileWriter build(Path path, GenomicAssembly assembly) {
+            try {
+                return new VariantFileWriter(this, path, assembly);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
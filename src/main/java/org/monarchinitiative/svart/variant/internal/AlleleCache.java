@@ -1,7 +1,12 @@
-package org.monarchinitiative.svart.variant;
+package org.monarchinitiative.svart.variant.internal;
+
+import org.monarchinitiative.svart.VariantType;
+import org.monarchinitiative.svart.variant.AllelePool;
 
 /**
- * Package private utility class for cacheing single-base alleles.
+ * Utility class for cacheing the alleles of newly created variants. Single-base alleles are replaced with constant
+ * instances, while multi-base alleles are interned using the {@link AllelePool#defaultPool()}, with the exception of
+ * breakend alleles which are effectively unique.
  */
 public final class AlleleCache {
 
@@ -23,7 +28,10 @@ public final class AlleleCache {
      * @return the cached or original instance of the input allele
      */
     public static String cacheAllele(String allele) {
-        return allele.length() == 1 ? getCachedBase(allele) : allele;
+        if (allele.length() == 1) {
+            return getCachedBase(allele);
+        }
+        return VariantType.isBreakend(allele) ? allele : AllelePool.defaultPool().intern(allele);
     }
 
     private static String getCachedBase(String allele) {
@@ -1,4 +1,4 @@
-package org.monarchinitiative.svart.variant;
+package org.monarchinitiative.svart.variant.internal;
 
 public final class IdCache {
 
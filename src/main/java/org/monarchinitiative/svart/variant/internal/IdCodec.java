@@ -0,0 +1,112 @@
+package org.monarchinitiative.svart.variant.internal;
+
+/**
+ * Encoder/Decoder for variant identifiers into a single int, as used by the {@link CompactSequenceVariant}. The vast
+ * majority of identifiers found in VCF files are either missing (".") or dbSNP rsIDs (e.g. rs12345), which as a String
+ * would require about 48 bytes of heap per variant. Encoding these as an int allows the identifier to be stored as a
+ * primitive field with the String only being created when it is requested.
+ * <p>
+ * The encoding scheme is:
+ * <pre>
+ *  0       empty ("") or null identifier
+ * -1       missing (".") identifier
+ * -2       any other identifier, which must be held by the caller as a literal String
+ * &gt;0       dbSNP rsID where the value is the rs number e.g. 12345 = "rs12345"
+ * </pre>
+ * Identifiers which are not in the canonical rsID form (e.g. "rs012", "RS12", "rs12;rs34" or rs numbers larger than
+ * {@link Integer#MAX_VALUE}) are encoded as {@link #LITERAL}, and are decoded from the literal String using
+ * {@link #decodeId(int, String)}. No identifiers are held by this class.
+ */
+public final class IdCodec {
+
+    public static final int EMPTY = 0;
+    public static final int MISSING = -1;
+    public static final int LITERAL = -2;
+
+    private static final String EMPTY_ID = "";
+    private static final String MISSING_ID = ".";
+    private static final String RS_PREFIX = "rs";
+    // 'rs' + 10 digits i.e. "rs2147483647"
+    private static final int MAX_RS_ID_LENGTH = RS_PREFIX.length() + 10;
+
+    private IdCodec() {
+    }
+
+    /**
+     * Encodes the identifier as an int. rsIDs are encoded as their numerical value, with any other identifiers being
+     * encoded as {@link #LITERAL}.
+     *
+     * @param id An identifier string.
+     * @return the encoded identifier value.
+     */
+    public static int encodeId(String id) {
+        if (id == null || id.isEmpty()) {
+            return EMPTY;
+        }
+        if (id.length() == 1 && MISSING_ID.equals(id)) {
+            return MISSING;
+        }
+        int rsNumber = parseRsNumber(id);
+        return rsNumber > 0 ? rsNumber : LITERAL;
+    }
+
+    /**
+     * Decodes an encoded identifier value back to its original String representation. Empty and missing identifiers
+     * return cached instances, rsIDs will return a new String instance.
+     *
+     * @param encodedId an id encoded using the {@link #encodeId(String)} method.
+     * @return the identifier String represented by the encoded value.
+     * @throws IllegalArgumentException if the value is {@link #LITERAL} or not a valid encoded identifier.
+     */
+    public static String decodeId(int encodedId) {
+        if (encodedId == EMPTY) {
+            return EMPTY_ID;
+        }
+        if (encodedId == MISSING) {
+            return MISSING_ID;
+        }
+        if (encodedId > 0) {
+            return RS_PREFIX + encodedId;
+        }
+        throw new IllegalArgumentException("Unable to decode id " + encodedId + " - literal identifiers must be held as a String");
+    }
+
+    /**
+     * Decodes an encoded identifier value, returning the literal identifier if the value is {@link #LITERAL}.
+     *
+     * @param encodedId an id encoded using the {@link #encodeId(String)} method.
+     * @param literalId the original identifier where it was encoded as {@link #LITERAL}, otherwise ignored.
+     * @return the identifier String represented by the encoded value.
+     */
+    public static String decodeId(int encodedId, String literalId) {
+        return encodedId == LITERAL ? literalId : decodeId(encodedId);
+    }
+
+    /**
+     * @param encodedId an id encoded using the {@link #encodeId(String)} method.
+     * @return true if the encoded value represents a dbSNP rsID.
+     */
+    public static boolean isRsId(int encodedId) {
+        return encodedId > 0;
+    }
+
+    /**
+     * Returns the rs number for canonical rsIDs, i.e. 'rs' followed by digits with no leading zero, which can be
+     * exactly re-created from their numerical value. Any other input returns -1.
+     */
+    public static int parseRsNumber(String id) {
+        int length = id.length();
+        if (length <= RS_PREFIX.length() || length > MAX_RS_ID_LENGTH || id.charAt(0) != 'r' || id.charAt(1) != 's' || id.charAt(2) == '0') {
+            return -1;
+        }
+        long value = 0;
+        for (int i = RS_PREFIX.length(); i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= Integer.MAX_VALUE ? (int) value : -1;
+    }
+}
@@ -1,4 +1,4 @@
-package org.monarchinitiative.svart.variant;
+package org.monarchinitiative.svart.variant.internal;
 
 import java.util.Arrays;
 
@@ -55,6 +55,20 @@ public final class TwoBitBaseCodec {
         return true;
     }
 
+    /**
+     * Checks that the bases in the array from the offset are compatible with a 2-bit base encoding, as for
+     * {@link #isJustACGT(String)}.
+     */
+    public static boolean isJustACGT(byte[] bases, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            byte b = bases[i];
+            if (b < 0 || BASE_ENCODING_TABLE[b] == INVALID_BASE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean isValidBaseChar(char c) {
         return c < BASE_ENCODING_TABLE_SIZE && BASE_ENCODING_TABLE[c] != INVALID_BASE;
     }
@@ -87,6 +101,18 @@ public final class TwoBitBaseCodec {
         };
     }
 
+    /**
+     * Encodes up to 32 ASCII bases from the array identically to {@link #encodeAllele(String)}. The bases must already
+     * have been checked with {@link #isJustACGT(byte[], int, int)}.
+     */
+    public static long encodeBases(byte[] bases, int offset, int length) {
+        long encoded = 0L;
+        for (int i = offset; i < offset + length; i++) {
+            encoded = (encoded << 2) | BASE_ENCODING_TABLE[bases[i]];
+        }
+        return encoded;
+    }
+
     private static byte encodeBase(char c) {
         // this is safe to use directly without bounds checking as it is only used in the toBits method after the allele
         // has already been checked to fit within the lookup table
@@ -129,6 +155,20 @@ public final class TwoBitBaseCodec {
         };
     }
 
+    /**
+     * Returns the {@link String#hashCode()} of the allele which would be returned by
+     * {@link #decodeAllele(int, int, long)}, without creating it.
+     */
+    public static int hashAllele(int alleleLength, int offset, final long bits) {
+        int hash = 0;
+        int shift = offset;
+        for (int i = 0; i < alleleLength; i++) {
+            hash = 31 * hash + BASE_BYTES[(int) ((bits >> shift) & BASE_MASK)];
+            shift -= 2;
+        }
+        return hash;
+    }
+
     private static String newAlleleString(int alleleLength, int offset, final long bits) {
         byte[] bases = new byte[alleleLength];
         int shift = offset;
@@ -143,7 +183,7 @@ public final class TwoBitBaseCodec {
         return BASE_BYTES[base];
     }
 
-    static long reverseComplementAllele(int alleleLength, long offset, final long bits) {
+    public static long reverseComplementAllele(int alleleLength, long offset, final long bits) {
         if (alleleLength == 1) {
             // For single base, just complement (no reversal needed)
             return (~bits >> offset) & BASE_MASK;
@@ -0,0 +1,162 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.variant.CompactSequenceVariant;
+
+/**
+ * Converts between the {@link CompactSequenceVariant#bits()} and VariantKeys without decoding the alleles to Strings.
+ * <p>
+ * Both formats hold the allele lengths and 2-bit encoded bases in the same order, with the alleles of a
+ * {@link CompactSequenceVariant} being one bit to the left of those of a VariantKey to make room for its strand and
+ * coordinate system bits. A conversion is therefore just a shift of the alleles and a replacement of the upper bits.
+ * The position of the VariantKey is the zero-based start of the variant on the positive strand, as for
+ * {@link VariantKeys#encodeVariantKey(String, int, String, String)}, with variants on the negative strand being converted
+ * to the positive strand. The chromosome is found from the name, UCSC name or assigned molecule of the contig.
+ * <p>
+ * The keys are identical to those from {@link VariantKeys#encodeVariantKey(int, int, String, String)} given the
+ * {@link CompactSequenceVariant#startZeroBased()}, {@link CompactSequenceVariant#ref()} and
+ * {@link CompactSequenceVariant#alt()} of the variant on the positive strand. As a {@link CompactSequenceVariant} holds at
+ * most 11 bases, which is the limit of the reversible encoding, all the keys are reversible.
+ */
+public final class CompactVariantKeys {
+
+    private static final int START_OFFSET = 32;
+    // the allele lengths and bases, starting at bit 2 of the compact bits and bit 1 of a variant key
+    private static final long COMPACT_ALLELE_MASK = 0xFFFF_FFFCL;
+    private static final long STRAND_BIT = 0b10L;
+
+    private CompactVariantKeys() {
+    }
+
+    /**
+     * Returns the VariantKey of the variant. The key of a {@link CompactSequenceVariant} is transcoded from its bits,
+     * otherwise it is encoded from the zero-based start and alleles of the variant on the positive strand.
+     *
+     * @throws IllegalArgumentException if the contig cannot be encoded or the position exceeds
+     *                                  {@link VariantKeys#MAX_POS}
+     */
+    public static long variantKey(GenomicVariant variant) {
+        int chrom = VariantKeys.encodeChrom(variant.contig());
+        if (variant instanceof CompactSequenceVariant compact) {
+            return variantKey(compact.contig(), chrom, compact.bits());
+        }
+        GenomicVariant positive = variant.withStrand(Strand.POSITIVE);
+        return VariantKeys.encodeChromFieldPos(chrom, positive.startZeroBased()) | VariantKeys.encodeRefAlt(positive.ref(), positive.alt());
+    }
+
+    /**
+     * Returns the VariantKey of the variant on the contig with the given {@link CompactSequenceVariant#bits()}.
+     *
+     * @throws IllegalArgumentException if the contig cannot be encoded or the position exceeds
+     *                                  {@link VariantKeys#MAX_POS}
+     */
+    public static long variantKey(Contig contig, long compactBits) {
+        return variantKey(contig, VariantKeys.encodeChrom(contig), compactBits);
+    }
+
+    /**
+     * Returns the VariantKey of the variant with the already validated chromosome code.
+     */
+    static long variantKey(Contig contig, int chrom, long compactBits) {
+        long positive = CompactSequenceVariant.positiveStrandBits(contig, compactBits);
+        int start = (int) (positive >> START_OFFSET);
+        return VariantKeys.encodeChromFieldPos(chrom, start) | (positive & COMPACT_ALLELE_MASK) >>> 1;
+    }
+
+    /**
+     * Converts a column of {@link CompactSequenceVariant#bits()} of variants on the same contig to VariantKeys. The
+     * same array may be passed as both arguments to convert the column in place.
+     *
+     * @param compactBits the bits of the variants
+     * @param variantKeys the array to which the keys are written, at the same index as the bits
+     * @throws IllegalArgumentException if the contig cannot be encoded, a position exceeds {@link VariantKeys#MAX_POS}
+     *                                  or the arrays have different lengths
+     */
+    public static void variantKeys(Contig contig, long[] compactBits, long[] variantKeys) {
+        requireSameLength(compactBits.length, variantKeys.length);
+        int chrom = VariantKeys.encodeChrom(contig);
+        for (int i = 0; i < compactBits.length; i++) {
+            variantKeys[i] = variantKey(contig, chrom, compactBits[i]);
+        }
+    }
+
+    /**
+     * Converts the columns of contig ids and {@link CompactSequenceVariant#bits()} of variants on the contigs of the
+     * assembly to VariantKeys.
+     *
+     * @param contigIds   the {@link Contig#id()} of each variant
+     * @param compactBits the bits of the variants
+     * @param variantKeys the array to which the keys are written, at the same index as the bits
+     * @throws IllegalArgumentException if a contig is not in the assembly or cannot be encoded, a position exceeds
+     *                                  {@link VariantKeys#MAX_POS} or the arrays have different lengths
+     */
+    public static void variantKeys(GenomicAssembly assembly, int[] contigIds, long[] compactBits, long[] variantKeys) {
+        requireSameLength(contigIds.length, compactBits.length);
+        requireSameLength(compactBits.length, variantKeys.length);
+        Contig contig = null;
+        int chrom = 0;
+        for (int i = 0; i < compactBits.length; i++) {
+            int contigId = contigIds[i];
+            if (contig == null || contig.id() != contigId) {
+                contig = assembly.contigById(contigId);
+                if (contig.isUnknown()) {
+                    throw new IllegalArgumentException("Contig id " + contigId + " is not in assembly " + assembly.name());
+                }
+                chrom = VariantKeys.encodeChrom(contig);
+            }
+            variantKeys[i] = variantKey(contig, chrom, compactBits[i]);
+        }
+    }
+
+    /**
+     * Converts the columns of contig ids and {@link CompactSequenceVariant#bits()} of variants on the contigs of the
+     * assembly of the {@link VariantKeyContigs} to VariantKeys, using its chromosome codes.
+     *
+     * @param contigIds   the {@link Contig#id()} of each variant
+     * @param compactBits the bits of the variants
+     * @param variantKeys the array to which the keys are written, at the same index as the bits
+     * @throws IllegalArgumentException if a contig is not in the assembly, a position exceeds
+     *                                  {@link VariantKeys#MAX_POS} or the arrays have different lengths
+     */
+    public static void variantKeys(VariantKeyContigs variantKeyContigs, int[] contigIds, long[] compactBits, long[] variantKeys) {
+        requireSameLength(contigIds.length, compactBits.length);
+        requireSameLength(compactBits.length, variantKeys.length);
+        GenomicAssembly assembly = variantKeyContigs.genomicAssembly();
+        Contig contig = null;
+        int chrom = 0;
+        for (int i = 0; i < compactBits.length; i++) {
+            int contigId = contigIds[i];
+            if (contig == null || contig.id() != contigId) {
+                contig = assembly.contigById(contigId);
+                chrom = variantKeyContigs.encodeChrom(contig);
+            }
+            variantKeys[i] = variantKey(contig, chrom, compactBits[i]);
+        }
+    }
+
+    /**
+     * Returns the {@link CompactSequenceVariant#bits()} of a reversible VariantKey, for a variant on the positive strand
+     * in zero-based coordinates.
+     *
+     * @throws IllegalArgumentException if the key is not reversible or its alleles are longer than
+     *                                  {@link CompactSequenceVariant#MAX_BASES}
+     */
+    public static long compactBits(long variantKey) {
+        if (!VariantKeys.isReversible(variantKey)) {
+            throw new IllegalArgumentException("Cannot convert non-reversible variant key " + Long.toHexString(variantKey));
+        }
+        if (VariantKeys.refLength(variantKey) + VariantKeys.altLength(variantKey) > CompactSequenceVariant.MAX_BASES) {
+            throw new IllegalArgumentException("Variant key " + Long.toHexString(variantKey) + " has more than " + CompactSequenceVariant.MAX_BASES + " bases");
+        }
+        return VariantKeys.decodePos(variantKey) << START_OFFSET | (variantKey << 1 & COMPACT_ALLELE_MASK) | STRAND_BIT;
+    }
+
+    private static void requireSameLength(int expected, int actual) {
+        if (expected != actual) {
+            throw new IllegalArgumentException("Arrays must have the same length, but were " + expected + " and " + actual);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The handling shared by the memory-mapped index files of this package, which start with a header of a magic number
+ * and format version and end with a fixed-size footer holding the offsets of their sections, followed by the magic
+ * number again so that files which were not closed after writing are detected.
+ */
+final class IndexFiles {
+
+    /**
+     * Reads the index from a channel opened for reading, the channel then being owned by the index.
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(FileChannel channel) throws IOException;
+    }
+
+    private IndexFiles() {
+    }
+
+    /**
+     * Opens the file and reads it using the reader, closing the channel if it fails.
+     *
+     * @throws IllegalArgumentException if the reader finds the file is not of the expected format
+     * @throws UncheckedIOException     if the file could not be read
+     */
+    static <T> T open(Path path, Reader<T> reader) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            return reader.read(channel);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks the file is long enough to hold the footer and starts with the magic number and version, returning a stream
+     * positioned after the version to read the rest of the header. The stream must not be closed, as this would close
+     * the channel.
+     *
+     * @param description the name of the format used in the messages of the exceptions, e.g. "NRVK table"
+     */
+    static DataInputStream readHeader(FileChannel channel, String description, int magic, byte version, int footerBytes) throws IOException {
+        if (channel.size() < footerBytes) {
+            throw new IllegalArgumentException("Not a " + description + " - file too short");
+        }
+        DataInputStream header = new DataInputStream(Channels.newInputStream(channel.position(0)));
+        if (header.readInt() != magic) {
+            throw new IllegalArgumentException("Not a " + description + " - invalid magic");
+        }
+        byte fileVersion = header.readByte();
+        if (fileVersion != version) {
+            throw new IllegalArgumentException("Unsupported " + description + " version " + fileVersion);
+        }
+        return header;
+    }
+
+    /**
+     * Reads the footer at the end of the file and checks it ends with the magic number, returning a buffer positioned
+     * at the first field of the footer.
+     */
+    static ByteBuffer readFooter(FileChannel channel, String description, int magic, int footerBytes) throws IOException {
+        long offset = channel.size() - footerBytes;
+        ByteBuffer footer = ByteBuffer.allocate(footerBytes);
+        while (footer.hasRemaining()) {
+            if (channel.read(footer, offset + footer.position()) < 0) {
+                throw new IllegalArgumentException("Unexpected end of file reading footer");
+            }
+        }
+        footer.flip();
+        if (footer.getInt(footerBytes - Integer.BYTES) != magic) {
+            throw new IllegalArgumentException("Not a " + description + " - invalid footer. The file may not have been closed after writing.");
+        }
+        return footer;
+    }
+
+    static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // nothing more can be done, the file will remain
+        }
+    }
+}
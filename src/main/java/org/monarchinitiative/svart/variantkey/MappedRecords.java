@@ -0,0 +1,101 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A region of a file holding a number of fixed-width records, memory-mapped read-only. As a single
+ * {@link java.nio.MappedByteBuffer} cannot exceed 2GB, the region is mapped as a number of chunks, each holding a whole
+ * number of records so that no record spans two chunks. All reads use absolute positions, so instances can be shared
+ * between threads.
+ */
+final class MappedRecords {
+
+    static final int DEFAULT_CHUNK_BYTES = 1 << 30;
+
+    private final long count;
+    private final int width;
+    private final long recordsPerChunk;
+    private final ByteBuffer[] chunks;
+
+    private MappedRecords(long count, int width, long recordsPerChunk, ByteBuffer[] chunks) {
+        this.count = count;
+        this.width = width;
+        this.recordsPerChunk = recordsPerChunk;
+        this.chunks = chunks;
+    }
+
+    static MappedRecords map(FileChannel channel, long offset, long count, int width) throws IOException {
+        return map(channel, offset, count, width, DEFAULT_CHUNK_BYTES);
+    }
+
+    static MappedRecords map(FileChannel channel, long offset, long count, int width, int chunkBytes) throws IOException {
+        if (width <= 0 || width > chunkBytes) {
+            throw new IllegalArgumentException("Record width must be between 1 and " + chunkBytes + ", got " + width);
+        }
+        if (count < 0 || offset < 0 || offset + count * width > channel.size()) {
+            throw new IllegalArgumentException(count + " records of " + width + " bytes at " + offset + " extend beyond the end of the file");
+        }
+        long recordsPerChunk = chunkBytes / width;
+        int chunkCount = (int) ((count + recordsPerChunk - 1) / recordsPerChunk);
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            long first = i * recordsPerChunk;
+            long records = Math.min(recordsPerChunk, count - first);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + first * width, records * width)
+                    .order(ByteOrder.BIG_ENDIAN);
+        }
+        return new MappedRecords(count, width, recordsPerChunk, chunks);
+    }
+
+    long count() {
+        return count;
+    }
+
+    int width() {
+        return width;
+    }
+
+    private ByteBuffer chunk(long index) {
+        return chunks[(int) (index / recordsPerChunk)];
+    }
+
+    private int position(long index, int byteOffset) {
+        return (int) (index % recordsPerChunk) * width + byteOffset;
+    }
+
+    long getLong(long index, int byteOffset) {
+        return chunk(index).getLong(position(index, byteOffset));
+    }
+
+    int getInt(long index, int byteOffset) {
+        return chunk(index).getInt(position(index, byteOffset));
+    }
+
+    float getFloat(long index, int byteOffset) {
+        return chunk(index).getFloat(position(index, byteOffset));
+    }
+
+    void get(long index, int byteOffset, byte[] dst, int dstOffset, int length) {
+        chunk(index).get(position(index, byteOffset), dst, dstOffset, length);
+    }
+
+    /**
+     * Copies the bytes starting at the record with the given index, continuing into the following records and chunks.
+     * This is used to read variable-length data from a region of single-byte records.
+     */
+    void getSpanning(long index, byte[] dst, int dstOffset, int length) {
+        long record = index;
+        int copied = 0;
+        while (copied < length) {
+            ByteBuffer chunk = chunk(record);
+            int position = position(record, 0);
+            int n = Math.min(length - copied, chunk.capacity() - position);
+            chunk.get(position, dst, dstOffset + copied, n);
+            copied += n;
+            record += (n + width - 1) / width;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The memory-mapped entries and alleles sections of the {@link NrvkTableFormat}, holding the alleles of non-reversible
+ * keys in unsigned key order. These make up the whole of a {@link NrvkTable} and hold the alleles of the records with
+ * non-reversible keys of a {@link VariantKeyValueStore}, where a key may have an entry for each of several variants.
+ */
+final class NrvkEntries {
+
+    private static final int OFFSET = Long.BYTES;
+    private static final int REF_LENGTH = Long.BYTES * 2;
+    private static final int ALT_LENGTH = REF_LENGTH + Integer.BYTES;
+
+    private final MappedRecords entries;
+    private final MappedRecords alleles;
+
+    private NrvkEntries(MappedRecords entries, MappedRecords alleles) {
+        this.entries = entries;
+        this.alleles = alleles;
+    }
+
+    /**
+     * Maps the entries and the alleles, which run from the alleles offset to the footer of the file.
+     */
+    static NrvkEntries map(FileChannel channel, long entriesOffset, long entryCount, long allelesOffset, int footerBytes) throws IOException {
+        MappedRecords entries = MappedRecords.map(channel, entriesOffset, entryCount, NrvkTableFormat.ENTRY_BYTES);
+        MappedRecords alleles = MappedRecords.map(channel, allelesOffset, channel.size() - footerBytes - allelesOffset, 1);
+        return new NrvkEntries(entries, alleles);
+    }
+
+    long count() {
+        return entries.count();
+    }
+
+    /**
+     * Returns the index of an entry of the key, or -1 if there is none.
+     */
+    long indexOf(long variantKey) {
+        return VariantKeySearch.indexOf(entries, variantKey);
+    }
+
+    /**
+     * Returns the index of the first entry of the key, or of the following key if there is none.
+     */
+    long lowerBound(long variantKey) {
+        return VariantKeySearch.lowerBound(entries, variantKey, 0, entries.count());
+    }
+
+    String ref(long entry) {
+        return allele(entries.getLong(entry, OFFSET), entries.getInt(entry, REF_LENGTH));
+    }
+
+    String alt(long entry) {
+        return allele(entries.getLong(entry, OFFSET) + entries.getInt(entry, REF_LENGTH), entries.getInt(entry, ALT_LENGTH));
+    }
+
+    private String allele(long offset, int length) {
+        byte[] bytes = new byte[length];
+        alleles.getSpanning(offset, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns true if the entry holds the UTF-8 encoded reference and alternate alleles.
+     */
+    boolean allelesEqual(long entry, byte[] reference, byte[] alternate) {
+        int referenceLength = entries.getInt(entry, REF_LENGTH);
+        if (referenceLength != reference.length || entries.getInt(entry, ALT_LENGTH) != alternate.length) {
+            return false;
+        }
+        byte[] bytes = new byte[reference.length + alternate.length];
+        alleles.getSpanning(entries.getLong(entry, OFFSET), bytes, 0, bytes.length);
+        return Arrays.equals(bytes, 0, referenceLength, reference, 0, referenceLength)
+               && Arrays.equals(bytes, referenceLength, bytes.length, alternate, 0, alternate.length);
+    }
+}
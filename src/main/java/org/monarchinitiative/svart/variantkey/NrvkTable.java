@@ -0,0 +1,108 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A read-only, memory-mapped table of the alleles of non-reversible VariantKeys (NRVK), as written by the
+ * {@link NrvkTableWriter}.
+ * <p>
+ * Where the alleles of a variant are not just ACGT or are longer than 11 bases combined, as for long indels and
+ * structural variants, its VariantKey holds a hash of the alleles and {@link VariantKeys#decodeVariantKey(long)} can
+ * only return empty alleles. This table holds the alleles of each such key, so that the keys of the variants it was
+ * written from can be fully decoded. The entries are sorted by key, each holding the offset and lengths of its alleles
+ * in a separate allele region of the file, and are found using the same interpolation search as the
+ * {@link VariantKeyValueStore}.
+ * <pre>
+ * try (NrvkTable nrvkTable = NrvkTable.open(path)) {
+ *     VariantKey variantKey = nrvkTable.decodeVariantKey(key);
+ * }
+ * </pre>
+ * Instances of this class are thread-safe.
+ */
+public final class NrvkTable implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final NrvkEntries entries;
+
+    private NrvkTable(FileChannel channel, NrvkEntries entries) {
+        this.channel = channel;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens the table written to the path by a {@link NrvkTableWriter}.
+     *
+     * @throws IllegalArgumentException if the file is not a NRVK table
+     * @throws UncheckedIOException     if the file could not be read
+     */
+    public static NrvkTable open(Path path) {
+        return IndexFiles.open(path, NrvkTable::open);
+    }
+
+    private static NrvkTable open(FileChannel channel) throws IOException {
+        IndexFiles.readHeader(channel, "NRVK table", NrvkTableFormat.MAGIC, NrvkTableFormat.VERSION, NrvkTableFormat.FOOTER_BYTES);
+        ByteBuffer footer = IndexFiles.readFooter(channel, "NRVK table", NrvkTableFormat.MAGIC, NrvkTableFormat.FOOTER_BYTES);
+        long entriesOffset = footer.getLong();
+        long entryCount = footer.getLong();
+        long allelesOffset = footer.getLong();
+        NrvkEntries entries = NrvkEntries.map(channel, entriesOffset, entryCount, allelesOffset, NrvkTableFormat.FOOTER_BYTES);
+        return new NrvkTable(channel, entries);
+    }
+
+    /**
+     * @return the number of keys in the table.
+     */
+    public long size() {
+        return entries.count();
+    }
+
+    public boolean containsKey(long variantKey) {
+        return entries.indexOf(variantKey) >= 0;
+    }
+
+    /**
+     * Returns the reference allele of the non-reversible key, or null if the key is not in the table.
+     */
+    public String ref(long variantKey) {
+        long index = entries.indexOf(variantKey);
+        return index < 0 ? null : entries.ref(index);
+    }
+
+    /**
+     * Returns the alternate allele of the non-reversible key, or null if the key is not in the table.
+     */
+    public String alt(long variantKey) {
+        long index = entries.indexOf(variantKey);
+        return index < 0 ? null : entries.alt(index);
+    }
+
+    /**
+     * Decodes the key as {@link VariantKeys#decodeVariantKey(long)}, but with the alleles of a non-reversible key
+     * found in this table. The alleles of non-reversible keys not in the table are empty strings.
+     */
+    public VariantKey decodeVariantKey(long variantKey) {
+        if (VariantKeys.isReversible(variantKey)) {
+            return VariantKeys.decodeVariantKey(variantKey);
+        }
+        long index = entries.indexOf(variantKey);
+        String chrom = VariantKeys.decodeChrom(variantKey);
+        int pos = (int) VariantKeys.decodePos(variantKey);
+        if (index < 0) {
+            return new VariantKey(variantKey, chrom, pos, "", "");
+        }
+        return new VariantKey(variantKey, chrom, pos, entries.ref(index), entries.alt(index));
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
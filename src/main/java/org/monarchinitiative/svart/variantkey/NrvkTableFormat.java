@@ -0,0 +1,25 @@
+package org.monarchinitiative.svart.variantkey;
+
+/**
+ * Constants of the file format written by the {@link NrvkTableWriter} and read by the {@link NrvkTable}. The file
+ * layout is:
+ * <pre>
+ * header   magic (4 bytes), format version (1 byte)
+ * entries  one entry per key in unsigned key order, holding the key (8 bytes), the offset of its alleles in the allele
+ *          data (8 bytes), and the reference and alternate lengths in bytes (4 bytes each)
+ * alleles  the reference allele immediately followed by the alternate allele of each entry in UTF-8
+ * footer   entries offset, entry count and alleles offset (8 bytes each), magic (4 bytes)
+ * </pre>
+ * All values are big-endian.
+ */
+final class NrvkTableFormat {
+
+    // 'NRVK'
+    static final int MAGIC = 0x4E52564B;
+    static final byte VERSION = 1;
+    static final int ENTRY_BYTES = Long.BYTES * 2 + Integer.BYTES * 2;
+    static final int FOOTER_BYTES = Long.BYTES * 3 + Integer.BYTES;
+
+    private NrvkTableFormat() {
+    }
+}
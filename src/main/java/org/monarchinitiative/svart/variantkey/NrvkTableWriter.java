@@ -0,0 +1,306 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Writes a {@link NrvkTable} of the alleles of non-reversible VariantKeys, which may be added in any order.
+ * <p>
+ * The alleles are written to a temporary file in the {@link Builder#tempDirectory(Path)} as they are added, with only
+ * the key, allele offset and allele lengths of each variant held in memory, which is about 48 bytes per key while
+ * sorting. When the writer is closed the keys are sorted using an LSD radix sort and the entries written in key order,
+ * followed by the alleles of the entries, which are copied from the memory-mapped temporary file.
+ * <p>
+ * Variants with the same key are checked for hash collisions when the writer is closed. The same variant added more
+ * than once is written once, but two variants with different alleles and the same key cannot be told apart by the key.
+ * By default closing the writer then fails, leaving no file, as the keys of the table would not be fully reversible.
+ * Alternatively with {@link Builder#failOnCollision(boolean)} set to false the colliding keys are left out of the
+ * table and can be found using {@link #collidingKeys()}, for example to be held in a separate map.
+ * <pre>
+ * try (NrvkTableWriter writer = NrvkTableWriter.builder().build(path)) {
+ *     for (...) {
+ *         writer.add(chrom, pos, ref, alt);
+ *     }
+ * }
+ * </pre>
+ * This class is not thread-safe.
+ */
+public final class NrvkTableWriter implements AutoCloseable {
+
+    private static final long REF_ALT_MASK = 0x7FFF_FFFFL;
+
+    private final Path path;
+    private final boolean failOnCollision;
+    private final Path allelesPath;
+    private final DataOutputStream allelesOut;
+    private long allelesPosition;
+    private int size;
+    private long[] keys = new long[1024];
+    private long[] offsets = new long[1024];
+    // the reference length in the upper and alternate length in the lower 32 bits
+    private long[] lengths = new long[1024];
+    private long[] collidingKeys = new long[0];
+    private long entryCount;
+    private boolean closed;
+
+    private NrvkTableWriter(Builder builder, Path path) throws IOException {
+        this.path = path;
+        this.failOnCollision = builder.failOnCollision;
+        this.allelesPath = Files.createTempFile(builder.tempDirectory, "svart-nrvk-", ".alleles");
+        this.allelesOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(allelesPath), 64 * 1024));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new writer using the default settings.
+     *
+     * @throws UncheckedIOException if the temporary file could not be created.
+     */
+    public static NrvkTableWriter of(Path path) {
+        return builder().build(path);
+    }
+
+    /**
+     * Adds the alleles of the variant if its key is non-reversible.
+     *
+     * @param pos Position on the chromosome (0-based)
+     * @return true if the key of the variant is non-reversible and so was added
+     * @throws IllegalArgumentException if the position exceeds {@link VariantKeys#MAX_POS}
+     * @throws UncheckedIOException     if the alleles could not be written.
+     */
+    public boolean add(String chrom, int pos, String reference, String alternate) {
+        long variantKey = VariantKeys.encodeVariantKey(chrom, pos, reference, alternate);
+        if (VariantKeys.isReversible(variantKey)) {
+            return false;
+        }
+        add(variantKey, reference, alternate);
+        return true;
+    }
+
+    /**
+     * Adds the alleles of the non-reversible key.
+     *
+     * @throws IllegalArgumentException if the key is reversible or is not that of the alleles
+     * @throws UncheckedIOException     if the alleles could not be written.
+     */
+    public void add(long variantKey, CharSequence reference, CharSequence alternate) {
+        if (closed) {
+            throw new IllegalStateException("Writer has been closed");
+        }
+        if (VariantKeys.isReversible(variantKey)) {
+            throw new IllegalArgumentException("Key " + Long.toUnsignedString(variantKey) + " is reversible");
+        }
+        if ((variantKey & REF_ALT_MASK) != VariantKeys.encodeRefAlt(reference, alternate)) {
+            throw new IllegalArgumentException("Key " + Long.toUnsignedString(variantKey) + " is not that of alleles " + reference + " " + alternate);
+        }
+        if (size == keys.length) {
+            if (size == Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Too many keys");
+            }
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, size + (long) (size >> 1));
+            keys = Arrays.copyOf(keys, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+        }
+        byte[] referenceBytes = reference.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] alternateBytes = alternate.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            allelesOut.write(referenceBytes);
+            allelesOut.write(alternateBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        keys[size] = variantKey;
+        offsets[size] = allelesPosition;
+        lengths[size] = (long) referenceBytes.length << Integer.SIZE | alternateBytes.length;
+        size++;
+        allelesPosition += referenceBytes.length + alternateBytes.length;
+    }
+
+    /**
+     * @return the number of keys written to the table, which is only known once the writer has been closed.
+     */
+    public long entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return the keys shared by variants with different alleles, which were left out of the table. These are only
+     * known once the writer has been closed.
+     */
+    public long[] collidingKeys() {
+        return collidingKeys.clone();
+    }
+
+    /**
+     * Sorts the keys and writes the table.
+     *
+     * @throws IllegalArgumentException if a hash collision was found and {@link Builder#failOnCollision(boolean)} is
+     *                                  true, in which case no file is written.
+     * @throws UncheckedIOException     if the file could not be written.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            allelesOut.close();
+            write(VariantKeyRadixSort.sortOrder(keys, size));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            keys = offsets = lengths = null;
+            IndexFiles.deleteQuietly(allelesPath);
+        }
+    }
+
+    private void write(int[] order) throws IOException {
+        long[] colliding = new long[16];
+        int collisions = 0;
+        boolean written = false;
+        try (FileChannel allelesChannel = FileChannel.open(allelesPath, StandardOpenOption.READ);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024))) {
+            out.writeInt(NrvkTableFormat.MAGIC);
+            out.writeByte(NrvkTableFormat.VERSION);
+            long entriesOffset = Integer.BYTES + 1;
+            long allelesLength = 0;
+            int runStart = 0;
+            while (runStart < size) {
+                int first = order[runStart];
+                int runEnd = runStart + 1;
+                boolean collision = false;
+                while (runEnd < size && keys[order[runEnd]] == keys[first]) {
+                    collision |= !allelesEqual(allelesChannel, first, order[runEnd]);
+                    runEnd++;
+                }
+                if (collision) {
+                    if (failOnCollision) {
+                        throw new IllegalArgumentException("Hash collision of key " + Long.toUnsignedString(keys[first]) + " for alleles "
+                                                           + alleles(allelesChannel, first) + " and " + alleles(allelesChannel, order[runEnd - 1]));
+                    }
+                    if (collisions == colliding.length) {
+                        colliding = Arrays.copyOf(colliding, collisions * 2);
+                    }
+                    colliding[collisions++] = keys[first];
+                } else {
+                    out.writeLong(keys[first]);
+                    out.writeLong(allelesLength);
+                    out.writeLong(lengths[first]);
+                    allelesLength += allelesLength(first);
+                    // the order is re-used for the indexes of the entries, which never overtake the runs
+                    order[(int) entryCount++] = first;
+                }
+                runStart = runEnd;
+            }
+            long allelesOffset = entriesOffset + entryCount * NrvkTableFormat.ENTRY_BYTES;
+            writeAlleles(allelesChannel, order, out);
+            out.writeLong(entriesOffset);
+            out.writeLong(entryCount);
+            out.writeLong(allelesOffset);
+            out.writeInt(NrvkTableFormat.MAGIC);
+            written = true;
+        } finally {
+            if (!written) {
+                entryCount = 0;
+                IndexFiles.deleteQuietly(path);
+            }
+        }
+        collidingKeys = Arrays.copyOf(colliding, collisions);
+    }
+
+    private int allelesLength(int index) {
+        return (int) (lengths[index] >>> Integer.SIZE) + (int) lengths[index];
+    }
+
+    /**
+     * Copies the alleles of the entries from the temporary file, leaving out those of repeated and colliding keys.
+     */
+    private void writeAlleles(FileChannel allelesChannel, int[] entries, DataOutputStream out) throws IOException {
+        MappedRecords alleles = MappedRecords.map(allelesChannel, 0, allelesPosition, 1);
+        byte[] buffer = new byte[64 * 1024];
+        for (int i = 0; i < entryCount; i++) {
+            int index = entries[i];
+            int length = allelesLength(index);
+            if (length > buffer.length) {
+                buffer = new byte[length];
+            }
+            alleles.getSpanning(offsets[index], buffer, 0, length);
+            out.write(buffer, 0, length);
+        }
+    }
+
+    /**
+     * Returns the reference and alternate alleles of the key with the index. As the keys of different variants are only
+     * rarely the same, these are read from the file rather than mapping it.
+     */
+    private byte[] readAlleles(FileChannel allelesChannel, int index) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(allelesLength(index));
+        while (buffer.hasRemaining()) {
+            if (allelesChannel.read(buffer, offsets[index] + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of alleles file at " + (offsets[index] + buffer.position()));
+            }
+        }
+        return buffer.array();
+    }
+
+    private boolean allelesEqual(FileChannel allelesChannel, int a, int b) throws IOException {
+        return lengths[a] == lengths[b] && Arrays.equals(readAlleles(allelesChannel, a), readAlleles(allelesChannel, b));
+    }
+
+    private String alleles(FileChannel allelesChannel, int index) throws IOException {
+        int referenceLength = (int) (lengths[index] >>> Integer.SIZE);
+        byte[] bytes = readAlleles(allelesChannel, index);
+        return new String(bytes, 0, referenceLength, StandardCharsets.UTF_8) + " " + new String(bytes, referenceLength, bytes.length - referenceLength, StandardCharsets.UTF_8);
+    }
+
+    public static class Builder {
+
+        private Path tempDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+        private boolean failOnCollision = true;
+
+        private Builder() {
+        }
+
+        /**
+         * @param tempDirectory the directory in which to write the temporary file holding the alleles.
+         */
+        public Builder tempDirectory(Path tempDirectory) {
+            this.tempDirectory = Objects.requireNonNull(tempDirectory, "tempDirectory cannot be null");
+            return this;
+        }
+
+        /**
+         * Whether closing the writer fails if two variants with different alleles have the same key, which is the
+         * default, or the colliding keys are left out of the table.
+         */
+        public Builder failOnCollision(boolean failOnCollision) {
+            this.failOnCollision = failOnCollision;
+            return this;
+        }
+
+        /**
+         * Creates a new writer for the file at the path, replacing any existing file when the writer is closed.
+         *
+         * @throws UncheckedIOException if the temporary file could not be created.
+         */
+        public NrvkTableWriter build(Path path) {
+            try {
+                return new NrvkTableWriter(this, path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
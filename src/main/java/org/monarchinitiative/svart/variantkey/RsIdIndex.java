@@ -0,0 +1,179 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only, memory-mapped index between dbSNP rsIDs and VariantKeys, as written by the {@link RsIdIndexWriter}.
+ * <p>
+ * The index holds each pair of rsID and key twice, once sorted by rsID and once sorted by key, so that both the keys of
+ * a rsID and the rsIDs of a key are found by a search of a memory-mapped table without loading the index into memory.
+ * As a rsID may refer to several alternate alleles at a site, and a variant may have been assigned more than one rsID,
+ * both lookups return all the matching values. The rsIDs are held as the numeric part of the rsID as an int, which can
+ * be found using {@link #parseRsId(CharSequence)}.
+ * <p>
+ * The alleles of the {@link VariantKey}s of a rsID are only decoded where the key is reversible. The alleles of
+ * non-reversible keys can be found using a {@link NrvkTable}.
+ * <pre>
+ * try (RsIdIndex index = RsIdIndex.open(path)) {
+ *     List&lt;VariantKey&gt; variants = index.variants(RsIdIndex.parseRsId("rs6025"));
+ *     int[] rsIds = index.rsIds("1", 169549810, "C", "T");
+ * }
+ * </pre>
+ * Instances of this class are thread-safe.
+ */
+public final class RsIdIndex implements AutoCloseable {
+
+    private static final int[] NO_RS_IDS = new int[0];
+    private static final long[] NO_KEYS = new long[0];
+
+    private final FileChannel channel;
+    private final MappedRecords byRsId;
+    private final MappedRecords byKey;
+
+    private RsIdIndex(FileChannel channel, MappedRecords byRsId, MappedRecords byKey) {
+        this.channel = channel;
+        this.byRsId = byRsId;
+        this.byKey = byKey;
+    }
+
+    /**
+     * Opens the index written to the path by a {@link RsIdIndexWriter}.
+     *
+     * @throws IllegalArgumentException if the file is not a rsID index
+     * @throws UncheckedIOException     if the file could not be read
+     */
+    public static RsIdIndex open(Path path) {
+        return IndexFiles.open(path, RsIdIndex::open);
+    }
+
+    private static RsIdIndex open(FileChannel channel) throws IOException {
+        IndexFiles.readHeader(channel, "rsID index", RsIdIndexFormat.MAGIC, RsIdIndexFormat.VERSION, RsIdIndexFormat.FOOTER_BYTES);
+        ByteBuffer footer = IndexFiles.readFooter(channel, "rsID index", RsIdIndexFormat.MAGIC, RsIdIndexFormat.FOOTER_BYTES);
+        long rsIdOffset = footer.getLong();
+        long keyOffset = footer.getLong();
+        long count = footer.getLong();
+        MappedRecords byRsId = MappedRecords.map(channel, rsIdOffset, count, RsIdIndexFormat.RECORD_BYTES);
+        MappedRecords byKey = MappedRecords.map(channel, keyOffset, count, RsIdIndexFormat.RECORD_BYTES);
+        return new RsIdIndex(channel, byRsId, byKey);
+    }
+
+    /**
+     * Returns the numeric part of a rsID of the form rs[0-9]+, e.g. 6025 for rs6025.
+     *
+     * @throws IllegalArgumentException if the rsID is not of the form rs[0-9]+ or exceeds {@link Integer#MAX_VALUE}
+     */
+    public static int parseRsId(CharSequence rsId) {
+        int length = rsId.length();
+        if (length < 3 || rsId.charAt(0) != 'r' || rsId.charAt(1) != 's') {
+            throw new IllegalArgumentException("Invalid rsID: " + rsId + " Must be rs[0-9]+");
+        }
+        long value = 0;
+        for (int i = 2; i < length; i++) {
+            char c = rsId.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid rsID: " + rsId + " Must be rs[0-9]+");
+            }
+            value = value * 10 + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid rsID: " + rsId + " exceeds " + Integer.MAX_VALUE);
+            }
+        }
+        return (int) value;
+    }
+
+    /**
+     * @return the number of pairs of rsID and key in the index.
+     */
+    public long size() {
+        return byRsId.count();
+    }
+
+    /**
+     * Returns the keys of the rsID in unsigned order, or an empty array if the rsID is not in the index.
+     */
+    public long[] variantKeys(int rsId) {
+        long from = rsIdLowerBound(rsId);
+        long to = from;
+        while (to < byRsId.count() && byRsId.getInt(to, 0) == rsId) {
+            to++;
+        }
+        if (from == to) {
+            return NO_KEYS;
+        }
+        long[] keys = new long[(int) (to - from)];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = byRsId.getLong(from + i, Integer.BYTES);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the decoded {@link VariantKey}s of the rsID, or an empty list if the rsID is not in the index.
+     */
+    public List<VariantKey> variants(int rsId) {
+        long[] keys = variantKeys(rsId);
+        List<VariantKey> variants = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            variants.add(VariantKeys.decodeVariantKey(key));
+        }
+        return variants;
+    }
+
+    private long rsIdLowerBound(int rsId) {
+        long lo = 0;
+        long hi = byRsId.count();
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (byRsId.getInt(mid, 0) < rsId) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the rsIDs of the key in order, or an empty array if the key is not in the index.
+     */
+    public int[] rsIds(long variantKey) {
+        long from = VariantKeySearch.lowerBound(byKey, variantKey, 0, byKey.count());
+        long to = from;
+        while (to < byKey.count() && byKey.getLong(to, 0) == variantKey) {
+            to++;
+        }
+        if (from == to) {
+            return NO_RS_IDS;
+        }
+        int[] rsIds = new int[(int) (to - from)];
+        for (int i = 0; i < rsIds.length; i++) {
+            rsIds[i] = byKey.getInt(from + i, Long.BYTES);
+        }
+        return rsIds;
+    }
+
+    /**
+     * Returns the rsIDs of the variant in order, or an empty array if the variant is not in the index.
+     *
+     * @param pos Position on the chromosome (0-based)
+     * @throws IllegalArgumentException if the position exceeds {@link VariantKeys#MAX_POS}
+     */
+    public int[] rsIds(String chrom, int pos, String reference, String alternate) {
+        return rsIds(VariantKeys.encodeVariantKey(chrom, pos, reference, alternate));
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Constants of the file format written by the {@link RsIdIndexWriter} and read by the {@link RsIdIndex}. The file
+ * layout is:
+ * <pre>
+ * header    magic (4 bytes), format version (1 byte)
+ * by rsID   one record per pair in order of rsID and then unsigned key, holding the rsID (4 bytes) and key (8 bytes)
+ * by key    one record per pair in order of unsigned key and then rsID, holding the key (8 bytes) and rsID (4 bytes)
+ * footer    by rsID offset, by key offset and pair count (8 bytes each), magic (4 bytes)
+ * </pre>
+ * All values are big-endian.
+ */
+final class RsIdIndexFormat {
+
+    // 'RSVK'
+    static final int MAGIC = 0x5253564B;
+    static final byte VERSION = 1;
+    static final int RECORD_BYTES = Integer.BYTES + Long.BYTES;
+    static final int FOOTER_BYTES = Long.BYTES * 3 + Integer.BYTES;
+
+    private RsIdIndexFormat() {
+    }
+
+    /**
+     * The two orders of the pairs, each of which is written as a first and second value, with the rsID held as a long.
+     */
+    enum Order {
+        BY_RS_ID {
+            @Override
+            void write(DataOutput out, long first, long second) throws IOException {
+                out.writeInt((int) first);
+                out.writeLong(second);
+            }
+
+            @Override
+            long readFirst(DataInput in) throws IOException {
+                return in.readInt();
+            }
+
+            @Override
+            long readSecond(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        },
+        BY_VARIANT_KEY {
+            @Override
+            void write(DataOutput out, long first, long second) throws IOException {
+                out.writeLong(first);
+                out.writeInt((int) second);
+            }
+
+            @Override
+            long readFirst(DataInput in) throws IOException {
+                return in.readLong();
+            }
+
+            @Override
+            long readSecond(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+
+        abstract void write(DataOutput out, long first, long second) throws IOException;
+
+        abstract long readFirst(DataInput in) throws IOException;
+
+        abstract long readSecond(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,466 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.monarchinitiative.svart.variantkey.RsIdIndexFormat.Order;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Writes a {@link RsIdIndex} from pairs of rsID and VariantKey, which may be added in any order, such as from the
+ * variants of a dbSNP VCF file.
+ * <p>
+ * Pairs are held in memory in runs of up to {@link Builder#maxPairsInMemory(int)} pairs, each of which is sorted both by
+ * rsID and by key using a radix sort and written to temporary files in the {@link Builder#tempDirectory(Path)}. When
+ * the writer is closed the runs of each order are merged into the index, first being merged into larger intermediate
+ * runs if there are more than {@link Builder#mergeFactor(int)}. This allows indexes of billions of pairs to be written
+ * using about 36 bytes of memory per pair in a run. If all the pairs fit into a single run no temporary files are
+ * written. The same pair added more than once is written once.
+ * <pre>
+ * try (RsIdIndexWriter writer = RsIdIndexWriter.builder()
+ *         .maxPairsInMemory(10_000_000)
+ *         .tempDirectory(Path.of("/scratch"))
+ *         .build(path)) {
+ *     for (...) {
+ *         writer.add(RsIdIndex.parseRsId(id), VariantKeys.encodeVariantKey(chrom, pos, ref, alt));
+ *     }
+ * }
+ * </pre>
+ * The file is not written until this writer has been closed. This class is not thread-safe.
+ */
+public final class RsIdIndexWriter implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_PAIRS_IN_MEMORY = 5_000_000;
+    public static final int DEFAULT_MERGE_FACTOR = 128;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final int maxPairsInMemory;
+    private final int mergeFactor;
+    private final Path tempDirectory;
+    private int[] rsIds;
+    private long[] keys;
+    private int size;
+    private List<Run> rsIdRuns = new ArrayList<>();
+    private List<Run> keyRuns = new ArrayList<>();
+    private long pairCount;
+    private boolean closed;
+
+    private RsIdIndexWriter(Builder builder, Path path) {
+        this.path = Objects.requireNonNull(path, "path cannot be null");
+        this.maxPairsInMemory = builder.maxPairsInMemory;
+        this.mergeFactor = builder.mergeFactor;
+        this.tempDirectory = builder.tempDirectory;
+        int capacity = Math.min(maxPairsInMemory, 1024);
+        this.rsIds = new int[capacity];
+        this.keys = new long[capacity];
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new writer using the default settings.
+     */
+    public static RsIdIndexWriter of(Path path) {
+        return builder().build(path);
+    }
+
+    /**
+     * Adds the pair of the numeric part of a rsID and the key of its variant.
+     *
+     * @throws IllegalArgumentException if the rsID is not positive
+     * @throws UncheckedIOException     if a run could not be written.
+     */
+    public void add(int rsId, long variantKey) {
+        if (closed) {
+            throw new IllegalStateException("Writer has been closed");
+        }
+        if (rsId <= 0) {
+            throw new IllegalArgumentException("rsID must be > 0, got " + rsId);
+        }
+        if (size == rsIds.length) {
+            if (size == maxPairsInMemory) {
+                try {
+                    writeRuns();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                int capacity = (int) Math.min(maxPairsInMemory, rsIds.length * 2L);
+                rsIds = Arrays.copyOf(rsIds, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+            }
+        }
+        rsIds[size] = rsId;
+        keys[size] = variantKey;
+        size++;
+    }
+
+    /**
+     * Adds the pair of the numeric part of a rsID and its variant.
+     *
+     * @throws IllegalArgumentException if the rsID is not positive
+     * @throws UncheckedIOException     if a run could not be written.
+     */
+    public void add(int rsId, VariantKey variantKey) {
+        add(rsId, variantKey.key());
+    }
+
+    /**
+     * @return the number of distinct pairs written to the index, which is only known once the writer has been closed.
+     */
+    public long pairCount() {
+        return pairCount;
+    }
+
+    private void writeRuns() throws IOException {
+        rsIdRuns.add(writeRun(Order.BY_RS_ID, sortedPairs(Order.BY_RS_ID)));
+        keyRuns.add(writeRun(Order.BY_VARIANT_KEY, sortedPairs(Order.BY_VARIANT_KEY)));
+        size = 0;
+    }
+
+    private PairIterator sortedPairs(Order order) {
+        int[] sortOrder = order == Order.BY_RS_ID ? VariantKeyRadixSort.sortOrder(rsIds, keys, size) : VariantKeyRadixSort.sortOrder(keys, rsIds, size);
+        return new SortedPairs(order, rsIds, keys, sortOrder);
+    }
+
+    private Run writeRun(Order order, PairIterator pairs) throws IOException {
+        Path runPath = Files.createTempFile(tempDirectory, "svart-rsid-", ".run");
+        try (pairs; DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(runPath), BUFFER_SIZE))) {
+            return new Run(runPath, write(out, order, pairs));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(runPath);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the pairs, skipping repeated pairs, returning the number written.
+     */
+    private static long write(DataOutputStream out, Order order, PairIterator pairs) throws IOException {
+        long count = 0;
+        long previousFirst = 0;
+        long previousSecond = 0;
+        while (pairs.next()) {
+            long first = pairs.first();
+            long second = pairs.second();
+            if (count == 0 || first != previousFirst || second != previousSecond) {
+                order.write(out, first, second);
+                previousFirst = first;
+                previousSecond = second;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Run> mergeRuns(Order order, List<Run> runs) throws IOException {
+        List<Run> merged = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i += mergeFactor) {
+            List<Run> group = runs.subList(i, Math.min(i + mergeFactor, runs.size()));
+            try {
+                // the merged runs are deleted on closing the iterator
+                merged.add(writeRun(order, new MergingPairs(order, new ArrayList<>(group))));
+            } catch (IOException | RuntimeException e) {
+                deleteRuns(merged);
+                deleteRuns(runs.subList(i, runs.size()));
+                throw e;
+            }
+        }
+        return merged;
+    }
+
+    private PairIterator pairs(Order order) throws IOException {
+        List<Run> runs = order == Order.BY_RS_ID ? rsIdRuns : keyRuns;
+        if (runs.isEmpty()) {
+            return sortedPairs(order);
+        }
+        while (runs.size() > mergeFactor) {
+            runs = mergeRuns(order, runs);
+            if (order == Order.BY_RS_ID) {
+                rsIdRuns = runs;
+            } else {
+                keyRuns = runs;
+            }
+        }
+        return new MergingPairs(order, runs);
+    }
+
+    /**
+     * Merges the runs and writes the index.
+     *
+     * @throws UncheckedIOException if the runs or index could not be written.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        boolean written = false;
+        try {
+            if (!rsIdRuns.isEmpty() && size > 0) {
+                writeRuns();
+            }
+            if (!rsIdRuns.isEmpty()) {
+                // release the buffers for collection before merging
+                rsIds = null;
+                keys = null;
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE))) {
+                out.writeInt(RsIdIndexFormat.MAGIC);
+                out.writeByte(RsIdIndexFormat.VERSION);
+                long rsIdOffset = Integer.BYTES + 1;
+                try (PairIterator pairs = pairs(Order.BY_RS_ID)) {
+                    pairCount = write(out, Order.BY_RS_ID, pairs);
+                }
+                long keyOffset = rsIdOffset + pairCount * RsIdIndexFormat.RECORD_BYTES;
+                try (PairIterator pairs = pairs(Order.BY_VARIANT_KEY)) {
+                    long keyPairCount = write(out, Order.BY_VARIANT_KEY, pairs);
+                    if (keyPairCount != pairCount) {
+                        throw new IllegalStateException("Wrote " + pairCount + " pairs by rsID but " + keyPairCount + " by key");
+                    }
+                }
+                out.writeLong(rsIdOffset);
+                out.writeLong(keyOffset);
+                out.writeLong(pairCount);
+                out.writeInt(RsIdIndexFormat.MAGIC);
+            }
+            written = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            rsIds = null;
+            keys = null;
+            deleteRuns(rsIdRuns);
+            deleteRuns(keyRuns);
+            if (!written) {
+                pairCount = 0;
+                IndexFiles.deleteQuietly(path);
+            }
+        }
+    }
+
+    private static void deleteRuns(List<Run> runs) {
+        for (Run run : runs) {
+            IndexFiles.deleteQuietly(run.path());
+        }
+    }
+
+    private record Run(Path path, long count) {
+    }
+
+    /**
+     * Iterates over pairs of values in order.
+     */
+    private interface PairIterator extends Closeable {
+
+        boolean next() throws IOException;
+
+        long first();
+
+        long second();
+    }
+
+    private static final class SortedPairs implements PairIterator {
+
+        private final boolean byRsId;
+        private final int[] rsIds;
+        private final long[] keys;
+        private final int[] sortOrder;
+        private int index = -1;
+
+        private SortedPairs(Order order, int[] rsIds, long[] keys, int[] sortOrder) {
+            this.byRsId = order == Order.BY_RS_ID;
+            this.rsIds = rsIds;
+            this.keys = keys;
+            this.sortOrder = sortOrder;
+        }
+
+        @Override
+        public boolean next() {
+            return ++index < sortOrder.length;
+        }
+
+        @Override
+        public long first() {
+            return byRsId ? rsIds[sortOrder[index]] : keys[sortOrder[index]];
+        }
+
+        @Override
+        public long second() {
+            return byRsId ? keys[sortOrder[index]] : rsIds[sortOrder[index]];
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+
+    /**
+     * Reads the pairs of a {@link Run} in order.
+     */
+    private static final class RunReader implements Closeable {
+
+        private final Run run;
+        private final int runIndex;
+        private final Order order;
+        private final DataInputStream in;
+        private long remaining;
+        private long first;
+        private long second;
+
+        private RunReader(Run run, int runIndex, Order order) throws IOException {
+            this.run = run;
+            this.runIndex = runIndex;
+            this.order = order;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.path()), BUFFER_SIZE));
+            this.remaining = run.count();
+        }
+
+        private boolean advance() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            first = order.readFirst(in);
+            second = order.readSecond(in);
+            remaining--;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                IndexFiles.deleteQuietly(run.path());
+            }
+        }
+    }
+
+    /**
+     * K-way merge of sorted runs, deleting the runs when closed.
+     */
+    private static final class MergingPairs implements PairIterator {
+
+        private final List<RunReader> readers = new ArrayList<>();
+        private final PriorityQueue<RunReader> queue;
+        private long first;
+        private long second;
+
+        private MergingPairs(Order order, List<Run> runs) throws IOException {
+            this.queue = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+                int result = Long.compareUnsigned(a.first, b.first);
+                if (result == 0) {
+                    result = Long.compareUnsigned(a.second, b.second);
+                }
+                return result == 0 ? Integer.compare(a.runIndex, b.runIndex) : result;
+            });
+            try {
+                for (int i = 0; i < runs.size(); i++) {
+                    RunReader reader = new RunReader(runs.get(i), i, order);
+                    readers.add(reader);
+                    if (reader.advance()) {
+                        queue.add(reader);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                deleteRuns(runs);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean next() throws IOException {
+            RunReader reader = queue.poll();
+            if (reader == null) {
+                return false;
+            }
+            first = reader.first;
+            second = reader.second;
+            if (reader.advance()) {
+                queue.add(reader);
+            }
+            return true;
+        }
+
+        @Override
+        public long first() {
+            return first;
+        }
+
+        @Override
+        public long second() {
+            return second;
+        }
+
+        @Override
+        public void close() throws IOException {
+            queue.clear();
+            IOException exception = null;
+            for (RunReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private int maxPairsInMemory = DEFAULT_MAX_PAIRS_IN_MEMORY;
+        private int mergeFactor = DEFAULT_MERGE_FACTOR;
+        private Path tempDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxPairsInMemory the maximum number of pairs to be held in memory while sorting each run.
+         */
+        public Builder maxPairsInMemory(int maxPairsInMemory) {
+            if (maxPairsInMemory < 1) {
+                throw new IllegalArgumentException("maxPairsInMemory must be > 0, got " + maxPairsInMemory);
+            }
+            this.maxPairsInMemory = maxPairsInMemory;
+            return this;
+        }
+
+        /**
+         * @param mergeFactor the maximum number of runs to merge at once, limiting the number of open files.
+         */
+        public Builder mergeFactor(int mergeFactor) {
+            if (mergeFactor < 2) {
+                throw new IllegalArgumentException("mergeFactor must be > 1, got " + mergeFactor);
+            }
+            this.mergeFactor = mergeFactor;
+            return this;
+        }
+
+        /**
+         * @param tempDirectory the directory in which to write the temporary run files.
+         */
+        public Builder tempDirectory(Path tempDirectory) {
+            this.tempDirectory = Objects.requireNonNull(tempDirectory, "tempDirectory cannot be null");
+            return this;
+        }
+
+        /**
+         * Creates a new writer for the file at the path, replacing any existing file when the writer is closed.
+         */
+        public RsIdIndexWriter build(Path path) {
+            return new RsIdIndexWriter(this, path);
+        }
+    }
+}
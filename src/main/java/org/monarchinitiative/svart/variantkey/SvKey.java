@@ -0,0 +1,192 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.monarchinitiative.svart.*;
+
+/**
+ * A 128-bit key for structural variants which cannot be represented by a VariantKey, such as symbolic deletions with an
+ * END and breakends, held as two longs compared as unsigned values.
+ * <p>
+ * The high word has the same layout of chromosome and start position as a VariantKey, followed by the
+ * {@link VariantType} and the bin size, so keys sort by chromosome, start and type, and the keys of the variants starting
+ * within a region can be found using a {@link VariantKeyRange} of the high words:
+ * <pre>
+ * high: [chrom:5][start:28][variant type:8][log2 bin size:5][0:18]
+ * low:  [end chrom:5][end:28][strand:1][end strand:1][0:29]
+ * </pre>
+ * For a {@link GenomicBreakendVariant} the start and end are the positions of the left and right breakends, with their
+ * strands, and the end chromosome and position are 0 if the right breakend is unresolved. For other variants the end is
+ * the end of the variant on the same chromosome. All positions are zero-based on the positive strand, i.e. the start is
+ * the VCF POS - 1 and the end is the VCF END. A breakend in VCF notation which has not been resolved into a
+ * {@link GenomicBreakendVariant} is encoded like any other variant, i.e. without its mate.
+ * <p>
+ * Positions may be binned by rounding them down to a multiple of a power of two, so that variants with imprecise
+ * positions share a key. The bin size is part of the key so keys of different bin sizes are never equal. The alleles
+ * and length of the variant are not encoded, so sequence variants should be keyed using VariantKeys.
+ *
+ * @param high the chromosome, start, variant type and bin size
+ * @param low  the end chromosome, end and strands
+ */
+public record SvKey(long high, long low) implements Comparable<SvKey> {
+
+    private static final VariantType[] VARIANT_TYPES = VariantType.values();
+    private static final int MAX_BIN_BITS = Integer.numberOfTrailingZeros(VariantKeys.MAX_POS) - 1;
+
+    private static final int TYPE_SHIFT = 23;
+    private static final int BIN_BITS_SHIFT = 18;
+    private static final long STRAND_MASK = 1L << 30;
+    private static final long END_STRAND_MASK = 1L << 29;
+
+    /**
+     * Returns the key of the variant with unbinned positions. The chromosome is found from the name, UCSC name or
+     * assigned molecule of the contig of the variant.
+     *
+     * @throws IllegalArgumentException if a contig of the variant cannot be encoded or a position exceeds
+     *                                  {@link VariantKeys#MAX_POS}
+     */
+    public static SvKey of(GenomicVariant variant) {
+        return of(variant, 1);
+    }
+
+    /**
+     * Returns the key of the variant with the positions rounded down to a multiple of the bin size.
+     *
+     * @param binSize a power of two, from 1 for exact positions to 2<sup>27</sup>
+     * @throws IllegalArgumentException if a contig of the variant cannot be encoded, a position exceeds
+     *                                  {@link VariantKeys#MAX_POS} or the bin size is invalid
+     */
+    public static SvKey of(GenomicVariant variant, int binSize) {
+        return of(variant, binBits(binSize), VariantKeys.encodeChrom(variant.contig()), variant instanceof GenomicBreakendVariant breakendVariant ? encodeMateChrom(breakendVariant, null) : 0);
+    }
+
+    /**
+     * As for {@link #of(GenomicVariant, int)}, with the contigs of the variant encoded using the {@link VariantKeyContigs}.
+     *
+     * @throws IllegalArgumentException if a contig of the variant is not in the assembly of the {@link VariantKeyContigs}
+     */
+    public static SvKey of(VariantKeyContigs variantKeyContigs, GenomicVariant variant, int binSize) {
+        return of(variant, binBits(binSize), variantKeyContigs.encodeChrom(variant.contig()), variant instanceof GenomicBreakendVariant breakendVariant ? encodeMateChrom(breakendVariant, variantKeyContigs) : 0);
+    }
+
+    private static int encodeMateChrom(GenomicBreakendVariant variant, VariantKeyContigs variantKeyContigs) {
+        GenomicBreakend right = variant.right();
+        if (right.isUnresolved()) {
+            return 0;
+        }
+        return variantKeyContigs == null ? VariantKeys.encodeChrom(right.contig()) : variantKeyContigs.encodeChrom(right.contig());
+    }
+
+    private static int binBits(int binSize) {
+        if (binSize <= 0 || Integer.bitCount(binSize) != 1 || Integer.numberOfTrailingZeros(binSize) > MAX_BIN_BITS) {
+            throw new IllegalArgumentException("Invalid bin size " + binSize + " must be a power of two from 1 to " + (1 << MAX_BIN_BITS));
+        }
+        return Integer.numberOfTrailingZeros(binSize);
+    }
+
+    private static SvKey of(GenomicVariant variant, int binBits, int chrom, int mateChrom) {
+        int type = variant.variantType().ordinal();
+        if (variant instanceof GenomicBreakendVariant breakendVariant) {
+            GenomicBreakend left = breakendVariant.left();
+            GenomicBreakend right = breakendVariant.right();
+            long high = encodeHigh(chrom, left.withStrand(Strand.POSITIVE).startStd(), type, binBits);
+            long strands = left.strand() == Strand.NEGATIVE ? STRAND_MASK : 0;
+            if (right.isUnresolved()) {
+                return new SvKey(high, strands);
+            }
+            strands |= right.strand() == Strand.NEGATIVE ? END_STRAND_MASK : 0;
+            return new SvKey(high, VariantKeys.encodeChromFieldPos(mateChrom, bin(right.withStrand(Strand.POSITIVE).startStd(), binBits)) | strands);
+        }
+        GenomicVariant positive = variant.withStrand(Strand.POSITIVE);
+        return new SvKey(encodeHigh(chrom, positive.startStd(), type, binBits), VariantKeys.encodeChromFieldPos(chrom, bin(positive.endStd(), binBits)));
+    }
+
+    private static long encodeHigh(int chrom, int start, int type, int binBits) {
+        return VariantKeys.encodeChromFieldPos(chrom, bin(start, binBits)) | ((long) type << TYPE_SHIFT) | ((long) binBits << BIN_BITS_SHIFT);
+    }
+
+    private static int bin(int pos, int binBits) {
+        return (pos >>> binBits) << binBits;
+    }
+
+    /**
+     * @return the chromosome code of the variant or the left breakend
+     */
+    public int chrom() {
+        return VariantKeys.chromField(high);
+    }
+
+    /**
+     * @return the zero-based start of the variant or the position of the left breakend, on the positive strand
+     */
+    public int start() {
+        return (int) VariantKeys.decodePos(high);
+    }
+
+    public VariantType variantType() {
+        return VARIANT_TYPES[(int) (high >>> TYPE_SHIFT) & 0xFF];
+    }
+
+    /**
+     * @return the size of the bins the positions are rounded down to, 1 for exact positions
+     */
+    public int binSize() {
+        return 1 << ((int) (high >>> BIN_BITS_SHIFT) & 0x1F);
+    }
+
+    /**
+     * @return the chromosome code of the variant or the right breakend, 0 if the right breakend is unresolved
+     */
+    public int endChrom() {
+        return VariantKeys.chromField(low);
+    }
+
+    /**
+     * @return the zero-based, exclusive end of the variant or the position of the right breakend, on the positive strand
+     */
+    public int end() {
+        return (int) VariantKeys.decodePos(low);
+    }
+
+    /**
+     * @return the strand of the left breakend, {@link Strand#POSITIVE} for other variants
+     */
+    public Strand strand() {
+        return (low & STRAND_MASK) == 0 ? Strand.POSITIVE : Strand.NEGATIVE;
+    }
+
+    /**
+     * @return the strand of the right breakend, {@link Strand#POSITIVE} for other variants
+     */
+    public Strand endStrand() {
+        return (low & END_STRAND_MASK) == 0 ? Strand.POSITIVE : Strand.NEGATIVE;
+    }
+
+    /**
+     * Returns true if the variant starts within the range.
+     */
+    public boolean startsWithin(VariantKeyRange range) {
+        return range.contains(high);
+    }
+
+    /**
+     * Compares the keys as unsigned values, by the high and then the low words.
+     */
+    @Override
+    public int compareTo(SvKey o) {
+        int result = Long.compareUnsigned(high, o.high);
+        return result == 0 ? Long.compareUnsigned(low, o.low) : result;
+    }
+
+    @Override
+    public String toString() {
+        return "SvKey{" +
+               "chrom=" + chrom() +
+               ", start=" + start() +
+               ", variantType=" + variantType() +
+               ", binSize=" + binSize() +
+               ", endChrom=" + endChrom() +
+               ", end=" + end() +
+               ", strand=" + strand() +
+               ", endStrand=" + endStrand() +
+               '}';
+    }
+}
@@ -0,0 +1,166 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.assembly.SequenceRole;
+import org.monarchinitiative.svart.variant.CompactSequenceVariant;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps the {@link Contig}s of a {@link GenomicAssembly} to and from the 5-bit chromosome field of VariantKeys, allowing
+ * VariantKeys to be used for assemblies other than human, and the {@link Contig} of a key to be found.
+ * <p>
+ * Only the {@link SequenceRole#ASSEMBLED_MOLECULE} contigs of the assembly are given a code. Where these all have a
+ * distinct chromosome code of (chr)?[1-22,X,Y,M,MT] by their name, UCSC name or assigned molecule, as for the bundled
+ * human and mouse assemblies, those codes are used so that the keys are identical to those of
+ * {@link VariantKeys#encodeVariantKey(String, int, String, String)}. Otherwise the assembled molecules are given the
+ * codes 1 to 31 in order of their {@link Contig#id()}, which is the order of the assembly report, so the code of a contig
+ * is its id for the usual case of the assembled molecules being listed first.
+ * <p>
+ * All other contigs, i.e. unlocalized and unplaced scaffolds, alt loci, patches and any assembled molecules beyond the
+ * 31st, are encoded with the code 0, as for unplaced contigs in the C implementation of VariantKeys. The keys of variants
+ * on these contigs do not identify the contig, so {@link #decodeContig(long)} returns {@link Contig#unknown()} for them
+ * and {@link #hasCode(Contig)} should be used to check whether the keys of a contig are unique.
+ * <p>
+ * Keys encoded using the assembly order codes must be decoded using {@link #decodeContig(long)} rather than
+ * {@link VariantKeys#decodeChrom(long)}. Instances of this class are immutable and thread-safe.
+ */
+public final class VariantKeyContigs {
+
+    private static final int MAX_CODE = 31;
+
+    private final GenomicAssembly genomicAssembly;
+    private final boolean standardCodes;
+    // the code of each contig indexed by contig id
+    private final byte[] codesById;
+    private final Contig[] contigsByCode;
+
+    private VariantKeyContigs(GenomicAssembly genomicAssembly, boolean standardCodes, byte[] codesById, Contig[] contigsByCode) {
+        this.genomicAssembly = genomicAssembly;
+        this.standardCodes = standardCodes;
+        this.codesById = codesById;
+        this.contigsByCode = contigsByCode;
+    }
+
+    public static VariantKeyContigs of(GenomicAssembly genomicAssembly) {
+        Objects.requireNonNull(genomicAssembly);
+        List<Contig> assembledMolecules = genomicAssembly.contigs().stream()
+                .filter(contig -> contig.sequenceRole() == SequenceRole.ASSEMBLED_MOLECULE)
+                .sorted(Comparator.comparingInt(Contig::id))
+                .toList();
+        int maxId = genomicAssembly.contigs().stream().mapToInt(Contig::id).max().orElse(0);
+        byte[] codesById = new byte[maxId + 1];
+        Contig[] contigsByCode = new Contig[MAX_CODE + 1];
+        contigsByCode[0] = Contig.unknown();
+
+        boolean standardCodes = !assembledMolecules.isEmpty();
+        for (Contig contig : assembledMolecules) {
+            int code = VariantKeys.chromCode(contig);
+            if (code < 0 || contigsByCode[code] != null) {
+                standardCodes = false;
+                break;
+            }
+            contigsByCode[code] = contig;
+            codesById[contig.id()] = (byte) code;
+        }
+        if (!standardCodes) {
+            Arrays.fill(codesById, (byte) 0);
+            Arrays.fill(contigsByCode, 1, contigsByCode.length, null);
+            int code = 1;
+            for (Contig contig : assembledMolecules) {
+                if (code > MAX_CODE) {
+                    break;
+                }
+                contigsByCode[code] = contig;
+                codesById[contig.id()] = (byte) code++;
+            }
+        }
+        return new VariantKeyContigs(genomicAssembly, standardCodes, codesById, contigsByCode);
+    }
+
+    public GenomicAssembly genomicAssembly() {
+        return genomicAssembly;
+    }
+
+    /**
+     * Returns true if the contigs are encoded using the standard human chromosome codes, so that the keys can be
+     * decoded using {@link VariantKeys#decodeChrom(long)}.
+     */
+    public boolean usesStandardCodes() {
+        return standardCodes;
+    }
+
+    /**
+     * Returns true if the contig has a non-zero code, so the VariantKeys of its variants identify the contig.
+     */
+    public boolean hasCode(Contig contig) {
+        return encodeChrom(contig) != 0;
+    }
+
+    /**
+     * Returns the chromosome code of the contig, in the range 0-31.
+     *
+     * @throws IllegalArgumentException if the contig is not in the assembly
+     */
+    public int encodeChrom(Contig contig) {
+        int id = contig.id();
+        if (id <= 0 || id >= codesById.length || !isAssemblyContig(contig, genomicAssembly.contigById(id))) {
+            throw new IllegalArgumentException("Contig " + contig.name() + " is not in assembly " + genomicAssembly.name());
+        }
+        return codesById[id];
+    }
+
+    private static boolean isAssemblyContig(Contig contig, Contig assemblyContig) {
+        return contig == assemblyContig || contig.equals(assemblyContig);
+    }
+
+    /**
+     * Returns the contig with the given chromosome code, or {@link Contig#unknown()} for 0 and unassigned codes.
+     */
+    public Contig contig(int chromCode) {
+        if (chromCode < 0 || chromCode > MAX_CODE) {
+            throw new IllegalArgumentException("Invalid chrom: " + chromCode + " must be between 0 and " + MAX_CODE);
+        }
+        Contig contig = contigsByCode[chromCode];
+        return contig == null ? Contig.unknown() : contig;
+    }
+
+    /**
+     * Returns the contig of the variant key, or {@link Contig#unknown()} if the chromosome code of the key is 0.
+     */
+    public Contig decodeContig(long variantKey) {
+        return contig(VariantKeys.chromField(variantKey));
+    }
+
+    /**
+     * Encodes a variant on a contig of the assembly into a VariantKey.
+     *
+     * @param contig a contig of the assembly
+     * @param pos    Position on the chromosome (0-based)
+     * @throws IllegalArgumentException if the contig is not in the assembly or position exceeds maximum allowed value
+     */
+    public long encodeVariantKey(Contig contig, int pos, CharSequence reference, CharSequence alternate) {
+        return VariantKeys.encodeChromFieldPos(encodeChrom(contig), pos) | VariantKeys.encodeRefAlt(reference, alternate);
+    }
+
+    /**
+     * Encodes the variant into a VariantKey, using the zero-based start and alleles of the variant on the positive
+     * strand. The key of a {@link CompactSequenceVariant} is transcoded from its bits, as for {@link CompactVariantKeys}.
+     *
+     * @throws IllegalArgumentException if the contig is not in the assembly or position exceeds maximum allowed value
+     */
+    public long encodeVariantKey(GenomicVariant variant) {
+        int chrom = encodeChrom(variant.contig());
+        if (variant instanceof CompactSequenceVariant compact) {
+            return CompactVariantKeys.variantKey(compact.contig(), chrom, compact.bits());
+        }
+        GenomicVariant positive = variant.withStrand(Strand.POSITIVE);
+        return VariantKeys.encodeChromFieldPos(chrom, positive.startZeroBased()) | VariantKeys.encodeRefAlt(positive.ref(), positive.alt());
+    }
+}
@@ -0,0 +1,223 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.util.Arrays;
+
+/**
+ * The keys of the open-addressed hash collections of VariantKeys, partitioned by the 5-bit chromosome field of the keys
+ * into a table per chromosome. Partitioning bounds the size of each table, which are resized independently as they
+ * fill, allows the tables of different chromosomes to be merged in parallel without locking, and as the partitions are
+ * in chromosome order means the keys can be iterated in unsigned order by sorting one partition at a time.
+ * <p>
+ * Each table is probed linearly from the slot given by the high bits of the key multiplied by the golden ratio, which
+ * mixes the position and allele bits of the key. Free slots hold 0, so the key 0 (chromosome 0, position 0 and no
+ * alleles) is held separately by the subclasses, which also hold the values of their keys in arrays parallel to the
+ * tables of keys.
+ */
+abstract class VariantKeyHashTable {
+
+    static final int PARTITIONS = 32;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    // the table of keys of each partition, null until a key of the partition is added
+    final long[][] keys = new long[PARTITIONS][];
+    final int[] sizes = new int[PARTITIONS];
+    private final int[] shifts = new int[PARTITIONS];
+    private final int initialCapacity;
+    boolean hasZeroKey;
+
+    VariantKeyHashTable(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size " + expectedSize + " must not be negative");
+        }
+        // assume the keys are spread over at least 16 chromosomes, the tables growing as needed where they are not
+        this.initialCapacity = capacity(expectedSize / 16);
+    }
+
+    static int partition(long variantKey) {
+        return (int) (variantKey >>> 59);
+    }
+
+    private static int capacity(long size) {
+        long capacity = MIN_CAPACITY;
+        while (capacity - capacity / 4 < size) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalStateException("Cannot hold more than " + (MAX_CAPACITY - MAX_CAPACITY / 4) + " keys of a chromosome");
+            }
+            capacity <<= 1;
+        }
+        return (int) capacity;
+    }
+
+    private static int slot(long variantKey, int shift) {
+        return (int) ((variantKey * PHI) >>> shift);
+    }
+
+    /**
+     * Returns the number of keys, including the key 0.
+     */
+    public long size() {
+        long size = hasZeroKey ? 1 : 0;
+        for (int partitionSize : sizes) {
+            size += partitionSize;
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the slot of the non-zero key in the table of its partition, or -1 if it is not present.
+     */
+    final int find(int partition, long variantKey) {
+        long[] table = keys[partition];
+        if (table == null) {
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int slot = slot(variantKey, shifts[partition]); ; slot = (slot + 1) & mask) {
+            long key = table[slot];
+            if (key == variantKey) {
+                return slot;
+            }
+            if (key == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of the non-zero key in the table of its partition if present, otherwise adds the key, growing
+     * the table if needed, and returns the complement (~) of its slot.
+     */
+    final int findOrInsert(int partition, long variantKey) {
+        long[] table = keys[partition];
+        if (table == null) {
+            resize(partition, initialCapacity);
+            table = keys[partition];
+        }
+        int mask = table.length - 1;
+        int slot = slot(variantKey, shifts[partition]);
+        for (long key = table[slot]; key != 0; key = table[slot]) {
+            if (key == variantKey) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (sizes[partition] >= table.length - table.length / 4) {
+            resize(partition, capacity(sizes[partition] + 1L));
+            return findOrInsert(partition, variantKey);
+        }
+        table[slot] = variantKey;
+        sizes[partition]++;
+        return ~slot;
+    }
+
+    /**
+     * Grows the table of the partition to hold at least the given number of keys without further resizing.
+     */
+    final void ensureCapacity(int partition, long size) {
+        int capacity = capacity(size);
+        if (keys[partition] == null || keys[partition].length < capacity) {
+            resize(partition, capacity);
+        }
+    }
+
+    private void resize(int partition, int capacity) {
+        long[] oldTable = keys[partition];
+        long[] table = new long[capacity];
+        int shift = Long.numberOfLeadingZeros(capacity - 1L);
+        int mask = capacity - 1;
+        int[] newSlots = new int[oldTable == null ? 0 : oldTable.length];
+        for (int oldSlot = 0; oldSlot < newSlots.length; oldSlot++) {
+            long key = oldTable[oldSlot];
+            if (key == 0) {
+                newSlots[oldSlot] = -1;
+                continue;
+            }
+            int slot = slot(key, shift);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = key;
+            newSlots[oldSlot] = slot;
+        }
+        keys[partition] = table;
+        shifts[partition] = shift;
+        resizeValues(partition, newSlots, capacity);
+    }
+
+    /**
+     * Called when the table of the partition is allocated or resized, to move the values of the keys from their old
+     * slot to the new slot given by newSlots, which is -1 for free slots and empty when the table is first allocated.
+     */
+    void resizeValues(int partition, int[] newSlots, int capacity) {
+    }
+
+    /**
+     * Returns the slots of the keys of the partition in unsigned order of the keys.
+     */
+    final int[] sortedSlots(int partition) {
+        long[] table = keys[partition];
+        int size = sizes[partition];
+        if (size == 0) {
+            return new int[0];
+        }
+        int[] slots = new int[size];
+        long[] partitionKeys = new long[size];
+        int n = 0;
+        for (int slot = 0; slot < table.length; slot++) {
+            if (table[slot] != 0) {
+                slots[n] = slot;
+                partitionKeys[n++] = table[slot];
+            }
+        }
+        int[] order = VariantKeyRadixSort.sortOrder(partitionKeys, size);
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = slots[order[i]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns all the keys sorted in unsigned order.
+     *
+     * @throws IllegalStateException if there are too many keys to hold in an array
+     */
+    public long[] sortedKeys() {
+        long size = size();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Cannot hold " + size + " keys in an array");
+        }
+        long[] sorted = new long[(int) size];
+        int n = 0;
+        if (hasZeroKey) {
+            sorted[n++] = 0;
+        }
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            long[] table = keys[partition];
+            for (int slot : sortedSlots(partition)) {
+                sorted[n++] = table[slot];
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Removes all the keys, keeping the allocated tables.
+     */
+    public void clear() {
+        for (long[] table : keys) {
+            if (table != null) {
+                Arrays.fill(table, 0);
+            }
+        }
+        Arrays.fill(sizes, 0);
+        hasZeroKey = false;
+    }
+}
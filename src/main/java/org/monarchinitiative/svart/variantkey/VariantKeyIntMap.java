@@ -0,0 +1,210 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.util.Collection;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * A map of VariantKeys to int values held as primitives in open-addressed hash tables, one per chromosome, for counting
+ * variants and joining on keys without the boxing and memory overhead of a {@code Map<Long, Integer>}.
+ * <p>
+ * The keys are partitioned by chromosome, so that maps built from separate parts of the input on separate threads can be
+ * merged in parallel using {@link #merge(Collection, IntBinaryOperator)}, and can be iterated in unsigned order, i.e.
+ * the order of chromosome and position, using {@link #forEachSorted(EntryConsumer)} which sorts one chromosome at a time.
+ * <pre>
+ * VariantKeyIntMap counts = new VariantKeyIntMap();
+ * counts.addTo(variantKey, 1);
+ * ...
+ * VariantKeyIntMap total = VariantKeyIntMap.merge(perThreadCounts, Integer::sum);
+ * </pre>
+ * Instances of this class are not thread-safe.
+ */
+public final class VariantKeyIntMap extends VariantKeyHashTable {
+
+    /**
+     * Consumer of the entries of a {@link VariantKeyIntMap}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long variantKey, int value);
+    }
+
+    private final int[][] values = new int[PARTITIONS][];
+    private int zeroValue;
+
+    public VariantKeyIntMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize the expected number of keys, used to size the table of each chromosome
+     */
+    public VariantKeyIntMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Returns a new map of the entries of all the maps, merging the entries of each chromosome in parallel. The values
+     * of keys present in more than one map are combined using the remapping function.
+     */
+    public static VariantKeyIntMap merge(Collection<VariantKeyIntMap> maps, IntBinaryOperator remappingFunction) {
+        VariantKeyIntMap merged = new VariantKeyIntMap();
+        IntStream.range(0, PARTITIONS).parallel().forEach(partition -> {
+            long size = 0;
+            for (VariantKeyIntMap map : maps) {
+                size += map.sizes[partition];
+            }
+            if (size != 0) {
+                merged.ensureCapacity(partition, size);
+                for (VariantKeyIntMap map : maps) {
+                    merged.putAll(map, partition, remappingFunction);
+                }
+            }
+        });
+        for (VariantKeyIntMap map : maps) {
+            if (map.hasZeroKey) {
+                merged.merge(0, map.zeroValue, remappingFunction);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    void resizeValues(int partition, int[] newSlots, int capacity) {
+        int[] oldValues = values[partition];
+        int[] newValues = new int[capacity];
+        for (int oldSlot = 0; oldSlot < newSlots.length; oldSlot++) {
+            if (newSlots[oldSlot] >= 0) {
+                newValues[newSlots[oldSlot]] = oldValues[oldSlot];
+            }
+        }
+        values[partition] = newValues;
+    }
+
+    public boolean containsKey(long variantKey) {
+        if (variantKey == 0) {
+            return hasZeroKey;
+        }
+        return find(partition(variantKey), variantKey) >= 0;
+    }
+
+    /**
+     * Returns the value of the key, or the default value if the key is not present.
+     */
+    public int getOrDefault(long variantKey, int defaultValue) {
+        if (variantKey == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int partition = partition(variantKey);
+        int slot = find(partition, variantKey);
+        return slot < 0 ? defaultValue : values[partition][slot];
+    }
+
+    public void put(long variantKey, int value) {
+        if (variantKey == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int partition = partition(variantKey);
+        int slot = findOrInsert(partition, variantKey);
+        values[partition][slot < 0 ? ~slot : slot] = value;
+    }
+
+    /**
+     * Adds the increment to the value of the key, or puts the increment if the key is not present, returning the new
+     * value.
+     */
+    public int addTo(long variantKey, int increment) {
+        return merge(variantKey, increment, Integer::sum);
+    }
+
+    /**
+     * Puts the value if the key is not present, otherwise replaces the value of the key with the result of the
+     * remapping function of the old value and the given value, returning the new value.
+     */
+    public int merge(long variantKey, int value, IntBinaryOperator remappingFunction) {
+        if (variantKey == 0) {
+            zeroValue = hasZeroKey ? remappingFunction.applyAsInt(zeroValue, value) : value;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        int partition = partition(variantKey);
+        int slot = findOrInsert(partition, variantKey);
+        int[] partitionValues = values[partition];
+        if (slot < 0) {
+            partitionValues[~slot] = value;
+            return value;
+        }
+        return partitionValues[slot] = remappingFunction.applyAsInt(partitionValues[slot], value);
+    }
+
+    /**
+     * Puts all the entries of the other map, combining the values of keys present in both maps using the remapping
+     * function of the value of this map and the value of the other map.
+     */
+    public void putAll(VariantKeyIntMap other, IntBinaryOperator remappingFunction) {
+        if (other.hasZeroKey) {
+            merge(0, other.zeroValue, remappingFunction);
+        }
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            putAll(other, partition, remappingFunction);
+        }
+    }
+
+    private void putAll(VariantKeyIntMap other, int partition, IntBinaryOperator remappingFunction) {
+        long[] table = other.keys[partition];
+        if (table == null) {
+            return;
+        }
+        int[] otherValues = other.values[partition];
+        for (int otherSlot = 0; otherSlot < table.length; otherSlot++) {
+            long key = table[otherSlot];
+            if (key != 0) {
+                int slot = findOrInsert(partition, key);
+                int[] partitionValues = values[partition];
+                if (slot < 0) {
+                    partitionValues[~slot] = otherValues[otherSlot];
+                } else {
+                    partitionValues[slot] = remappingFunction.applyAsInt(partitionValues[slot], otherValues[otherSlot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each entry, in no particular order.
+     */
+    public void forEach(EntryConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            long[] table = keys[partition];
+            if (table != null) {
+                int[] partitionValues = values[partition];
+                for (int slot = 0; slot < table.length; slot++) {
+                    if (table[slot] != 0) {
+                        action.accept(table[slot], partitionValues[slot]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each entry in unsigned order of the keys.
+     */
+    public void forEachSorted(EntryConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            long[] table = keys[partition];
+            int[] partitionValues = values[partition];
+            for (int slot : sortedSlots(partition)) {
+                action.accept(table[slot], partitionValues[slot]);
+            }
+        }
+    }
+}
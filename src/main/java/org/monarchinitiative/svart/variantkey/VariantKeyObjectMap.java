@@ -0,0 +1,268 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A map of VariantKeys to non-null values with the keys held as primitive longs in open-addressed hash tables, one per
+ * chromosome, for grouping and joining on keys without the boxing and memory overhead of a {@code Map<Long, V>}.
+ * <p>
+ * The keys are partitioned by chromosome, so that maps built from separate parts of the input on separate threads can be
+ * merged in parallel using {@link #merge(Collection, BinaryOperator)}, and can be iterated in unsigned order, i.e. the
+ * order of chromosome and position, using {@link #forEachSorted(EntryConsumer)} which sorts one chromosome at a time.
+ * <pre>
+ * VariantKeyObjectMap&lt;List&lt;String&gt;&gt; samples = new VariantKeyObjectMap&lt;&gt;();
+ * samples.computeIfAbsent(variantKey, key -&gt; new ArrayList&lt;&gt;()).add(sampleId);
+ * </pre>
+ * Instances of this class are not thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+public final class VariantKeyObjectMap<V> extends VariantKeyHashTable {
+
+    /**
+     * Consumer of the entries of a {@link VariantKeyObjectMap}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long variantKey, V value);
+    }
+
+    private final Object[][] values = new Object[PARTITIONS][];
+    private V zeroValue;
+
+    public VariantKeyObjectMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize the expected number of keys, used to size the table of each chromosome
+     */
+    public VariantKeyObjectMap(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Returns a new map of the entries of all the maps, merging the entries of each chromosome in parallel. The values
+     * of keys present in more than one map are combined using the remapping function, which must be safe to call from
+     * several threads for different keys.
+     */
+    public static <V> VariantKeyObjectMap<V> merge(Collection<VariantKeyObjectMap<V>> maps, BinaryOperator<V> remappingFunction) {
+        VariantKeyObjectMap<V> merged = new VariantKeyObjectMap<>();
+        IntStream.range(0, PARTITIONS).parallel().forEach(partition -> {
+            long size = 0;
+            for (VariantKeyObjectMap<V> map : maps) {
+                size += map.sizes[partition];
+            }
+            if (size != 0) {
+                merged.ensureCapacity(partition, size);
+                for (VariantKeyObjectMap<V> map : maps) {
+                    merged.putAll(map, partition, remappingFunction);
+                }
+            }
+        });
+        for (VariantKeyObjectMap<V> map : maps) {
+            if (map.hasZeroKey) {
+                merged.merge(0, map.zeroValue, remappingFunction);
+            }
+        }
+        return merged;
+    }
+
+    @Override
+    void resizeValues(int partition, int[] newSlots, int capacity) {
+        Object[] oldValues = values[partition];
+        Object[] newValues = new Object[capacity];
+        for (int oldSlot = 0; oldSlot < newSlots.length; oldSlot++) {
+            if (newSlots[oldSlot] >= 0) {
+                newValues[newSlots[oldSlot]] = oldValues[oldSlot];
+            }
+        }
+        values[partition] = newValues;
+    }
+
+    public boolean containsKey(long variantKey) {
+        if (variantKey == 0) {
+            return hasZeroKey;
+        }
+        return find(partition(variantKey), variantKey) >= 0;
+    }
+
+    /**
+     * Returns the value of the key, or null if the key is not present.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long variantKey) {
+        if (variantKey == 0) {
+            return zeroValue;
+        }
+        int partition = partition(variantKey);
+        int slot = find(partition, variantKey);
+        return slot < 0 ? null : (V) values[partition][slot];
+    }
+
+    /**
+     * Puts the value of the key, returning the previous value or null if the key was not present.
+     *
+     * @throws NullPointerException if the value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long variantKey, V value) {
+        Objects.requireNonNull(value, "value cannot be null");
+        if (variantKey == 0) {
+            V previous = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int partition = partition(variantKey);
+        int slot = findOrInsert(partition, variantKey);
+        Object[] partitionValues = values[partition];
+        if (slot < 0) {
+            partitionValues[~slot] = value;
+            return null;
+        }
+        V previous = (V) partitionValues[slot];
+        partitionValues[slot] = value;
+        return previous;
+    }
+
+    /**
+     * Returns the value of the key, first putting the value computed by the mapping function if the key is not present.
+     *
+     * @throws NullPointerException if the computed value is null
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long variantKey, LongFunction<? extends V> mappingFunction) {
+        if (variantKey == 0) {
+            if (!hasZeroKey) {
+                zeroValue = Objects.requireNonNull(mappingFunction.apply(variantKey), "value cannot be null");
+                hasZeroKey = true;
+            }
+            return zeroValue;
+        }
+        int partition = partition(variantKey);
+        int slot = find(partition, variantKey);
+        if (slot >= 0) {
+            return (V) values[partition][slot];
+        }
+        V value = Objects.requireNonNull(mappingFunction.apply(variantKey), "value cannot be null");
+        // the mapping function may have modified the map, so find the slot again
+        slot = findOrInsert(partition, variantKey);
+        values[partition][slot < 0 ? ~slot : slot] = value;
+        return value;
+    }
+
+    /**
+     * Puts the value if the key is not present, otherwise replaces the value of the key with the result of the
+     * remapping function of the old value and the given value, returning the new value.
+     *
+     * @throws NullPointerException if the value or the result of the remapping function is null
+     */
+    @SuppressWarnings("unchecked")
+    public V merge(long variantKey, V value, BinaryOperator<V> remappingFunction) {
+        Objects.requireNonNull(value, "value cannot be null");
+        if (variantKey == 0) {
+            zeroValue = hasZeroKey ? Objects.requireNonNull(remappingFunction.apply(zeroValue, value), "value cannot be null") : value;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        int partition = partition(variantKey);
+        int slot = findOrInsert(partition, variantKey);
+        Object[] partitionValues = values[partition];
+        if (slot < 0) {
+            partitionValues[~slot] = value;
+            return value;
+        }
+        V merged = Objects.requireNonNull(remappingFunction.apply((V) partitionValues[slot], value), "value cannot be null");
+        partitionValues[slot] = merged;
+        return merged;
+    }
+
+    /**
+     * Puts all the entries of the other map, combining the values of keys present in both maps using the remapping
+     * function of the value of this map and the value of the other map.
+     */
+    public void putAll(VariantKeyObjectMap<? extends V> other, BinaryOperator<V> remappingFunction) {
+        if (other.hasZeroKey) {
+            merge(0, other.zeroValue, remappingFunction);
+        }
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            putAll(other, partition, remappingFunction);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void putAll(VariantKeyObjectMap<? extends V> other, int partition, BinaryOperator<V> remappingFunction) {
+        long[] table = other.keys[partition];
+        if (table == null) {
+            return;
+        }
+        Object[] otherValues = other.values[partition];
+        for (int otherSlot = 0; otherSlot < table.length; otherSlot++) {
+            long key = table[otherSlot];
+            if (key != 0) {
+                int slot = findOrInsert(partition, key);
+                Object[] partitionValues = values[partition];
+                if (slot < 0) {
+                    partitionValues[~slot] = otherValues[otherSlot];
+                } else {
+                    partitionValues[slot] = Objects.requireNonNull(remappingFunction.apply((V) partitionValues[slot], (V) otherValues[otherSlot]), "value cannot be null");
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each entry, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            long[] table = keys[partition];
+            if (table != null) {
+                Object[] partitionValues = values[partition];
+                for (int slot = 0; slot < table.length; slot++) {
+                    if (table[slot] != 0) {
+                        action.accept(table[slot], (V) partitionValues[slot]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each entry in unsigned order of the keys.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachSorted(EntryConsumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            long[] table = keys[partition];
+            Object[] partitionValues = values[partition];
+            for (int slot : sortedSlots(partition)) {
+                action.accept(table[slot], (V) partitionValues[slot]);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        for (Object[] partitionValues : values) {
+            if (partitionValues != null) {
+                Arrays.fill(partitionValues, null);
+            }
+        }
+        zeroValue = null;
+    }
+}
@@ -0,0 +1,125 @@
+package org.monarchinitiative.svart.variantkey;
+
+/**
+ * LSD radix sorts of columns of VariantKeys and other long and int values in unsigned order, skipping the byte
+ * positions that are identical across all the values. These are used to sort the large arrays of keys held by the index
+ * writers, which would otherwise need to be boxed to be sorted together with their payloads. The sorts are stable.
+ */
+final class VariantKeyRadixSort {
+
+    private static final int RADIX = 256;
+
+    private VariantKeyRadixSort() {
+    }
+
+    /**
+     * Returns the order of the first size values when sorted as unsigned values.
+     */
+    static int[] sortOrder(long[] values, int size) {
+        return sortBy(values, identity(size), size);
+    }
+
+    /**
+     * Returns the order of the first size pairs of values when sorted as unsigned values by the primary value and then
+     * the secondary value.
+     */
+    static int[] sortOrder(long[] primary, long[] secondary, int size) {
+        return sortBy(primary, sortBy(secondary, identity(size), size), size);
+    }
+
+    /**
+     * As for {@link #sortOrder(long[], long[], int)}, with primary int values sorted as unsigned ints.
+     */
+    static int[] sortOrder(int[] primary, long[] secondary, int size) {
+        return sortBy(primary, sortBy(secondary, identity(size), size), size);
+    }
+
+    /**
+     * As for {@link #sortOrder(long[], long[], int)}, with secondary int values sorted as unsigned ints.
+     */
+    static int[] sortOrder(long[] primary, int[] secondary, int size) {
+        return sortBy(primary, sortBy(secondary, identity(size), size), size);
+    }
+
+    private static int[] identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Stably sorts the order by the values it indexes.
+     */
+    private static int[] sortBy(long[] values, int[] order, int size) {
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = values[order[i]];
+        }
+        return radixSort(sorted, order);
+    }
+
+    private static int[] sortBy(int[] values, int[] order, int size) {
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = Integer.toUnsignedLong(values[order[i]]);
+        }
+        // the upper bytes are all zero, so are skipped
+        return radixSort(sorted, order);
+    }
+
+    /**
+     * Stably sorts the order by the values it indexes, given the values in the current order.
+     */
+    private static int[] radixSort(long[] sorted, int[] order) {
+        int size = sorted.length;
+        int[][] counts = new int[Long.BYTES][RADIX];
+        for (int i = 0; i < size; i++) {
+            long value = sorted[i];
+            for (int bytePosition = 0; bytePosition < Long.BYTES; bytePosition++) {
+                counts[bytePosition][(int) (value >>> (bytePosition * Byte.SIZE)) & 0xFF]++;
+            }
+        }
+        long[] valueBuffer = null;
+        int[] orderBuffer = null;
+        for (int bytePosition = 0; bytePosition < Long.BYTES; bytePosition++) {
+            if (isSingleBucket(counts[bytePosition], size)) {
+                continue;
+            }
+            if (valueBuffer == null) {
+                valueBuffer = new long[size];
+                orderBuffer = new int[size];
+            }
+            int[] positions = new int[RADIX];
+            int position = 0;
+            for (int i = 0; i < RADIX; i++) {
+                positions[i] = position;
+                position += counts[bytePosition][i];
+            }
+            int shift = bytePosition * Byte.SIZE;
+            for (int i = 0; i < size; i++) {
+                long value = sorted[i];
+                int to = positions[(int) (value >>> shift) & 0xFF]++;
+                valueBuffer[to] = value;
+                orderBuffer[to] = order[i];
+            }
+            long[] valueTemp = sorted;
+            sorted = valueBuffer;
+            valueBuffer = valueTemp;
+            int[] orderTemp = order;
+            order = orderBuffer;
+            orderBuffer = orderTemp;
+        }
+        return order;
+    }
+
+    private static boolean isSingleBucket(int[] counts, int length) {
+        for (int count : counts) {
+            if (count != 0) {
+                return count == length;
+            }
+        }
+        return true;
+    }
+}
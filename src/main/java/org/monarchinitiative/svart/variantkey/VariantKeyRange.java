@@ -0,0 +1,192 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.monarchinitiative.svart.GenomicRegion;
+
+import java.nio.LongBuffer;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * The range of VariantKeys of the variants starting within a region of a chromosome, from the start key (inclusive) to
+ * the end key (exclusive) compared as unsigned values.
+ * <p>
+ * As VariantKeys sort by chromosome and then position, the keys of the variants starting within a region are a
+ * contiguous range of a sorted array of keys. The range is found using two binary searches, for the first keys not less
+ * than the start and end keys, after which the keys can be scanned sequentially, e.g.
+ * <pre>
+ * VariantKeyRange range = VariantKeyRange.of(region);
+ * for (int i = range.fromIndex(sortedKeys); i &lt; range.toIndex(sortedKeys); i++) {
+ *     ...
+ * }
+ * </pre>
+ * Note that only the start of a variant is held in its key, so the range does not include the keys of variants such as
+ * deletions which start before the region and overlap it.
+ *
+ * @param start the smallest key in the range
+ * @param end   the smallest key after the range
+ */
+public record VariantKeyRange(long start, long end) {
+
+    public VariantKeyRange {
+        if (Long.compareUnsigned(start, end) > 0) {
+            throw new IllegalArgumentException("Range start " + Long.toUnsignedString(start) + " must not be greater than end " + Long.toUnsignedString(end));
+        }
+    }
+
+    /**
+     * Returns the range of the keys of the variants starting from the zero-based start (inclusive) to the end
+     * (exclusive) positions on the chromosome.
+     *
+     * @param chrom Chromosome name (e.g. "1", "X", "MT")
+     * @throws IllegalArgumentException if the chromosome is not recognised, start is greater than end or the end
+     *                                  exceeds {@link VariantKeys#MAX_POS}
+     */
+    public static VariantKeyRange of(String chrom, int start, int end) {
+        return of((int) VariantKeys.encodeChrom(chrom), start, end);
+    }
+
+    /**
+     * As for {@link #of(String, int, int)}, given the numeric chromosome code.
+     *
+     * @param chrom Chromosome number (1-25 for chr1-22, X, Y, MT)
+     */
+    public static VariantKeyRange of(int chrom, int start, int end) {
+        return new VariantKeyRange(VariantKeys.rangeStart(chrom, start), VariantKeys.rangeStart(chrom, end));
+    }
+
+    /**
+     * Returns the range of the keys of the variants starting within the region, on the positive strand. The
+     * chromosome is found from the name, UCSC name or assigned molecule of the contig of the region.
+     *
+     * @throws IllegalArgumentException if the contig of the region cannot be encoded
+     */
+    public static VariantKeyRange of(GenomicRegion region) {
+        return ofChromField(VariantKeys.encodeChrom(region.contig()), region);
+    }
+
+    /**
+     * Returns the range of the keys of the variants starting within the region, on the positive strand, with the
+     * contig of the region encoded using the {@link VariantKeyContigs}.
+     *
+     * @throws IllegalArgumentException if the contig of the region is not in the assembly of the
+     *                                  {@link VariantKeyContigs}
+     */
+    public static VariantKeyRange of(VariantKeyContigs variantKeyContigs, GenomicRegion region) {
+        return ofChromField(variantKeyContigs.encodeChrom(region.contig()), region);
+    }
+
+    private static VariantKeyRange ofChromField(int chrom, GenomicRegion region) {
+        return new VariantKeyRange(VariantKeys.encodeChromFieldPos(chrom, region.startStd()), VariantKeys.encodeChromFieldPos(chrom, region.endStd()));
+    }
+
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    /**
+     * Returns true if the key is within the range.
+     */
+    public boolean contains(long variantKey) {
+        return Long.compareUnsigned(variantKey, start) >= 0 && Long.compareUnsigned(variantKey, end) < 0;
+    }
+
+    /**
+     * Returns the index of the first key in the range of the array sorted in unsigned order, or the index at which it
+     * would be inserted if there is none.
+     */
+    public int fromIndex(long[] sortedKeys) {
+        return lowerBound(sortedKeys, start);
+    }
+
+    /**
+     * Returns the index after the last key in the range of the array sorted in unsigned order.
+     */
+    public int toIndex(long[] sortedKeys) {
+        return lowerBound(sortedKeys, end);
+    }
+
+    /**
+     * Returns the absolute index of the first key in the range of the keys of the buffer from its position to its limit,
+     * sorted in unsigned order. The position of the buffer is not changed.
+     */
+    public int fromIndex(LongBuffer sortedKeys) {
+        return lowerBound(sortedKeys, start);
+    }
+
+    /**
+     * Returns the absolute index after the last key in the range of the keys of the buffer from its position to its
+     * limit, sorted in unsigned order. The position of the buffer is not changed.
+     */
+    public int toIndex(LongBuffer sortedKeys) {
+        return lowerBound(sortedKeys, end);
+    }
+
+    /**
+     * Returns an iterator over the keys in the range of the array sorted in unsigned order.
+     */
+    public PrimitiveIterator.OfLong iterator(long[] sortedKeys) {
+        return new KeyIterator(LongBuffer.wrap(sortedKeys), fromIndex(sortedKeys), toIndex(sortedKeys));
+    }
+
+    /**
+     * Returns an iterator over the keys in the range of the remaining keys of the buffer sorted in unsigned order. The
+     * position of the buffer is not changed.
+     */
+    public PrimitiveIterator.OfLong iterator(LongBuffer sortedKeys) {
+        return new KeyIterator(sortedKeys, fromIndex(sortedKeys), toIndex(sortedKeys));
+    }
+
+    private static int lowerBound(long[] keys, long key) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(keys[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int lowerBound(LongBuffer keys, long key) {
+        int lo = keys.position();
+        int hi = keys.limit();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(keys.get(mid), key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static final class KeyIterator implements PrimitiveIterator.OfLong {
+
+        private final LongBuffer keys;
+        private final int to;
+        private int index;
+
+        private KeyIterator(LongBuffer keys, int from, int to) {
+            this.keys = keys;
+            this.index = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < to;
+        }
+
+        @Override
+        public long nextLong() {
+            if (index >= to) {
+                throw new NoSuchElementException();
+            }
+            return keys.get(index++);
+        }
+    }
+}
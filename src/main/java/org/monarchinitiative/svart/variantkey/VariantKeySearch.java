@@ -0,0 +1,86 @@
+package org.monarchinitiative.svart.variantkey;
+
+/**
+ * Searches of memory-mapped records sorted by the unsigned VariantKey held in their first eight bytes.
+ * <p>
+ * VariantKeys are close to uniformly distributed within each chromosome, as the position occupies the bits below the
+ * chromosome, so an interpolation search finds a key in a few probes where a binary search would need around 30 for
+ * a large table, each probe being a likely page fault on a cold mapping. As the distribution is not uniform across
+ * chromosomes, the search falls back to bisection after {@link #MAX_INTERPOLATION_PROBES} probes, giving the
+ * logarithmic worst case of a binary search.
+ */
+final class VariantKeySearch {
+
+    private static final int MAX_INTERPOLATION_PROBES = 8;
+    // ranges of this size are scanned linearly
+    private static final int LINEAR_SCAN = 8;
+
+    private VariantKeySearch() {
+    }
+
+    /**
+     * Returns the index of the first record in the range from (inclusive) to (exclusive) with a key greater than or
+     * equal to the given key, or to if there is none.
+     */
+    static long lowerBound(MappedRecords records, long key, long from, long to) {
+        long lo = from;
+        long hi = to;
+        int probes = 0;
+        while (hi - lo > LINEAR_SCAN) {
+            long mid;
+            if (probes++ < MAX_INTERPOLATION_PROBES) {
+                long lowKey = records.getLong(lo, 0);
+                if (Long.compareUnsigned(lowKey, key) >= 0) {
+                    return lo;
+                }
+                long highKey = records.getLong(hi - 1, 0);
+                if (Long.compareUnsigned(highKey, key) < 0) {
+                    return hi;
+                }
+                double fraction = unsignedToDouble(key - lowKey) / unsignedToDouble(highKey - lowKey);
+                // keep the probe strictly inside the range, so that it always shrinks
+                mid = Math.max(lo + 1, Math.min(hi - 2, lo + (long) (fraction * (hi - 1 - lo))));
+            } else {
+                mid = (lo + hi) >>> 1;
+            }
+            if (Long.compareUnsigned(records.getLong(mid, 0), key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        while (lo < hi && Long.compareUnsigned(records.getLong(lo, 0), key) < 0) {
+            lo++;
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the index of the first record from the given index with a key greater than or equal to the given key,
+     * or the record count if there is none. The records following from are searched using an exponentially increasing
+     * step before searching the range found, so that the cost depends on the distance to the key rather than the size
+     * of the table. This is used to look up sorted keys.
+     */
+    static long lowerBoundFrom(MappedRecords records, long key, long from) {
+        long count = records.count();
+        long lo = from;
+        long step = 1;
+        while (lo + step < count && Long.compareUnsigned(records.getLong(lo + step, 0), key) < 0) {
+            lo += step;
+            step <<= 1;
+        }
+        return lowerBound(records, key, lo, Math.min(lo + step + 1, count));
+    }
+
+    /**
+     * Returns the index of the first record with the key, or -1 if there is none.
+     */
+    static long indexOf(MappedRecords records, long key) {
+        long index = lowerBound(records, key, 0, records.count());
+        return index < records.count() && records.getLong(index, 0) == key ? index : -1;
+    }
+
+    private static double unsignedToDouble(long value) {
+        return (double) (value >>> 1) * 2.0 + (value & 1);
+    }
+}
@@ -0,0 +1,129 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.util.Collection;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A set of VariantKeys held as primitive longs in open-addressed hash tables, one per chromosome, for counting distinct
+ * variants and deduplicating keys without the boxing and memory overhead of a {@code Set<Long>}.
+ * <p>
+ * The keys are partitioned by chromosome, so that sets built from separate parts of the input on separate threads can be
+ * merged in parallel using {@link #merge(Collection)}, and can be iterated in unsigned order, i.e. the order of
+ * chromosome and position, using {@link #forEachSorted(LongConsumer)} which sorts one chromosome at a time.
+ * <pre>
+ * VariantKeySet distinct = VariantKeySet.merge(perThreadSets);
+ * distinct.forEachSorted(key -&gt; ...);
+ * </pre>
+ * Instances of this class are not thread-safe.
+ */
+public final class VariantKeySet extends VariantKeyHashTable {
+
+    public VariantKeySet() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize the expected number of keys, used to size the table of each chromosome
+     */
+    public VariantKeySet(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Returns a new set of the keys of all the sets, merging the keys of each chromosome in parallel.
+     */
+    public static VariantKeySet merge(Collection<VariantKeySet> sets) {
+        VariantKeySet merged = new VariantKeySet();
+        IntStream.range(0, PARTITIONS).parallel().forEach(partition -> {
+            long size = 0;
+            for (VariantKeySet set : sets) {
+                size += set.sizes[partition];
+            }
+            if (size != 0) {
+                merged.ensureCapacity(partition, size);
+                for (VariantKeySet set : sets) {
+                    merged.addAll(set, partition);
+                }
+            }
+        });
+        for (VariantKeySet set : sets) {
+            merged.hasZeroKey |= set.hasZeroKey;
+        }
+        return merged;
+    }
+
+    /**
+     * Adds the key to the set, returning true if it was not already present.
+     */
+    public boolean add(long variantKey) {
+        if (variantKey == 0) {
+            boolean added = !hasZeroKey;
+            hasZeroKey = true;
+            return added;
+        }
+        return findOrInsert(partition(variantKey), variantKey) < 0;
+    }
+
+    public boolean contains(long variantKey) {
+        if (variantKey == 0) {
+            return hasZeroKey;
+        }
+        return find(partition(variantKey), variantKey) >= 0;
+    }
+
+    /**
+     * Adds all the keys of the other set.
+     */
+    public void addAll(VariantKeySet other) {
+        hasZeroKey |= other.hasZeroKey;
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            addAll(other, partition);
+        }
+    }
+
+    private void addAll(VariantKeySet other, int partition) {
+        long[] table = other.keys[partition];
+        if (table == null) {
+            return;
+        }
+        for (long key : table) {
+            if (key != 0) {
+                findOrInsert(partition, key);
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each key, in no particular order.
+     */
+    public void forEach(LongConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0);
+        }
+        for (long[] table : keys) {
+            if (table != null) {
+                for (long key : table) {
+                    if (key != 0) {
+                        action.accept(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs the action for each key in unsigned order.
+     */
+    public void forEachSorted(LongConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0);
+        }
+        for (int partition = 0; partition < PARTITIONS; partition++) {
+            long[] table = keys[partition];
+            for (int slot : sortedSlots(partition)) {
+                action.accept(table[slot]);
+            }
+        }
+    }
+}
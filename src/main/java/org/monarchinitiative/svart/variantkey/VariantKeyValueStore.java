@@ -0,0 +1,326 @@
+package org.monarchinitiative.svart.variantkey;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A read-only, memory-mapped table of values keyed by VariantKey, as written by the {@link VariantKeyValueStoreWriter}.
+ * This is intended for large annotation sources such as allele frequencies or pathogenicity scores, which can then be
+ * looked up without an external database or loading the table into memory.
+ * <p>
+ * Each record holds a key and a fixed-width value for each of the {@link Column}s of the store, with the records
+ * sorted by the unsigned key. Keys are found using an interpolation search, which takes a few probes as VariantKeys
+ * are close to uniformly distributed within a chromosome. Sorted keys, such as those of the variants of a sorted VCF
+ * file, are best looked up using a {@link Cursor} or {@link #indexesOf(long[], long[])}, which search forwards from the
+ * previous key so that consecutive lookups touch the same pages of the file.
+ * <p>
+ * As a non-reversible key is a hash of the alleles, different variants may share the same key. The alleles of these
+ * are held in the same layout as a {@link NrvkTable}, with an entry for each of their records, so that
+ * {@link #indexOf(String, int, String, String)} returns the record of exactly the given variant. Looking up a
+ * non-reversible key using {@link #indexOf(long)} returns the first record with the key.
+ * <pre>
+ * try (VariantKeyValueStore store = VariantKeyValueStore.open(path)) {
+ *     int af = store.columnIndex("AF");
+ *     long index = store.indexOf("1", 12344, "A", "G");
+ *     if (index >= 0) {
+ *         float alleleFrequency = store.getFloat(index, af);
+ *     }
+ * }
+ * </pre>
+ * Instances of this class are thread-safe, although each {@link Cursor} must only be used by a single thread.
+ */
+public final class VariantKeyValueStore implements AutoCloseable {
+
+    /**
+     * The type of the values of a column.
+     */
+    public enum ColumnType {
+        FLOAT,
+        INT,
+        /**
+         * Fixed-width byte arrays, such as short codes or bit flags.
+         */
+        BYTES
+    }
+
+    /**
+     * A named column of values of the given type and width in bytes.
+     */
+    public record Column(String name, ColumnType type, int width) {
+
+        public Column {
+            Objects.requireNonNull(name, "name must not be null");
+            Objects.requireNonNull(type, "type must not be null");
+            if (type != ColumnType.BYTES && width != Float.BYTES) {
+                throw new IllegalArgumentException("Column " + name + " of type " + type + " must have width 4, got " + width);
+            }
+            if (width <= 0) {
+                throw new IllegalArgumentException("Column " + name + " width must be > 0, got " + width);
+            }
+        }
+
+        public static Column ofFloat(String name) {
+            return new Column(name, ColumnType.FLOAT, Float.BYTES);
+        }
+
+        public static Column ofInt(String name) {
+            return new Column(name, ColumnType.INT, Integer.BYTES);
+        }
+
+        public static Column ofBytes(String name, int width) {
+            return new Column(name, ColumnType.BYTES, width);
+        }
+    }
+
+    private final FileChannel channel;
+    private final List<Column> columns;
+    // the offset of the value of each column within a record
+    private final int[] columnOffsets;
+    private final MappedRecords records;
+    // the alleles of the records with non-reversible keys, in record order
+    private final NrvkEntries nonReversible;
+
+    private VariantKeyValueStore(FileChannel channel, List<Column> columns, MappedRecords records, NrvkEntries nonReversible) {
+        this.channel = channel;
+        this.columns = columns;
+        this.columnOffsets = columnOffsets(columns);
+        this.records = records;
+        this.nonReversible = nonReversible;
+    }
+
+    static int[] columnOffsets(List<Column> columns) {
+        int[] offsets = new int[columns.size()];
+        int offset = Long.BYTES;
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = offset;
+            offset += columns.get(i).width();
+        }
+        return offsets;
+    }
+
+    static int recordWidth(List<Column> columns) {
+        return Long.BYTES + columns.stream().mapToInt(Column::width).sum();
+    }
+
+    /**
+     * Opens the store written to the path by a {@link VariantKeyValueStoreWriter}.
+     *
+     * @throws IllegalArgumentException if the file is not a VariantKey value store
+     * @throws UncheckedIOException     if the file could not be read
+     */
+    public static VariantKeyValueStore open(Path path) {
+        return IndexFiles.open(path, VariantKeyValueStore::open);
+    }
+
+    private static VariantKeyValueStore open(FileChannel channel) throws IOException {
+        DataInputStream header = IndexFiles.readHeader(channel, "VariantKey value store", VariantKeyValueStoreFormat.MAGIC, VariantKeyValueStoreFormat.VERSION, VariantKeyValueStoreFormat.FOOTER_BYTES);
+        int columnCount = header.readInt();
+        List<Column> columns = new ArrayList<>(columnCount);
+        ColumnType[] types = ColumnType.values();
+        for (int i = 0; i < columnCount; i++) {
+            int type = header.readByte();
+            int width = header.readInt();
+            String name = header.readUTF();
+            if (type < 0 || type >= types.length) {
+                throw new IllegalArgumentException("Unknown type " + type + " of column " + name);
+            }
+            columns.add(new Column(name, types[type], width));
+        }
+
+        ByteBuffer footer = IndexFiles.readFooter(channel, "VariantKey value store", VariantKeyValueStoreFormat.MAGIC, VariantKeyValueStoreFormat.FOOTER_BYTES);
+        long recordsOffset = footer.getLong();
+        long recordCount = footer.getLong();
+        long entriesOffset = footer.getLong();
+        long entryCount = footer.getLong();
+        long allelesOffset = footer.getLong();
+        MappedRecords records = MappedRecords.map(channel, recordsOffset, recordCount, recordWidth(columns));
+        NrvkEntries nonReversible = NrvkEntries.map(channel, entriesOffset, entryCount, allelesOffset, VariantKeyValueStoreFormat.FOOTER_BYTES);
+        return new VariantKeyValueStore(channel, List.copyOf(columns), records, nonReversible);
+    }
+
+    public List<Column> columns() {
+        return columns;
+    }
+
+    /**
+     * Returns the index of the column with the name.
+     *
+     * @throws IllegalArgumentException if there is no column with the name
+     */
+    public int columnIndex(String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column named " + name);
+    }
+
+    /**
+     * @return the number of records in the store.
+     */
+    public long size() {
+        return records.count();
+    }
+
+    /**
+     * Returns the VariantKey of the record with the index.
+     */
+    public long key(long index) {
+        Objects.checkIndex(index, records.count());
+        return records.getLong(index, 0);
+    }
+
+    /**
+     * Returns the index of the record with the key, or -1 if there is none. For a non-reversible key, this is the first
+     * of the records sharing the key.
+     */
+    public long indexOf(long variantKey) {
+        return VariantKeySearch.indexOf(records, variantKey);
+    }
+
+    /**
+     * Returns the index of the first record in the range, or the index after the range if there is none, so that the
+     * records of the range are those from this index to {@link #toIndex(VariantKeyRange)}.
+     */
+    public long fromIndex(VariantKeyRange range) {
+        return VariantKeySearch.lowerBound(records, range.start(), 0, records.count());
+    }
+
+    /**
+     * Returns the index after the last record in the range.
+     */
+    public long toIndex(VariantKeyRange range) {
+        return VariantKeySearch.lowerBound(records, range.end(), 0, records.count());
+    }
+
+    /**
+     * Returns the index of the record of the variant, or -1 if there is none. Unlike {@link #indexOf(long)}, the alleles
+     * of a variant with a non-reversible key are checked, so this will only return the record of the given variant.
+     *
+     * @param pos Position on the chromosome (0-based)
+     * @throws IllegalArgumentException if the position exceeds {@link VariantKeys#MAX_POS}
+     */
+    public long indexOf(String chrom, int pos, String reference, String alternate) {
+        long variantKey = VariantKeys.encodeVariantKey(chrom, pos, reference, alternate);
+        if (VariantKeys.isReversible(variantKey)) {
+            return indexOf(variantKey);
+        }
+        long index = VariantKeySearch.lowerBound(records, variantKey, 0, records.count());
+        if (index == records.count() || records.getLong(index, 0) != variantKey) {
+            return -1;
+        }
+        // each record with a non-reversible key has an entry, so the entries of the key follow its records
+        long entry = nonReversible.lowerBound(variantKey);
+        byte[] referenceBytes = reference.getBytes(StandardCharsets.UTF_8);
+        byte[] alternateBytes = alternate.getBytes(StandardCharsets.UTF_8);
+        for (; index < records.count() && records.getLong(index, 0) == variantKey; index++, entry++) {
+            if (entry < nonReversible.count() && nonReversible.allelesEqual(entry, referenceBytes, alternateBytes)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Looks up the keys, which must be sorted in unsigned order, writing the index of the record of each key or -1 if
+     * there is none to the indexes array. The same array may be passed as both arguments.
+     *
+     * @throws IllegalArgumentException if the keys are not sorted or the arrays have different lengths
+     */
+    public void indexesOf(long[] sortedKeys, long[] indexes) {
+        if (sortedKeys.length != indexes.length) {
+            throw new IllegalArgumentException("Arrays must have the same length, but were " + sortedKeys.length + " and " + indexes.length);
+        }
+        Cursor cursor = cursor();
+        for (int i = 0; i < sortedKeys.length; i++) {
+            indexes[i] = cursor.indexOf(sortedKeys[i]);
+        }
+    }
+
+    /**
+     * Returns a new {@link Cursor} for looking up keys in sorted order.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Looks up keys in unsigned order, searching forwards from the record of the previous key. This class is not
+     * thread-safe.
+     */
+    public final class Cursor {
+
+        private long from;
+        private long previousKey;
+        private boolean started;
+
+        private Cursor() {
+        }
+
+        /**
+         * Returns the index of the record with the key, or -1 if there is none.
+         *
+         * @throws IllegalArgumentException if the key is less than the previous key
+         */
+        public long indexOf(long variantKey) {
+            if (started && Long.compareUnsigned(previousKey, variantKey) > 0) {
+                throw new IllegalArgumentException("Keys must be looked up in sorted order, but " + Long.toUnsignedString(variantKey) + " follows " + Long.toUnsignedString(previousKey));
+            }
+            started = true;
+            previousKey = variantKey;
+            from = VariantKeySearch.lowerBoundFrom(records, variantKey, from);
+            return from < records.count() && records.getLong(from, 0) == variantKey ? from : -1;
+        }
+    }
+
+    private int columnOffset(long index, int column, ColumnType type) {
+        Objects.checkIndex(index, records.count());
+        Column c = columns.get(column);
+        if (c.type() != type) {
+            throw new IllegalArgumentException("Column " + c.name() + " is of type " + c.type() + " not " + type);
+        }
+        return columnOffsets[column];
+    }
+
+    public float getFloat(long index, int column) {
+        return records.getFloat(index, columnOffset(index, column, ColumnType.FLOAT));
+    }
+
+    public int getInt(long index, int column) {
+        return records.getInt(index, columnOffset(index, column, ColumnType.INT));
+    }
+
+    public byte[] getBytes(long index, int column) {
+        byte[] bytes = new byte[columns.get(column).width()];
+        getBytes(index, column, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Copies the value of the {@link ColumnType#BYTES} column of the record to the destination array.
+     */
+    public void getBytes(long index, int column, byte[] dst, int dstOffset) {
+        int offset = columnOffset(index, column, ColumnType.BYTES);
+        int width = columns.get(column).width();
+        Objects.checkFromIndexSize(dstOffset, width, dst.length);
+        records.get(index, offset, dst, dstOffset, width);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
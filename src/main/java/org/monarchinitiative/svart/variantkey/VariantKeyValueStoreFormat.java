@@ -0,0 +1,26 @@
+package org.monarchinitiative.svart.variantkey;
+
+/**
+ * Constants of the file format written by the {@link VariantKeyValueStoreWriter} and read by the
+ * {@link VariantKeyValueStore}. The file layout is:
+ * <pre>
+ * header   magic (4 bytes), format version (1 byte), column count (4 bytes) and for each column its type (1 byte),
+ *          width (4 bytes) and name (modified UTF-8 as written by DataOutput#writeUTF)
+ * records  one record per key in unsigned key order, holding the key (8 bytes) followed by the value of each column
+ * entries  one entry per record with a non-reversible key in record order, laid out as the entries of the
+ *          {@link NrvkTableFormat}
+ * alleles  the alleles of the entries, laid out as the alleles of the {@link NrvkTableFormat}
+ * footer   record offset, record count, entries offset, entry count and alleles offset (8 bytes each), magic (4 bytes)
+ * </pre>
+ * All values are big-endian.
+ */
+final class VariantKeyValueStoreFormat {
+
+    // 'SVKV'
+    static final int MAGIC = 0x53564B56;
+    static final byte VERSION = 1;
+    static final int FOOTER_BYTES = Long.BYTES * 5 + Integer.BYTES;
+
+    private VariantKeyValueStoreFormat() {
+    }
+}
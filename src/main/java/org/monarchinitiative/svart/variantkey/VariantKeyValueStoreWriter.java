@@ -0,0 +1,362 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.monarchinitiative.svart.variantkey.VariantKeyValueStore.Column;
+import org.monarchinitiative.svart.variantkey.VariantKeyValueStore.ColumnType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes a {@link VariantKeyValueStore} from records sorted by unsigned VariantKey, as from a VCF file sorted by
+ * chromosome and position with the variants at each position sorted by key.
+ * <p>
+ * The records are written directly to the file, with the alleles of the variants with non-reversible keys being written
+ * to temporary files in the {@link Builder#tempDirectory(Path)} and appended to the file when the writer is closed, so
+ * the memory used is independent of the number of records.
+ * <pre>
+ * try (VariantKeyValueStoreWriter writer = VariantKeyValueStoreWriter.builder()
+ *         .floatColumn("AF")
+ *         .intColumn("AC")
+ *         .build(path)) {
+ *     VariantKeyValueStoreWriter.Row row = writer.newRow();
+ *     for (...) {
+ *         row.setFloat(0, af).setInt(1, ac);
+ *         writer.write(chrom, pos, ref, alt, row);
+ *     }
+ * }
+ * </pre>
+ * The file is not readable until this writer has been closed. This class is not thread-safe.
+ */
+public final class VariantKeyValueStoreWriter implements AutoCloseable {
+
+    private final List<Column> columns;
+    private final int[] columnOffsets;
+    private final int recordWidth;
+    private final DataOutputStream out;
+    private final Path entriesPath;
+    private final Path allelesPath;
+    private final DataOutputStream entriesOut;
+    private final DataOutputStream allelesOut;
+    private long recordsOffset;
+    private long recordCount;
+    private long entryCount;
+    private long allelesPosition;
+    private long previousKey;
+    // the alleles of the records with the previous key, if it is non-reversible
+    private final List<String> previousAlleles = new ArrayList<>();
+    private boolean closed;
+
+    private VariantKeyValueStoreWriter(Builder builder, Path path) throws IOException {
+        this.columns = List.copyOf(builder.columns);
+        this.columnOffsets = VariantKeyValueStore.columnOffsets(columns);
+        this.recordWidth = VariantKeyValueStore.recordWidth(columns);
+        Path entries = Files.createTempFile(builder.tempDirectory, "svart-vkv-", ".entries");
+        Path alleles = null;
+        DataOutputStream entriesStream = null;
+        DataOutputStream allelesStream = null;
+        DataOutputStream stream = null;
+        try {
+            alleles = Files.createTempFile(builder.tempDirectory, "svart-vkv-", ".alleles");
+            entriesStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(entries), 64 * 1024));
+            allelesStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(alleles), 64 * 1024));
+            stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 64 * 1024));
+            this.entriesPath = entries;
+            this.allelesPath = alleles;
+            this.entriesOut = entriesStream;
+            this.allelesOut = allelesStream;
+            this.out = stream;
+            writeHeader();
+        } catch (IOException | RuntimeException e) {
+            IndexFiles.closeQuietly(stream);
+            IndexFiles.closeQuietly(allelesStream);
+            IndexFiles.closeQuietly(entriesStream);
+            IndexFiles.deleteQuietly(entries);
+            if (alleles != null) {
+                IndexFiles.deleteQuietly(alleles);
+            }
+            throw e;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Column> columns() {
+        return columns;
+    }
+
+    /**
+     * @return the number of records written.
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns a new {@link Row} for holding the values of a record, which can be re-used for each record written.
+     */
+    public Row newRow() {
+        return new Row();
+    }
+
+    /**
+     * Writes a record with a reversible key.
+     *
+     * @throws IllegalArgumentException if the key is non-reversible, in which case
+     *                                  {@link #write(String, int, String, String, Row)} must be used, or the key is
+     *                                  not greater than that of the previously written record.
+     * @throws UncheckedIOException     if the record could not be written.
+     */
+    public void write(long variantKey, Row row) {
+        checkRow(row);
+        if (!VariantKeys.isReversible(variantKey)) {
+            throw new IllegalArgumentException("The alleles of non-reversible key " + Long.toUnsignedString(variantKey) + " are required");
+        }
+        checkOrder(variantKey);
+        writeRecord(variantKey, row);
+    }
+
+    /**
+     * Writes a record for the variant, keeping the alleles of a variant with a non-reversible key so that it can be
+     * distinguished from other variants with the same key.
+     *
+     * @param pos Position on the chromosome (0-based)
+     * @throws IllegalArgumentException if the key of the variant is less than that of the previously written record, or
+     *                                  the same variant has already been written, or the position exceeds
+     *                                  {@link VariantKeys#MAX_POS}
+     * @throws UncheckedIOException     if the record could not be written.
+     */
+    public void write(String chrom, int pos, String reference, String alternate, Row row) {
+        checkOpen();
+        checkRow(row);
+        long variantKey = VariantKeys.encodeVariantKey(chrom, pos, reference, alternate);
+        if (VariantKeys.isReversible(variantKey)) {
+            write(variantKey, row);
+            return;
+        }
+        String variantAlleles = reference + '>' + alternate;
+        if (recordCount > 0 && previousKey == variantKey) {
+            if (previousAlleles.contains(variantAlleles)) {
+                throw new IllegalArgumentException("Duplicate variant " + chrom + ':' + pos + ' ' + variantAlleles);
+            }
+        } else {
+            checkOrder(variantKey);
+            previousAlleles.clear();
+        }
+        previousAlleles.add(variantAlleles);
+        byte[] referenceBytes = reference.getBytes(StandardCharsets.UTF_8);
+        byte[] alternateBytes = alternate.getBytes(StandardCharsets.UTF_8);
+        try {
+            entriesOut.writeLong(variantKey);
+            entriesOut.writeLong(allelesPosition);
+            entriesOut.writeInt(referenceBytes.length);
+            entriesOut.writeInt(alternateBytes.length);
+            allelesOut.write(referenceBytes);
+            allelesOut.write(alternateBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entryCount++;
+        allelesPosition += referenceBytes.length + alternateBytes.length;
+        writeRecord(variantKey, row);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Writer has been closed");
+        }
+    }
+
+    private void checkOrder(long variantKey) {
+        checkOpen();
+        if (recordCount > 0 && Long.compareUnsigned(previousKey, variantKey) >= 0) {
+            throw new IllegalArgumentException("Records must be written in increasing key order, but " + Long.toUnsignedString(variantKey) + " follows " + Long.toUnsignedString(previousKey));
+        }
+    }
+
+    private void checkRow(Row row) {
+        if (row.writer() != this) {
+            throw new IllegalArgumentException("Row was not created by this writer");
+        }
+    }
+
+    private void writeRecord(long variantKey, Row row) {
+        try {
+            out.writeLong(variantKey);
+            out.write(row.values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        recordCount++;
+        previousKey = variantKey;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (DataOutputStream headerOut = new DataOutputStream(header)) {
+            headerOut.writeInt(VariantKeyValueStoreFormat.MAGIC);
+            headerOut.writeByte(VariantKeyValueStoreFormat.VERSION);
+            headerOut.writeInt(columns.size());
+            for (Column column : columns) {
+                headerOut.writeByte(column.type().ordinal());
+                headerOut.writeInt(column.width());
+                headerOut.writeUTF(column.name());
+            }
+        }
+        out.write(header.toByteArray());
+        recordsOffset = header.size();
+    }
+
+    /**
+     * Appends the alleles of the non-reversible keys and closes the file, deleting the temporary files.
+     *
+     * @throws UncheckedIOException if the file could not be written.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (out) {
+            entriesOut.close();
+            allelesOut.close();
+            long entriesOffset = recordsOffset + recordCount * recordWidth;
+            Files.copy(entriesPath, out);
+            long allelesOffset = entriesOffset + entryCount * NrvkTableFormat.ENTRY_BYTES;
+            Files.copy(allelesPath, out);
+            out.writeLong(recordsOffset);
+            out.writeLong(recordCount);
+            out.writeLong(entriesOffset);
+            out.writeLong(entryCount);
+            out.writeLong(allelesOffset);
+            out.writeInt(VariantKeyValueStoreFormat.MAGIC);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            IndexFiles.deleteQuietly(entriesPath);
+            IndexFiles.deleteQuietly(allelesPath);
+        }
+    }
+
+    /**
+     * The values of a record, which are zero until set.
+     */
+    public final class Row {
+
+        private final byte[] values = new byte[recordWidth - Long.BYTES];
+        private final ByteBuffer buffer = ByteBuffer.wrap(values);
+
+        private Row() {
+        }
+
+        private VariantKeyValueStoreWriter writer() {
+            return VariantKeyValueStoreWriter.this;
+        }
+
+        private int offset(int column, ColumnType type) {
+            Column c = columns.get(column);
+            if (c.type() != type) {
+                throw new IllegalArgumentException("Column " + c.name() + " is of type " + c.type() + " not " + type);
+            }
+            return columnOffsets[column] - Long.BYTES;
+        }
+
+        public Row setFloat(int column, float value) {
+            buffer.putFloat(offset(column, ColumnType.FLOAT), value);
+            return this;
+        }
+
+        public Row setInt(int column, int value) {
+            buffer.putInt(offset(column, ColumnType.INT), value);
+            return this;
+        }
+
+        /**
+         * Sets the value of a {@link ColumnType#BYTES} column, padding values shorter than the column width with zeros.
+         *
+         * @throws IllegalArgumentException if the value is longer than the column width
+         */
+        public Row setBytes(int column, byte[] value) {
+            int offset = offset(column, ColumnType.BYTES);
+            int width = columns.get(column).width();
+            if (value.length > width) {
+                throw new IllegalArgumentException("Value of length " + value.length + " exceeds width " + width + " of column " + columns.get(column).name());
+            }
+            System.arraycopy(value, 0, values, offset, value.length);
+            Arrays.fill(values, offset + value.length, offset + width, (byte) 0);
+            return this;
+        }
+
+        /**
+         * Sets all the values to zero.
+         */
+        public Row clear() {
+            Arrays.fill(values, (byte) 0);
+            return this;
+        }
+    }
+
+    public static class Builder {
+
+        private final List<Column> columns = new ArrayList<>();
+        private Path tempDirectory = Path.of(System.getProperty("java.io.tmpdir"));
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a column, which must have a different name to the columns already added.
+         */
+        public Builder column(Column column) {
+            Objects.requireNonNull(column, "column cannot be null");
+            if (columns.stream().anyMatch(c -> c.name().equals(column.name()))) {
+                throw new IllegalArgumentException("Duplicate column " + column.name());
+            }
+            columns.add(column);
+            return this;
+        }
+
+        public Builder floatColumn(String name) {
+            return column(Column.ofFloat(name));
+        }
+
+        public Builder intColumn(String name) {
+            return column(Column.ofInt(name));
+        }
+
+        public Builder bytesColumn(String name, int width) {
+            return column(Column.ofBytes(name, width));
+        }
+
+        /**
+         * @param tempDirectory the directory in which to write the temporary files holding the alleles of the
+         *                      non-reversible keys.
+         */
+        public Builder tempDirectory(Path tempDirectory) {
+            this.tempDirectory = Objects.requireNonNull(tempDirectory, "tempDirectory cannot be null");
+            return this;
+        }
+
+        /**
+         * Creates a new writer for the file at the path, replacing any existing file.
+         *
+         * @throws UncheckedIOException if the file could not be created.
+         */
+        public VariantKeyValueStoreWriter build(Path path) {
+            try {
+                return new VariantKeyValueStoreWriter(this, path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,12 +1,12 @@
 package org.monarchinitiative.svart.variantkey;
 
-import org.monarchinitiative.svart.variant.TwoBitBaseCodec;
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.assembly.SequenceRole;
+import org.monarchinitiative.svart.variant.internal.TwoBitBaseCodec;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-
-import static org.monarchinitiative.svart.variant.TwoBitBaseCodec.encodeAllele;
-import static org.monarchinitiative.svart.variant.TwoBitBaseCodec.isJustACGT;
+import java.util.Objects;
 
 
 /**
@@ -47,10 +47,61 @@ public final class VariantKeys {
      * @throws IllegalArgumentException if position exceeds maximum allowed value
      */
     public static long encodeVariantKey(String chrom, int pos, String reference, String alternate) {
-        int chr = (int) encodeChrom(chrom);
+        return encodeChromPos((int) encodeChrom(chrom), pos) | encodeRefAlt(reference, alternate);
+    }
+
+    /**
+     * Encodes variant information into a 64-bit numeric key, producing the same key as
+     * {@link #encodeVariantKey(String, int, String, String)} without converting the input to {@link String}s.
+     *
+     * @param chrom     Chromosome name (e.g. "1", "X", "MT")
+     * @param pos       Position on the chromosome (0-based)
+     * @param reference Reference allele sequence
+     * @param alternate Alternate allele sequence
+     * @return 64-bit encoded variant key
+     * @throws IllegalArgumentException if position exceeds maximum allowed value
+     */
+    public static long encodeVariantKey(CharSequence chrom, int pos, CharSequence reference, CharSequence alternate) {
+        int chr = (int) encodeChrom(chrom, 0, chrom.length());
         return encodeVariantKey(chr, pos, reference, alternate);
     }
 
+    /**
+     * Encodes variant information read directly from byte slices, e.g. of a VCF line, into a 64-bit numeric key,
+     * producing the same key as {@link #encodeVariantKey(String, int, String, String)} for the UTF-8 decoded slices.
+     * The slices may be of the same array and nothing is allocated unless an exception is thrown.
+     *
+     * @param pos Position on the chromosome (0-based)
+     * @return 64-bit encoded variant key
+     * @throws IllegalArgumentException  if the chromosome is not recognised or position exceeds maximum allowed value
+     * @throws IndexOutOfBoundsException if a slice is out of the bounds of its array
+     */
+    public static long encodeVariantKey(byte[] chrom, int chromOffset, int chromLength, int pos,
+                                        byte[] reference, int referenceOffset, int referenceLength,
+                                        byte[] alternate, int alternateOffset, int alternateLength) {
+        Objects.checkFromIndexSize(chromOffset, chromLength, chrom.length);
+        int chr = (int) encodeChrom(chrom, chromOffset, chromLength);
+        return encodeVariantKey(chr, pos, reference, referenceOffset, referenceLength, alternate, alternateOffset, alternateLength);
+    }
+
+    /**
+     * Encodes variant information read directly from slices of {@link ByteBuffer}s into a 64-bit numeric key, as for
+     * {@link #encodeVariantKey(byte[], int, int, int, byte[], int, int, byte[], int, int)}. The offsets are absolute
+     * and the positions of the buffers are not changed.
+     *
+     * @param pos Position on the chromosome (0-based)
+     * @return 64-bit encoded variant key
+     * @throws IllegalArgumentException  if the chromosome is not recognised or position exceeds maximum allowed value
+     * @throws IndexOutOfBoundsException if a slice is out of the bounds of its buffer
+     */
+    public static long encodeVariantKey(ByteBuffer chrom, int chromOffset, int chromLength, int pos,
+                                        ByteBuffer reference, int referenceOffset, int referenceLength,
+                                        ByteBuffer alternate, int alternateOffset, int alternateLength) {
+        Objects.checkFromIndexSize(chromOffset, chromLength, chrom.limit());
+        int chr = (int) encodeChrom(chrom, chromOffset, chromLength);
+        return encodeVariantKey(chr, pos, reference, referenceOffset, referenceLength, alternate, alternateOffset, alternateLength);
+    }
+
     /**
      * Encodes variant information into a 64-bit numeric key using numeric chromosome representation.
      *
@@ -62,13 +113,122 @@ public final class VariantKeys {
      * @throws IllegalArgumentException if chromosome number or position is invalid
      */
     public static long encodeVariantKey(int chrom, int pos, String reference, String alternate) {
+        return encodeChromPos(chrom, pos) | encodeRefAlt(reference, alternate);
+    }
+
+    /**
+     * Encodes variant information into a 64-bit numeric key using numeric chromosome representation.
+     *
+     * @param chrom     Chromosome number (1-25 for chr1-22, X, Y, MT)
+     * @param pos       Position on the chromosome (0-based)
+     * @param reference Reference allele sequence
+     * @param alternate Alternate allele sequence
+     * @return 64-bit encoded variant key
+     * @throws IllegalArgumentException if chromosome number or position is invalid
+     */
+    public static long encodeVariantKey(int chrom, int pos, CharSequence reference, CharSequence alternate) {
+        return encodeChromPos(chrom, pos) | encodeRefAlt(reference, alternate);
+    }
+
+    /**
+     * Encodes variant information with the alleles read directly from byte slices into a 64-bit numeric key using
+     * numeric chromosome representation.
+     *
+     * @param chrom Chromosome number (1-25 for chr1-22, X, Y, MT)
+     * @param pos   Position on the chromosome (0-based)
+     * @return 64-bit encoded variant key
+     * @throws IllegalArgumentException  if chromosome number or position is invalid
+     * @throws IndexOutOfBoundsException if a slice is out of the bounds of its array
+     */
+    public static long encodeVariantKey(int chrom, int pos, byte[] reference, int referenceOffset, int referenceLength,
+                                        byte[] alternate, int alternateOffset, int alternateLength) {
+        Objects.checkFromIndexSize(referenceOffset, referenceLength, reference.length);
+        Objects.checkFromIndexSize(alternateOffset, alternateLength, alternate.length);
+        return encodeChromPos(chrom, pos) | encodeRefAlt(reference, referenceOffset, referenceLength, alternate, alternateOffset, alternateLength);
+    }
+
+    /**
+     * Encodes variant information with the alleles read directly from slices of {@link ByteBuffer}s into a 64-bit
+     * numeric key using numeric chromosome representation. The offsets are absolute and the positions of the buffers
+     * are not changed.
+     *
+     * @param chrom Chromosome number (1-25 for chr1-22, X, Y, MT)
+     * @param pos   Position on the chromosome (0-based)
+     * @return 64-bit encoded variant key
+     * @throws IllegalArgumentException  if chromosome number or position is invalid
+     * @throws IndexOutOfBoundsException if a slice is out of the bounds of its buffer
+     */
+    public static long encodeVariantKey(int chrom, int pos, ByteBuffer reference, int referenceOffset, int referenceLength,
+                                        ByteBuffer alternate, int alternateOffset, int alternateLength) {
+        Objects.checkFromIndexSize(referenceOffset, referenceLength, reference.limit());
+        Objects.checkFromIndexSize(alternateOffset, alternateLength, alternate.limit());
+        return encodeChromPos(chrom, pos) | encodeRefAlt(reference, referenceOffset, referenceLength, alternate, alternateOffset, alternateLength);
+    }
+
+    /**
+     * Returns the chromosome and position fields of a variant key, which are combined with the encoded alleles.
+     */
+    static long encodeChromPos(int chrom, int pos) {
         if (chrom < 0 || chrom > 25) {
             throw new IllegalArgumentException("Invalid chrom: " + chrom + " must be between 0 and 25");
         }
+        return encodeChromFieldPos(chrom, pos);
+    }
+
+    /**
+     * As for {@link #encodeChromPos(int, int)}, but allowing any 5-bit chromosome code.
+     */
+    static long encodeChromFieldPos(int chrom, int pos) {
         if (pos > MAX_POS) {
             throw new IllegalArgumentException("Pos overflow! " + pos + " > " + MAX_POS);
         }
-        return (long) chrom << VKSHIFT_CHROM | (long) pos << VKSHIFT_POS | encodeRefAlt(reference, alternate);
+        return (long) chrom << VKSHIFT_CHROM | (long) pos << VKSHIFT_POS;
+    }
+
+    /**
+     * Returns the smallest variant key at the position, i.e. the key with the chromosome and position and all the
+     * allele bits clear. As keys are ordered by chromosome and then position when compared as unsigned values, the
+     * keys of the variants at the position sort between this and {@link #rangeEnd(String, int)}.
+     *
+     * @param chrom Chromosome name (e.g. "1", "X", "MT")
+     * @param pos   Position on the chromosome (0-based)
+     * @throws IllegalArgumentException if the chromosome is not recognised or the position exceeds maximum allowed value
+     */
+    public static long rangeStart(String chrom, int pos) {
+        return encodeChromPos((int) encodeChrom(chrom), pos);
+    }
+
+    /**
+     * As for {@link #rangeStart(String, int)}, given the numeric chromosome code.
+     *
+     * @param chrom Chromosome number (1-25 for chr1-22, X, Y, MT)
+     * @param pos   Position on the chromosome (0-based)
+     */
+    public static long rangeStart(int chrom, int pos) {
+        return encodeChromPos(chrom, pos);
+    }
+
+    /**
+     * Returns the largest variant key at the position, i.e. the key with the chromosome and position and all the
+     * allele bits set.
+     *
+     * @param chrom Chromosome name (e.g. "1", "X", "MT")
+     * @param pos   Position on the chromosome (0-based)
+     * @throws IllegalArgumentException if the chromosome is not recognised or the position exceeds maximum allowed value
+     * @see #rangeStart(String, int)
+     */
+    public static long rangeEnd(String chrom, int pos) {
+        return rangeStart(chrom, pos) | ~(VKMASK_CHROM | VKMASK_POS);
+    }
+
+    /**
+     * As for {@link #rangeEnd(String, int)}, given the numeric chromosome code.
+     *
+     * @param chrom Chromosome number (1-25 for chr1-22, X, Y, MT)
+     * @param pos   Position on the chromosome (0-based)
+     */
+    public static long rangeEnd(int chrom, int pos) {
+        return rangeStart(chrom, pos) | ~(VKMASK_CHROM | VKMASK_POS);
     }
 
     /**
@@ -109,36 +269,114 @@ public final class VariantKeys {
      * @return numeric code (0-25) representing the chromosome
      */
     static long encodeChrom(String chrom) {
-        String stripped = chrom.startsWith("chr") || chrom.startsWith("CHR") ? chrom.substring(3) : chrom;
-        return switch (stripped) {
-            case "1" -> 1;
-            case "2" -> 2;
-            case "3" -> 3;
-            case "4" -> 4;
-            case "5" -> 5;
-            case "6" -> 6;
-            case "7" -> 7;
-            case "8" -> 8;
-            case "9" -> 9;
-            case "10" -> 10;
-            case "11" -> 11;
-            case "12" -> 12;
-            case "13" -> 13;
-            case "14" -> 14;
-            case "15" -> 15;
-            case "16" -> 16;
-            case "17" -> 17;
-            case "18" -> 18;
-            case "19" -> 19;
-            case "20" -> 20;
-            case "21" -> 21;
-            case "22" -> 22;
-            case "X" -> 23;
-            case "Y" -> 24;
-            case "M", "MT" -> 25;
+        return encodeChrom(SequenceAccessor.CHARS, chrom, 0, chrom.length());
+    }
+
+    /**
+     * Converts the chromosome name in the slice of the {@link CharSequence} to its numeric code, as for
+     * {@link #encodeChrom(String)}.
+     */
+    static long encodeChrom(CharSequence chrom, int offset, int length) {
+        return encodeChrom(SequenceAccessor.CHARS, chrom, offset, length);
+    }
+
+    /**
+     * Converts the chromosome name in the slice of the byte[] to its numeric code, as for {@link #encodeChrom(String)}.
+     */
+    static long encodeChrom(byte[] chrom, int offset, int length) {
+        return encodeChrom(SequenceAccessor.BYTES, chrom, offset, length);
+    }
+
+    /**
+     * Converts the chromosome name in the slice of the {@link ByteBuffer} to its numeric code, as for
+     * {@link #encodeChrom(String)}.
+     */
+    static long encodeChrom(ByteBuffer chrom, int offset, int length) {
+        return encodeChrom(SequenceAccessor.BUFFER, chrom, offset, length);
+    }
+
+    private static <T> long encodeChrom(SequenceAccessor<T> accessor, T chrom, int offset, int length) {
+        int code = chromCode(accessor, chrom, offset, length);
+        if (code < 0) {
             // default is 0 in C implementation
-            default -> throw new IllegalArgumentException("Invalid chrom: " + chrom + " Must be (chr)?[1-22,X,Y,M,MT]");
-        };
+            throw new IllegalArgumentException("Invalid chrom: " + accessor.toString(chrom, offset, length) + " Must be (chr)?[1-22,X,Y,M,MT]");
+        }
+        return code;
+    }
+
+    /**
+     * Returns the numeric code of the chromosome of the {@link Contig}, found from its name, UCSC name or assigned
+     * molecule, e.g. 23 for a contig named "X", "chrX" or "NC_000023.11" with an assigned molecule of "X".
+     *
+     * @throws IllegalArgumentException if none of the names of the contig are (chr)?[1-22,X,Y,M,MT]
+     */
+    static int encodeChrom(Contig contig) {
+        int code = chromCode(contig);
+        if (code < 0) {
+            throw new IllegalArgumentException("Invalid chrom: " + contig.name() + " Must be (chr)?[1-22,X,Y,M,MT]");
+        }
+        return code;
+    }
+
+    /**
+     * Returns the numeric code of the chromosome of the {@link Contig}, or -1 if none of its names are recognised.
+     */
+    static int chromCode(Contig contig) {
+        int code = chromCode(contig.name());
+        if (code < 0) {
+            code = chromCode(contig.ucscName());
+        }
+        if (code < 0 && contig.sequenceRole() == SequenceRole.ASSEMBLED_MOLECULE) {
+            code = chromCode(contig.assignedMolecule());
+        }
+        return code;
+    }
+
+    /**
+     * Returns the numeric code of the chromosome name, or -1 if it is not recognised.
+     */
+    private static int chromCode(String chrom) {
+        return chromCode(SequenceAccessor.CHARS, chrom, 0, chrom.length());
+    }
+
+    private static <T> int chromCode(SequenceAccessor<T> accessor, T chrom, int offset, int length) {
+        int i = offset;
+        if (length >= 3 && (startsWith(accessor, chrom, offset, 'c', 'h', 'r') || startsWith(accessor, chrom, offset, 'C', 'H', 'R'))) {
+            i += 3;
+        }
+        int remaining = offset + length - i;
+        if (remaining == 1) {
+            int c = accessor.charAt(chrom, i);
+            if (c >= '1' && c <= '9') {
+                return c - '0';
+            }
+            if (c == 'X') {
+                return 23;
+            }
+            if (c == 'Y') {
+                return 24;
+            }
+            if (c == 'M') {
+                return 25;
+            }
+        } else if (remaining == 2) {
+            int first = accessor.charAt(chrom, i);
+            int second = accessor.charAt(chrom, i + 1);
+            if (first == 'M' && second == 'T') {
+                return 25;
+            }
+            if (first >= '1' && first <= '2' && second >= '0' && second <= '9') {
+                int number = (first - '0') * 10 + second - '0';
+                if (number <= 22) {
+                    return number;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static <T> boolean startsWith(SequenceAccessor<T> accessor, T sequence, int offset, char a, char b, char c) {
+        return accessor.charAt(sequence, offset) == a && accessor.charAt(sequence, offset + 1) == b && accessor.charAt(sequence, offset + 2) == c;
     }
 
     /**
@@ -154,34 +392,95 @@ public final class VariantKeys {
      * @return encoded representation of reference and alternate alleles
      */
     static long encodeRefAlt(String ref, String alt) {
-        if ((ref.length() + alt.length()) <= 11 && isJustACGT(ref) && isJustACGT(alt)) {
+        if (ref.length() + alt.length() <= 11 && TwoBitBaseCodec.isJustACGT(ref) && TwoBitBaseCodec.isJustACGT(alt)) {
             // use reversible encoding
-            return encodeRefAltReversible(ref, alt);
+            return encodeRefAltReversible(ref.length(), TwoBitBaseCodec.encodeAllele(ref), alt.length(), TwoBitBaseCodec.encodeAllele(alt));
         }
-        return encodeRefAltHashed(ref.getBytes(StandardCharsets.UTF_8), alt.getBytes(StandardCharsets.UTF_8));
+        return encodeRefAlt((CharSequence) ref, alt);
     }
 
-    private static long encodeRefAltReversible(String reference, String alternate) {
-        long bits = 0L;
+    /**
+     * As for {@link #encodeRefAlt(String, String)}, without converting the alleles to {@link String}s.
+     */
+    static long encodeRefAlt(CharSequence ref, CharSequence alt) {
+        if (!isAscii(ref) || !isAscii(alt)) {
+            // the hash is of the UTF-8 bytes, which only match the chars for ASCII
+            byte[] refBytes = ref.toString().getBytes(StandardCharsets.UTF_8);
+            byte[] altBytes = alt.toString().getBytes(StandardCharsets.UTF_8);
+            return encodeRefAlt(refBytes, 0, refBytes.length, altBytes, 0, altBytes.length);
+        }
+        return encodeRefAlt(SequenceAccessor.CHARS, ref, 0, ref.length(), alt, 0, alt.length());
+    }
 
-        long refLength = reference.length();
-        bits |= refLength << 27;
+    private static boolean isAscii(CharSequence sequence) {
+        for (int i = 0; i < sequence.length(); i++) {
+            if (sequence.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        long altLength = alternate.length();
-        bits |= altLength << 23;
+    private static long encodeRefAlt(byte[] ref, int refOffset, int refLength, byte[] alt, int altOffset, int altLength) {
+        if (refLength + altLength <= 11 && TwoBitBaseCodec.isJustACGT(ref, refOffset, refLength) && TwoBitBaseCodec.isJustACGT(alt, altOffset, altLength)) {
+            // use reversible encoding
+            return encodeRefAltReversible(refLength, TwoBitBaseCodec.encodeBases(ref, refOffset, refLength), altLength, TwoBitBaseCodec.encodeBases(alt, altOffset, altLength));
+        }
+        return encodeRefAltHashed(SequenceAccessor.BYTES, ref, refOffset, refLength, alt, altOffset, altLength);
+    }
 
-        long refEncoded = encodeAllele(reference);
-        bits |= refEncoded << (23 - (refLength << 1));
+    private static long encodeRefAlt(ByteBuffer ref, int refOffset, int refLength, ByteBuffer alt, int altOffset, int altLength) {
+        return encodeRefAlt(SequenceAccessor.BUFFER, ref, refOffset, refLength, alt, altOffset, altLength);
+    }
 
-        long altEncoded = encodeAllele(alternate);
-        bits |= altEncoded << (23 - ((refLength + altLength) << 1));
+    private static <T> long encodeRefAlt(SequenceAccessor<T> accessor, T ref, int refOffset, int refLength, T alt, int altOffset, int altLength) {
+        if (refLength + altLength <= 11 && isJustACGT(accessor, ref, refOffset, refLength) && isJustACGT(accessor, alt, altOffset, altLength)) {
+            // use reversible encoding
+            return encodeRefAltReversible(refLength, encodeAllele(accessor, ref, refOffset, refLength), altLength, encodeAllele(accessor, alt, altOffset, altLength));
+        }
+        return encodeRefAltHashed(accessor, ref, refOffset, refLength, alt, altOffset, altLength);
+    }
 
+    private static long encodeRefAltReversible(long refLength, long refEncoded, long altLength, long altEncoded) {
+        long bits = 0L;
+        bits |= refLength << 27;
+        bits |= altLength << 23;
+        bits |= refEncoded << (23 - (refLength << 1));
+        bits |= altEncoded << (23 - ((refLength + altLength) << 1));
         return bits;
     }
 
-    private static long encodeRefAltHashed(byte[] ref, byte[] alt) {
+    private static <T> boolean isJustACGT(SequenceAccessor<T> accessor, T allele, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (encodeBase(accessor.charAt(allele, i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> long encodeAllele(SequenceAccessor<T> accessor, T allele, int offset, int length) {
+        long encoded = 0L;
+        for (int i = offset; i < offset + length; i++) {
+            encoded = (encoded << 2) | encodeBase(accessor.charAt(allele, i));
+        }
+        return encoded;
+    }
+
+    // the same encoding as the TwoBitBaseCodec, returning -1 for anything other than ACGT
+    private static int encodeBase(int c) {
+        return switch (c) {
+            case 'A', 'a' -> 0b00;
+            case 'C', 'c' -> 0b01;
+            case 'G', 'g' -> 0b10;
+            case 'T', 't' -> 0b11;
+            default -> -1;
+        };
+    }
+
+    private static <T> long encodeRefAltHashed(SequenceAccessor<T> accessor, T ref, int refOffset, int refLength, T alt, int altOffset, int altLength) {
         // 0x3 is the separator character between REF and ALT [00000000 00000000 00000000 00000011]
-        long h = muxHash(hash32(alt), muxHash(0x3, hash32(ref)));
+        long h = muxHash(hash32(accessor, alt, altOffset, altLength), muxHash(0x3, hash32(accessor, ref, refOffset, refLength)));
         // MurmurHash3 finalization mix - force all bits of a hash block to avalanche
         // Ensure h is treated as unsigned 32-bit integer
         h ^= h >>> 16;
@@ -207,50 +506,29 @@ public final class VariantKeys {
     }
 
     // Return a 32 bit hash of a nucleotide string
-    private static long hash32(byte[] str) {
+    private static <T> long hash32(SequenceAccessor<T> accessor, T str, int offset, int length) {
         long h = 0;
-        int len = 6;
-        while (str.length >= len) {
-            h = muxHash(packChars(str), h);
-            str = Arrays.copyOfRange(str, len, str.length);
+        int end = offset + length;
+        int i = offset;
+        for (; end - i >= 6; i += 6) {
+            h = muxHash(packChars(accessor, str, i, 6), h);
         }
-        if (str.length > 0) {
-            h = muxHash(packCharsTail(str), h);
+        if (i < end) {
+            h = muxHash(packChars(accessor, str, i, end - i), h);
         }
         return h;
     }
 
-    private static int packChars(byte[] str) {
-        return ((encodePackchar(str[5]) << 1)
-                ^ (encodePackchar(str[4]) << (1 + (5)))
-                ^ (encodePackchar(str[3]) << (1 + (5 * 2)))
-                ^ (encodePackchar(str[2]) << (1 + (5 * 3)))
-                ^ (encodePackchar(str[1]) << (1 + (5 * 4)))
-                ^ (encodePackchar(str[0]) << (1 + (5 * 5))));
-    }
-
     // pack blocks of 6 characters in 32 bit (6 x 5 bit + 2 spare bit) [ 01111122 22233333 44444555 55666660 ]
-    private static int packCharsTail(byte[] str) {
+    private static <T> int packChars(SequenceAccessor<T> accessor, T str, int offset, int length) {
         int h = 0;
-        if (str.length >= 5) {
-            h ^= encodePackchar(str[4]) << (1 + (5));
-        }
-        if (str.length >= 4) {
-            h ^= encodePackchar(str[3]) << (1 + (5 * 2));
-        }
-        if (str.length >= 3) {
-            h ^= encodePackchar(str[2]) << (1 + (5 * 3));
-        }
-        if (str.length >= 2) {
-            h ^= encodePackchar(str[1]) << (1 + (5 * 4));
-        }
-        if (str.length >= 1) {
-            h ^= encodePackchar(str[0]) << (1 + (5 * 5));
+        for (int i = 0; i < length; i++) {
+            h ^= encodePackchar(accessor.charAt(str, offset + i)) << (1 + (5 * (5 - i)));
         }
         return h;
     }
 
-    private static int encodePackchar(byte c) {
+    private static int encodePackchar(int c) {
         if (c < 'A') {
             return 27;
         }
@@ -260,6 +538,55 @@ public final class VariantKeys {
         return (c - 'A' + 1);
     }
 
+    /**
+     * Typed access to the chars of the byte[], {@link ByteBuffer} and {@link CharSequence} slices being encoded, so that
+     * the same encoding is applied to each without copying them. Bytes are signed, as returned by String.getBytes().
+     */
+    interface SequenceAccessor<T> {
+
+        SequenceAccessor<byte[]> BYTES = new SequenceAccessor<>() {
+            @Override
+            public int charAt(byte[] sequence, int index) {
+                return sequence[index];
+            }
+
+            @Override
+            public String toString(byte[] sequence, int offset, int length) {
+                return new String(sequence, offset, length, StandardCharsets.UTF_8);
+            }
+        };
+
+        SequenceAccessor<ByteBuffer> BUFFER = new SequenceAccessor<>() {
+            @Override
+            public int charAt(ByteBuffer sequence, int index) {
+                return sequence.get(index);
+            }
+
+            @Override
+            public String toString(ByteBuffer sequence, int offset, int length) {
+                byte[] bytes = new byte[length];
+                sequence.get(offset, bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+
+        SequenceAccessor<CharSequence> CHARS = new SequenceAccessor<>() {
+            @Override
+            public int charAt(CharSequence sequence, int index) {
+                return sequence.charAt(index);
+            }
+
+            @Override
+            public String toString(CharSequence sequence, int offset, int length) {
+                return sequence.subSequence(offset, offset + length).toString();
+            }
+        };
+
+        int charAt(T sequence, int index);
+
+        String toString(T sequence, int offset, int length);
+    }
+
     private static final String[] CHROMS = {"NA",
             "1", "2", "3", "4", "5",
             "6", "7", "8", "9", "10",
@@ -288,6 +615,14 @@ public final class VariantKeys {
         return (int) ((chrBits >= 1 && chrBits <= 25) ? chrBits : 0L);
     }
 
+    /**
+     * Returns the 5-bit chromosome field of a variant key without validation, which may hold a code in the range 0-31
+     * if the key was encoded using {@link VariantKeyContigs}.
+     */
+    static int chromField(long key) {
+        return (int) ((key & VKMASK_CHROM) >>> VKSHIFT_CHROM);
+    }
+
     /**
      * Extracts the position from a variant key.
      *
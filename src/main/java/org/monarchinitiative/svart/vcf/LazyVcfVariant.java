@@ -0,0 +1,265 @@
+package org.monarchinitiative.svart.vcf;
+
+import org.monarchinitiative.svart.*;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link GenomicVariant} backed by the raw bytes of a VCF data line, as created by the {@link VcfLineScanner}. The
+ * {@link #contig()}, {@link #pos()}, {@link #strand()}, {@link #coordinateSystem()} and {@link #id()} are available
+ * directly from the scanned line, with all other values requiring the variant to be materialised. On first access, the
+ * ref and alt alleles are decoded and the variant converted using the {@link VcfConverter} of the scanner, exactly as
+ * if {@link VcfConverter#convert}, {@link VcfConverter#convertSymbolic} or {@link VcfConverter#convertBreakend} had
+ * been called with the values of the line. For symbolic and breakend alleles the END, SVLEN, CIPOS, CIEND, MATEID and
+ * EVENT fields are read from the INFO column.
+ * <p>
+ * Note that as the coordinates and alleles are those of the trimmed variant, the {@link #start()} of a materialised
+ * variant may differ from the VCF {@link #pos()}.
+ * <p>
+ * Instances of this class are only equal to other instances whose materialised variants are equal, so that equality is
+ * symmetric, with the {@link #materialise()}d variant to be used for storing in collections or comparing to other
+ * implementations. As this class holds a reference to the line, which may be large, it is also recommended to only
+ * retain the materialised variant.
+ */
+public final class LazyVcfVariant implements GenomicVariant {
+
+    private final VcfConverter vcfConverter;
+    private final Contig contig;
+    private final int pos;
+    private final byte[] line;
+    private final int idStart;
+    private final int idEnd;
+    private final int refStart;
+    private final int refEnd;
+    private final int altStart;
+    private final int altEnd;
+    private final int infoStart;
+    private final int infoEnd;
+    // a benign data race as the conversion is deterministic and GenomicVariant instances are immutable
+    private GenomicVariant variant;
+
+    LazyVcfVariant(VcfConverter vcfConverter, Contig contig, int pos, byte[] line, int idStart, int idEnd, int refStart, int refEnd, int altStart, int altEnd, int infoStart, int infoEnd) {
+        this.vcfConverter = vcfConverter;
+        this.contig = contig;
+        this.pos = pos;
+        this.line = line;
+        this.idStart = idStart;
+        this.idEnd = idEnd;
+        this.refStart = refStart;
+        this.refEnd = refEnd;
+        this.altStart = altStart;
+        this.altEnd = altEnd;
+        this.infoStart = infoStart;
+        this.infoEnd = infoEnd;
+    }
+
+    /**
+     * @return the one-based POS of the VCF record, prior to any trimming of the alleles.
+     */
+    public int pos() {
+        return pos;
+    }
+
+    /**
+     * @return true if the variant has been materialised.
+     */
+    public boolean isMaterialised() {
+        return variant != null;
+    }
+
+    /**
+     * Converts the VCF line values into a {@link GenomicVariant}, or returns the previously converted instance.
+     *
+     * @throws IllegalArgumentException if the line values do not represent a valid variant, e.g. a multi-allelic ALT.
+     * @throws CoordinatesOutOfBoundsException if the contig is unknown or the position is outside the contig.
+     */
+    public GenomicVariant materialise() {
+        GenomicVariant result = variant;
+        if (result == null) {
+            result = convert();
+            variant = result;
+        }
+        return result;
+    }
+
+    private GenomicVariant convert() {
+        String id = id();
+        String ref = ascii(refStart, refEnd);
+        String alt = ascii(altStart, altEnd);
+        if (!VariantType.isSymbolic(alt)) {
+            return vcfConverter.convert(contig, id, pos, ref, alt);
+        }
+        ConfidenceInterval ciPos = confidenceInterval(info("CIPOS"));
+        ConfidenceInterval ciEnd = confidenceInterval(info("CIEND"));
+        String mateId = orEmpty(info("MATEID"));
+        String eventId = orEmpty(info("EVENT"));
+        if (VariantType.isBreakend(alt)) {
+            return vcfConverter.convertBreakend(contig, id, pos, ciPos, ref, alt, ciEnd, mateId, eventId);
+        }
+        String endValue = info("END");
+        int end = endValue == null ? pos + ref.length() - 1 : Integer.parseInt(endValue);
+        String svLenValue = info("SVLEN");
+        int svLen = svLenValue == null ? defaultSvLen(ref, alt, end) : Integer.parseInt(firstValue(svLenValue));
+        return vcfConverter.convertSymbolic(contig, id, pos, ciPos, end, ciEnd, ref, alt, svLen, mateId, eventId);
+    }
+
+    private int defaultSvLen(String ref, String alt, int end) {
+        // the change in length implied by the END position, which is negative for deletions
+        int length = end - pos;
+        return VariantType.parseType(ref, alt).baseType() == VariantType.DEL ? -length : length;
+    }
+
+    private String ascii(int start, int end) {
+        return new String(line, start, end - start, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the value of the INFO key, or null if not present.
+     */
+    private String info(String key) {
+        if (infoStart < 0) {
+            return null;
+        }
+        int keyLength = key.length();
+        int fieldStart = infoStart;
+        while (fieldStart < infoEnd) {
+            int fieldEnd = fieldStart;
+            while (fieldEnd < infoEnd && line[fieldEnd] != ';') {
+                fieldEnd++;
+            }
+            if (fieldEnd - fieldStart > keyLength && line[fieldStart + keyLength] == '=' && matches(key, fieldStart)) {
+                return ascii(fieldStart + keyLength + 1, fieldEnd);
+            }
+            fieldStart = fieldEnd + 1;
+        }
+        return null;
+    }
+
+    private boolean matches(String key, int start) {
+        for (int i = 0; i < key.length(); i++) {
+            if (line[start + i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ConfidenceInterval confidenceInterval(String value) {
+        if (value == null) {
+            return ConfidenceInterval.precise();
+        }
+        int comma = value.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("Invalid confidence interval '" + value + "'");
+        }
+        return ConfidenceInterval.of(Integer.parseInt(value.substring(0, comma)), Integer.parseInt(value.substring(comma + 1)));
+    }
+
+    private static String firstValue(String value) {
+        int comma = value.indexOf(',');
+        return comma < 0 ? value : value.substring(0, comma);
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    @Override
+    public Contig contig() {
+        return contig;
+    }
+
+    @Override
+    public Strand strand() {
+        return Strand.POSITIVE;
+    }
+
+    @Override
+    public CoordinateSystem coordinateSystem() {
+        return CoordinateSystem.ONE_BASED;
+    }
+
+    /**
+     * @return the VCF ID field, decoded directly from the line.
+     */
+    @Override
+    public String id() {
+        return idEnd - idStart == 1 && line[idStart] == '.' ? "." : ascii(idStart, idEnd);
+    }
+
+    @Override
+    public Coordinates coordinates() {
+        return materialise().coordinates();
+    }
+
+    @Override
+    public String ref() {
+        return materialise().ref();
+    }
+
+    @Override
+    public String alt() {
+        return materialise().alt();
+    }
+
+    @Override
+    public int changeLength() {
+        return materialise().changeLength();
+    }
+
+    @Override
+    public VariantType variantType() {
+        return materialise().variantType();
+    }
+
+    @Override
+    public String mateId() {
+        return materialise().mateId();
+    }
+
+    @Override
+    public String eventId() {
+        return materialise().eventId();
+    }
+
+    @Override
+    public boolean isSymbolic() {
+        return materialise().isSymbolic();
+    }
+
+    @Override
+    public boolean isBreakend() {
+        return materialise().isBreakend();
+    }
+
+    @Override
+    public GenomicVariant withStrand(Strand other) {
+        return materialise().withStrand(other);
+    }
+
+    @Override
+    public GenomicVariant withCoordinateSystem(CoordinateSystem coordinateSystem) {
+        return materialise().withCoordinateSystem(coordinateSystem);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LazyVcfVariant that)) return false;
+        return materialise().equals(that.materialise());
+    }
+
+    @Override
+    public int hashCode() {
+        return materialise().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyVcfVariant{" +
+               "contig=" + contig.id() +
+               ", pos=" + pos +
+               ", fields='" + ascii(idStart, altEnd) + '\'' +
+               '}';
+    }
+}
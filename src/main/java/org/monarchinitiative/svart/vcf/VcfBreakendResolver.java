@@ -104,6 +104,11 @@ public final class VcfBreakendResolver {
         return resolve(eventId, id, mateId, contig, position, ConfidenceInterval.precise(), ConfidenceInterval.precise(), ref, alt);
     }
 
+    /**
+     * Resolves the {@link GenomicBreakendVariant} from the VCF input values. Precise breakends with ACGT-only alleles
+     * will be returned in their compact form ({@link org.monarchinitiative.svart.variant.CompactGenomicBreakendVariant}),
+     * as chosen by {@link GenomicBreakendVariant#of}.
+     */
     public GenomicBreakendVariant resolve(String eventId, String id, String mateId, Contig contig, int position, ConfidenceInterval ciPos, ConfidenceInterval ciEnd, String ref, String alt) {
         if (ref.length() > 1) {
             throw new IllegalArgumentException("Invalid breakend! Ref allele '" + ref + "' must be single base");
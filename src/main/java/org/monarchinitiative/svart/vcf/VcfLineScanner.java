@@ -0,0 +1,129 @@
+package org.monarchinitiative.svart.vcf;
+
+import org.monarchinitiative.svart.Contig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Scans the raw bytes of VCF data lines into {@link LazyVcfVariant}, which only decode and trim their alleles when
+ * first accessed. Scanning a line only locates the tab-separated CHROM, POS, ID, REF, ALT and INFO fields, parses the
+ * POS and resolves the CHROM to a {@link Contig}. The contig name is only converted to a String when it differs from
+ * that of the previous line, so for a sorted VCF file scanning does not allocate anything other than the returned
+ * variant. This allows records to be filtered by contig and position, or any other field in the line, at close to the
+ * speed of reading the file.
+ * <pre>
+ * VcfLineScanner scanner = VcfLineScanner.of(new VcfConverter(assembly, VariantTrimmer.leftShiftingTrimmer(VariantTrimmer.removingCommonBase())));
+ * LazyVcfVariant variant = scanner.scan(lineBytes, 0, lineLength);
+ * if (variant.contig().id() == 1 &amp;&amp; variant.pos() &gt;= 12345) {
+ *     // alleles are only decoded and trimmed here
+ *     GenomicVariant genomicVariant = variant.materialise();
+ * }
+ * </pre>
+ * The returned variants hold a reference to the input array, which must therefore not be modified or re-used until the
+ * variants have been materialised or discarded.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class VcfLineScanner {
+
+    private static final byte TAB = '\t';
+    // CHROM, POS, ID, REF, ALT, QUAL, FILTER, INFO
+    private static final int INFO_FIELD = 7;
+    private static final int REQUIRED_FIELDS = 5;
+
+    private final VcfConverter vcfConverter;
+    // start of each field, with the end of the field being one before the start of the next
+    private final int[] fieldStarts = new int[INFO_FIELD + 2];
+    private byte[] lastContigName = new byte[0];
+    private Contig lastContig;
+
+    private VcfLineScanner(VcfConverter vcfConverter) {
+        this.vcfConverter = Objects.requireNonNull(vcfConverter);
+    }
+
+    public static VcfLineScanner of(VcfConverter vcfConverter) {
+        return new VcfLineScanner(vcfConverter);
+    }
+
+    public VcfConverter vcfConverter() {
+        return vcfConverter;
+    }
+
+    /**
+     * Scans a complete VCF data line, excluding any line terminator.
+     *
+     * @see #scan(byte[], int, int)
+     */
+    public LazyVcfVariant scan(byte[] line) {
+        return scan(line, 0, line.length);
+    }
+
+    /**
+     * Scans the VCF data line held in the array from the offset, excluding any line terminator. Header lines must not
+     * be passed to this method. Only single ALT alleles are supported, with multi-allelic records throwing an
+     * {@link IllegalArgumentException} when materialised, as for the {@link VcfConverter}.
+     * <p>
+     * Lines with a CHROM not found in the {@link org.monarchinitiative.svart.assembly.GenomicAssembly} of the
+     * {@link VcfConverter} return a variant with an unknown contig, which should be checked for using
+     * {@code variant.contig().isUnknown()} before the variant is materialised.
+     *
+     * @throws IllegalArgumentException if the line has fewer than 5 fields or an invalid POS
+     */
+    public LazyVcfVariant scan(byte[] line, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, line.length);
+        int end = offset + length;
+        fieldStarts[0] = offset;
+        int field = 1;
+        for (int i = offset; i < end && field < fieldStarts.length; i++) {
+            if (line[i] == TAB) {
+                fieldStarts[field++] = i + 1;
+            }
+        }
+        if (field < REQUIRED_FIELDS) {
+            throw new IllegalArgumentException("Expected at least " + REQUIRED_FIELDS + " fields in VCF line but found " + field);
+        }
+        // ALT may be the last field
+        int altEnd = field > REQUIRED_FIELDS ? fieldStarts[REQUIRED_FIELDS] - 1 : end;
+        int infoStart = -1;
+        int infoEnd = -1;
+        if (field > INFO_FIELD) {
+            infoStart = fieldStarts[INFO_FIELD];
+            infoEnd = field > INFO_FIELD + 1 ? fieldStarts[INFO_FIELD + 1] - 1 : end;
+        }
+        Contig contig = contig(line, fieldStarts[0], fieldStarts[1] - 1);
+        int pos = parsePos(line, fieldStarts[1], fieldStarts[2] - 1);
+        return new LazyVcfVariant(vcfConverter, contig, pos, line,
+                fieldStarts[2], fieldStarts[3] - 1,
+                fieldStarts[3], fieldStarts[4] - 1,
+                fieldStarts[4], altEnd,
+                infoStart, infoEnd);
+    }
+
+    private Contig contig(byte[] line, int start, int end) {
+        if (lastContig == null || !Arrays.equals(line, start, end, lastContigName, 0, lastContigName.length)) {
+            lastContigName = Arrays.copyOfRange(line, start, end);
+            lastContig = vcfConverter.parseContig(new String(lastContigName, StandardCharsets.US_ASCII));
+        }
+        return lastContig;
+    }
+
+    static int parsePos(byte[] line, int start, int end) {
+        if (start == end || end - start > 10) {
+            throw new IllegalArgumentException("Invalid POS '" + new String(line, start, end - start, StandardCharsets.US_ASCII) + "'");
+        }
+        long pos = 0;
+        for (int i = start; i < end; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("Invalid POS '" + new String(line, start, end - start, StandardCharsets.US_ASCII) + "'");
+            }
+            pos = pos * 10 + digit;
+        }
+        if (pos > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid POS '" + pos + "'");
+        }
+        return (int) pos;
+    }
+}
@@ -0,0 +1,226 @@
+package org.monarchinitiative.svart.liftover;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.AssignedMoleculeType;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.assembly.SequenceRole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LiftOverTest {
+
+    // chr1 [0, 100) -> chr1 [100, 200), chr1 [100, 200) -> chr1 [210, 310)
+    // chr1 [300, 400) -> chr3 - [50, 150)
+    // chr1 [150, 250) -> chr2 [0, 100), overlapping the higher scoring first chain for [150, 200)
+    // chr2 [0, 50) -> chr2 [0, 50), chr2 [60, 100) -> chr2 [70, 110)
+    private static final String CHAINS = """
+            chain 1000 chr1 1000 + 0 200 chr1 1000 + 100 310 1
+            100\t0\t10
+            100
+
+            chain 900 chr1 1000 + 300 400 chr3 300 - 50 150 2
+            100
+
+            chain 500 chr1 1000 + 150 250 chr2 500 + 0 100 3
+            100
+
+            chain 800 chr2 500 + 0 100 chr2 500 + 0 110 4
+            50\t10\t20
+            40
+
+            chain 700 chrUn 100 + 0 100 chr1 1000 + 0 100 5
+            100
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private GenomicAssembly source;
+    private GenomicAssembly target;
+    private LiftOver instance;
+
+    private static GenomicAssembly assembly(String name, int... lengths) {
+        List<Contig> contigs = new ArrayList<>();
+        for (int i = 0; i < lengths.length; i++) {
+            String contigName = String.valueOf(i + 1);
+            contigs.add(Contig.of(i + 1, contigName, SequenceRole.ASSEMBLED_MOLECULE, contigName, AssignedMoleculeType.CHROMOSOME, lengths[i], "na", "na", "chr" + contigName));
+        }
+        return GenomicAssembly.of(name, "Homo sapiens (human)", "9606", "test", "2024-01-01", "na", "na", contigs);
+    }
+
+    private Path writeChainFile(String name, String chains) {
+        Path path = tempDir.resolve(name);
+        try (OutputStream outputStream = name.endsWith(".gz") ? new GZIPOutputStream(Files.newOutputStream(path)) : Files.newOutputStream(path)) {
+            outputStream.write(chains.getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return path;
+    }
+
+    @BeforeEach
+    void setUp() {
+        source = assembly("source", 1000, 500, 200);
+        target = assembly("target", 1000, 500, 300);
+        instance = LiftOver.of(writeChainFile("test.over.chain", CHAINS), source, target);
+    }
+
+    private Contig source(int id) {
+        return source.contigById(id);
+    }
+
+    private Contig target(int id) {
+        return target.contigById(id);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1,  11,  1,  111",
+            "1,  100, 1,  200",
+            "1,  101, 1,  211",
+            "1,  151, 1,  261",
+            "1,  171, 1,  281",
+            "1,  221, 2,  71",
+            "2,  50,  2,  50",
+            "2,  61,  2,  71",
+    })
+    void liftOverSnv(int contig, int pos, int expectedContig, int expectedPos) {
+        GenomicVariant variant = GenomicVariant.of(source(contig), "rs1", Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, "A", "C");
+        LiftOverResult<GenomicVariant> result = instance.liftOver(variant);
+        assertThat(result.isLifted(), is(true));
+        assertThat(result.source(), sameInstance(variant));
+        assertThat(result.lifted(), equalTo(GenomicVariant.of(target(expectedContig), "rs1", Strand.POSITIVE, CoordinateSystem.ONE_BASED, expectedPos, "A", "C")));
+
+        LiftOverResult<GenomicVariant> negative = instance.liftOver(variant.withStrand(Strand.NEGATIVE));
+        assertThat(negative.lifted(), equalTo(result.lifted().withStrand(Strand.NEGATIVE)));
+    }
+
+    @Test
+    void liftOverToNegativeStrand() {
+        GenomicVariant variant = GenomicVariant.of(source(1), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 301, "AC", "A");
+        LiftOverResult<GenomicVariant> result = instance.liftOver(variant);
+        assertThat(result.lifted(), equalTo(GenomicVariant.of(target(3), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 249, "GT", "T")));
+        assertThat(instance.liftOver(variant.withStrand(Strand.NEGATIVE)).lifted(), equalTo(result.lifted().withStrand(Strand.NEGATIVE)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1,  100, AC,  SPANS_GAP",
+            "1,  199, CAG, SPLIT",
+            "1,  251, A,   UNMAPPED",
+            "1,  1000, A,  UNMAPPED",
+            "2,  51,  A,   UNMAPPED",
+            "3,  10,  A,   UNKNOWN_CONTIG",
+    })
+    void liftOverFailure(int contig, int pos, String ref, LiftOverFailure expected) {
+        GenomicVariant variant = GenomicVariant.of(source(contig), Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref, "T");
+        LiftOverResult<GenomicVariant> result = instance.liftOver(variant);
+        assertThat(result.isLifted(), is(false));
+        assertThat(result.failure(), equalTo(expected));
+        assertThat(result.lifted(), is(nullValue()));
+        assertThat(result.source(), sameInstance(variant));
+    }
+
+    @Test
+    void liftOverSymbolic() {
+        GenomicVariant deletion = GenomicVariant.of(source(1), "del", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 2, 150, "A", "<DEL>", -148);
+        LiftOverResult<GenomicVariant> result = instance.liftOver(deletion);
+        assertThat(result.lifted(), equalTo(GenomicVariant.of(target(1), "del", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 102, 260, "A", "<DEL>", -148)));
+
+        GenomicVariant breakend = GenomicVariant.of(source(1), "bnd_U", Strand.POSITIVE, Coordinates.of(CoordinateSystem.ONE_BASED, 10, 10), "C", "C[2:100[", 0, "", "");
+        assertThat(instance.liftOver(breakend).failure(), equalTo(LiftOverFailure.UNSUPPORTED_VARIANT));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1,  1,   200, 1,  101, 310",
+            "1,  301, 400, 3,  151, 250",
+            "1,  201, 250, 2,  51,  100",
+            "2,  1,   50,  2,  1,   50",
+    })
+    void liftOverRegion(int contig, int start, int end, int expectedContig, int expectedStart, int expectedEnd) {
+        GenomicRegion region = GenomicRegion.of(source(contig), Strand.POSITIVE, CoordinateSystem.ONE_BASED, start, end);
+        GenomicRegion expected = GenomicRegion.of(target(expectedContig), Strand.POSITIVE, CoordinateSystem.ONE_BASED, expectedStart, expectedEnd);
+        assertThat(instance.liftOver(region).lifted(), equalTo(expected));
+        assertThat(instance.liftOver(region.withStrand(Strand.NEGATIVE)).lifted(), equalTo(expected.withStrand(Strand.NEGATIVE)));
+        assertThat(instance.liftOver(region.toZeroBased()).lifted(), equalTo(expected.toZeroBased()));
+    }
+
+    @Test
+    void liftOverRegionFailure() {
+        assertThat(instance.liftOver(GenomicRegion.of(source(1), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1, 220)).failure(), equalTo(LiftOverFailure.SPLIT));
+        assertThat(instance.liftOver(GenomicRegion.of(source(1), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1, 260)).failure(), equalTo(LiftOverFailure.UNMAPPED));
+        // 90 of the 100 bases are aligned
+        GenomicRegion partial = GenomicRegion.of(source(2), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1, 100);
+        assertThat(instance.liftOver(partial).failure(), equalTo(LiftOverFailure.PARTIALLY_MAPPED));
+
+        LiftOver lenient = LiftOver.builder(writeChainFile("lenient.over.chain", CHAINS), source, target)
+                .minMatch(0.9)
+                .build();
+        assertThat(lenient.minMatch(), equalTo(0.9));
+        assertThat(lenient.liftOver(partial).lifted(), equalTo(GenomicRegion.of(target(2), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1, 110)));
+    }
+
+    @Test
+    void liftOverEmptyRegion() {
+        GenomicRegion inBlock = GenomicRegion.of(source(1), Strand.POSITIVE, CoordinateSystem.ZERO_BASED, 50, 50);
+        assertThat(instance.liftOver(inBlock).lifted(), equalTo(GenomicRegion.of(target(1), Strand.POSITIVE, CoordinateSystem.ZERO_BASED, 150, 150)));
+        GenomicRegion betweenBlocks = GenomicRegion.of(source(1), Strand.POSITIVE, CoordinateSystem.ZERO_BASED, 100, 100);
+        assertThat(instance.liftOver(betweenBlocks).failure(), equalTo(LiftOverFailure.UNMAPPED));
+        GenomicRegion contigStart = GenomicRegion.of(source(1), Strand.POSITIVE, CoordinateSystem.ZERO_BASED, 0, 0);
+        assertThat(instance.liftOver(contigStart).failure(), equalTo(LiftOverFailure.UNMAPPED));
+    }
+
+    @Test
+    void liftOverAll() {
+        List<GenomicVariant> variants = new ArrayList<>();
+        for (int contig = 1; contig <= 3; contig++) {
+            for (int pos = 1; pos <= source(contig).length(); pos += 3) {
+                variants.add(GenomicVariant.of(source(contig), Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, "A", "G"));
+            }
+        }
+        List<LiftOverResult<GenomicVariant>> expected = variants.stream().map(instance::liftOver).toList();
+
+        assertThat(instance.liftOverAll(variants), equalTo(expected));
+        assertThat(instance.liftOverAll(variants.stream()).toList(), equalTo(expected));
+        assertThat(expected.stream().filter(LiftOverResult::isLifted).count(), equalTo(149L));
+    }
+
+    @Test
+    void gzippedChainFile() {
+        LiftOver gzipped = LiftOver.of(writeChainFile("test.over.chain.gz", CHAINS), source, target);
+        GenomicVariant variant = GenomicVariant.of(source(1), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 11, "A", "C");
+        assertThat(gzipped.liftOver(variant), equalTo(instance.liftOver(variant)));
+        assertThat(gzipped.sourceAssembly(), equalTo(source));
+        assertThat(gzipped.targetAssembly(), equalTo(target));
+    }
+
+    @Test
+    void invalidChainFile() {
+        Path sizeMismatch = writeChainFile("size.over.chain", "chain 1 chr1 999 + 0 10 chr1 1000 + 0 10 1\n10\n");
+        assertThrows(IllegalArgumentException.class, () -> LiftOver.of(sizeMismatch, source, target));
+        Path malformedBlock = writeChainFile("block.over.chain", "chain 1 chr1 1000 + 0 10 chr1 1000 + 0 10 1\n10 2\n");
+        assertThrows(IllegalArgumentException.class, () -> LiftOver.of(malformedBlock, source, target));
+        Path missingHeader = writeChainFile("header.over.chain", "10\n");
+        assertThrows(IllegalArgumentException.class, () -> LiftOver.of(missingHeader, source, target));
+        assertThrows(UncheckedIOException.class, () -> LiftOver.of(tempDir.resolve("missing.over.chain"), source, target));
+        assertThrows(IllegalArgumentException.class, () -> LiftOver.builder(sizeMismatch, source, target).minMatch(1.1));
+    }
+}
@@ -0,0 +1,168 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.variant.internal.TwoBitBaseCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlankingSequenceExtractorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Random random = new Random(42);
+    private String chr1Sequence;
+    private String chr2Sequence;
+    private ReferenceSequence referenceSequence;
+    private Contig chr1;
+    private Contig chr2;
+
+    @BeforeEach
+    void setUp() {
+        chr1Sequence = "ACGTACGTNNACGTACGT";
+        chr2Sequence = TestReferenceSequences.randomSequence(random, "ACGT", 3_000_000);
+        referenceSequence = TestReferenceSequences.referenceSequence(tempDir, chr1Sequence, chr2Sequence);
+        chr1 = referenceSequence.genomicAssembly().contigById(1);
+        chr2 = referenceSequence.genomicAssembly().contigById(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        referenceSequence.close();
+    }
+
+    private static String string(byte[] bases) {
+        return new String(bases, StandardCharsets.US_ASCII);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "2,  4,  T,   G,    CGTAC,     CGGAC",
+            "2,  4,  TAC, T,    CGTACGT,   CGTGT",
+            "2,  4,  T,   TGG,  CGTAC,     CGTGGAC",
+            "2,  4,  T,   g,    CGTAC,     CGGAC",
+            "2,  4,  T,   tgG,  CGTAC,     CGTGGAC",
+            "2,  5,  '',  GG,   GTAC,      GTGGAC",
+            "0,  4,  T,   G,    T,         G",
+            "3,  1,  A,   C,    ACGT,      CCGT",
+            "3,  18, T,   C,    ACGT,      ACGC",
+            "20, 4,  T,   G,    ACGTACGTNNACGTACGT, ACGGACGTNNACGTACGT",
+    })
+    void context(int flankLength, int pos, String ref, String alt, String expectedRef, String expectedAlt) {
+        FlankingSequenceExtractor instance = FlankingSequenceExtractor.of(referenceSequence, flankLength);
+        GenomicVariant variant = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref, alt);
+
+        assertThat(string(instance.refContext(variant)), equalTo(expectedRef));
+        assertThat(string(instance.altContext(variant)), equalTo(expectedAlt));
+
+        GenomicVariant negative = variant.withStrand(Strand.NEGATIVE);
+        assertThat(string(instance.refContext(negative)), equalTo(NucleotideSeq.reverseComplement(expectedRef)));
+        assertThat(string(instance.altContext(negative)), equalTo(NucleotideSeq.reverseComplement(expectedAlt)));
+    }
+
+    @Test
+    void symbolicVariant() {
+        FlankingSequenceExtractor instance = FlankingSequenceExtractor.of(referenceSequence, 2);
+        GenomicVariant symbolic = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 2, 10, "C", "<DEL>", -8);
+        assertThrows(IllegalArgumentException.class, () -> instance.refContext(symbolic));
+
+        List<GenomicVariant> variants = List.of(symbolic, GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 4, "T", "G"));
+        List<String> contexts = new ArrayList<>();
+        long count = instance.extract(variants, (variant, ref, refLength, alt, altLength) -> contexts.add(new String(ref, 0, refLength, StandardCharsets.US_ASCII)));
+        assertThat(count, equalTo(1L));
+        assertThat(contexts, equalTo(List.of("CGTAC")));
+    }
+
+    @Test
+    void invalidFlankLength() {
+        assertThrows(IllegalArgumentException.class, () -> FlankingSequenceExtractor.of(referenceSequence, -1));
+    }
+
+    @Test
+    void unknownContig() {
+        FlankingSequenceExtractor instance = FlankingSequenceExtractor.of(referenceSequence, 2);
+        GenomicVariant variant = GenomicVariant.of(TestContig.of(3, 100), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 10, "A", "C");
+        assertThrows(IllegalArgumentException.class, () -> instance.extract(List.of(variant), (v, ref, refLength, alt, altLength) -> {}));
+    }
+
+    private List<GenomicVariant> randomVariants(int count) {
+        List<GenomicVariant> variants = new ArrayList<>(count);
+        variants.add(GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 4, "T", "G"));
+        int step = (chr2Sequence.length() - 100) / count;
+        for (int i = 0; i < count; i++) {
+            int pos = 1 + i * step + random.nextInt(step);
+            String ref = chr2Sequence.substring(pos - 1, pos - 1 + random.nextInt(1, 4));
+            String alt = switch (random.nextInt(3)) {
+                case 0 -> ref.substring(0, 1);
+                case 1 -> ref.charAt(0) == 'A' ? "C" : "A";
+                default -> ref + TestReferenceSequences.randomSequence(random, "ACGT", random.nextInt(1, 10));
+            };
+            Strand strand = random.nextBoolean() ? Strand.POSITIVE : Strand.NEGATIVE;
+            variants.add(GenomicVariant.of(chr2, Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref, alt).withStrand(strand));
+        }
+        return variants;
+    }
+
+    @Test
+    void extractMatchesSingleVariants() {
+        // spans several chunks of the reference
+        FlankingSequenceExtractor instance = FlankingSequenceExtractor.of(referenceSequence, 50);
+        List<GenomicVariant> variants = randomVariants(5_000);
+
+        List<String> refContexts = new ArrayList<>();
+        List<String> altContexts = new ArrayList<>();
+        long count = instance.extract(variants.stream(), (variant, ref, refLength, alt, altLength) -> {
+            refContexts.add(new String(ref, 0, refLength, StandardCharsets.US_ASCII));
+            altContexts.add(new String(alt, 0, altLength, StandardCharsets.US_ASCII));
+        });
+
+        assertThat(count, equalTo((long) variants.size()));
+        assertThat(refContexts, equalTo(variants.stream().map(v -> string(instance.refContext(v))).toList()));
+        assertThat(altContexts, equalTo(variants.stream().map(v -> string(instance.altContext(v))).toList()));
+    }
+
+    @Test
+    void extractPacked() {
+        FlankingSequenceExtractor instance = FlankingSequenceExtractor.of(referenceSequence, 20);
+        List<GenomicVariant> variants = randomVariants(1_000);
+
+        List<long[]> refContexts = new ArrayList<>();
+        List<long[]> altContexts = new ArrayList<>();
+        long count = instance.extractPacked(variants, (variant, ref, refLength, alt, altLength) -> {
+            refContexts.add(Arrays.copyOf(ref, (refLength + 31) / 32));
+            altContexts.add(Arrays.copyOf(alt, (altLength + 31) / 32));
+        });
+
+        // the context of the chr1 variant contains Ns
+        assertThat(count, equalTo((long) variants.size() - 1));
+        List<GenomicVariant> packed = variants.subList(1, variants.size());
+        for (int i = 0; i < packed.size(); i++) {
+            GenomicVariant variant = packed.get(i);
+            assertThat(refContexts.get(i), equalTo(pack(instance.refContext(variant))));
+            assertThat(altContexts.get(i), equalTo(pack(instance.altContext(variant))));
+        }
+    }
+
+    private static long[] pack(byte[] bases) {
+        long[] packed = new long[(bases.length + 31) / 32];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = TwoBitBaseCodec.encodeBases(bases, i * 32, Math.min(32, bases.length - i * 32));
+        }
+        return packed;
+    }
+}
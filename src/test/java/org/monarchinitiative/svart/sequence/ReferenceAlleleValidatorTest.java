@@ -0,0 +1,175 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReferenceAlleleValidatorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Random random = new Random(42);
+    private String chr1Sequence;
+    private String chr2Sequence;
+    private ReferenceSequence referenceSequence;
+    private Contig chr1;
+    private Contig chr2;
+
+    @BeforeEach
+    void setUp() {
+        chr1Sequence = "ACGTNACGTA" + TestReferenceSequences.randomSequence(random, "ACGT", 99_990);
+        chr2Sequence = TestReferenceSequences.randomSequence(random, "ACGT", 50_000);
+        referenceSequence = TestReferenceSequences.referenceSequence(tempDir, chr1Sequence, chr2Sequence);
+        chr1 = referenceSequence.genomicAssembly().contigById(1);
+        chr2 = referenceSequence.genomicAssembly().contigById(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        referenceSequence.close();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1,  A,     C,    true",
+            "1,  C,     A,    false",
+            "1,  a,     C,    true",
+            "1,  ACGT,  A,    true",
+            "1,  ACGA,  A,    false",
+            "2,  CGTNA, C,    true",
+            "2,  CGTTA, C,    true",
+            "5,  A,     C,    true",
+            "5,  N,     C,    true",
+            "6,  N,     C,    true",
+            "6,  '',    C,    true",
+    })
+    void matches(int pos, String ref, String alt, boolean expected) {
+        ReferenceAlleleValidator instance = ReferenceAlleleValidator.of(referenceSequence);
+        GenomicVariant variant = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref, alt);
+        assertThat(instance.matches(variant), equalTo(expected));
+        assertThat(instance.matches(variant.withStrand(Strand.NEGATIVE)), equalTo(expected));
+        assertThat(instance.matches(variant.withCoordinateSystem(CoordinateSystem.ZERO_BASED)), equalTo(expected));
+    }
+
+    @Test
+    void matchesSymbolic() {
+        ReferenceAlleleValidator instance = ReferenceAlleleValidator.of(referenceSequence);
+        GenomicVariant matching = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 2, 100, "C", "<DEL>", -98);
+        assertThat(instance.matches(matching), is(true));
+        assertThat(instance.matches(matching.withStrand(Strand.NEGATIVE)), is(true));
+        GenomicVariant mismatched = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 2, 100, "G", "<DEL>", -98);
+        assertThat(instance.matches(mismatched), is(false));
+    }
+
+    @Test
+    void matchesUnknownContigThrowsException() {
+        ReferenceAlleleValidator instance = ReferenceAlleleValidator.of(referenceSequence);
+        GenomicVariant variant = GenomicVariant.of(TestContig.of(3, 100), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1, "A", "C");
+        assertThrows(IllegalArgumentException.class, () -> instance.matches(variant));
+    }
+
+    private List<GenomicVariant> variants(Contig contig, String sequence, int count, double mismatchRate) {
+        List<GenomicVariant> variants = new ArrayList<>(count);
+        int step = (sequence.length() - 20) / count;
+        for (int i = 0; i < count; i++) {
+            int pos = 11 + i * step;
+            String ref = sequence.substring(pos - 1, pos - 1 + random.nextInt(1, 4));
+            if (random.nextDouble() < mismatchRate) {
+                ref = (ref.charAt(0) == 'A' ? "C" : "A") + ref.substring(1);
+            }
+            variants.add(GenomicVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref, "G"));
+        }
+        return variants;
+    }
+
+    @Test
+    void validate() {
+        ReferenceAlleleValidator instance = ReferenceAlleleValidator.of(referenceSequence);
+        List<GenomicVariant> chr1Variants = variants(chr1, chr1Sequence, 20_000, 0.01);
+        List<GenomicVariant> chr2Variants = variants(chr2, chr2Sequence, 10_000, 0.0);
+        Contig missing = TestContig.of(3, 1000);
+        List<GenomicVariant> missingVariants = List.of(GenomicVariant.of(missing, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1, "A", "C"));
+        GenomicVariant breakend = GenomicVariant.of(chr2, "bnd_U", Strand.POSITIVE, Coordinates.of(CoordinateSystem.ONE_BASED, 49_000, 49_000), "C", "C[1:100[", 0, "", "");
+
+        ReferenceAlleleValidator.Report report = instance.validate(Stream.of(chr1Variants, chr2Variants, List.of(breakend), missingVariants).flatMap(List::stream));
+
+        long expectedMismatches = chr1Variants.stream().filter(v -> !instance.matches(v)).count();
+        assertThat(expectedMismatches, greaterThan(0L));
+        assertThat(report.stoppedEarly(), is(false));
+        assertThat(report.missingContig(), equalTo(1L));
+        assertThat(report.contigMismatches(), equalTo(List.of(
+                new ReferenceAlleleValidator.ContigMismatches(chr1, 20_000, expectedMismatches),
+                new ReferenceAlleleValidator.ContigMismatches(chr2, 10_000, 0)
+        )));
+        assertThat(report.checked(), equalTo(30_000L));
+        assertThat(report.mismatches(), equalTo(expectedMismatches));
+        assertThat(report.mismatchRate(), closeTo(expectedMismatches / 30_000.0, 1e-9));
+        assertThat(report.contigMismatches().get(0).mismatchRate(), closeTo(0.01, 0.005));
+    }
+
+    @Test
+    void validateStopsEarlyOnAssemblyMismatch() {
+        // the ref alleles of variants called against a different sequence
+        String otherSequence = TestReferenceSequences.randomSequence(new Random(1), "ACGT", chr1Sequence.length());
+        List<GenomicVariant> variants = variants(chr1, otherSequence, 50_000, 0.0);
+
+        ReferenceAlleleValidator.Report report = ReferenceAlleleValidator.of(referenceSequence).validate(variants.stream());
+        assertThat(report.stoppedEarly(), is(true));
+        assertThat(report.checked(), lessThan(50_000L));
+        assertThat(report.mismatchRate(), greaterThan(0.5));
+
+        ReferenceAlleleValidator sequential = ReferenceAlleleValidator.builder(referenceSequence)
+                .executor(Runnable::run)
+                .minVariants(100)
+                .build();
+        ReferenceAlleleValidator.Report sequentialReport = sequential.validate(variants.stream());
+        assertThat(sequentialReport.stoppedEarly(), is(true));
+        // only the first chunk is checked
+        assertThat(sequentialReport.checked(), equalTo(4096L));
+    }
+
+    @Test
+    void validateWithoutStoppingEarly() {
+        String otherSequence = TestReferenceSequences.randomSequence(new Random(1), "ACGT", chr1Sequence.length());
+        List<GenomicVariant> variants = variants(chr1, otherSequence, 10_000, 0.0);
+        ReferenceAlleleValidator instance = ReferenceAlleleValidator.builder(referenceSequence)
+                .maxMismatchRate(1.0)
+                .maxChunksInFlight(1)
+                .build();
+        ReferenceAlleleValidator.Report report = instance.validate(variants.stream());
+        assertThat(report.stoppedEarly(), is(false));
+        assertThat(report.checked(), equalTo(10_000L));
+    }
+
+    @Test
+    void validateEmpty() {
+        ReferenceAlleleValidator.Report report = ReferenceAlleleValidator.of(referenceSequence).validate(Stream.empty());
+        assertThat(report, equalTo(new ReferenceAlleleValidator.Report(List.of(), 0, false)));
+        assertThat(report.mismatchRate(), equalTo(0.0));
+    }
+
+    @Test
+    void builderValidation() {
+        ReferenceAlleleValidator.Builder builder = ReferenceAlleleValidator.builder(referenceSequence);
+        assertThrows(IllegalArgumentException.class, () -> builder.minVariants(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxMismatchRate(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxMismatchRate(1.1));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxChunksInFlight(0));
+        assertThrows(NullPointerException.class, () -> builder.executor(null));
+    }
+}
@@ -0,0 +1,286 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.AssignedMoleculeType;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.assembly.SequenceRole;
+import org.monarchinitiative.svart.variant.internal.TwoBitBaseCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReferenceSequenceTest {
+
+    private static final Contig CHR1 = Contig.of(1, "1", SequenceRole.ASSEMBLED_MOLECULE, "1", AssignedMoleculeType.CHROMOSOME, 1000, "CM000001.1", "NC_000001.1", "chr1");
+    private static final Contig CHR2 = Contig.of(2, "2", SequenceRole.ASSEMBLED_MOLECULE, "2", AssignedMoleculeType.CHROMOSOME, 333, "CM000002.1", "NC_000002.1", "chr2");
+    private static final Contig CHR3 = Contig.of(3, "3", SequenceRole.ASSEMBLED_MOLECULE, "3", AssignedMoleculeType.CHROMOSOME, 50, "CM000003.1", "NC_000003.1", "chr3");
+    private static final GenomicAssembly ASSEMBLY = GenomicAssembly.of("test", "Homo sapiens (human)", "9606", "test", "2024-01-01", "GCA_000001.1", "GCF_000001.1", List.of(CHR1, CHR2, CHR3));
+
+    @TempDir
+    Path tempDir;
+
+    // upper-case sequences, as returned by the ReferenceSequence
+    private final Map<Contig, String> expected = new LinkedHashMap<>();
+    // the sequences as written to the files, with soft-masking
+    private final Map<Contig, String> written = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(42);
+        for (Contig contig : List.of(CHR1, CHR2)) {
+            StringBuilder sb = new StringBuilder(contig.length());
+            for (int i = 0; i < contig.length(); i++) {
+                sb.append("ACGT".charAt(random.nextInt(4)));
+            }
+            // add gaps and soft-masking
+            sb.replace(0, 10, "N".repeat(10));
+            sb.replace(100, 150, "N".repeat(50));
+            sb.replace(contig.length() - 3, contig.length(), "NNN");
+            String upperCase = sb.toString();
+            expected.put(contig, upperCase);
+            written.put(contig, upperCase.substring(0, 200) + upperCase.substring(200, 260).toLowerCase(Locale.ROOT) + upperCase.substring(260));
+        }
+    }
+
+    private Path writeFasta(int lineBases, String lineTerminator) throws IOException {
+        Path fasta = tempDir.resolve("test.fa");
+        StringBuilder fai = new StringBuilder();
+        StringBuilder fa = new StringBuilder();
+        // an unknown sequence which should be ignored
+        Map<String, String> sequences = new LinkedHashMap<>();
+        sequences.put("unknown", "ACGTACGT");
+        written.forEach((contig, sequence) -> sequences.put(contig.ucscName(), sequence));
+        sequences.forEach((name, sequence) -> {
+            fa.append('>').append(name).append(" description").append(lineTerminator);
+            long offset = fa.length();
+            for (int i = 0; i < sequence.length(); i += lineBases) {
+                fa.append(sequence, i, Math.min(sequence.length(), i + lineBases)).append(lineTerminator);
+            }
+            fai.append(String.join("\t", name, String.valueOf(sequence.length()), String.valueOf(offset), String.valueOf(lineBases), String.valueOf(lineBases + lineTerminator.length()))).append('\n');
+        });
+        Files.writeString(fasta, fa.toString(), StandardCharsets.US_ASCII);
+        Files.writeString(tempDir.resolve("test.fa.fai"), fai.toString(), StandardCharsets.US_ASCII);
+        return fasta;
+    }
+
+    private Path writeTwoBit(int version, ByteOrder byteOrder) throws IOException {
+        Map<String, String> sequences = new LinkedHashMap<>();
+        written.forEach((contig, sequence) -> sequences.put(contig.ucscName(), sequence));
+        sequences.put("unknown", "ACGTACGT");
+        int offsetBytes = version == 0 ? 4 : 8;
+        int indexBytes = sequences.keySet().stream().mapToInt(name -> 1 + name.length() + offsetBytes).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(100_000).order(byteOrder);
+        buffer.putInt(0x1A412743).putInt(version).putInt(sequences.size()).putInt(0);
+        List<byte[]> records = new ArrayList<>();
+        long offset = 16 + indexBytes;
+        for (Map.Entry<String, String> entry : sequences.entrySet()) {
+            buffer.put((byte) entry.getKey().length()).put(entry.getKey().getBytes(StandardCharsets.US_ASCII));
+            if (version == 0) {
+                buffer.putInt((int) offset);
+            } else {
+                buffer.putLong(offset);
+            }
+            byte[] record = twoBitRecord(entry.getValue(), byteOrder);
+            records.add(record);
+            offset += record.length;
+        }
+        records.forEach(buffer::put);
+        Path twoBit = tempDir.resolve("test.2bit");
+        Files.write(twoBit, Arrays.copyOf(buffer.array(), buffer.position()));
+        return twoBit;
+    }
+
+    private static byte[] twoBitRecord(String sequence, ByteOrder byteOrder) {
+        List<int[]> nBlocks = blocks(sequence, c -> c == 'N' || c == 'n');
+        List<int[]> maskBlocks = blocks(sequence, Character::isLowerCase);
+        ByteBuffer record = ByteBuffer.allocate(16 + 8 * (nBlocks.size() + maskBlocks.size()) + (sequence.length() + 3) / 4).order(byteOrder);
+        record.putInt(sequence.length()).putInt(nBlocks.size());
+        nBlocks.forEach(block -> record.putInt(block[0]));
+        nBlocks.forEach(block -> record.putInt(block[1] - block[0]));
+        record.putInt(maskBlocks.size());
+        maskBlocks.forEach(block -> record.putInt(block[0]));
+        maskBlocks.forEach(block -> record.putInt(block[1] - block[0]));
+        record.putInt(0);
+        String twoBitBases = "TCAG";
+        for (int i = 0; i < sequence.length(); i += 4) {
+            int packed = 0;
+            for (int j = 0; j < 4; j++) {
+                char base = i + j < sequence.length() ? Character.toUpperCase(sequence.charAt(i + j)) : 'T';
+                // N bases are stored as T
+                packed = (packed << 2) | Math.max(0, twoBitBases.indexOf(base));
+            }
+            record.put((byte) packed);
+        }
+        return record.array();
+    }
+
+    private static List<int[]> blocks(String sequence, java.util.function.IntPredicate predicate) {
+        List<int[]> blocks = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= sequence.length(); i++) {
+            boolean matches = i < sequence.length() && predicate.test(sequence.charAt(i));
+            if (matches && start < 0) {
+                start = i;
+            } else if (!matches && start >= 0) {
+                blocks.add(new int[]{start, i});
+                start = -1;
+            }
+        }
+        return blocks;
+    }
+
+    private interface ReferenceSequenceFactory {
+        ReferenceSequence open(ReferenceSequenceTest test) throws IOException;
+    }
+
+    private static Stream<ReferenceSequenceFactory> referenceSequences() {
+        return Stream.of(
+                test -> ReferenceSequence.open(test.writeTwoBit(0, ByteOrder.LITTLE_ENDIAN), ASSEMBLY),
+                test -> ReferenceSequence.open(test.writeTwoBit(1, ByteOrder.BIG_ENDIAN), ASSEMBLY),
+                test -> ReferenceSequence.open(test.writeFasta(60, "\n"), ASSEMBLY),
+                test -> ReferenceSequence.open(test.writeFasta(7, "\r\n"), ASSEMBLY),
+                test -> ReferenceSequence.indexedFasta(test.writeFasta(1000, "\n"), ASSEMBLY)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("referenceSequences")
+    void basesMatchSequence(ReferenceSequenceFactory factory) throws IOException {
+        try (ReferenceSequence instance = factory.open(this)) {
+            assertThat(instance.genomicAssembly(), equalTo(ASSEMBLY));
+            assertThat(instance.containsContig(CHR1), is(true));
+            assertThat(instance.containsContig(CHR2), is(true));
+            assertThat(instance.containsContig(CHR3), is(false));
+            assertThat(instance.containsContig(Contig.unknown()), is(false));
+
+            Random random = new Random(1);
+            for (Map.Entry<Contig, String> entry : expected.entrySet()) {
+                Contig contig = entry.getKey();
+                String sequence = entry.getValue();
+                assertThat(new String(instance.bases(contig, 0, contig.length()), StandardCharsets.US_ASCII), equalTo(sequence));
+                for (int i = 0; i < contig.length(); i++) {
+                    assertThat((char) instance.base(contig, i), equalTo(sequence.charAt(i)));
+                }
+                for (int i = 0; i < 500; i++) {
+                    int start = random.nextInt(contig.length());
+                    int end = start + random.nextInt(contig.length() - start + 1);
+                    assertThat(new String(instance.bases(contig, start, end), StandardCharsets.US_ASCII), equalTo(sequence.substring(start, end)));
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("referenceSequences")
+    void basesIntoArray(ReferenceSequenceFactory factory) throws IOException {
+        try (ReferenceSequence instance = factory.open(this)) {
+            byte[] dst = new byte[10];
+            Arrays.fill(dst, (byte) '-');
+            instance.bases(CHR1, 8, 13, dst, 3);
+            assertThat(new String(dst, StandardCharsets.US_ASCII), equalTo("---NN" + expected.get(CHR1).substring(10, 13) + "--"));
+            assertThrows(IndexOutOfBoundsException.class, () -> instance.bases(CHR1, 8, 13, dst, 6));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("referenceSequences")
+    void sequenceOfRegion(ReferenceSequenceFactory factory) throws IOException {
+        try (ReferenceSequence instance = factory.open(this)) {
+            String chr1 = expected.get(CHR1);
+            GenomicRegion region = GenomicRegion.of(CHR1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 190, 270);
+            assertThat(instance.sequence(region), equalTo(chr1.substring(189, 270)));
+            assertThat(instance.sequence(region.withCoordinateSystem(CoordinateSystem.ZERO_BASED)), equalTo(chr1.substring(189, 270)));
+            assertThat(instance.sequence(region.withStrand(Strand.NEGATIVE)), equalTo(NucleotideSeq.reverseComplement(chr1.substring(189, 270))));
+            assertThat(instance.bases(region.withStrand(Strand.NEGATIVE)), equalTo(NucleotideSeq.reverseComplement(instance.bases(region))));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("referenceSequences")
+    void packedBases(ReferenceSequenceFactory factory) throws IOException {
+        try (ReferenceSequence instance = factory.open(this)) {
+            String chr1 = expected.get(CHR1);
+            assertThat(instance.packedBases(CHR1, 10, 10).length, equalTo(0));
+            for (int length : List.of(1, 3, 31, 32, 33, 64, 89)) {
+                long[] packed = instance.packedBases(CHR1, 10, 10 + length);
+                assertThat(packed.length, equalTo((length + 31) / 32));
+                for (int i = 0; i < packed.length; i++) {
+                    String chunk = chr1.substring(10 + i * 32, Math.min(10 + length, 10 + (i + 1) * 32));
+                    assertThat(packed[i], equalTo(TwoBitBaseCodec.encodeAllele(chunk)));
+                }
+            }
+            assertThrows(IllegalArgumentException.class, () -> instance.packedBases(CHR1, 5, 15));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("referenceSequences")
+    void invalidAccessThrowsException(ReferenceSequenceFactory factory) throws IOException {
+        try (ReferenceSequence instance = factory.open(this)) {
+            assertThrows(IllegalArgumentException.class, () -> instance.base(CHR3, 0));
+            assertThrows(IllegalArgumentException.class, () -> instance.bases(Contig.unknown(), 0, 0));
+            assertThrows(CoordinatesOutOfBoundsException.class, () -> instance.base(CHR1, -1));
+            assertThrows(CoordinatesOutOfBoundsException.class, () -> instance.base(CHR1, 1000));
+            assertThrows(CoordinatesOutOfBoundsException.class, () -> instance.bases(CHR1, 990, 1001));
+            assertThrows(CoordinatesOutOfBoundsException.class, () -> instance.bases(CHR1, 20, 10));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("referenceSequences")
+    void concurrentReaders(ReferenceSequenceFactory factory) throws IOException {
+        String chr1 = expected.get(CHR1);
+        try (ReferenceSequence instance = factory.open(this)) {
+            long mismatches = IntStream.range(0, 10_000).parallel()
+                    .filter(i -> {
+                        int start = (i * 7919) % CHR1.length();
+                        int end = Math.min(CHR1.length(), start + i % 100);
+                        return !new String(instance.bases(CHR1, start, end), StandardCharsets.US_ASCII).equals(chr1.substring(start, end));
+                    })
+                    .count();
+            assertThat(mismatches, equalTo(0L));
+        }
+    }
+
+    @Test
+    void contigLengthMismatchThrowsException() throws IOException {
+        written.put(CHR2, written.get(CHR2) + "A");
+        Path fasta = writeFasta(60, "\n");
+        Path twoBit = writeTwoBit(0, ByteOrder.LITTLE_ENDIAN);
+        assertThrows(IllegalArgumentException.class, () -> ReferenceSequence.open(fasta, ASSEMBLY));
+        assertThrows(IllegalArgumentException.class, () -> ReferenceSequence.open(twoBit, ASSEMBLY));
+    }
+
+    @Test
+    void invalidTwoBitFileThrowsException() throws IOException {
+        Path path = tempDir.resolve("invalid.2bit");
+        Files.write(path, new byte[16]);
+        assertThrows(IllegalArgumentException.class, () -> ReferenceSequence.twoBit(path, ASSEMBLY));
+        Files.write(path, new byte[4]);
+        assertThrows(IllegalArgumentException.class, () -> ReferenceSequence.twoBit(path, ASSEMBLY));
+    }
+
+    @Test
+    void missingFastaIndexThrowsException() throws IOException {
+        Path fasta = writeFasta(60, "\n");
+        Files.delete(tempDir.resolve("test.fa.fai"));
+        assertThrows(UncheckedIOException.class, () -> ReferenceSequence.open(fasta, ASSEMBLY));
+    }
+}
@@ -0,0 +1,76 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.assembly.AssignedMoleculeType;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.assembly.SequenceRole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates small indexed FASTA backed {@link ReferenceSequence} for tests.
+ */
+public class TestReferenceSequences {
+
+    private TestReferenceSequences() {
+    }
+
+    /**
+     * Returns an assembly with a contig named '1', '2', etc. for each sequence, with the UCSC names 'chr1', 'chr2' etc.
+     */
+    public static GenomicAssembly assembly(String... sequences) {
+        List<Contig> contigs = new ArrayList<>();
+        for (int i = 0; i < sequences.length; i++) {
+            String name = String.valueOf(i + 1);
+            contigs.add(Contig.of(i + 1, name, SequenceRole.ASSEMBLED_MOLECULE, name, AssignedMoleculeType.CHROMOSOME, sequences[i].length(), "na", "na", "chr" + name));
+        }
+        return GenomicAssembly.of("test", "Homo sapiens (human)", "9606", "test", "2024-01-01", "na", "na", contigs);
+    }
+
+    /**
+     * Writes the sequences to an indexed FASTA file in the directory, returning the opened {@link ReferenceSequence}
+     * for the {@link #assembly(String...)} of the sequences.
+     */
+    public static ReferenceSequence referenceSequence(Path directory, String... sequences) {
+        int lineBases = 60;
+        StringBuilder fasta = new StringBuilder();
+        StringBuilder fai = new StringBuilder();
+        for (int i = 0; i < sequences.length; i++) {
+            String name = String.valueOf(i + 1);
+            String sequence = sequences[i];
+            fasta.append('>').append(name).append('\n');
+            long offset = fasta.length();
+            for (int j = 0; j < sequence.length(); j += lineBases) {
+                fasta.append(sequence, j, Math.min(sequence.length(), j + lineBases)).append('\n');
+            }
+            fai.append(name).append('\t').append(sequence.length()).append('\t').append(offset).append('\t')
+                    .append(lineBases).append('\t').append(lineBases + 1).append('\n');
+        }
+        try {
+            Path fastaPath = Files.createTempFile(directory, "test", ".fa");
+            Files.writeString(fastaPath, fasta, StandardCharsets.US_ASCII);
+            Files.writeString(fastaPath.resolveSibling(fastaPath.getFileName() + ".fai"), fai, StandardCharsets.US_ASCII);
+            return ReferenceSequence.indexedFasta(fastaPath, assembly(sequences));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a random sequence of the bases, which can be limited to fewer than 'ACGT' in order to produce repeats.
+     */
+    public static String randomSequence(Random random, String bases, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(bases.charAt(random.nextInt(bases.length())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.monarchinitiative.svart.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares normalising a sorted list of one million indels in repetitive sequence one at a time and using the chunked
+ * reference reads of the batch API, for both left-alignment and HGVS 3' shifting.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VariantNormaliserBenchmarks {
+
+    private ReferenceSequence referenceSequence;
+    private VariantNormaliser normaliser;
+    private VariantNormaliser threePrimeNormaliser;
+    private List<GenomicVariant> variants;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        String sequence = TestReferenceSequences.randomSequence(random, "AAACG", 50_000_000);
+        referenceSequence = TestReferenceSequences.referenceSequence(Files.createTempDirectory("svart-benchmarks"), sequence);
+        normaliser = VariantNormaliser.of(referenceSequence, VariantTrimmer.retainingCommonBase());
+        threePrimeNormaliser = VariantNormaliser.threePrimeShifting(referenceSequence, VariantTrimmer.removingCommonBase());
+        Contig contig = referenceSequence.genomicAssembly().contigById(1);
+        variants = new ArrayList<>();
+        for (int pos = 10; variants.size() < 1_000_000; pos += random.nextInt(1, 90)) {
+            String ref = sequence.substring(pos - 1, pos + random.nextInt(1, 4));
+            variants.add(GenomicVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref, ref.substring(0, 1)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        referenceSequence.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(Path.of("target/benchmarks"));
+        Instant startTime = Instant.now();
+        Options opt = new OptionsBuilder()
+                .forks(1)
+                .include(VariantNormaliserBenchmarks.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/benchmarks/variant-normaliser-benchmarks-" + startTime.toString() + ".json")
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public List<GenomicVariant> normaliseEach() {
+        List<GenomicVariant> normalised = new ArrayList<>(variants.size());
+        for (GenomicVariant variant : variants) {
+            normalised.add(normaliser.normalise(variant));
+        }
+        return normalised;
+    }
+
+    @Benchmark
+    public List<GenomicVariant> normaliseAll() {
+        return normaliser.normaliseAll(variants);
+    }
+
+    @Benchmark
+    public List<GenomicVariant> threePrimeShiftAll() {
+        return threePrimeNormaliser.normaliseAll(variants);
+    }
+}
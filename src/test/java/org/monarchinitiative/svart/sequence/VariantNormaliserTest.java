@@ -0,0 +1,264 @@
+package org.monarchinitiative.svart.sequence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariantNormaliserTest {
+
+    //                                       1234567890123456789
+    private static final String SEQUENCE = "TCACACAGGATTTTAGCAC";
+
+    @TempDir
+    Path tempDir;
+
+    private ReferenceSequence referenceSequence;
+    private Contig chr1;
+
+    @BeforeEach
+    void setUp() {
+        referenceSequence = TestReferenceSequences.referenceSequence(tempDir, SEQUENCE);
+        chr1 = referenceSequence.genomicAssembly().contigById(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        referenceSequence.close();
+    }
+
+    private GenomicVariant variant(int pos, String ref, String alt) {
+        return GenomicVariant.of(chr1, "rs1", Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref, alt);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // deletion of CA in CACACA
+            "5,  ACA,   A,     1,  TCA,  T",
+            "6,  CAC,   C,     1,  TCA,  T",
+            "2,  CA,    '',    1,  TCA,  T",
+            "1,  TCA,   T,     1,  TCA,  T",
+            // insertion of T in TTTT
+            "14, T,     TT,    10, A,    AT",
+            "11, '',    T,     10, A,    AT",
+            "12, TTT,   TTTT,  10, A,    AT",
+            // insertion of AC in CACACA
+            "7,  A,     ACA,   1,  T,    TCA",
+            // deletion at the start of the contig uses the following base
+            "1,  TC,    C,     1,  TC,   C",
+            "1,  T,     '',    1,  TC,   C",
+            // insertion at the start of the contig
+            "1,  '',    G,     1,  T,    GT",
+            // SNV, MNV and complex variants are only trimmed
+            "8,  G,     T,     8,  G,    T",
+            "8,  GG,    TG,    8,  G,    T",
+            "8,  GGA,   CGT,   8,  GGA,  CGT",
+            "7,  AGGA,  ACGT,  8,  GGA,  CGT",
+            // deletion at the end of the contig
+            "17, CAC,   C,     16, GCA,  G",
+    })
+    void normaliseRetainingCommonBase(int pos, String ref, String alt, int expectedPos, String expectedRef, String expectedAlt) {
+        VariantNormaliser instance = VariantNormaliser.of(referenceSequence, VariantTrimmer.retainingCommonBase());
+        GenomicVariant expected = variant(expectedPos, expectedRef, expectedAlt);
+        assertThat(instance.normalise(variant(pos, ref, alt)), equalTo(expected));
+        assertThat(instance.normalise(variant(pos, ref, alt)).id(), equalTo("rs1"));
+        // idempotent
+        assertThat(instance.normalise(expected), sameInstance(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "5,  ACA,   A,     2,  CA,   ''",
+            "14, T,     TT,    11, '',   T",
+            "7,  A,     ACA,   2,  '',   CA",
+            "1,  TC,    C,     1,  T,    ''",
+            "8,  GG,    TG,    8,  G,    T",
+            "17, CAC,   C,     17, CA,   ''",
+    })
+    void normaliseRemovingCommonBase(int pos, String ref, String alt, int expectedPos, String expectedRef, String expectedAlt) {
+        VariantNormaliser instance = VariantNormaliser.of(referenceSequence, VariantTrimmer.removingCommonBase());
+        GenomicVariant expected = variant(expectedPos, expectedRef, expectedAlt);
+        assertThat(instance.normalise(variant(pos, ref, alt)), equalTo(expected));
+        assertThat(instance.normalise(expected), sameInstance(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // deletion of CA in CACACA
+            "2,  CA,    '',    6,  CA,   ''",
+            "5,  ACA,   A,     6,  CA,   ''",
+            "1,  TCA,   T,     6,  CA,   ''",
+            // insertion of T in TTTT
+            "14, T,     TT,    15, '',   T",
+            "10, A,     AT,    15, '',   T",
+            // insertion of AC in CACACA
+            "1,  T,     TCA,   8,  '',   CA",
+            // MNV trimmed from the left first
+            "8,  GG,    GT,    9,  G,    T",
+            // deletion at the end of the contig
+            "17, CAC,   C,     18, AC,   ''",
+    })
+    void normaliseThreePrimeShifting(int pos, String ref, String alt, int expectedPos, String expectedRef, String expectedAlt) {
+        VariantNormaliser instance = VariantNormaliser.threePrimeShifting(referenceSequence, VariantTrimmer.removingCommonBase());
+        assertThat(instance.isThreePrimeShifting(), is(true));
+        GenomicVariant expected = variant(expectedPos, expectedRef, expectedAlt);
+        assertThat(instance.normalise(variant(pos, ref, alt)), equalTo(expected));
+        assertThat(instance.normalise(expected), sameInstance(expected));
+    }
+
+    @Test
+    void normaliseThreePrimeShiftingRetainingCommonBase() {
+        VariantNormaliser instance = VariantNormaliser.threePrimeShifting(referenceSequence, VariantTrimmer.retainingCommonBase());
+        assertThat(instance.normalise(variant(1, "TCA", "T")), equalTo(variant(5, "ACA", "A")));
+        assertThat(instance.normalise(variant(10, "A", "AT")), equalTo(variant(14, "T", "TT")));
+    }
+
+    @Test
+    void normaliseThreePrimeShiftingIsRelativeToStrand() {
+        VariantNormaliser instance = VariantNormaliser.threePrimeShifting(referenceSequence, VariantTrimmer.removingCommonBase());
+        // the 3' end of the negative strand is the start of the contig
+        GenomicVariant negative = variant(6, "CA", "").withStrand(Strand.NEGATIVE);
+        assertThat(instance.normalise(negative), equalTo(variant(2, "CA", "").withStrand(Strand.NEGATIVE)));
+        GenomicVariant negativeInsertion = variant(15, "", "T").withStrand(Strand.NEGATIVE);
+        assertThat(instance.normalise(negativeInsertion), equalTo(variant(11, "", "T").withStrand(Strand.NEGATIVE)));
+        assertThat(instance.normalise(negativeInsertion).ref(), equalTo(""));
+        assertThat(instance.normalise(negativeInsertion).alt(), equalTo("A"));
+    }
+
+    @Test
+    void normaliseRetainsStrandAndCoordinateSystem() {
+        VariantNormaliser instance = VariantNormaliser.of(referenceSequence, VariantTrimmer.retainingCommonBase());
+        GenomicVariant variant = variant(5, "ACA", "A");
+        GenomicVariant expected = variant(1, "TCA", "T");
+
+        GenomicVariant negative = variant.withStrand(Strand.NEGATIVE);
+        assertThat(instance.normalise(negative), equalTo(expected.withStrand(Strand.NEGATIVE)));
+
+        GenomicVariant zeroBased = variant.withCoordinateSystem(CoordinateSystem.ZERO_BASED);
+        assertThat(instance.normalise(zeroBased), equalTo(expected.withCoordinateSystem(CoordinateSystem.ZERO_BASED)));
+
+        GenomicVariant negativeZeroBased = negative.withCoordinateSystem(CoordinateSystem.ZERO_BASED);
+        assertThat(instance.normalise(negativeZeroBased), equalTo(expected.withStrand(Strand.NEGATIVE).withCoordinateSystem(CoordinateSystem.ZERO_BASED)));
+    }
+
+    @Test
+    void unchangedVariantsAreReturned() {
+        VariantNormaliser instance = VariantNormaliser.of(referenceSequence, VariantTrimmer.retainingCommonBase());
+        GenomicVariant symbolic = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 2, 10, "C", "<DEL>", -8);
+        assertThat(instance.normalise(symbolic), sameInstance(symbolic));
+        GenomicVariant reference = variant(2, "CA", "CA");
+        assertThat(instance.normalise(reference), sameInstance(reference));
+    }
+
+    @Test
+    void unsupportedBaseRetentionStrategy() {
+        VariantTrimmer.BaseRetentionStrategy strategy = new VariantTrimmer.BaseRetentionStrategy() {
+            @Override
+            public boolean cantTrim(String ref, String alt) {
+                return true;
+            }
+
+            @Override
+            public int findleftIndex(String ref, String alt) {
+                return 0;
+            }
+
+            @Override
+            public int findRightIndex(String ref, String alt) {
+                return 0;
+            }
+
+            @Override
+            public VariantTrimmer.VariantPosition trimLargeSymbolic(int start, String ref, String alt) {
+                return VariantTrimmer.VariantPosition.of(start, ref, alt);
+            }
+        };
+        assertThrows(IllegalArgumentException.class, () -> VariantNormaliser.of(referenceSequence, strategy));
+    }
+
+    @Test
+    void unknownContigThrowsException() {
+        VariantNormaliser instance = VariantNormaliser.of(referenceSequence, VariantTrimmer.retainingCommonBase());
+        Contig other = TestContig.of(2, 100);
+        GenomicVariant variant = GenomicVariant.of(other, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 5, "AC", "A");
+        assertThrows(IllegalArgumentException.class, () -> instance.normalise(variant));
+        assertThrows(IllegalArgumentException.class, () -> instance.normaliseAll(List.of(variant)));
+    }
+
+    /**
+     * Checks that random indels in repetitive sequence are normalised to a variant which produces the same haplotype,
+     * cannot be shifted further left and is the same for single and batch normalisation.
+     */
+    @Test
+    void normaliseRandomIndels(@TempDir Path randomDir) {
+        Random random = new Random(42);
+        // long enough to span several reference chunks
+        String sequence = TestReferenceSequences.randomSequence(random, "AAC", 200_000);
+        try (ReferenceSequence randomReference = TestReferenceSequences.referenceSequence(randomDir, sequence)) {
+            Contig contig = randomReference.genomicAssembly().contigById(1);
+            List<VariantNormaliser> normalisers = List.of(
+                    VariantNormaliser.of(randomReference, VariantTrimmer.retainingCommonBase()),
+                    VariantNormaliser.of(randomReference, VariantTrimmer.removingCommonBase()),
+                    VariantNormaliser.threePrimeShifting(randomReference, VariantTrimmer.retainingCommonBase()),
+                    VariantNormaliser.threePrimeShifting(randomReference, VariantTrimmer.removingCommonBase())
+            );
+            for (VariantNormaliser instance : normalisers) {
+                VariantTrimmer.BaseRetentionStrategy strategy = instance.baseRetentionStrategy();
+                List<GenomicVariant> variants = new ArrayList<>();
+                for (int pos = 10; pos < sequence.length() - 20; pos += random.nextInt(1, 200)) {
+                    int length = random.nextInt(1, 6);
+                    String ref = sequence.substring(pos - 1, pos + length);
+                    GenomicVariant variant = random.nextBoolean()
+                            ? GenomicVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref, ref.substring(0, 1))
+                            : GenomicVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, pos, ref.substring(0, 1), ref.substring(0, 1) + TestReferenceSequences.randomSequence(random, "AC", length));
+                    variants.add(variant);
+                }
+                List<GenomicVariant> normalised = instance.normaliseAll(variants);
+                assertThat(instance.normaliseAll(variants.stream()).toList(), equalTo(normalised));
+                for (int i = 0; i < variants.size(); i++) {
+                    GenomicVariant variant = variants.get(i);
+                    GenomicVariant result = normalised.get(i);
+                    assertThat(instance.normalise(variant), equalTo(result));
+                    assertThat(haplotype(sequence, result), equalTo(haplotype(sequence, variant)));
+                    assertThat(instance.normalise(result), sameInstance(result));
+                    if (instance.isThreePrimeShifting()) {
+                        assertThat(result.start(), greaterThanOrEqualTo(variant.start()));
+                    } else {
+                        // removing the common base of an indel which can't be shifted moves the start right by one
+                        int maxStart = strategy == VariantTrimmer.removingCommonBase() ? variant.start() + 1 : variant.start();
+                        assertThat(result.start(), lessThanOrEqualTo(maxStart));
+                    }
+                    if (strategy == VariantTrimmer.removingCommonBase()) {
+                        String indel = result.ref().isEmpty() ? result.alt() : result.ref();
+                        int start = result.startZeroBased(Strand.POSITIVE);
+                        if (instance.isThreePrimeShifting()) {
+                            // the following base does not match the first base of the indel
+                            int end = result.endZeroBased(Strand.POSITIVE);
+                            assertThat(end == sequence.length() || sequence.charAt(end) != indel.charAt(0), is(true));
+                        } else {
+                            // the preceding base does not match the last base of the indel
+                            assertThat(start == 0 || sequence.charAt(start - 1) != indel.charAt(indel.length() - 1), is(true));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static String haplotype(String sequence, GenomicVariant variant) {
+        int start = variant.startZeroBased(Strand.POSITIVE);
+        return sequence.substring(0, start) + variant.alt() + sequence.substring(start + variant.ref().length());
+    }
+}
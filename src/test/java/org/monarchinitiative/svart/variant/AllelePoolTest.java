@@ -0,0 +1,157 @@
+package org.monarchinitiative.svart.variant;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svart.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AllelePoolTest {
+
+    @Test
+    void internReturnsPooledInstance() {
+        AllelePool instance = AllelePool.of(100, 100);
+        String first = new String("ACGTACGT");
+        String second = new String("ACGTACGT");
+        assertThat(instance.intern(first), sameInstance(first));
+        assertThat(instance.intern(second), sameInstance(first));
+        assertThat(instance.size(), equalTo(1));
+        assertThat(instance.hitCount(), equalTo(1L));
+        assertThat(instance.missCount(), equalTo(1L));
+        assertThat(instance.hitRate(), equalTo(0.5));
+        // 24 byte String + 16 byte array header + 8 bytes
+        assertThat(instance.bytesSaved(), equalTo(48L));
+    }
+
+    @Test
+    void singleBaseAndLongAllelesAreNotPooled() {
+        AllelePool instance = AllelePool.of(100, 4);
+        String singleBase = new String("A");
+        String longAllele = new String("ACGTA");
+        assertThat(instance.intern(singleBase), sameInstance(singleBase));
+        assertThat(instance.intern(longAllele), sameInstance(longAllele));
+        assertThat(instance.intern(new String("ACGTA")), not(sameInstance(longAllele)));
+        assertThat(instance.size(), equalTo(0));
+        assertThat(instance.hitRate(), equalTo(0.0));
+    }
+
+    @Test
+    void disabledPoolRetainsNothing() {
+        AllelePool instance = AllelePool.disabled();
+        String allele = new String("ACGT");
+        assertThat(instance.intern(allele), sameInstance(allele));
+        assertThat(instance.intern(new String("ACGT")), not(sameInstance(allele)));
+        assertThat(instance.size(), equalTo(0));
+    }
+
+    @Test
+    void poolIsBounded() {
+        AllelePool instance = AllelePool.of(64, 100);
+        for (int i = 0; i < 10_000; i++) {
+            instance.intern("ACGT" + i);
+        }
+        assertThat(instance.size(), lessThanOrEqualTo(64));
+        assertThat(instance.missCount(), equalTo(10_000L));
+    }
+
+    @Test
+    void leastRecentlyUsedAlleleIsEvicted() {
+        AllelePool instance = AllelePool.of(2, 100);
+        // small pools use a single segment, in this case with a capacity of 2
+        String aa = instance.intern(new String("AA"));
+        String cc = instance.intern(new String("CC"));
+        // access AA so that CC is the first unreferenced entry reached by the clock
+        assertThat(instance.intern(new String("AA")), sameInstance(aa));
+        instance.intern(new String("GG"));
+        assertThat(instance.intern(new String("AA")), sameInstance(aa));
+        assertThat(instance.intern(new String("CC")), not(sameInstance(cc)));
+    }
+
+    @Test
+    void clockClearsReferencesWhenEvicting() {
+        AllelePool instance = AllelePool.of(2, 100);
+        String aa = instance.intern(new String("AA"));
+        String cc = instance.intern(new String("CC"));
+        instance.intern(new String("AA"));
+        instance.intern(new String("CC"));
+        // with both referenced the clock clears both marks and comes back round to evict AA
+        String gg = instance.intern(new String("GG"));
+        assertThat(instance.intern(new String("CC")), sameInstance(cc));
+        assertThat(instance.intern(new String("GG")), sameInstance(gg));
+        assertThat(instance.intern(new String("AA")), not(sameInstance(aa)));
+        assertThat(instance.size(), equalTo(2));
+    }
+
+    @Test
+    void clear() {
+        AllelePool instance = AllelePool.of(100, 100);
+        instance.intern("ACGT");
+        instance.intern("ACGT");
+        instance.clear();
+        assertThat(instance.size(), equalTo(0));
+        assertThat(instance.hitCount(), equalTo(0L));
+        assertThat(instance.missCount(), equalTo(0L));
+        assertThat(instance.bytesSaved(), equalTo(0L));
+    }
+
+    @Test
+    void illegalSize() {
+        assertThrows(IllegalArgumentException.class, () -> AllelePool.of(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> AllelePool.of(10, -1));
+        assertThrows(IllegalArgumentException.class, () -> AllelePool.setDefaultPool(null));
+    }
+
+    @Test
+    void concurrentInterningReturnsSingleInstance() throws Exception {
+        AllelePool instance = AllelePool.of(10_000, 100);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executorService.submit(() -> {
+                    String[] alleles = new String[1000];
+                    for (int i = 0; i < alleles.length; i++) {
+                        alleles[i] = instance.intern(new String("ACGT" + i));
+                    }
+                    return alleles;
+                }));
+            }
+            String[] expected = futures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<String[]> future : futures) {
+                String[] actual = future.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < expected.length; i++) {
+                    assertThat(actual[i], sameInstance(expected[i]));
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(instance.hitCount(), equalTo(3000L));
+        assertThat(instance.missCount(), equalTo(1000L));
+    }
+
+    @Test
+    void variantAllelesAreInterned() {
+        AllelePool original = AllelePool.defaultPool();
+        AllelePool allelePool = AllelePool.of(100, 100);
+        AllelePool.setDefaultPool(allelePool);
+        try {
+            Contig contig = TestContig.of(1, 1000);
+            GenomicVariant first = DefaultSequenceVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, new String("ACGTN"), new String("TT"));
+            GenomicVariant second = DefaultSequenceVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, new String("ACGTN"), new String("TT"));
+            assertThat(second.ref(), sameInstance(first.ref()));
+            assertThat(second.alt(), sameInstance(first.alt()));
+            assertThat(allelePool.hitCount(), equalTo(2L));
+        } finally {
+            AllelePool.setDefaultPool(original);
+        }
+    }
+}
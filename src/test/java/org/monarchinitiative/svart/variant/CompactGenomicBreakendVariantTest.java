@@ -0,0 +1,171 @@
+package org.monarchinitiative.svart.variant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.vcf.VcfBreakendResolver;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactGenomicBreakendVariantTest {
+
+    private static final Contig chr2 = TestContigs.chr2;
+    private static final Contig chr13 = TestContigs.chr13;
+
+    private static final GenomicAssembly GRCh38 = GenomicAssemblies.GRCh38p13();
+    private static final VcfBreakendResolver RESOLVER = new VcfBreakendResolver(GRCh38);
+
+    private final GenomicBreakend bnd_U = GenomicBreakend.of(chr13, "bnd_U", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 123_457, 123_456);
+    private final GenomicBreakend bnd_V = GenomicBreakend.of(chr2, "bnd_V", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 321_682, 321_681);
+
+    @Test
+    void genomicBreakendVariantOfReturnsCompactVariant() {
+        GenomicBreakendVariant variant = GenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "C", "");
+        assertThat(variant, instanceOf(CompactGenomicBreakendVariant.class));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "N, ''",
+            "C, ACGTN",
+            "C, ACGTACGTACGTACGTACGTACGTAC",
+            "ACGTACGTACGTACGT, ''",
+            "ACGTACGTACGTACGTA, C",
+    })
+    void genomicBreakendVariantOfReturnsDefaultVariantForNonCompactAlleles(String ref, String alt) {
+        GenomicBreakendVariant variant = GenomicBreakendVariant.of("tra2", bnd_U, bnd_V, ref, alt);
+        assertThat(variant, instanceOf(DefaultGenomicBreakendVariant.class));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "ACGTACGTACGTACG, ACGTACGTACG",
+            "A,               ACGTACGTACGTACGTACGTACGTA",
+    })
+    void maximumAlleleLengths(String ref, String alt) {
+        GenomicBreakendVariant variant = GenomicBreakendVariant.of("tra2", bnd_U, bnd_V, ref, alt);
+        assertThat(variant, instanceOf(CompactGenomicBreakendVariant.class));
+        assertThat(variant.ref(), equalTo(ref));
+        assertThat(variant.alt(), equalTo(alt));
+    }
+
+    @Test
+    void equalToDefaultImplementation() {
+        GenomicBreakendVariant compact = GenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "C", "ACG");
+        GenomicBreakendVariant defaultVariant = DefaultGenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "C", "ACG");
+        assertThat(compact, instanceOf(CompactGenomicBreakendVariant.class));
+        assertThat(compact, equalTo(defaultVariant));
+        assertThat(defaultVariant, equalTo(compact));
+        assertThat(compact.hashCode(), equalTo(defaultVariant.hashCode()));
+        assertThat(compact.equals(DefaultGenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "C", "AC")), equalTo(false));
+    }
+
+    @Test
+    void equalToCompactImplementation() {
+        GenomicBreakendVariant compact = GenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "C", "ACG");
+        GenomicBreakendVariant other = GenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "C", "ACG");
+        assertThat(compact, equalTo(other));
+        assertThat(compact.hashCode(), equalTo(other.hashCode()));
+        assertThat(compact, not(equalTo(GenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "C", "ACT"))));
+        assertThat(compact, not(equalTo(GenomicBreakendVariant.of("tra3", bnd_U, bnd_V, "C", "ACG"))));
+        assertThat(compact, not(equalTo(GenomicBreakendVariant.of("tra2", bnd_U, GenomicBreakend.of(chr2, "bnd_X", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 321_682, 321_681), "C", "ACG"))));
+    }
+
+    @Test
+    void unresolvedHashCodeEqualToDefaultImplementation() {
+        GenomicBreakend unresolved = GenomicBreakend.unresolved(CoordinateSystem.ONE_BASED, "bnd_V");
+        GenomicBreakendVariant compact = GenomicBreakendVariant.of("tra2", bnd_U, unresolved, "C", "ACGTACGTACGT");
+        GenomicBreakendVariant defaultVariant = DefaultGenomicBreakendVariant.of("tra2", bnd_U, unresolved, "C", "ACGTACGTACGT");
+        assertThat(compact, instanceOf(CompactGenomicBreakendVariant.class));
+        assertThat(compact, equalTo(defaultVariant));
+        assertThat(compact.hashCode(), equalTo(defaultVariant.hashCode()));
+        assertThat(compact.toString(), startsWith("CompactGenomicBreakendVariant{"));
+    }
+
+    @Test
+    void genomicBreakendVariantOfReturnsDefaultVariantForImpreciseBreakends() {
+        GenomicBreakend imprecise = GenomicBreakend.of(chr13, "bnd_U", Strand.POSITIVE, Coordinates.ofBreakend(CoordinateSystem.ONE_BASED, 123_457, ConfidenceInterval.of(-10, 10)));
+        GenomicBreakendVariant variant = GenomicBreakendVariant.of("tra2", imprecise, bnd_V, "C", "");
+        assertThat(variant, instanceOf(DefaultGenomicBreakendVariant.class));
+    }
+
+    @Test
+    void throwsExceptionWhenNotCompact() {
+        assertThrows(IllegalArgumentException.class, () -> CompactGenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "N", ""));
+    }
+
+    @Test
+    void variantProperties() {
+        GenomicBreakendVariant instance = CompactGenomicBreakendVariant.of("tra2", bnd_U, bnd_V, "C", "");
+        assertThat(instance.contig(), equalTo(chr13));
+        assertThat(instance.start(), equalTo(123_456));
+        assertThat(instance.end(), equalTo(123_456));
+        assertThat(instance.strand(), equalTo(Strand.POSITIVE));
+        assertThat(instance.coordinateSystem(), equalTo(CoordinateSystem.ONE_BASED));
+        assertThat(instance.variantType(), equalTo(VariantType.BND));
+        assertThat(instance.isBreakend(), equalTo(true));
+        assertThat(instance.isSymbolic(), equalTo(true));
+        assertThat(instance.length(), equalTo(1));
+        assertThat(instance.changeLength(), equalTo(0));
+        assertThat(instance.id(), equalTo("bnd_U"));
+        assertThat(instance.mateId(), equalTo("bnd_V"));
+        assertThat(instance.eventId(), equalTo("tra2"));
+        assertThat(instance.left(), equalTo(bnd_U));
+        assertThat(instance.right(), equalTo(bnd_V));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // CHROM POS ID REF ALT MATEID EVENTID
+            "2,  321681, bnd_W, G, G]17:198982],    bnd_Y, 2",
+            "2,  321682, bnd_V, T, ]13:123456]T,    bnd_U, 1",
+            "13, 123456, bnd_U, C, C[2:321682[,     bnd_V, 1",
+            "13, 123457, bnd_X, A, [17:198983[A,    bnd_Z, 3",
+            "17, 198982, bnd_Y, A, A]2:321681],     bnd_W, 2",
+            "17, 198983, bnd_Z, C, [13:123457[C,    bnd_X, 3",
+            "13, 123456, bnd_U, C, CAGTNNNNNCA[2:321682[, bnd_V, 1",
+            "13, 123456, bnd_U, C, CAGTCA[2:321682[, bnd_V, 1",
+            "13, 123456, bnd_U, C, [2:321682[TGCATCC, bnd_V, 1",
+            "13, 123456, bnd_U, C, C.,              '', ''",
+            "13, 123456, bnd_U, C, .C,              '', ''",
+    })
+    void sameAsDefaultImplementation(String chrom, int pos, String id, String ref, String alt, String mateId, String eventId) {
+        Contig contig = GRCh38.contigByName(chrom);
+        GenomicBreakendVariant resolved = RESOLVER.resolve(eventId, id, mateId, contig, pos, ref, alt);
+        GenomicBreakendVariant expected = DefaultGenomicBreakendVariant.of(resolved.eventId(), resolved.left(), resolved.right(), resolved.ref(), resolved.alt());
+
+        assertThat(resolved.contig(), equalTo(expected.contig()));
+        assertThat(resolved.strand(), equalTo(expected.strand()));
+        assertThat(resolved.coordinates(), equalTo(expected.coordinates()));
+        assertThat(resolved.start(), equalTo(expected.start()));
+        assertThat(resolved.end(), equalTo(expected.end()));
+        assertThat(resolved.length(), equalTo(expected.length()));
+        assertThat(resolved.changeLength(), equalTo(expected.changeLength()));
+        assertThat(resolved.ref(), equalTo(expected.ref()));
+        assertThat(resolved.alt(), equalTo(expected.alt()));
+        assertThat(resolved.left(), equalTo(expected.left()));
+        assertThat(resolved.right(), equalTo(expected.right()));
+        assertThat(resolved.toSymbolicGenomicVariant(), equalTo(expected.toSymbolicGenomicVariant()));
+        assertThat(GenomicVariant.compare(resolved, expected), equalTo(0));
+        assertThat(resolved, equalTo(expected));
+        assertThat(expected, equalTo(resolved));
+
+        GenomicBreakendVariant zeroBased = resolved.toZeroBased();
+        GenomicBreakendVariant expectedZeroBased = expected.toZeroBased();
+        assertThat(zeroBased.coordinates(), equalTo(expectedZeroBased.coordinates()));
+        assertThat(zeroBased.left(), equalTo(expectedZeroBased.left()));
+        assertThat(zeroBased.right(), equalTo(expectedZeroBased.right()));
+        assertThat(zeroBased.toOneBased(), equalTo(resolved));
+    }
+
+    @Test
+    void resolverProducesCompactVariant() {
+        GenomicBreakendVariant resolved = RESOLVER.resolve("1", "bnd_U", "bnd_V", GRCh38.contigByName("13"), 123456, "C", "C[2:321682[");
+        assertThat(resolved, instanceOf(CompactGenomicBreakendVariant.class));
+    }
+}
@@ -12,6 +12,7 @@ import org.monarchinitiative.svart.CoordinateSystem;
 import org.monarchinitiative.svart.Coordinates;
 import org.monarchinitiative.svart.Strand;
 import org.monarchinitiative.svart.sequence.NucleotideSeq;
+import org.monarchinitiative.svart.variant.internal.IdCodec;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.util.Random;
@@ -146,8 +147,8 @@ class CompactSequenceVariantTest {
         //  8   4                                           (object header: class)               0xf8031000
         // 12   4        org.monarchinitiative.svart.Contig CompactSequenceVariant.contig        (object)
         // 16   8                                      long CompactSequenceVariant.bits          53017364660227
-        // 24   4                          java.lang.String CompactSequenceVariant.id            (object)
-        // 28   4   org.monarchinitiative.svart.VariantType CompactSequenceVariant.variantType   (object)
+        // 24   4                                       int CompactSequenceVariant.encodedId     0
+        // 28   4                          java.lang.String CompactSequenceVariant.literalId     null
         //Instance size: 32 bytes
         //Space losses: 0 bytes internal + 0 bytes external = 0 bytes total
 
@@ -204,12 +205,73 @@ class CompactSequenceVariantTest {
         assertThat(instance.strand(), equalTo(strand));
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "''",
+            ".",
+            "rs12345",
+            "rs012345",
+            "COSV12345",
+    })
+    void id(String id) {
+        CompactSequenceVariant instance = CompactSequenceVariant.of(contig, id, Strand.POSITIVE, Coordinates.of(CoordinateSystem.ONE_BASED, 12345, 12345), "A", "T");
+        assertThat(instance.id(), equalTo(id));
+        assertThat(instance.encodedId(), equalTo(IdCodec.encodeId(id)));
+        assertThat(instance.literalId(), equalTo(instance.encodedId() == IdCodec.LITERAL ? id : null));
+        assertThat(instance.toOppositeStrand().toZeroBased().id(), equalTo(id));
+    }
+
     @Test
     void variantType() {
         CompactSequenceVariant instance = CompactSequenceVariant.of(contig, "", Strand.POSITIVE, Coordinates.of(CoordinateSystem.ONE_BASED, 12345, 12345), "A", "T");
         assertThat(instance.variantType(), equalTo(VariantType.SNV));
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "A, T, SNV",
+            "AC, GT, INV",
+            "AC, TT, MNV",
+            "ACGT, ACGT, INV",
+            "ACG, CGT, INV",
+            "ACG, ACT, MNV",
+            "ACG, A, DEL",
+            "ACG, CG, DEL",
+            "ACG, C, DELINS",
+            "ACG, '', DEL",
+            "A, ACG, INS",
+            "G, ACG, INS",
+            "C, ACG, DELINS",
+            "'', ACG, INS",
+            "AT, CGTA, DELINS",
+    })
+    void variantTypeOfEncodedAlleles(String ref, String alt, VariantType expected) {
+        CompactSequenceVariant instance = CompactSequenceVariant.of(contig, "", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12345, ref, alt);
+        assertThat(VariantType.parseType(ref, alt), equalTo(expected));
+        assertThat(instance.variantType(), equalTo(expected));
+        assertThat(instance.toOppositeStrand().variantType(), equalTo(expected));
+    }
+
+    @Test
+    void variantTypeMatchesParsedType() {
+        Random random = new Random(27);
+        String bases = "ACGT";
+        for (int i = 0; i < 10_000; i++) {
+            int refLength = random.nextInt(0, 7);
+            int altLength = random.nextInt(refLength == 0 ? 1 : 0, CompactSequenceVariant.MAX_BASES - refLength + 1);
+            StringBuilder ref = new StringBuilder();
+            StringBuilder alt = new StringBuilder();
+            for (int j = 0; j < refLength; j++) {
+                ref.append(bases.charAt(random.nextInt(4)));
+            }
+            for (int j = 0; j < altLength; j++) {
+                alt.append(bases.charAt(random.nextInt(4)));
+            }
+            CompactSequenceVariant instance = CompactSequenceVariant.of(contig, "", Strand.POSITIVE, CoordinateSystem.ZERO_BASED, 12345, ref.toString(), alt.toString());
+            assertThat(ref + ">" + alt, instance.variantType(), equalTo(VariantType.parseType(ref.toString(), alt.toString())));
+        }
+    }
+
     @ParameterizedTest
     @CsvSource({
             "A, T, true",
@@ -437,6 +499,35 @@ class CompactSequenceVariantTest {
         }
     }
 
+    @Test
+    void compareMatchesGenomicVariantCompare() {
+        GenomicAssembly genomicAssembly = GenomicAssemblies.GRCh38p13();
+        Random rand = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            // small ranges of contigs, positions and alleles to maximise the number of ties
+            CompactSequenceVariant x = nextTieProneVariant(genomicAssembly, rand);
+            CompactSequenceVariant y = rand.nextInt(10) == 0 ? x.withCoordinateSystem(CoordinateSystem.ONE_BASED) : nextTieProneVariant(genomicAssembly, rand);
+            GenomicVariant defaultX = DefaultSequenceVariant.of(x.contig(), x.strand(), x.coordinates(), x.ref(), x.alt());
+            GenomicVariant defaultY = DefaultSequenceVariant.of(y.contig(), y.strand(), y.coordinates(), y.ref(), y.alt());
+            int expected = Integer.signum(GenomicVariant.compare(defaultX, defaultY));
+            assertThat(x + " vs " + y, Integer.signum(CompactSequenceVariant.compare(x, y)), equalTo(expected));
+            assertThat(Integer.signum(GenomicVariant.compare(x, y)), equalTo(expected));
+            assertThat(Integer.signum(GenomicVariant.naturalOrder().compare(x, y)), equalTo(expected));
+            assertThat(Integer.signum(CompactSequenceVariant.compare(y, x)), equalTo(-expected));
+        }
+    }
+
+    private static CompactSequenceVariant nextTieProneVariant(GenomicAssembly genomicAssembly, Random rand) {
+        Contig chr = genomicAssembly.contigById(rand.nextInt(1, 3));
+        int refLen = rand.nextInt(0, 4);
+        int altLen = rand.nextInt(0, 4);
+        String ref = SimpleVariant.allele(refLen, rand);
+        String alt = SimpleVariant.allele(altLen, rand);
+        Strand strand = rand.nextBoolean() ? Strand.POSITIVE : Strand.NEGATIVE;
+        CoordinateSystem coordinateSystem = rand.nextBoolean() ? CoordinateSystem.ZERO_BASED : CoordinateSystem.ONE_BASED;
+        return CompactSequenceVariant.of(chr, strand, coordinateSystem, rand.nextInt(1, 4), ref, alt);
+    }
+
     record SimpleVariant(Contig contig, Strand strand, CoordinateSystem coordinateSystem, int start, int end, String ref, String alt) {
         private static final byte[] BASES = {'A', 'C', 'G', 'T'};
 
@@ -0,0 +1,90 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sorting {@link CompactSequenceVariant} into natural order using the raw bits comparison of
+ * {@link CompactSequenceVariant#compare(CompactSequenceVariant, CompactSequenceVariant)} and the generic comparison
+ * which decodes the coordinates and alleles. Positions are drawn from a small range so that many variants are
+ * co-located, as is the case for multi-allelic sites and cohort-level data.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompactVariantCompareBenchmarks {
+
+    private static final CompactSequenceVariant[] variants = randomVariants(GenomicAssemblies.GRCh38p13(), new Random(42), 1_000_000);
+
+    /**
+     * Equivalent to {@link GenomicVariant#compare(GenomicVariant, GenomicVariant)} without the compact variant fast path.
+     */
+    private static final Comparator<GenomicVariant> GENERIC_ORDER = (x, y) -> {
+        int result = GenomicInterval.compare(x, y);
+        if (result == 0) {
+            result = x.ref().compareTo(y.ref());
+        }
+        if (result == 0) {
+            result = Integer.compare(x.changeLength(), y.changeLength());
+        }
+        if (result == 0) {
+            result = x.alt().compareTo(y.alt());
+        }
+        if (result == 0) {
+            result = CoordinateSystem.compare(x.coordinateSystem(), y.coordinateSystem());
+        }
+        return result;
+    };
+
+    private static CompactSequenceVariant[] randomVariants(GenomicAssembly genomicAssembly, Random random, int count) {
+        String[] alleles = {"A", "C", "G", "T", "AC", "GT", "ACGT"};
+        CompactSequenceVariant[] variants = new CompactSequenceVariant[count];
+        for (int i = 0; i < count; i++) {
+            Contig contig = genomicAssembly.contigById(random.nextInt(1, 3));
+            int start = random.nextInt(1, 100_000);
+            variants[i] = CompactSequenceVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, start, alleles[random.nextInt(alleles.length)], alleles[random.nextInt(alleles.length)]);
+        }
+        return variants;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(Path.of("target/benchmarks"));
+        Instant startTime = Instant.now();
+        Options opt = new OptionsBuilder()
+                .forks(1)
+                .include(CompactVariantCompareBenchmarks.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/benchmarks/compact-variant-compare-benchmarks-" + startTime.toString() + ".json")
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public CompactSequenceVariant[] sortNaturalOrder() {
+        CompactSequenceVariant[] copy = variants.clone();
+        Arrays.sort(copy, GenomicVariant.naturalOrder());
+        return copy;
+    }
+
+    @Benchmark
+    public CompactSequenceVariant[] sortGenericOrder() {
+        CompactSequenceVariant[] copy = variants.clone();
+        Arrays.sort(copy, GENERIC_ORDER);
+        return copy;
+    }
+}
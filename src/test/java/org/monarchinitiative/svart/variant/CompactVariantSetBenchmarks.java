@@ -0,0 +1,109 @@
+package org.monarchinitiative.svart.variant;
+
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares de-duplication of {@link CompactSequenceVariant} using a {@link HashSet} and a {@link CompactVariantSet}.
+ * Roughly half of the variants are duplicates, as found when merging sites across a cohort.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompactVariantSetBenchmarks {
+
+    private static final List<CompactSequenceVariant> variants = randomVariants(GenomicAssemblies.GRCh38p13(), new Random(42), 1_000_000);
+
+    private final Set<GenomicVariant> hashSet = new HashSet<>(variants);
+    private final CompactVariantSet compactVariantSet = compactVariantSet(variants);
+
+    private static CompactVariantSet compactVariantSet(List<CompactSequenceVariant> variants) {
+        CompactVariantSet set = CompactVariantSet.of();
+        variants.forEach(set::add);
+        return set;
+    }
+
+    private static List<CompactSequenceVariant> randomVariants(GenomicAssembly genomicAssembly, Random random, int count) {
+        String[] alleles = {"A", "C", "G", "T", "AC", "GT", "ACGT"};
+        List<CompactSequenceVariant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Contig contig = genomicAssembly.contigById(random.nextInt(1, 25));
+            int start = random.nextInt(1, 1_000_000);
+            variants.add(CompactSequenceVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, start, alleles[random.nextInt(alleles.length)], alleles[random.nextInt(alleles.length)]));
+        }
+        // add duplicates with different ids
+        for (int i = 0; i < count; i += 2) {
+            CompactSequenceVariant variant = variants.get(i);
+            variants.add(CompactSequenceVariant.of(variant.contig(), "rs" + i, variant.strand(), variant.coordinateSystem(), variant.start(), variant.ref(), variant.alt()));
+        }
+        Collections.shuffle(variants, random);
+        return variants;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(Path.of("target/benchmarks"));
+        Instant startTime = Instant.now();
+        Options opt = new OptionsBuilder()
+                .forks(1)
+                .include(CompactVariantSetBenchmarks.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/benchmarks/compact-variant-set-benchmarks-" + startTime.toString() + ".json")
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public void compactVariantHashCode(Blackhole blackhole) {
+        for (CompactSequenceVariant variant : variants) {
+            blackhole.consume(variant.hashCode());
+        }
+    }
+
+    @Benchmark
+    public Set<GenomicVariant> hashSetAdd() {
+        Set<GenomicVariant> set = new HashSet<>();
+        for (CompactSequenceVariant variant : variants) {
+            set.add(variant);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public CompactVariantSet compactVariantSetAdd() {
+        CompactVariantSet set = CompactVariantSet.of();
+        for (CompactSequenceVariant variant : variants) {
+            set.add(variant);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public void hashSetContains(Blackhole blackhole) {
+        for (CompactSequenceVariant variant : variants) {
+            blackhole.consume(hashSet.contains(variant));
+        }
+    }
+
+    @Benchmark
+    public void compactVariantSetContains(Blackhole blackhole) {
+        for (CompactSequenceVariant variant : variants) {
+            blackhole.consume(compactVariantSet.contains(variant));
+        }
+    }
+}
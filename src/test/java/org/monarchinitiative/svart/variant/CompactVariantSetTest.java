@@ -0,0 +1,131 @@
+package org.monarchinitiative.svart.variant;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactVariantSetTest {
+
+    private static final GenomicAssembly GRCh38 = GenomicAssemblies.GRCh38p13();
+    private final Contig chr1 = GRCh38.contigByName("1");
+
+    @Test
+    void compactVariantHashCodeIsConsistentWithEquals() {
+        CompactSequenceVariant variant = CompactSequenceVariant.of(chr1, "rs12345", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12345, "A", "T");
+        CompactSequenceVariant other = CompactSequenceVariant.of(chr1, ".", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12345, "A", "T");
+        assertThat(variant, equalTo(other));
+        assertThat(variant.hashCode(), equalTo(other.hashCode()));
+    }
+
+    @Test
+    void addContainsRemove() {
+        CompactVariantSet instance = CompactVariantSet.of();
+        CompactSequenceVariant variant = CompactSequenceVariant.of(chr1, "rs12345", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12345, "A", "T");
+        CompactSequenceVariant sameVariantDifferentId = CompactSequenceVariant.of(chr1, "rs54321", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12345, "A", "T");
+        assertThat(instance.isEmpty(), is(true));
+        assertThat(instance.add(variant), is(true));
+        assertThat(instance.add(sameVariantDifferentId), is(false));
+        assertThat(instance.size(), equalTo(1));
+        assertThat(instance.contains(sameVariantDifferentId), is(true));
+        assertThat(instance.contains(variant.withCoordinateSystem(CoordinateSystem.ZERO_BASED)), is(false));
+
+        CompactSequenceVariant stored = instance.iterator().next();
+        assertThat(stored, equalTo(variant));
+        assertThat(stored.id(), equalTo("rs12345"));
+        assertThat(stored.variantType(), equalTo(VariantType.SNV));
+
+        assertThat(instance.remove(variant), is(true));
+        assertThat(instance.remove(variant), is(false));
+        assertThat(instance.isEmpty(), is(true));
+    }
+
+    @Test
+    void containsVariantOnDifferentAssembly() {
+        CompactVariantSet instance = CompactVariantSet.of();
+        instance.add(CompactSequenceVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12345, "A", "T"));
+        Contig grch37chr1 = GenomicAssemblies.GRCh37p13().contigByName("1");
+        CompactSequenceVariant grch37Variant = CompactSequenceVariant.of(grch37chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12345, "A", "T");
+        assertThat(instance.contains(grch37Variant), is(false));
+        assertThrows(IllegalArgumentException.class, () -> instance.add(grch37Variant));
+    }
+
+    @Test
+    void clear() {
+        CompactVariantSet instance = CompactVariantSet.withExpectedSize(10);
+        instance.add(CompactSequenceVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12345, "A", "T"));
+        instance.clear();
+        assertThat(instance.size(), equalTo(0));
+        assertThat(instance.iterator().hasNext(), is(false));
+    }
+
+    @Test
+    void sameBehaviourAsHashSet() {
+        Random random = new Random(42);
+        List<CompactSequenceVariant> variants = randomVariants(random, 5_000);
+        CompactVariantSet instance = CompactVariantSet.of();
+        Set<CompactSequenceVariant> expected = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            CompactSequenceVariant variant = variants.get(random.nextInt(variants.size()));
+            if (random.nextInt(3) == 0) {
+                assertThat(instance.remove(variant), equalTo(expected.remove(variant)));
+            } else {
+                assertThat(instance.add(variant), equalTo(expected.add(variant)));
+            }
+            assertThat(instance.size(), equalTo(expected.size()));
+        }
+        for (CompactSequenceVariant variant : variants) {
+            assertThat(instance.contains(variant), equalTo(expected.contains(variant)));
+        }
+        Set<CompactSequenceVariant> actual = new HashSet<>();
+        instance.forEach(actual::add);
+        assertThat(actual, equalTo(expected));
+        assertThat(instance.stream().count(), equalTo((long) expected.size()));
+    }
+
+    @Test
+    void mapSameBehaviourAsHashMap() {
+        Random random = new Random(42);
+        List<CompactSequenceVariant> variants = randomVariants(random, 5_000);
+        CompactVariantMap<Integer> instance = CompactVariantMap.of();
+        Map<CompactSequenceVariant, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            CompactSequenceVariant variant = variants.get(random.nextInt(variants.size()));
+            switch (random.nextInt(4)) {
+                case 0 -> assertThat(instance.remove(variant), equalTo(expected.remove(variant)));
+                case 1 -> assertThat(instance.putIfAbsent(variant, i), equalTo(expected.putIfAbsent(variant, i)));
+                default -> assertThat(instance.put(variant, i), equalTo(expected.put(variant, i)));
+            }
+            assertThat(instance.size(), equalTo(expected.size()));
+        }
+        for (CompactSequenceVariant variant : variants) {
+            assertThat(instance.get(variant), equalTo(expected.get(variant)));
+            assertThat(instance.containsKey(variant), equalTo(expected.containsKey(variant)));
+            assertThat(instance.getOrDefault(variant, -1), equalTo(expected.getOrDefault(variant, -1)));
+        }
+        Map<CompactSequenceVariant, Integer> actual = new HashMap<>();
+        instance.forEach(actual::put);
+        assertThat(actual, equalTo(expected));
+    }
+
+    private List<CompactSequenceVariant> randomVariants(Random random, int count) {
+        String[] alleles = {"", "A", "C", "G", "T", "AC", "GT", "ACGT"};
+        List<CompactSequenceVariant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Contig contig = GRCh38.contigById(random.nextInt(1, 25));
+            String ref = alleles[random.nextInt(1, alleles.length)];
+            String alt = alleles[random.nextInt(alleles.length)];
+            // restrict positions to force collisions between nearby variants
+            int start = random.nextInt(1, 1000);
+            Strand strand = random.nextBoolean() ? Strand.POSITIVE : Strand.NEGATIVE;
+            variants.add(CompactSequenceVariant.of(contig, "rs" + i, strand, CoordinateSystem.ONE_BASED, start, ref, alt));
+        }
+        return variants;
+    }
+}
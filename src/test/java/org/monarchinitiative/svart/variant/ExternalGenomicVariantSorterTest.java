@@ -0,0 +1,166 @@
+package org.monarchinitiative.svart.variant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExternalGenomicVariantSorterTest {
+
+    private static final GenomicAssembly GRCh38 = GenomicAssemblies.GRCh38p13();
+    private static final String[] ALLELES = {"A", "C", "G", "T", "AC", "GT", "ACGT", "ACGTN", "ACGTACGTACGT"};
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({
+            // variants, maxVariantsInMemory, mergeFactor
+            "0,     10,    2",
+            "100,   1000,  2",
+            "1000,  100,   128",
+            "1000,  100,   2",
+            "5000,  333,   3",
+    })
+    void sortMatchesNaturalOrder(int count, int maxVariantsInMemory, int mergeFactor) throws IOException {
+        List<GenomicVariant> variants = randomVariants(new Random(count), count);
+        List<GenomicVariant> expected = new ArrayList<>(variants);
+        expected.sort(GenomicVariant.naturalOrder());
+
+        ExternalGenomicVariantSorter instance = ExternalGenomicVariantSorter.builder()
+                .maxVariantsInMemory(maxVariantsInMemory)
+                .mergeFactor(mergeFactor)
+                .tempDirectory(tempDir)
+                .build();
+        try (Stream<GenomicVariant> sorted = instance.sort(variants.stream())) {
+            List<GenomicVariant> actual = sorted.toList();
+            assertThat(actual, equalTo(expected));
+            // check ids are retained and the sort was stable
+            for (int i = 0; i < count; i++) {
+                assertThat(actual.get(i).id(), equalTo(expected.get(i).id()));
+            }
+        }
+        assertThat(tempFiles(), is(empty()));
+    }
+
+    @Test
+    void deduplicate() throws IOException {
+        Contig chr1 = GRCh38.contigByName("1");
+        List<GenomicVariant> variants = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            variants.add(GenomicVariant.of(chr1, "rs" + (i + 1), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100 + i % 10, "A", "T"));
+        }
+        ExternalGenomicVariantSorter instance = ExternalGenomicVariantSorter.builder()
+                .maxVariantsInMemory(7)
+                .mergeFactor(2)
+                .tempDirectory(tempDir)
+                .deduplicate(true)
+                .build();
+        try (Stream<GenomicVariant> sorted = instance.sort(variants.stream())) {
+            List<GenomicVariant> actual = sorted.toList();
+            assertThat(actual.size(), equalTo(10));
+            for (int i = 0; i < 10; i++) {
+                assertThat(actual.get(i).start(), equalTo(100 + i));
+                // first variant from the input is retained
+                assertThat(actual.get(i).id(), equalTo("rs" + (i + 1)));
+            }
+        }
+        assertThat(tempFiles(), is(empty()));
+    }
+
+    @Test
+    void deduplicateInMemory() {
+        Contig chr1 = GRCh38.contigByName("1");
+        GenomicVariant first = GenomicVariant.of(chr1, "rs1", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, "A", "T");
+        GenomicVariant duplicate = GenomicVariant.of(chr1, "rs2", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, "A", "T");
+        ExternalGenomicVariantSorter instance = ExternalGenomicVariantSorter.builder().deduplicate(true).build();
+        try (Stream<GenomicVariant> sorted = instance.sort(Stream.of(first, duplicate))) {
+            assertThat(sorted.map(GenomicVariant::id).toList(), contains("rs1"));
+        }
+    }
+
+    @Test
+    void closingPartiallyConsumedStreamDeletesTempFiles() throws IOException {
+        List<GenomicVariant> variants = randomVariants(new Random(1), 1000);
+        ExternalGenomicVariantSorter instance = ExternalGenomicVariantSorter.builder()
+                .maxVariantsInMemory(100)
+                .tempDirectory(tempDir)
+                .build();
+        Stream<GenomicVariant> sorted = instance.sort(variants.stream());
+        assertThat(tempFiles(), hasSize(10));
+        assertThat(sorted.limit(5).count(), equalTo(5L));
+        sorted.close();
+        assertThat(tempFiles(), is(empty()));
+    }
+
+    @Test
+    void variantsFromDifferentAssembliesThrowsException() throws IOException {
+        GenomicVariant grch38 = GenomicVariant.of(GRCh38.contigByName("1"), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, "A", "T");
+        GenomicVariant grch37 = GenomicVariant.of(GenomicAssemblies.GRCh37p13().contigByName("1"), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, "A", "T");
+        ExternalGenomicVariantSorter instance = ExternalGenomicVariantSorter.builder()
+                .maxVariantsInMemory(1)
+                .tempDirectory(tempDir)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> instance.sort(Stream.of(grch38, grch37)));
+        assertThat(tempFiles(), is(empty()));
+    }
+
+    @Test
+    void illegalBuilderValues() {
+        assertThrows(IllegalArgumentException.class, () -> ExternalGenomicVariantSorter.builder().maxVariantsInMemory(0));
+        assertThrows(IllegalArgumentException.class, () -> ExternalGenomicVariantSorter.builder().mergeFactor(1));
+        assertThrows(NullPointerException.class, () -> ExternalGenomicVariantSorter.builder().tempDirectory(null));
+    }
+
+    private List<Path> tempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.toList();
+        }
+    }
+
+    private static List<GenomicVariant> randomVariants(Random random, int count) {
+        List<GenomicVariant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Contig contig = GRCh38.contigById(random.nextInt(1, 4));
+            Strand strand = random.nextBoolean() ? Strand.POSITIVE : Strand.NEGATIVE;
+            CoordinateSystem coordinateSystem = random.nextBoolean() ? CoordinateSystem.ONE_BASED : CoordinateSystem.ZERO_BASED;
+            int start = random.nextInt(1, 500);
+            String id = "id" + i;
+            String ref = ALLELES[random.nextInt(ALLELES.length)];
+            switch (random.nextInt(8)) {
+                case 0 -> {
+                    ConfidenceInterval startCi = random.nextBoolean() ? ConfidenceInterval.precise() : ConfidenceInterval.of(-random.nextInt(10), random.nextInt(10));
+                    int end = start + random.nextInt(100, 200);
+                    Coordinates coordinates = Coordinates.of(coordinateSystem, start, startCi, end, ConfidenceInterval.precise());
+                    variants.add(GenomicVariant.of(contig, id, strand, coordinates, "N", "<DEL>", coordinates.startZeroBased() - end));
+                }
+                case 1 -> variants.add(DefaultSequenceVariant.of(contig, id, strand, coordinateSystem, start, ref, ALLELES[random.nextInt(ALLELES.length)]));
+                case 2 -> {
+                    GenomicBreakend left = GenomicBreakend.of(contig, id, strand, Coordinates.of(coordinateSystem, start, start - 1 + (coordinateSystem.isOneBased() ? 0 : 1)));
+                    GenomicBreakend right = random.nextBoolean()
+                            ? GenomicBreakend.unresolved(coordinateSystem, "mate" + i)
+                            : GenomicBreakend.of(GRCh38.contigById(random.nextInt(1, 4)), "mate" + i, Strand.POSITIVE, Coordinates.of(coordinateSystem, 1000, 999 + (coordinateSystem.isOneBased() ? 0 : 1)));
+                    String alt = random.nextBoolean() ? "" : "ACGTN";
+                    variants.add(random.nextBoolean()
+                            ? GenomicBreakendVariant.of("event" + i, left, right, "A", alt)
+                            : DefaultGenomicBreakendVariant.of("event" + i, left, right, "A", alt));
+                }
+                default -> variants.add(GenomicVariant.of(contig, id, strand, coordinateSystem, start, ref, ALLELES[random.nextInt(ALLELES.length)]));
+            }
+        }
+        return variants;
+    }
+}
@@ -0,0 +1,183 @@
+package org.monarchinitiative.svart.variant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GenomicVariantCodecTest {
+
+    private static final GenomicAssembly GRCh38 = GenomicAssemblies.GRCh38p13();
+    private static final Contig chr1 = GRCh38.contigByName("1");
+    private static final Contig chr2 = GRCh38.contigByName("2");
+    private static final String[] ALLELES = {"A", "C", "G", "T", "AC", "GT", "ACGT", "ACGTN", "ACGTACGTACGT", "ACGTACGTACGTACGTACGTACGTACGTACGT"};
+    private static final String[] IDS = {"", ".", "rs1", "rs2147483647", "rs012", "COSV12345", "id;with;ünïcödé"};
+
+    private final GenomicVariantCodec instance = GenomicVariantCodec.of(GRCh38);
+
+    private GenomicVariant roundTrip(GenomicVariant variant, ByteBuffer buffer) {
+        buffer.clear();
+        int written = instance.encode(variant, buffer);
+        assertThat(written, lessThanOrEqualTo(instance.maxEncodedSize(variant)));
+        assertThat(buffer.position(), equalTo(written));
+        buffer.flip();
+        GenomicVariant decoded = instance.decode(buffer);
+        assertThat(buffer.hasRemaining(), is(false));
+        assertThat(decoded.getClass(), equalTo(variant.getClass()));
+        assertThat(decoded, equalTo(variant));
+        assertThat(decoded.id(), equalTo(variant.id()));
+        assertThat(decoded.mateId(), equalTo(variant.mateId()));
+        assertThat(decoded.eventId(), equalTo(variant.eventId()));
+        assertThat(decoded.startConfidenceInterval(), equalTo(variant.startConfidenceInterval()));
+        assertThat(decoded.endConfidenceInterval(), equalTo(variant.endConfidenceInterval()));
+        return decoded;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void roundTripRandomVariants(boolean direct) {
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(1024) : ByteBuffer.allocate(1024);
+        for (GenomicVariant variant : randomVariants(new Random(42), 5000)) {
+            roundTrip(variant, buffer);
+        }
+    }
+
+    @Test
+    void roundTripBreakendVariants() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        GenomicBreakend left = GenomicBreakend.of(chr1, "bnd_U", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, 99);
+        GenomicBreakend right = GenomicBreakend.of(chr2, "bnd_V", Strand.NEGATIVE, CoordinateSystem.ONE_BASED, 200, 199);
+        GenomicBreakend unresolved = GenomicBreakend.unresolved(CoordinateSystem.ONE_BASED, "bnd_W");
+        GenomicBreakend imprecise = GenomicBreakend.of(chr2, "bnd_X", Strand.POSITIVE, Coordinates.of(CoordinateSystem.ONE_BASED, 200, ConfidenceInterval.of(-10, 10), 199, ConfidenceInterval.of(-10, 10)));
+
+        roundTrip(GenomicBreakendVariant.of("event1", left, right, "A", "ACG"), buffer);
+        roundTrip(DefaultGenomicBreakendVariant.of("event1", left, right, "A", "ACG"), buffer);
+        roundTrip(DefaultGenomicBreakendVariant.of("event2", left, unresolved, "A", ""), buffer);
+        roundTrip(DefaultGenomicBreakendVariant.of("", left, imprecise, "A", "ACGTN"), buffer);
+    }
+
+    @Test
+    void roundTripSymbolicVariant() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        Coordinates coordinates = Coordinates.of(CoordinateSystem.ONE_BASED, 1000, ConfidenceInterval.of(-50, 25), 2000, ConfidenceInterval.of(-10, 100));
+        GenomicVariant variant = DefaultSymbolicVariant.of(chr1, "sv1", Strand.NEGATIVE, coordinates, "N", "<DEL>", -1001, "mate", "event");
+        roundTrip(variant, buffer);
+    }
+
+    @Test
+    void compactSnvWithRsIdIsCompact() {
+        GenomicVariant variant = CompactSequenceVariant.of(chr1, "rs1234567", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 123_456_789, "A", "T");
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        assertThat(instance.encode(variant, buffer), equalTo(14));
+    }
+
+    @Test
+    void encodesMultipleVariantsIntoSameBuffer() {
+        List<GenomicVariant> variants = randomVariants(new Random(1), 100);
+        ByteBuffer buffer = ByteBuffer.allocate(100 * 512);
+        variants.forEach(variant -> instance.encode(variant, buffer));
+        buffer.flip();
+        List<GenomicVariant> decoded = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            decoded.add(instance.decode(buffer));
+        }
+        assertThat(decoded, equalTo(variants));
+    }
+
+    @Test
+    void contigFromDifferentAssemblyThrowsException() {
+        Contig grch37chr1 = GenomicAssemblies.GRCh37p13().contigByName("1");
+        GenomicVariant variant = GenomicVariant.of(grch37chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, "A", "T");
+        assertThrows(IllegalArgumentException.class, () -> instance.encode(variant, ByteBuffer.allocate(64)));
+    }
+
+    @Test
+    void unknownContigIdThrowsException() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        // header for a version 1 sequence variant, flags, contig id
+        buffer.put((byte) 0x11).put((byte) 0);
+        GenomicVariantCodec.writeUnsignedVarint(buffer, 10_000);
+        buffer.flip();
+        assertThrows(IllegalArgumentException.class, () -> instance.decode(buffer));
+    }
+
+    @Test
+    void unsupportedVersionThrowsException() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{(byte) 0xF0, 0, 0});
+        assertThrows(IllegalArgumentException.class, () -> instance.decode(buffer));
+    }
+
+    @Test
+    void bufferTooSmall() {
+        GenomicVariant variant = GenomicVariant.of(chr1, "rs1", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, "ACGT", "T");
+        assertThrows(BufferOverflowException.class, () -> instance.encode(variant, ByteBuffer.allocate(4)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        instance.encode(variant, buffer);
+        buffer.flip().limit(buffer.limit() - 1);
+        assertThrows(BufferUnderflowException.class, () -> instance.decode(buffer));
+    }
+
+    @Test
+    void varints() {
+        ByteBuffer buffer = ByteBuffer.allocate(5);
+        for (int value : new int[]{0, 1, -1, 63, -64, 64, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            buffer.clear();
+            GenomicVariantCodec.writeSignedVarint(buffer, value);
+            buffer.flip();
+            assertThat(GenomicVariantCodec.readSignedVarint(buffer), equalTo(value));
+
+            buffer.clear();
+            GenomicVariantCodec.writeUnsignedVarint(buffer, value);
+            buffer.flip();
+            assertThat(GenomicVariantCodec.readUnsignedVarint(buffer), equalTo(value));
+        }
+    }
+
+    private static List<GenomicVariant> randomVariants(Random random, int count) {
+        List<GenomicVariant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Contig contig = GRCh38.contigById(random.nextInt(1, 25));
+            Strand strand = random.nextBoolean() ? Strand.POSITIVE : Strand.NEGATIVE;
+            CoordinateSystem coordinateSystem = random.nextBoolean() ? CoordinateSystem.ONE_BASED : CoordinateSystem.ZERO_BASED;
+            int start = random.nextInt(1, contig.length() - 25_000);
+            String id = IDS[random.nextInt(IDS.length)];
+            String ref = ALLELES[random.nextInt(ALLELES.length)];
+            String alt = ALLELES[random.nextInt(ALLELES.length)];
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    ConfidenceInterval startCi = random.nextBoolean() ? ConfidenceInterval.precise() : ConfidenceInterval.of(-random.nextInt(100), random.nextInt(100));
+                    int end = start + random.nextInt(100, 20000);
+                    Coordinates coordinates = Coordinates.of(coordinateSystem, start, startCi, end, ConfidenceInterval.precise());
+                    variants.add(GenomicVariant.of(contig, id, strand, coordinates, "N", "<DEL>", coordinates.startZeroBased() - end));
+                }
+                case 1 -> variants.add(DefaultSequenceVariant.of(contig, id, strand, coordinateSystem, start, ref, alt));
+                case 2 -> {
+                    GenomicBreakend left = GenomicBreakend.of(contig, id, strand, Coordinates.of(coordinateSystem, start, start - 1 + (coordinateSystem.isOneBased() ? 0 : 1)));
+                    GenomicBreakend right = random.nextBoolean()
+                            ? GenomicBreakend.unresolved(coordinateSystem, "mate" + i)
+                            : GenomicBreakend.of(GRCh38.contigById(random.nextInt(1, 25)), "mate" + i, Strand.POSITIVE, Coordinates.of(coordinateSystem, 1000, 999 + (coordinateSystem.isOneBased() ? 0 : 1)));
+                    String inserted = random.nextBoolean() ? "" : "ACGTN";
+                    variants.add(random.nextBoolean()
+                            ? GenomicBreakendVariant.of("event" + i, left, right, "A", inserted)
+                            : DefaultGenomicBreakendVariant.of("event" + i, left, right, "A", inserted));
+                }
+                default -> variants.add(GenomicVariant.of(contig, id, strand, coordinateSystem, start, ref, alt));
+            }
+        }
+        return variants;
+    }
+}
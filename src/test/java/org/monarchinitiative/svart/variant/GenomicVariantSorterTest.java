@@ -0,0 +1,80 @@
+package org.monarchinitiative.svart.variant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GenomicVariantSorterTest {
+
+    private static final GenomicAssembly GRCh38 = GenomicAssemblies.GRCh38p13();
+    private static final String[] ALLELES = {"A", "C", "G", "T", "AC", "GT", "ACGT", "ACGTN", "ACGTACGTACGT"};
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 2047, 2048, 10_000, 100_000})
+    void sortMatchesNaturalOrder(int count) {
+        List<GenomicVariant> variants = randomVariants(new Random(count), count);
+        List<GenomicVariant> expected = new ArrayList<>(variants);
+        expected.sort(GenomicVariant.naturalOrder());
+
+        GenomicVariant[] actual = variants.toArray(new GenomicVariant[0]);
+        GenomicVariantSorter.sort(actual);
+        // compare instances, as the sort is stable equal variants are expected in the same order
+        for (int i = 0; i < count; i++) {
+            assertThat(actual[i] == expected.get(i), equalTo(true));
+        }
+    }
+
+    @Test
+    void sortList() {
+        List<GenomicVariant> variants = randomVariants(new Random(1), 5000);
+        List<GenomicVariant> expected = new ArrayList<>(variants);
+        expected.sort(GenomicVariant.naturalOrder());
+        GenomicVariantSorter.sort(variants);
+        assertThat(variants, equalTo(expected));
+    }
+
+    @Test
+    void sortRange() {
+        Contig chr1 = GRCh38.contigByName("1");
+        GenomicVariant first = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 300, "A", "T");
+        GenomicVariant second = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 200, "A", "T");
+        GenomicVariant third = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, "A", "T");
+        GenomicVariant[] variants = {first, second, third};
+        GenomicVariantSorter.sort(variants, 1, 3);
+        assertThat(Arrays.asList(variants), contains(first, third, second));
+        assertThrows(IllegalArgumentException.class, () -> GenomicVariantSorter.sort(variants, 2, 1));
+    }
+
+    private static List<GenomicVariant> randomVariants(Random random, int count) {
+        List<GenomicVariant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // small number of contigs and positions to create ties
+            Contig contig = GRCh38.contigById(random.nextInt(1, 4));
+            Strand strand = random.nextBoolean() ? Strand.POSITIVE : Strand.NEGATIVE;
+            CoordinateSystem coordinateSystem = random.nextBoolean() ? CoordinateSystem.ONE_BASED : CoordinateSystem.ZERO_BASED;
+            int start = random.nextInt(1, 500);
+            String ref = ALLELES[random.nextInt(ALLELES.length)];
+            switch (random.nextInt(6)) {
+                case 0 -> {
+                    ConfidenceInterval startCi = random.nextBoolean() ? ConfidenceInterval.precise() : ConfidenceInterval.of(-random.nextInt(10), random.nextInt(10));
+                    int end = start + random.nextInt(100, 200);
+                    Coordinates coordinates = Coordinates.of(coordinateSystem, start, startCi, end, ConfidenceInterval.precise());
+                    variants.add(GenomicVariant.of(contig, "", strand, coordinates, "N", "<DEL>", coordinates.startZeroBased() - end));
+                }
+                case 1 -> variants.add(DefaultSequenceVariant.of(contig, "", strand, coordinateSystem, start, ref, ALLELES[random.nextInt(ALLELES.length)]));
+                default -> variants.add(GenomicVariant.of(contig, "", strand, coordinateSystem, start, ref, ALLELES[random.nextInt(ALLELES.length)]));
+            }
+        }
+        return variants;
+    }
+}
@@ -0,0 +1,178 @@
+package org.monarchinitiative.svart.variant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariantFileReaderTest {
+
+    private static final GenomicAssembly GRCh38 = GenomicAssemblies.GRCh38p13();
+    private static final Contig chr1 = GRCh38.contigByName("1");
+    private static final String[] ALLELES = {"A", "C", "G", "T", "AC", "GT", "ACGT", "ACGTN", "ACGTACGTACGT"};
+    private static final String[] IDS = {"", ".", "rs1", "rs2147483647", "COSV12345"};
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({
+            // variants, blockSize, memoryMapped
+            "0,     16,   false",
+            "1,     16,   false",
+            "1000,  1,    false",
+            "5000,  64,   false",
+            "5000,  64,   true",
+            "5000,  4096, true",
+    })
+    void writeAndReadVariants(int count, int blockSize, boolean memoryMapped) {
+        List<GenomicVariant> variants = randomVariants(new Random(count), count);
+        Path path = write(variants, blockSize);
+
+        try (VariantFileReader reader = VariantFileReader.open(path, GRCh38, memoryMapped)) {
+            assertThat(reader.variantCount(), equalTo((long) count));
+            List<GenomicVariant> actual = reader.variants().toList();
+            assertThat(actual, equalTo(variants));
+            for (int i = 0; i < count; i++) {
+                assertThat(actual.get(i).getClass(), equalTo(variants.get(i).getClass()));
+                assertThat(actual.get(i).id(), equalTo(variants.get(i).id()));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "false",
+            "true",
+    })
+    void regionQueriesMatchOverlappingVariants(boolean memoryMapped) {
+        List<GenomicVariant> variants = randomVariants(new Random(1), 10_000);
+        Path path = write(variants, 32);
+
+        Random random = new Random(2);
+        try (VariantFileReader reader = VariantFileReader.open(path, GRCh38, memoryMapped)) {
+            for (int i = 0; i < 200; i++) {
+                Contig contig = GRCh38.contigById(random.nextInt(1, 5));
+                int start = random.nextInt(0, 120_000);
+                GenomicRegion region = GenomicRegion.of(contig, Strand.POSITIVE, CoordinateSystem.ZERO_BASED, start, start + random.nextInt(0, 5000));
+                List<GenomicVariant> expected = variants.stream()
+                        .filter(variant -> variant.contigId() == region.contigId() && Coordinates.overlapZeroBased(variant.startStd(), variant.endStd(), region.startStd(), region.endStd()))
+                        .toList();
+                try (Stream<GenomicVariant> actual = reader.variants(region)) {
+                    assertThat(actual.toList(), equalTo(expected));
+                }
+            }
+        }
+    }
+
+    @Test
+    void regionOnNegativeStrand() {
+        GenomicVariant variant = GenomicVariant.of(chr1, "rs1", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1000, "A", "T");
+        Path path = write(List.of(variant), 16);
+        try (VariantFileReader reader = VariantFileReader.open(path, GRCh38)) {
+            GenomicRegion overlapping = GenomicRegion.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 990, 1010).toNegativeStrand();
+            assertThat(reader.variants(overlapping).toList(), contains(variant));
+            GenomicRegion other = GenomicRegion.of(GRCh38.contigByName("2"), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 990, 1010);
+            assertThat(reader.variants(other).toList(), is(empty()));
+        }
+    }
+
+    @Test
+    void compactVariantsAreCompressed() throws Exception {
+        List<GenomicVariant> variants = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            variants.add(GenomicVariant.of(chr1, "rs" + (i + 1), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1000 + i * 10, "A", "T"));
+        }
+        Path path = write(variants, VariantFileWriter.DEFAULT_BLOCK_SIZE);
+        // compare to ~13 bytes per variant using the GenomicVariantCodec
+        assertThat(Files.size(path), lessThan(10_000L * 4));
+    }
+
+    @Test
+    void unsortedVariantsThrowsException() {
+        try (VariantFileWriter writer = VariantFileWriter.of(tempDir.resolve("unsorted.svrt"), GRCh38)) {
+            writer.write(GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 200, "A", "T"));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 100, "A", "T")));
+        }
+    }
+
+    @Test
+    void differentAssemblyThrowsException() {
+        Path path = write(List.of(), 16);
+        assertThrows(IllegalArgumentException.class, () -> VariantFileReader.open(path, GenomicAssemblies.GRCh37p13()));
+    }
+
+    @Test
+    void unclosedFileThrowsException() throws Exception {
+        Path path = tempDir.resolve("unclosed.svrt");
+        Files.write(path, new byte[]{'S', 'V', 'R', 'T', 1, 0, 0});
+        assertThrows(IllegalArgumentException.class, () -> VariantFileReader.open(path, GRCh38));
+        assertThrows(UncheckedIOException.class, () -> VariantFileReader.open(tempDir.resolve("missing.svrt"), GRCh38));
+    }
+
+    @Test
+    void unwritableHeaderThrowsException() {
+        // the assembly name is too long to be written using DataOutput.writeUTF
+        GenomicAssembly assembly = GenomicAssembly.of("A".repeat(70_000), "Homo sapiens", "9606", "", "", "", "", GRCh38.contigs());
+        assertThrows(UncheckedIOException.class, () -> VariantFileWriter.of(tempDir.resolve("header.svrt"), assembly));
+    }
+
+    @Test
+    void illegalBuilderValues() {
+        assertThrows(IllegalArgumentException.class, () -> VariantFileWriter.builder().blockSize(0));
+        assertThrows(IllegalArgumentException.class, () -> VariantFileWriter.builder().compressionLevel(10));
+    }
+
+    private Path write(List<GenomicVariant> variants, int blockSize) {
+        Path path = tempDir.resolve("variants.svrt");
+        try (VariantFileWriter writer = VariantFileWriter.builder().blockSize(blockSize).build(path, GRCh38)) {
+            writer.writeAll(variants.stream());
+        }
+        return path;
+    }
+
+    private static List<GenomicVariant> randomVariants(Random random, int count) {
+        List<GenomicVariant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Contig contig = GRCh38.contigById(random.nextInt(1, 5));
+            // mostly positive strand, as for variants read from a VCF file
+            Strand strand = random.nextInt(10) == 0 ? Strand.NEGATIVE : Strand.POSITIVE;
+            CoordinateSystem coordinateSystem = random.nextBoolean() ? CoordinateSystem.ONE_BASED : CoordinateSystem.ZERO_BASED;
+            int start = random.nextInt(1, 100_000);
+            String id = IDS[random.nextInt(IDS.length)];
+            String ref = ALLELES[random.nextInt(ALLELES.length)];
+            String alt = ALLELES[random.nextInt(ALLELES.length)];
+            switch (random.nextInt(10)) {
+                case 0 -> {
+                    int end = start + random.nextInt(100, 20000);
+                    Coordinates coordinates = Coordinates.of(coordinateSystem, start, ConfidenceInterval.of(-10, 10), end, ConfidenceInterval.precise());
+                    variants.add(GenomicVariant.of(contig, id, strand, coordinates, "N", "<DEL>", coordinates.startZeroBased() - end));
+                }
+                case 1 -> variants.add(DefaultSequenceVariant.of(contig, id, strand, coordinateSystem, start, ref, alt));
+                case 2 -> {
+                    GenomicBreakend left = GenomicBreakend.of(contig, id, strand, Coordinates.of(coordinateSystem, start, start - 1 + (coordinateSystem.isOneBased() ? 0 : 1)));
+                    GenomicBreakend right = GenomicBreakend.of(GRCh38.contigById(random.nextInt(1, 25)), "mate" + i, Strand.POSITIVE, Coordinates.of(coordinateSystem, 1000, 999 + (coordinateSystem.isOneBased() ? 0 : 1)));
+                    variants.add(GenomicBreakendVariant.of("event" + i, left, right, "A", ""));
+                }
+                default -> variants.add(GenomicVariant.of(contig, id, strand, coordinateSystem, start, ref, alt));
+            }
+        }
+        variants.sort(GenomicVariant.naturalOrder());
+        return variants;
+    }
+}
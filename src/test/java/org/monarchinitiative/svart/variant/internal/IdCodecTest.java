@@ -0,0 +1,61 @@
+package org.monarchinitiative.svart.variant.internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdCodecTest {
+
+    @Test
+    void encodeEmptyAndMissing() {
+        assertThat(IdCodec.encodeId(null), equalTo(IdCodec.EMPTY));
+        assertThat(IdCodec.encodeId(""), equalTo(IdCodec.EMPTY));
+        assertThat(IdCodec.encodeId("."), equalTo(IdCodec.MISSING));
+        assertThat(IdCodec.decodeId(IdCodec.EMPTY), equalTo(""));
+        assertThat(IdCodec.decodeId(IdCodec.MISSING), equalTo("."));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "rs1, 1",
+            "rs12345, 12345",
+            "rs2147483647, 2147483647",
+    })
+    void encodeRsId(String id, int expected) {
+        int encoded = IdCodec.encodeId(id);
+        assertThat(encoded, equalTo(expected));
+        assertThat(IdCodec.isRsId(encoded), is(true));
+        assertThat(IdCodec.decodeId(encoded), equalTo(id));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "rs",
+            "rs0",
+            "rs012345",
+            "RS12345",
+            "rs12345a",
+            "rs2147483648",
+            "rs99999999999",
+            "rs123;rs456",
+            "COSV12345",
+            "bnd_U",
+    })
+    void encodeOtherIdsAsLiteral(String id) {
+        int encoded = IdCodec.encodeId(id);
+        assertThat(encoded, equalTo(IdCodec.LITERAL));
+        assertThat(IdCodec.isRsId(encoded), is(false));
+        assertThat(IdCodec.decodeId(encoded, id), sameInstance(id));
+        assertThrows(IllegalArgumentException.class, () -> IdCodec.decodeId(encoded));
+    }
+
+    @Test
+    void decodeIgnoresLiteralOfEncodedIds() {
+        assertThat(IdCodec.decodeId(IdCodec.encodeId("rs12345"), null), equalTo("rs12345"));
+        assertThat(IdCodec.decodeId(IdCodec.MISSING, null), equalTo("."));
+    }
+}
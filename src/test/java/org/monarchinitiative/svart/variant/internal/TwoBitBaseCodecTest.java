@@ -1,4 +1,4 @@
-package org.monarchinitiative.svart.variant;
+package org.monarchinitiative.svart.variant.internal;
 
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
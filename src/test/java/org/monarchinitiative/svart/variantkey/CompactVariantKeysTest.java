@@ -0,0 +1,123 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.AssignedMoleculeType;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.assembly.SequenceRole;
+import org.monarchinitiative.svart.variant.CompactSequenceVariant;
+import org.monarchinitiative.svart.variant.DefaultSequenceVariant;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompactVariantKeysTest {
+
+    private static final GenomicAssembly GRCH38 = GenomicAssemblies.GRCh38p13();
+    private static final byte[] BASES = {'A', 'C', 'G', 'T'};
+
+    private static long expectedKey(CompactSequenceVariant variant) {
+        GenomicVariant positive = variant.withStrand(Strand.POSITIVE);
+        return VariantKeys.encodeVariantKey(variant.contig().name(), positive.startZeroBased(), positive.ref(), positive.alt());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "1,  POSITIVE, ONE_BASED,  12345, A,     C",
+            "1,  NEGATIVE, ONE_BASED,  12345, A,     C",
+            "X,  POSITIVE, ZERO_BASED, 12345, ACGT,  A",
+            "X,  NEGATIVE, ZERO_BASED, 12345, ACGT,  A",
+            "22, POSITIVE, ONE_BASED,  1,     '',    ACGTACGTACG",
+            "MT, NEGATIVE, ONE_BASED,  16569, T,     ''",
+    })
+    void variantKey(String contig, Strand strand, CoordinateSystem coordinateSystem, int start, String ref, String alt) {
+        CompactSequenceVariant variant = CompactSequenceVariant.of(GRCH38.contigByName(contig), strand, coordinateSystem, start, ref, alt);
+        long key = CompactVariantKeys.variantKey(variant);
+        assertThat(key, equalTo(expectedKey(variant)));
+        assertThat(VariantKeys.isReversible(key), equalTo(true));
+        assertThat(CompactVariantKeys.variantKey(variant.contig(), variant.bits()), equalTo(key));
+        assertThat(CompactVariantKeys.variantKey(DefaultSequenceVariant.of(variant.contig(), variant.strand(), variant.coordinates(), variant.ref(), variant.alt())), equalTo(key));
+
+        CompactSequenceVariant positive = variant.withStrand(Strand.POSITIVE).withCoordinateSystem(CoordinateSystem.ZERO_BASED);
+        assertThat(CompactVariantKeys.compactBits(key), equalTo(positive.bits()));
+        assertThat(CompactSequenceVariant.positiveStrandBits(variant.contig(), variant.bits()), equalTo(variant.withStrand(Strand.POSITIVE).bits()));
+    }
+
+    private static CompactSequenceVariant randomVariant(Random random, Contig contig) {
+        int refLength = random.nextInt(0, CompactSequenceVariant.MAX_BASES + 1);
+        int altLength = random.nextInt(0, CompactSequenceVariant.MAX_BASES + 1 - refLength);
+        int start = random.nextInt(1, Math.min(contig.length(), VariantKeys.MAX_POS) - refLength);
+        Strand strand = random.nextBoolean() ? Strand.POSITIVE : Strand.NEGATIVE;
+        return CompactSequenceVariant.of(contig, strand, CoordinateSystem.ONE_BASED, start, allele(random, refLength), allele(random, altLength));
+    }
+
+    private static String allele(Random random, int length) {
+        byte[] allele = new byte[length];
+        for (int i = 0; i < length; i++) {
+            allele[i] = BASES[random.nextInt(BASES.length)];
+        }
+        return new String(allele);
+    }
+
+    @Test
+    void variantKeysBulk() {
+        Random random = new Random(42);
+        int size = 100_000;
+        int[] contigIds = new int[size];
+        long[] bits = new long[size];
+        long[] expected = new long[size];
+        for (int i = 0; i < size; i++) {
+            CompactSequenceVariant variant = randomVariant(random, GRCH38.contigById(1 + i * 25 / size));
+            contigIds[i] = variant.contig().id();
+            bits[i] = variant.bits();
+            expected[i] = expectedKey(variant);
+        }
+        long[] keys = new long[size];
+        CompactVariantKeys.variantKeys(GRCH38, contigIds, bits, keys);
+        assertThat(keys, equalTo(expected));
+
+        int chr1Count = (int) Arrays.stream(contigIds).filter(id -> id == 1).count();
+        long[] chr1Bits = Arrays.copyOf(bits, chr1Count);
+        // in place
+        CompactVariantKeys.variantKeys(GRCH38.contigById(1), chr1Bits, chr1Bits);
+        assertThat(chr1Bits, equalTo(Arrays.copyOf(expected, chr1Count)));
+    }
+
+    @Test
+    void variantKeysBulkInvalidInput() {
+        Contig chr1 = GRCH38.contigById(1);
+        assertThrows(IllegalArgumentException.class, () -> CompactVariantKeys.variantKeys(chr1, new long[2], new long[1]));
+        assertThrows(IllegalArgumentException.class, () -> CompactVariantKeys.variantKeys(GRCH38, new int[1], new long[2], new long[2]));
+        long[] bits = {CompactSequenceVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1, "A", "C").bits()};
+        assertThrows(IllegalArgumentException.class, () -> CompactVariantKeys.variantKeys(GRCH38, new int[]{9999}, bits, new long[1]));
+    }
+
+    @Test
+    void contigNames() {
+        Contig refSeqNamed = Contig.of(23, "NC_000023.11", SequenceRole.ASSEMBLED_MOLECULE, "X", AssignedMoleculeType.CHROMOSOME, 1000, "na", "NC_000023.11", "na");
+        CompactSequenceVariant variant = CompactSequenceVariant.of(refSeqNamed, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 10, "A", "C");
+        assertThat(VariantKeys.decodeChrom(CompactVariantKeys.variantKey(variant)), equalTo("X"));
+
+        Contig ucscNamed = Contig.of(2, "unnamed", SequenceRole.UNLOCALIZED_SCAFFOLD, "na", AssignedMoleculeType.CHROMOSOME, 1000, "na", "na", "chr2");
+        assertThat(VariantKeys.decodeChrom(CompactVariantKeys.variantKey(ucscNamed, variant.bits())), equalTo("2"));
+
+        Contig unplaced = GRCH38.contigByName("HSCHR1_CTG1_UNLOCALIZED");
+        CompactSequenceVariant unplacedVariant = CompactSequenceVariant.of(unplaced, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 10, "A", "C");
+        assertThrows(IllegalArgumentException.class, () -> CompactVariantKeys.variantKey(unplacedVariant));
+    }
+
+    @Test
+    void compactBitsInvalidKey() {
+        long hashed = VariantKeys.encodeVariantKey("1", 100, "ACGTN", "A");
+        assertThrows(IllegalArgumentException.class, () -> CompactVariantKeys.compactBits(hashed));
+        long tooLong = VariantKeys.encodeVariantKey("1", 100, "AAAAAA", "CCCCC");
+        assertThat(CompactVariantKeys.compactBits(tooLong), equalTo(CompactSequenceVariant.of(GRCH38.contigById(1), Strand.POSITIVE, CoordinateSystem.ZERO_BASED, 100, "AAAAAA", "CCCCC").bits()));
+    }
+}
@@ -0,0 +1,135 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NrvkTableTest {
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T', 'N'};
+
+    @TempDir
+    Path tempDir;
+
+    private static String randomAllele(Random random, int maxLength) {
+        char[] allele = new char[random.nextInt(1, maxLength + 1)];
+        for (int i = 0; i < allele.length; i++) {
+            allele[i] = BASES[random.nextInt(BASES.length)];
+        }
+        return new String(allele);
+    }
+
+    /**
+     * Returns two variants at the same position with different alleles and the same key.
+     */
+    private static VariantKey[] hashCollision() {
+        Random random = new Random(42);
+        Map<Long, VariantKey> variants = new HashMap<>();
+        while (true) {
+            String ref = "N" + randomAllele(random, 10);
+            VariantKey variant = VariantKey.of("1", 1000, ref, "A");
+            VariantKey previous = variants.putIfAbsent(variant.key(), variant);
+            if (previous != null && !previous.ref().equals(ref)) {
+                return new VariantKey[]{previous, variant};
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 100, 20_000})
+    void writeAndDecode(int count) throws Exception {
+        Random random = new Random(count);
+        List<VariantKey> variants = new ArrayList<>();
+        Path path = tempDir.resolve("table.nrvk");
+        NrvkTableWriter writer = NrvkTableWriter.builder().tempDirectory(tempDir).build(path);
+        try (writer) {
+            assertThat(writer.add("1", 100, "A", "G"), is(false));
+            while (variants.size() < count) {
+                VariantKey variant = VariantKey.of(random.nextInt(1, 26), random.nextInt(0, 250_000_000), randomAllele(random, 20), randomAllele(random, 5));
+                if (writer.add(variant.chrom(), variant.pos(), variant.ref(), variant.alt())) {
+                    variants.add(variant);
+                    // duplicates are only written once
+                    if (random.nextInt(10) == 0) {
+                        writer.add(variant.key(), variant.ref(), variant.alt());
+                    }
+                }
+            }
+        }
+        assertThat(writer.entryCount(), equalTo((long) count));
+        assertThat(writer.collidingKeys().length, equalTo(0));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.toList(), equalTo(List.of(path)));
+        }
+
+        try (NrvkTable table = NrvkTable.open(path)) {
+            assertThat(table.size(), equalTo((long) count));
+            for (VariantKey variant : variants) {
+                assertThat(table.containsKey(variant.key()), is(true));
+                assertThat(table.ref(variant.key()), equalTo(variant.ref()));
+                assertThat(table.alt(variant.key()), equalTo(variant.alt()));
+                VariantKey decoded = table.decodeVariantKey(variant.key());
+                assertThat(decoded.key(), equalTo(variant.key()));
+                assertThat(decoded.pos(), equalTo(variant.pos()));
+                assertThat(decoded.ref(), equalTo(variant.ref()));
+                assertThat(decoded.alt(), equalTo(variant.alt()));
+            }
+            long missing = VariantKeys.encodeVariantKey("X", 1, "ACGTN", "A");
+            assertThat(table.containsKey(missing), is(false));
+            assertThat(table.ref(missing), is(nullValue()));
+            assertThat(table.decodeVariantKey(missing), equalTo(new VariantKey(missing, "X", 1, "", "")));
+            long reversible = VariantKeys.encodeVariantKey("X", 1, "AC", "A");
+            assertThat(table.decodeVariantKey(reversible), equalTo(VariantKeys.decodeVariantKey(reversible)));
+        }
+    }
+
+    @Test
+    void collisionFails() {
+        VariantKey[] collision = hashCollision();
+        Path path = tempDir.resolve("table.nrvk");
+        NrvkTableWriter writer = NrvkTableWriter.builder().tempDirectory(tempDir).build(path);
+        writer.add(collision[0].chrom(), collision[0].pos(), collision[0].ref(), collision[0].alt());
+        writer.add(collision[1].chrom(), collision[1].pos(), collision[1].ref(), collision[1].alt());
+        assertThrows(IllegalArgumentException.class, writer::close);
+        assertThat(Files.exists(path), is(false));
+    }
+
+    @Test
+    void collisionsLeftOut() throws Exception {
+        VariantKey[] collision = hashCollision();
+        Path path = tempDir.resolve("table.nrvk");
+        VariantKey other = VariantKey.of("2", 1000, "ACGTN", "A");
+        NrvkTableWriter writer = NrvkTableWriter.builder().tempDirectory(tempDir).failOnCollision(false).build(path);
+        try (writer) {
+            writer.add(collision[0].key(), collision[0].ref(), collision[0].alt());
+            writer.add(other.key(), other.ref(), other.alt());
+            writer.add(other.key(), other.ref(), other.alt());
+            writer.add(collision[1].key(), collision[1].ref(), collision[1].alt());
+        }
+        assertThat(writer.collidingKeys(), equalTo(new long[]{collision[0].key()}));
+        assertThat(writer.entryCount(), equalTo(1L));
+        // only the alleles of the entry are written
+        assertThat(Files.size(path), equalTo(Integer.BYTES + 1L + NrvkTableFormat.ENTRY_BYTES + "ACGTNA".length() + NrvkTableFormat.FOOTER_BYTES));
+        try (NrvkTable table = NrvkTable.open(path)) {
+            assertThat(table.containsKey(collision[0].key()), is(false));
+            assertThat(table.alt(other.key()), equalTo("A"));
+        }
+    }
+
+    @Test
+    void addInvalidKeys() {
+        try (NrvkTableWriter writer = NrvkTableWriter.builder().tempDirectory(tempDir).build(tempDir.resolve("table.nrvk"))) {
+            assertThrows(IllegalArgumentException.class, () -> writer.add(VariantKeys.encodeVariantKey("1", 1, "A", "G"), "A", "G"));
+            assertThrows(IllegalArgumentException.class, () -> writer.add(VariantKeys.encodeVariantKey("1", 1, "ACGTN", "G"), "ACGTN", "C"));
+        }
+    }
+}
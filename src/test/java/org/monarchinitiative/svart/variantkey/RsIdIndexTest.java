@@ -0,0 +1,117 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RsIdIndexTest {
+
+    private static final String[] ALLELES = {"A", "C", "G", "T", "AC", "ACGTN"};
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({
+            // pairs, maxPairsInMemory, mergeFactor
+            "0,     100,   2",
+            "1,     100,   2",
+            "1000,  5000,  2",
+            "10000, 1000,  128",
+            "10000, 500,   3",
+    })
+    void writeAndLookUp(int count, int maxPairsInMemory, int mergeFactor) throws Exception {
+        Random random = new Random(count);
+        Map<Integer, SortedSet<Long>> keysByRsId = new HashMap<>();
+        Map<Long, SortedSet<Integer>> rsIdsByKey = new HashMap<>();
+        Path path = tempDir.resolve("rsid.idx");
+        RsIdIndexWriter writer = RsIdIndexWriter.builder()
+                .maxPairsInMemory(maxPairsInMemory)
+                .mergeFactor(mergeFactor)
+                .tempDirectory(tempDir)
+                .build(path);
+        try (writer) {
+            for (int i = 0; i < count; i++) {
+                // a few rsIDs with several variants, and keys with several rsIDs
+                int rsId = random.nextInt(1, count / 2 + 2);
+                long key = VariantKeys.encodeVariantKey(random.nextInt(1, 26), random.nextInt(0, count + 1), ALLELES[random.nextInt(ALLELES.length)], "A");
+                writer.add(rsId, key);
+                if (random.nextInt(20) == 0) {
+                    // duplicates are written once
+                    writer.add(rsId, VariantKeys.decodeVariantKey(key));
+                }
+                keysByRsId.computeIfAbsent(rsId, k -> new TreeSet<>(Long::compareUnsigned)).add(key);
+                rsIdsByKey.computeIfAbsent(key, k -> new TreeSet<>()).add(rsId);
+            }
+        }
+        assertThat(writer.pairCount(), equalTo(keysByRsId.values().stream().mapToLong(Set::size).sum()));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.toList(), equalTo(List.of(path)));
+        }
+
+        try (RsIdIndex index = RsIdIndex.open(path)) {
+            assertThat(index.size(), equalTo(keysByRsId.values().stream().mapToLong(Set::size).sum()));
+            for (Map.Entry<Integer, SortedSet<Long>> entry : keysByRsId.entrySet()) {
+                long[] expected = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+                assertThat(index.variantKeys(entry.getKey()), equalTo(expected));
+                assertThat(index.variants(entry.getKey()).stream().mapToLong(VariantKey::key).toArray(), equalTo(expected));
+            }
+            for (Map.Entry<Long, SortedSet<Integer>> entry : rsIdsByKey.entrySet()) {
+                assertThat(index.rsIds(entry.getKey()), equalTo(entry.getValue().stream().mapToInt(Integer::intValue).toArray()));
+            }
+            assertThat(index.variantKeys(Integer.MAX_VALUE), equalTo(new long[0]));
+            assertThat(index.variants(Integer.MAX_VALUE), equalTo(List.of()));
+            assertThat(index.rsIds("1", VariantKeys.MAX_POS - 1, "A", "G"), equalTo(new int[0]));
+        }
+    }
+
+    @Test
+    void rsIdsOfVariant() {
+        Path path = tempDir.resolve("rsid.idx");
+        try (RsIdIndexWriter writer = RsIdIndexWriter.builder().tempDirectory(tempDir).build(path)) {
+            writer.add(RsIdIndex.parseRsId("rs6025"), VariantKey.of("1", 169549810, "C", "T"));
+            writer.add(6025, VariantKey.of("1", 169549810, "C", "G"));
+            writer.add(1, VariantKey.of("X", 100, "C", "T"));
+        }
+        try (RsIdIndex index = RsIdIndex.open(path)) {
+            assertThat(index.rsIds("1", 169549810, "C", "T"), equalTo(new int[]{6025}));
+            assertThat(index.variants(6025), equalTo(List.of(VariantKey.of("1", 169549810, "C", "G"), VariantKey.of("1", 169549810, "C", "T"))));
+            assertThat(index.variants(1), equalTo(List.of(VariantKey.of("X", 100, "C", "T"))));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "rs1,          1",
+            "rs6025,       6025",
+            "rs2147483647, 2147483647",
+    })
+    void parseRsId(String rsId, int expected) {
+        assertThat(RsIdIndex.parseRsId(rsId), equalTo(expected));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "rs", "6025", "RS6025", "rs60a25", "rs2147483648", "ss123"})
+    void parseInvalidRsId(String rsId) {
+        assertThrows(IllegalArgumentException.class, () -> RsIdIndex.parseRsId(rsId));
+    }
+
+    @Test
+    void addInvalidRsId() {
+        try (RsIdIndexWriter writer = RsIdIndexWriter.builder().tempDirectory(tempDir).build(tempDir.resolve("rsid.idx"))) {
+            assertThrows(IllegalArgumentException.class, () -> writer.add(0, 1L));
+            assertThrows(IllegalArgumentException.class, () -> writer.add(-1, 1L));
+        }
+    }
+}
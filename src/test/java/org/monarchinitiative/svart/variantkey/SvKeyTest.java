@@ -0,0 +1,107 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SvKeyTest {
+
+    private static final GenomicAssembly GRCh38 = GenomicAssemblies.GRCh38p13();
+    private static final Contig chr1 = GRCh38.contigByName("1");
+    private static final Contig chr2 = GRCh38.contigByName("2");
+    private static final Contig chrX = GRCh38.contigByName("X");
+
+    private static GenomicVariant deletion(Contig contig, int start, int end) {
+        return GenomicVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, start, end, "N", "<DEL>", start - end - 1);
+    }
+
+    @Test
+    void symbolicDeletion() {
+        SvKey svKey = SvKey.of(deletion(chrX, 1001, 2000));
+        assertThat(svKey.chrom(), equalTo(23));
+        assertThat(svKey.start(), equalTo(1000));
+        assertThat(svKey.variantType(), equalTo(VariantType.DEL));
+        assertThat(svKey.binSize(), equalTo(1));
+        assertThat(svKey.endChrom(), equalTo(23));
+        assertThat(svKey.end(), equalTo(2000));
+        assertThat(svKey.strand(), equalTo(Strand.POSITIVE));
+        assertThat(svKey.endStrand(), equalTo(Strand.POSITIVE));
+        assertThat(svKey.high() >>> 31, equalTo(VariantKeys.rangeStart("X", 1000) >>> 31));
+    }
+
+    @Test
+    void negativeStrandVariant() {
+        GenomicVariant deletion = deletion(chr1, 1001, 2000);
+        assertThat(SvKey.of(deletion.toOppositeStrand()), equalTo(SvKey.of(deletion)));
+    }
+
+    @Test
+    void variantTypesAreDistinct() {
+        GenomicVariant duplication = GenomicVariant.of(chr1, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1001, 2000, "N", "<DUP>", 1000);
+        SvKey svKey = SvKey.of(duplication);
+        assertThat(svKey.variantType(), equalTo(VariantType.DUP));
+        assertThat(svKey, not(equalTo(SvKey.of(deletion(chr1, 1001, 2000)))));
+    }
+
+    @Test
+    void breakendVariant() {
+        GenomicBreakend left = GenomicBreakend.of(chr1, "bnd_U", Strand.POSITIVE, CoordinateSystem.ONE_BASED, 12346, 12345);
+        GenomicBreakend right = GenomicBreakend.of(chr2, "bnd_V", Strand.NEGATIVE, CoordinateSystem.ONE_BASED, 1000, 999);
+        SvKey svKey = SvKey.of(GenomicBreakendVariant.of("tra2", left, right, "C", ""));
+        assertThat(svKey.chrom(), equalTo(1));
+        assertThat(svKey.start(), equalTo(12345));
+        assertThat(svKey.variantType(), equalTo(VariantType.BND));
+        assertThat(svKey.strand(), equalTo(Strand.POSITIVE));
+        assertThat(svKey.endChrom(), equalTo(2));
+        assertThat(svKey.end(), equalTo(right.withStrand(Strand.POSITIVE).startStd()));
+        assertThat(svKey.endStrand(), equalTo(Strand.NEGATIVE));
+    }
+
+    @Test
+    void binnedPositions() {
+        SvKey a = SvKey.of(deletion(chr1, 100_001, 150_010), 1024);
+        SvKey b = SvKey.of(deletion(chr1, 100_101, 150_200), 1024);
+        assertThat(a, equalTo(b));
+        assertThat(a.binSize(), equalTo(1024));
+        assertThat(a.start(), equalTo(99_328));
+        assertThat(a.end(), equalTo(149_504));
+        assertThat(SvKey.of(deletion(chr1, 99_328, 149_504), 1), not(equalTo(a)));
+        assertThat(SvKey.of(deletion(chr1, 100_001, 150_010), 2048), not(equalTo(a)));
+        assertThrows(IllegalArgumentException.class, () -> SvKey.of(deletion(chr1, 1, 10), 0));
+        assertThrows(IllegalArgumentException.class, () -> SvKey.of(deletion(chr1, 1, 10), 1000));
+        assertThrows(IllegalArgumentException.class, () -> SvKey.of(deletion(chr1, 1, 10), 1 << 28));
+    }
+
+    @Test
+    void variantKeyContigs() {
+        GenomicVariant deletion = deletion(chrX, 1001, 2000);
+        assertThat(SvKey.of(VariantKeyContigs.of(GRCh38), deletion, 1), equalTo(SvKey.of(deletion)));
+        Contig unplaced = GRCh38.contigByName("HSCHR1_CTG1_UNLOCALIZED");
+        assertThrows(IllegalArgumentException.class, () -> SvKey.of(deletion(unplaced, 1, 10)));
+        assertThat(SvKey.of(VariantKeyContigs.of(GRCh38), deletion(unplaced, 1, 10), 1).chrom(), equalTo(0));
+    }
+
+    @Test
+    void sortOrderAndRanges() {
+        List<SvKey> keys = new ArrayList<>(List.of(
+                SvKey.of(deletion(chrX, 1001, 2000)),
+                SvKey.of(deletion(chr2, 501, 600)),
+                SvKey.of(deletion(chr1, 1001, 3000)),
+                SvKey.of(deletion(chr1, 1001, 2000))
+        ));
+        keys.sort(null);
+        assertThat(keys.stream().map(SvKey::chrom).toList(), equalTo(List.of(1, 1, 2, 23)));
+        assertThat(keys.get(0).end(), equalTo(2000));
+
+        VariantKeyRange range = VariantKeyRange.of("X", 1000, 1001);
+        assertThat(keys.stream().filter(key -> key.startsWithin(range)).toList(), equalTo(List.of(keys.get(3))));
+    }
+}
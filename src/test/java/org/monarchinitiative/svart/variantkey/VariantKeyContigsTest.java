@@ -0,0 +1,152 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.AssignedMoleculeType;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.assembly.SequenceRole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariantKeyContigsTest {
+
+    /**
+     * An assembly with the given number of chromosomes named 1, 2, ... followed by an MT and an unplaced scaffold.
+     */
+    private static GenomicAssembly assembly(int chromosomes) {
+        List<Contig> contigs = new ArrayList<>();
+        for (int i = 1; i <= chromosomes; i++) {
+            contigs.add(Contig.of(i, String.valueOf(i), SequenceRole.ASSEMBLED_MOLECULE, String.valueOf(i), AssignedMoleculeType.CHROMOSOME, 1000, "na", "na", "chr" + i));
+        }
+        contigs.add(Contig.of(chromosomes + 1, "Un1", SequenceRole.UNPLACED_SCAFFOLD, "na", AssignedMoleculeType.CHROMOSOME, 1000, "na", "na", "chrUn1"));
+        contigs.add(Contig.of(chromosomes + 2, "MT", SequenceRole.ASSEMBLED_MOLECULE, "MT", AssignedMoleculeType.MITOCHONDRION, 1000, "na", "na", "chrM"));
+        return GenomicAssembly.of("test", "Danio rerio (zebrafish)", "7955", "test", "2024-01-01", "na", "na", contigs);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "GRCh37.p13, 1,  1",
+            "GRCh37.p13, MT, 25",
+            "GRCh38.p13, 22, 22",
+            "GRCh38.p13, X,  23",
+            "GRCh38.p13, Y,  24",
+            "GRCh38.p13, MT, 25",
+            "GRCm39,     19, 19",
+            "GRCm39,     X,  23",
+            "GRCm39,     MT, 25",
+            "T2T-CHM13v2.0, MT, 25",
+    })
+    void standardCodes(String assemblyName, String contigName, int expected) {
+        GenomicAssembly assembly = switch (assemblyName) {
+            case "GRCh37.p13" -> GenomicAssemblies.GRCh37p13();
+            case "GRCh38.p13" -> GenomicAssemblies.GRCh38p13();
+            case "GRCm39" -> GenomicAssemblies.GRCm39();
+            default -> GenomicAssemblies.T2T_CHM13v2_0();
+        };
+        VariantKeyContigs instance = VariantKeyContigs.of(assembly);
+        assertThat(instance.usesStandardCodes(), is(true));
+        Contig contig = assembly.contigByName(contigName);
+        assertThat(instance.encodeChrom(contig), equalTo(expected));
+        assertThat(instance.hasCode(contig), is(true));
+
+        long key = instance.encodeVariantKey(contig, 100, "A", "G");
+        assertThat(key, equalTo(VariantKeys.encodeVariantKey(contigName, 100, "A", "G")));
+        assertThat(instance.decodeContig(key), equalTo(contig));
+    }
+
+    @Test
+    void unplacedContigsHaveNoCode() {
+        GenomicAssembly grch38 = GenomicAssemblies.GRCh38p13();
+        VariantKeyContigs instance = VariantKeyContigs.of(grch38);
+        Contig unlocalized = grch38.contigByName("HSCHR1_CTG1_UNLOCALIZED");
+        assertThat(instance.encodeChrom(unlocalized), equalTo(0));
+        assertThat(instance.hasCode(unlocalized), is(false));
+        long key = instance.encodeVariantKey(unlocalized, 100, "A", "G");
+        assertThat(instance.decodeContig(key), equalTo(Contig.unknown()));
+        assertThat(VariantKeys.decodeChrom(key), equalTo("NA"));
+    }
+
+    @Test
+    void assemblyOrderCodes() {
+        GenomicAssembly assembly = assembly(25);
+        VariantKeyContigs instance = VariantKeyContigs.of(assembly);
+        assertThat(instance.usesStandardCodes(), is(false));
+        for (int id = 1; id <= 25; id++) {
+            Contig contig = assembly.contigById(id);
+            assertThat(instance.encodeChrom(contig), equalTo(id));
+            long key = instance.encodeVariantKey(contig, 999, "ACGT", "A");
+            assertThat(instance.decodeContig(key), equalTo(contig));
+            assertThat(VariantKeys.decodePos(key), equalTo(999L));
+            assertThat(VariantKeys.decodeRef(key), equalTo("ACGT"));
+        }
+        // the MT follows the unplaced scaffold, which has no code
+        assertThat(instance.encodeChrom(assembly.contigByName("Un1")), equalTo(0));
+        assertThat(instance.encodeChrom(assembly.contigByName("MT")), equalTo(26));
+        assertThat(instance.contig(26), equalTo(assembly.contigByName("MT")));
+        assertThat(instance.contig(27), equalTo(Contig.unknown()));
+        assertThrows(IllegalArgumentException.class, () -> instance.contig(32));
+    }
+
+    @Test
+    void assembledMoleculesBeyondFieldHaveNoCode() {
+        GenomicAssembly assembly = assembly(40);
+        VariantKeyContigs instance = VariantKeyContigs.of(assembly);
+        assertThat(instance.encodeChrom(assembly.contigById(31)), equalTo(31));
+        assertThat(instance.encodeChrom(assembly.contigById(32)), equalTo(0));
+        assertThat(instance.encodeChrom(assembly.contigByName("MT")), equalTo(0));
+    }
+
+    @Test
+    void contigNotInAssembly() {
+        VariantKeyContigs instance = VariantKeyContigs.of(GenomicAssemblies.GRCh38p13());
+        Contig mouseChr1 = GenomicAssemblies.GRCm39().contigByName("1");
+        assertThrows(IllegalArgumentException.class, () -> instance.encodeChrom(mouseChr1));
+        assertThrows(IllegalArgumentException.class, () -> instance.encodeChrom(Contig.unknown()));
+        assertThrows(IllegalArgumentException.class, () -> instance.encodeChrom(TestContig.of(1, 1000)));
+    }
+
+    @Test
+    void encodeGenomicVariant() {
+        GenomicAssembly assembly = assembly(25);
+        VariantKeyContigs instance = VariantKeyContigs.of(assembly);
+        Contig chr25 = assembly.contigById(25);
+        GenomicVariant compact = GenomicVariant.of(chr25, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 101, "AC", "A");
+        GenomicVariant sequence = GenomicVariant.of(chr25, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 101, "ACGTACGTACGT", "A");
+        GenomicVariant symbolic = GenomicVariant.of(chr25, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 101, 200, "A", "<DEL>", -99);
+
+        for (GenomicVariant variant : List.of(compact, sequence, symbolic)) {
+            long expected = instance.encodeVariantKey(chr25, 100, variant.ref(), variant.alt());
+            assertThat(instance.encodeVariantKey(variant), equalTo(expected));
+            assertThat(instance.encodeVariantKey(variant.withStrand(Strand.NEGATIVE)), equalTo(expected));
+            assertThat(instance.encodeVariantKey(variant.toZeroBased()), equalTo(expected));
+        }
+    }
+
+    @Test
+    void compactVariantKeysBulk() {
+        GenomicAssembly assembly = assembly(30);
+        VariantKeyContigs instance = VariantKeyContigs.of(assembly);
+        int[] contigIds = new int[30];
+        long[] bits = new long[30];
+        long[] expected = new long[30];
+        for (int i = 0; i < 30; i++) {
+            Contig contig = assembly.contigById(i + 1);
+            GenomicVariant variant = GenomicVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, i + 1, "A", "T");
+            contigIds[i] = contig.id();
+            bits[i] = ((org.monarchinitiative.svart.variant.CompactSequenceVariant) variant).bits();
+            expected[i] = instance.encodeVariantKey(variant);
+        }
+        long[] keys = new long[30];
+        CompactVariantKeys.variantKeys(instance, contigIds, bits, keys);
+        assertThat(keys, equalTo(expected));
+    }
+}
@@ -0,0 +1,69 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares counting 1 million keys, a quarter of them repeated, using a {@link VariantKeyIntMap} and a
+ * {@code HashMap<Long, Integer>}.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VariantKeyIntMapBenchmarks {
+
+    private long[] keys;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new long[1_000_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i % 4 == 3 ? keys[random.nextInt(i)] : VariantKeys.encodeVariantKey(random.nextInt(1, 26), random.nextInt(0, 200_000_000), "A", "ACGT".substring(random.nextInt(4)));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(Path.of("target/benchmarks"));
+        Instant startTime = Instant.now();
+        Options opt = new OptionsBuilder()
+                .forks(1)
+                .include(VariantKeyIntMapBenchmarks.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/benchmarks/variant-key-int-map-benchmarks-" + startTime.toString() + ".json")
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public VariantKeyIntMap variantKeyIntMap() {
+        VariantKeyIntMap counts = new VariantKeyIntMap();
+        for (long key : keys) {
+            counts.addTo(key, 1);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public Map<Long, Integer> hashMap() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (long key : keys) {
+            counts.merge(key, 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,91 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.monarchinitiative.svart.variantkey.VariantKeySetTest.randomKeys;
+import static org.monarchinitiative.svart.variantkey.VariantKeySetTest.sortedUnsigned;
+
+class VariantKeyIntMapTest {
+
+    private static void assertEntries(VariantKeyIntMap map, Map<Long, Integer> expected) {
+        assertThat(map.size(), equalTo((long) expected.size()));
+        long[] expectedKeys = sortedUnsigned(expected.keySet());
+        assertThat(map.sortedKeys(), equalTo(expectedKeys));
+        List<Long> keys = new ArrayList<>();
+        map.forEachSorted((key, value) -> {
+            keys.add(key);
+            assertThat(value, equalTo(expected.get(key)));
+        });
+        assertThat(keys.stream().mapToLong(Long::longValue).toArray(), equalTo(expectedKeys));
+        Map<Long, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertThat(actual, equalTo(expected));
+    }
+
+    @Test
+    void countKeys() {
+        VariantKeyIntMap counts = new VariantKeyIntMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (long key : randomKeys(100_000, 1)) {
+            assertThat(counts.addTo(key, 1), equalTo(expected.merge(key, 1, Integer::sum)));
+        }
+        assertEntries(counts, expected);
+        for (long key : expected.keySet()) {
+            assertThat(counts.containsKey(key), is(true));
+            assertThat(counts.getOrDefault(key, -1), equalTo(expected.get(key)));
+        }
+        assertThat(counts.containsKey(42L), is(false));
+        assertThat(counts.getOrDefault(42L, -1), equalTo(-1));
+    }
+
+    @Test
+    void put() {
+        VariantKeyIntMap map = new VariantKeyIntMap(10);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(2);
+        for (long key : randomKeys(10_000, 2)) {
+            int value = random.nextInt();
+            map.put(key, value);
+            expected.put(key, value);
+        }
+        assertEntries(map, expected);
+        assertThat(map.merge(0, 5, Math::max), equalTo(Math.max(expected.get(0L), 5)));
+    }
+
+    @Test
+    void merge() {
+        List<VariantKeyIntMap> maps = new ArrayList<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            VariantKeyIntMap map = new VariantKeyIntMap();
+            for (long key : randomKeys(20_000, 10 + i)) {
+                map.addTo(key, 1);
+                expected.merge(key, 1, Integer::sum);
+            }
+            maps.add(map);
+        }
+        assertEntries(VariantKeyIntMap.merge(maps, Integer::sum), expected);
+
+        VariantKeyIntMap all = new VariantKeyIntMap();
+        maps.forEach(map -> all.putAll(map, Integer::sum));
+        assertEntries(all, expected);
+    }
+
+    @Test
+    void clear() {
+        VariantKeyIntMap map = new VariantKeyIntMap();
+        for (long key : randomKeys(1000, 3)) {
+            map.addTo(key, 1);
+        }
+        map.clear();
+        assertThat(map.isEmpty(), is(true));
+        assertThat(map.addTo(0, 1), equalTo(1));
+        assertThat(map.addTo(1, 1), equalTo(1));
+        assertEntries(map, Map.of(0L, 1, 1L, 1));
+    }
+}
@@ -0,0 +1,94 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.monarchinitiative.svart.variantkey.VariantKeySetTest.randomKeys;
+import static org.monarchinitiative.svart.variantkey.VariantKeySetTest.sortedUnsigned;
+
+class VariantKeyObjectMapTest {
+
+    private static <V> void assertEntries(VariantKeyObjectMap<V> map, Map<Long, V> expected) {
+        assertThat(map.size(), equalTo((long) expected.size()));
+        long[] expectedKeys = sortedUnsigned(expected.keySet());
+        assertThat(map.sortedKeys(), equalTo(expectedKeys));
+        List<Long> keys = new ArrayList<>();
+        map.forEachSorted((key, value) -> {
+            keys.add(key);
+            assertThat(value, equalTo(expected.get(key)));
+        });
+        assertThat(keys.stream().mapToLong(Long::longValue).toArray(), equalTo(expectedKeys));
+        Map<Long, V> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertThat(actual, equalTo(expected));
+    }
+
+    @Test
+    void groupKeys() {
+        VariantKeyObjectMap<List<Integer>> map = new VariantKeyObjectMap<>();
+        Map<Long, List<Integer>> expected = new HashMap<>();
+        long[] keys = randomKeys(50_000, 1);
+        for (int i = 0; i < keys.length; i++) {
+            map.computeIfAbsent(keys[i], key -> new ArrayList<>()).add(i);
+            expected.computeIfAbsent(keys[i], key -> new ArrayList<>()).add(i);
+        }
+        assertEntries(map, expected);
+        for (long key : expected.keySet()) {
+            assertThat(map.containsKey(key), is(true));
+            assertThat(map.get(key), equalTo(expected.get(key)));
+        }
+        assertThat(map.containsKey(42L), is(false));
+        assertThat(map.get(42L), is(nullValue()));
+    }
+
+    @Test
+    void put() {
+        VariantKeyObjectMap<String> map = new VariantKeyObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        long[] keys = randomKeys(10_000, 2);
+        for (int i = 0; i < keys.length; i++) {
+            String value = String.valueOf(i);
+            assertThat(map.put(keys[i], value), equalTo(expected.put(keys[i], value)));
+        }
+        assertEntries(map, expected);
+        assertThrows(NullPointerException.class, () -> map.put(1L, null));
+        assertThrows(NullPointerException.class, () -> map.computeIfAbsent(42L, key -> null));
+    }
+
+    @Test
+    void merge() {
+        List<VariantKeyObjectMap<String>> maps = new ArrayList<>();
+        Map<Long, String> expected = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+            VariantKeyObjectMap<String> map = new VariantKeyObjectMap<>();
+            String value = String.valueOf(i);
+            for (long key : randomKeys(20_000, 10 + i)) {
+                map.merge(key, value, String::concat);
+                expected.merge(key, value, String::concat);
+            }
+            maps.add(map);
+        }
+        assertEntries(VariantKeyObjectMap.merge(maps, String::concat), expected);
+
+        VariantKeyObjectMap<String> all = new VariantKeyObjectMap<>();
+        maps.forEach(map -> all.putAll(map, String::concat));
+        assertEntries(all, expected);
+    }
+
+    @Test
+    void clear() {
+        VariantKeyObjectMap<String> map = new VariantKeyObjectMap<>();
+        for (long key : randomKeys(1000, 3)) {
+            map.put(key, "a");
+        }
+        map.clear();
+        assertThat(map.isEmpty(), is(true));
+        assertThat(map.get(0), is(nullValue()));
+        assertThat(map.put(0, "b"), is(nullValue()));
+        assertEntries(map, Map.of(0L, "b"));
+    }
+}
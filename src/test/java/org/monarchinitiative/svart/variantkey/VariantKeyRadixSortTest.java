@@ -0,0 +1,80 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class VariantKeyRadixSortTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 1000, 50_000})
+    void sortOrder(int size) {
+        Random random = new Random(size);
+        long[] values = random.longs(size + 10).toArray();
+        if (size > 2) {
+            values[0] = -1L;
+            values[1] = 0L;
+            values[2] = values[3];
+        }
+        int[] expected = IntStream.range(0, size).boxed()
+                .sorted((a, b) -> Long.compareUnsigned(values[a], values[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertThat(VariantKeyRadixSort.sortOrder(values, size), equalTo(expected));
+    }
+
+    @Test
+    void sortOrderIsStable() {
+        assertThat(VariantKeyRadixSort.sortOrder(new long[]{5, 5, 5}, 3), equalTo(new int[]{0, 1, 2}));
+        assertThat(VariantKeyRadixSort.sortOrder(new long[]{5, 4, 5, 4}, 4), equalTo(new int[]{1, 3, 0, 2}));
+    }
+
+    @Test
+    void sortOrderOfPairs() {
+        Random random = new Random(42);
+        int size = 20_000;
+        long[] primary = new long[size];
+        long[] secondary = new long[size];
+        for (int i = 0; i < size; i++) {
+            primary[i] = random.nextInt(100) - 50L;
+            secondary[i] = random.nextLong();
+        }
+        Comparator<Integer> comparator = Comparator.<Integer, Long>comparing(i -> primary[i], Long::compareUnsigned)
+                .thenComparing(i -> secondary[i], Long::compareUnsigned);
+        int[] expected = IntStream.range(0, size).boxed()
+                .sorted(comparator)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertThat(VariantKeyRadixSort.sortOrder(primary, secondary, size), equalTo(expected));
+    }
+
+    @Test
+    void sortOrderOfIntPairs() {
+        Random random = new Random(42);
+        int size = 20_000;
+        int[] ints = new int[size];
+        long[] longs = new long[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = random.nextInt(100) - 50;
+            longs[i] = random.nextLong(100) - 50L;
+        }
+        Comparator<Integer> byInt = Comparator.comparing(i -> ints[i], Integer::compareUnsigned);
+        Comparator<Integer> byLong = Comparator.comparing(i -> longs[i], Long::compareUnsigned);
+        assertThat(VariantKeyRadixSort.sortOrder(ints, longs, size), equalTo(sortedIndexes(size, byInt.thenComparing(byLong))));
+        assertThat(VariantKeyRadixSort.sortOrder(longs, ints, size), equalTo(sortedIndexes(size, byLong.thenComparing(byInt))));
+    }
+
+    private static int[] sortedIndexes(int size, Comparator<Integer> comparator) {
+        return IntStream.range(0, size).boxed()
+                .sorted(comparator)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
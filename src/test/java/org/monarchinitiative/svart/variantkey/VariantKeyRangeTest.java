@@ -0,0 +1,133 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.nio.LongBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariantKeyRangeTest {
+
+    private static final GenomicAssembly GRCh38 = GenomicAssemblies.GRCh38p13();
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Random keys on chromosomes 1, 17 and X sorted in unsigned order, including keys at the same positions.
+     */
+    private static long[] sortedKeys(int count) {
+        Random random = new Random(count);
+        String[] chroms = {"1", "17", "X"};
+        String[] alleles = {"A", "C", "G", "T", "ACGTN"};
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = VariantKeys.encodeVariantKey(chroms[random.nextInt(chroms.length)], random.nextInt(0, 10_000), alleles[random.nextInt(alleles.length)], "A");
+        }
+        return LongStream.of(keys).map(key -> key ^ Long.MIN_VALUE).sorted().map(key -> key ^ Long.MIN_VALUE).toArray();
+    }
+
+    private static long[] expected(long[] keys, String chrom, int start, int end) {
+        return LongStream.of(keys)
+                .filter(key -> VariantKeys.decodeChrom(key).equals(chrom))
+                .filter(key -> VariantKeys.decodePos(key) >= start && VariantKeys.decodePos(key) < end)
+                .toArray();
+    }
+
+    private static long[] toArray(PrimitiveIterator.OfLong iterator) {
+        LongStream.Builder builder = LongStream.builder();
+        iterator.forEachRemaining((LongConsumer) builder::add);
+        return builder.build().toArray();
+    }
+
+    @Test
+    void rangesOfSortedKeys() {
+        long[] keys = sortedKeys(5000);
+        for (String chrom : new String[]{"1", "17", "X", "2"}) {
+            for (int[] region : new int[][]{{0, 10_000}, {100, 200}, {5000, 5001}, {5000, 5000}, {9_999, 20_000}}) {
+                VariantKeyRange range = VariantKeyRange.of(chrom, region[0], region[1]);
+                long[] expected = expected(keys, chrom, region[0], region[1]);
+                assertThat(range.isEmpty(), is(region[0] == region[1]));
+                assertThat(Arrays.copyOfRange(keys, range.fromIndex(keys), range.toIndex(keys)), equalTo(expected));
+                assertThat(toArray(range.iterator(keys)), equalTo(expected));
+                assertThat(toArray(range.iterator(LongBuffer.wrap(keys))), equalTo(expected));
+                for (long key : expected) {
+                    assertThat(range.contains(key), is(true));
+                }
+            }
+        }
+    }
+
+    @Test
+    void longBufferFromPositionToLimit() {
+        long[] keys = sortedKeys(1000);
+        LongBuffer buffer = LongBuffer.wrap(keys, 100, 800);
+        VariantKeyRange range = VariantKeyRange.of("X", 0, 10_000);
+        long[] expected = expected(Arrays.copyOfRange(keys, 100, 900), "X", 0, 10_000);
+        int from = range.fromIndex(buffer);
+        int to = range.toIndex(buffer);
+        assertThat(Arrays.copyOfRange(keys, from, to), equalTo(expected));
+        assertThat(toArray(range.iterator(buffer)), equalTo(expected));
+        assertThat(buffer.position(), equalTo(100));
+    }
+
+    @Test
+    void ofGenomicRegion() {
+        Contig chrX = GRCh38.contigByName("X");
+        GenomicRegion region = GenomicRegion.of(chrX, Strand.POSITIVE, CoordinateSystem.ONE_BASED, 101, 200);
+        VariantKeyRange expected = VariantKeyRange.of("X", 100, 200);
+        assertThat(VariantKeyRange.of(region), equalTo(expected));
+        assertThat(VariantKeyRange.of(region.withStrand(Strand.NEGATIVE)), equalTo(expected));
+        assertThat(VariantKeyRange.of(VariantKeyContigs.of(GRCh38), region), equalTo(expected));
+
+        assertThat(VariantKeyRange.of(region).contains(VariantKeys.encodeVariantKey("X", 99, "A", "G")), is(false));
+        assertThat(VariantKeyRange.of(region).contains(VariantKeys.encodeVariantKey("X", 100, "A", "G")), is(true));
+        assertThat(VariantKeyRange.of(region).contains(VariantKeys.encodeVariantKey("X", 199, "ACGTN", "G")), is(true));
+        assertThat(VariantKeyRange.of(region).contains(VariantKeys.encodeVariantKey("X", 200, "A", "G")), is(false));
+
+        GenomicRegion unplaced = GenomicRegion.of(GRCh38.contigByName("HSCHR1_CTG1_UNLOCALIZED"), Strand.POSITIVE, CoordinateSystem.ONE_BASED, 1, 10);
+        assertThrows(IllegalArgumentException.class, () -> VariantKeyRange.of(unplaced));
+    }
+
+    @Test
+    void invalidRange() {
+        assertThrows(IllegalArgumentException.class, () -> VariantKeyRange.of("1", 200, 100));
+        assertThrows(IllegalArgumentException.class, () -> VariantKeyRange.of("chrUn", 100, 200));
+        assertThrows(IllegalArgumentException.class, () -> new VariantKeyRange(-1L, 0L));
+    }
+
+    @Test
+    void rangeOfValueStore() {
+        long[] keys = LongStream.of(sortedKeys(2000)).distinct().toArray();
+        Path path = tempDir.resolve("store.vkv");
+        try (VariantKeyValueStoreWriter writer = VariantKeyValueStoreWriter.builder().tempDirectory(tempDir).build(path)) {
+            VariantKeyValueStoreWriter.Row row = writer.newRow();
+            for (long key : keys) {
+                if (VariantKeys.isReversible(key)) {
+                    writer.write(key, row);
+                } else {
+                    VariantKey variantKey = VariantKeys.decodeVariantKey(key);
+                    writer.write(variantKey.chrom(), variantKey.pos(), "ACGTN", "A", row);
+                }
+            }
+        }
+        try (VariantKeyValueStore store = VariantKeyValueStore.open(path)) {
+            VariantKeyRange range = VariantKeyRange.of("17", 1000, 2000);
+            long[] actual = LongStream.range(store.fromIndex(range), store.toIndex(range)).map(store::key).toArray();
+            assertThat(actual, equalTo(expected(keys, "17", 1000, 2000)));
+        }
+    }
+}
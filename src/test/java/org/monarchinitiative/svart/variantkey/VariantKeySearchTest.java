@@ -0,0 +1,116 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class VariantKeySearchTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Writes the keys as records of the given width, each followed by the record index.
+     */
+    private FileChannel write(long[] keys, int width) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(keys.length * width);
+        for (int i = 0; i < keys.length; i++) {
+            buffer.putLong(i * width, keys[i]);
+            buffer.putInt(i * width + Long.BYTES, i);
+        }
+        Path path = tempDir.resolve("records");
+        Files.write(path, buffer.array());
+        return FileChannel.open(path, StandardOpenOption.READ);
+    }
+
+    private static long[] sortedKeys(Random random, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int chrom = random.nextInt(1, 26);
+            keys[i] = VariantKeys.encodeVariantKey(chrom, random.nextInt(0, 250_000_000), "ACGT".substring(random.nextInt(4)), "G");
+        }
+        // sort unsigned, as chromosomes 16 onwards have negative keys
+        for (int i = 0; i < count; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+        return keys;
+    }
+
+    private static long expectedLowerBound(long[] keys, long key) {
+        long index = 0;
+        while (index < keys.length && Long.compareUnsigned(keys[(int) index], key) < 0) {
+            index++;
+        }
+        return index;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 9, 100, 5000})
+    void lowerBound(int count) throws IOException {
+        Random random = new Random(count);
+        long[] keys = sortedKeys(random, count);
+        try (FileChannel channel = write(keys, 12)) {
+            MappedRecords records = MappedRecords.map(channel, 0, keys.length, 12, 64);
+            for (int i = 0; i < 500; i++) {
+                long key = i % 2 == 0 && count > 0 ? keys[random.nextInt(count)] : sortedKeys(random, 1)[0];
+                long expected = expectedLowerBound(keys, key);
+                assertThat(VariantKeySearch.lowerBound(records, key, 0, count), equalTo(expected));
+                assertThat(VariantKeySearch.lowerBoundFrom(records, key, 0), equalTo(expected));
+                assertThat(VariantKeySearch.indexOf(records, key), equalTo(expected < count && keys[(int) expected] == key ? expected : -1L));
+            }
+            assertThat(VariantKeySearch.lowerBound(records, 0L, 0, count), equalTo(0L));
+            assertThat(VariantKeySearch.lowerBound(records, -1L, 0, count), equalTo(expectedLowerBound(keys, -1L)));
+        }
+    }
+
+    @Test
+    void lowerBoundFromPreviousIndex() throws IOException {
+        Random random = new Random(42);
+        long[] keys = sortedKeys(random, 3000);
+        try (FileChannel channel = write(keys, 16)) {
+            MappedRecords records = MappedRecords.map(channel, 0, keys.length, 16, 64);
+            long from = 0;
+            for (long key : sortedKeys(random, 1000)) {
+                from = VariantKeySearch.lowerBoundFrom(records, key, from);
+                assertThat(from, equalTo(expectedLowerBound(keys, key)));
+            }
+        }
+    }
+
+    @Test
+    void recordsSpanningChunks() throws IOException {
+        long[] keys = sortedKeys(new Random(1), 20);
+        // five records of 12 bytes per chunk of 64 bytes
+        try (FileChannel channel = write(keys, 12)) {
+            MappedRecords records = MappedRecords.map(channel, 0, keys.length, 12, 64);
+            for (int i = 0; i < keys.length; i++) {
+                assertThat(records.getLong(i, 0), equalTo(keys[i]));
+                assertThat(records.getInt(i, Long.BYTES), equalTo(i));
+            }
+            byte[] actual = new byte[12 * 8];
+            records.getSpanning(3, actual, 0, actual.length);
+            ByteBuffer buffer = ByteBuffer.wrap(actual);
+            for (int i = 3; i < 11; i++) {
+                assertThat(buffer.getLong(), equalTo(keys[i]));
+                assertThat(buffer.getInt(), equalTo(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariantKeySetTest {
+
+    /**
+     * Random keys of all chromosome codes, with duplicates, including the key 0.
+     */
+    static long[] randomKeys(int count, long seed) {
+        Random random = new Random(seed);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt(10) == 0 ? keys[random.nextInt(i + 1)] : random.nextLong();
+        }
+        keys[count / 2] = 0;
+        return keys;
+    }
+
+    static long[] sortedUnsigned(Collection<Long> keys) {
+        return keys.stream().mapToLong(Long::longValue).map(key -> key ^ Long.MIN_VALUE).sorted().map(key -> key ^ Long.MIN_VALUE).toArray();
+    }
+
+    @Test
+    void addAndContains() {
+        long[] keys = randomKeys(100_000, 1);
+        VariantKeySet set = new VariantKeySet();
+        Set<Long> expected = new HashSet<>();
+        for (long key : keys) {
+            assertThat(set.add(key), equalTo(expected.add(key)));
+        }
+        assertThat(set.size(), equalTo((long) expected.size()));
+        for (long key : keys) {
+            assertThat(set.contains(key), is(true));
+        }
+        Random random = new Random(2);
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextLong();
+            assertThat(set.contains(key), equalTo(expected.contains(key)));
+        }
+    }
+
+    @Test
+    void sortedIteration() {
+        long[] keys = randomKeys(50_000, 3);
+        VariantKeySet set = new VariantKeySet(50_000);
+        LongStream.of(keys).forEach(set::add);
+        long[] expected = sortedUnsigned(LongStream.of(keys).boxed().toList().stream().distinct().toList());
+        assertThat(set.sortedKeys(), equalTo(expected));
+
+        LongStream.Builder sorted = LongStream.builder();
+        set.forEachSorted(sorted::add);
+        assertThat(sorted.build().toArray(), equalTo(expected));
+
+        LongStream.Builder unsorted = LongStream.builder();
+        set.forEach(unsorted::add);
+        assertThat(sortedUnsigned(unsorted.build().boxed().toList()), equalTo(expected));
+    }
+
+    @Test
+    void sortedVariantKeys() {
+        VariantKeySet set = new VariantKeySet();
+        long x = VariantKeys.encodeVariantKey("X", 100, "A", "G");
+        long chr2 = VariantKeys.encodeVariantKey("2", 200, "A", "G");
+        long chr1 = VariantKeys.encodeVariantKey("1", 300, "A", "G");
+        long chr1Del = VariantKeys.encodeVariantKey("1", 300, "ACGTN", "A");
+        set.add(x);
+        set.add(chr1Del);
+        set.add(chr2);
+        set.add(chr1);
+        assertThat(set.sortedKeys(), equalTo(new long[]{chr1, chr1Del, chr2, x}));
+    }
+
+    @Test
+    void merge() {
+        List<VariantKeySet> sets = new ArrayList<>();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            VariantKeySet set = new VariantKeySet();
+            for (long key : randomKeys(20_000, 10 + i)) {
+                set.add(key);
+                expected.add(key);
+            }
+            sets.add(set);
+        }
+        VariantKeySet merged = VariantKeySet.merge(sets);
+        assertThat(merged.size(), equalTo((long) expected.size()));
+        assertThat(merged.sortedKeys(), equalTo(sortedUnsigned(expected)));
+
+        VariantKeySet all = new VariantKeySet();
+        sets.forEach(all::addAll);
+        assertThat(all.sortedKeys(), equalTo(merged.sortedKeys()));
+    }
+
+    @Test
+    void clear() {
+        VariantKeySet set = new VariantKeySet();
+        LongStream.of(randomKeys(1000, 4)).forEach(set::add);
+        set.clear();
+        assertThat(set.isEmpty(), is(true));
+        assertThat(set.contains(0), is(false));
+        assertThat(set.sortedKeys(), equalTo(new long[0]));
+        assertThat(set.add(1L), is(true));
+        assertThat(set.size(), equalTo(1L));
+    }
+
+    @Test
+    void negativeExpectedSize() {
+        assertThrows(IllegalArgumentException.class, () -> new VariantKeySet(-1));
+    }
+}
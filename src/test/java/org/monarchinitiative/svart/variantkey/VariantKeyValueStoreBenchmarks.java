@@ -0,0 +1,113 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking up keys in a {@link VariantKeyValueStore} of 10 million records one at a time in random order and
+ * in sorted order, and in sorted order using a {@link VariantKeyValueStore.Cursor}.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VariantKeyValueStoreBenchmarks {
+
+    private Path path;
+    private VariantKeyValueStore store;
+    private long[] randomKeys;
+    private long[] sortedKeys;
+    private long[] indexes;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        long[] keys = new long[10_000_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = VariantKeys.encodeVariantKey(random.nextInt(1, 26), random.nextInt(0, 200_000_000), "A", "ACGT".substring(random.nextInt(4)));
+        }
+        sortUnsigned(keys);
+        path = Files.createTempFile("svart-benchmark-", ".vkv");
+        try (VariantKeyValueStoreWriter writer = VariantKeyValueStoreWriter.builder().floatColumn("AF").build(path)) {
+            VariantKeyValueStoreWriter.Row row = writer.newRow();
+            long previous = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (i == 0 || keys[i] != previous) {
+                    writer.write(keys[i], row.setFloat(0, i));
+                }
+                previous = keys[i];
+            }
+        }
+        store = VariantKeyValueStore.open(path);
+        // half of the keys are present
+        randomKeys = new long[100_000];
+        for (int i = 0; i < randomKeys.length; i++) {
+            randomKeys[i] = i % 2 == 0 ? keys[random.nextInt(keys.length)] : VariantKeys.encodeVariantKey(random.nextInt(1, 26), random.nextInt(0, 200_000_000), "C", "T");
+        }
+        sortedKeys = randomKeys.clone();
+        sortUnsigned(sortedKeys);
+        indexes = new long[sortedKeys.length];
+    }
+
+    private static void sortUnsigned(long[] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        Files.deleteIfExists(path);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(Path.of("target/benchmarks"));
+        Instant startTime = Instant.now();
+        Options opt = new OptionsBuilder()
+                .forks(1)
+                .include(VariantKeyValueStoreBenchmarks.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/benchmarks/variant-key-value-store-benchmarks-" + startTime.toString() + ".json")
+                .build();
+        new Runner(opt).run();
+    }
+
+    @Benchmark
+    public void randomLookups(Blackhole blackhole) {
+        for (long key : randomKeys) {
+            blackhole.consume(store.indexOf(key));
+        }
+    }
+
+    @Benchmark
+    public void sortedLookups(Blackhole blackhole) {
+        for (long key : sortedKeys) {
+            blackhole.consume(store.indexOf(key));
+        }
+    }
+
+    @Benchmark
+    public long[] sortedCursorLookups() {
+        store.indexesOf(sortedKeys, indexes);
+        return indexes;
+    }
+}
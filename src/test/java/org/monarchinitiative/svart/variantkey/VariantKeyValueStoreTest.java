@@ -0,0 +1,200 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.monarchinitiative.svart.variantkey.VariantKeyValueStore.Column;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VariantKeyValueStoreTest {
+
+    private static final String[] ALLELES = {"A", "C", "G", "T", "AC", "GTT", "ACGTACGTACGT", "ACGTN", "GATTACAGATTACA"};
+
+    @TempDir
+    Path tempDir;
+
+    private record Variant(String chrom, int pos, String ref, String alt, long key) {
+
+        static Variant of(String chrom, int pos, String ref, String alt) {
+            return new Variant(chrom, pos, ref, alt, VariantKeys.encodeVariantKey(chrom, pos, ref, alt));
+        }
+    }
+
+    private static List<Variant> randomVariants(Random random, int count) {
+        Map<Long, Variant> variants = new HashMap<>();
+        while (variants.size() < count) {
+            String chrom = String.valueOf(random.nextInt(1, 23));
+            Variant variant = Variant.of(chrom, random.nextInt(0, 1_000_000), ALLELES[random.nextInt(ALLELES.length)], ALLELES[random.nextInt(ALLELES.length)]);
+            variants.putIfAbsent(variant.key(), variant);
+        }
+        return variants.values().stream()
+                .sorted((a, b) -> Long.compareUnsigned(a.key(), b.key()))
+                .toList();
+    }
+
+    private Path write(List<Variant> variants) {
+        Path path = tempDir.resolve("store.vkv");
+        try (VariantKeyValueStoreWriter writer = VariantKeyValueStoreWriter.builder()
+                .floatColumn("AF")
+                .intColumn("AC")
+                .bytesColumn("CLNSIG", 3)
+                .tempDirectory(tempDir)
+                .build(path)) {
+            VariantKeyValueStoreWriter.Row row = writer.newRow();
+            for (int i = 0; i < variants.size(); i++) {
+                Variant variant = variants.get(i);
+                row.setFloat(0, i / 1000f)
+                        .setInt(1, i)
+                        .setBytes(2, variant.ref().substring(0, 1).getBytes(StandardCharsets.US_ASCII));
+                writer.write(variant.chrom(), variant.pos(), variant.ref(), variant.alt(), row);
+            }
+            assertThat(writer.recordCount(), equalTo((long) variants.size()));
+        }
+        return path;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 5000})
+    void writeAndLookUp(int count) throws Exception {
+        List<Variant> variants = randomVariants(new Random(count), count);
+        Path path = write(variants);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.toList(), equalTo(List.of(path)));
+        }
+
+        try (VariantKeyValueStore store = VariantKeyValueStore.open(path)) {
+            assertThat(store.size(), equalTo((long) count));
+            assertThat(store.columns(), equalTo(List.of(Column.ofFloat("AF"), Column.ofInt("AC"), Column.ofBytes("CLNSIG", 3))));
+            int af = store.columnIndex("AF");
+            int ac = store.columnIndex("AC");
+            int clnsig = store.columnIndex("CLNSIG");
+            for (int i = 0; i < count; i++) {
+                Variant variant = variants.get(i);
+                long index = store.indexOf(variant.chrom(), variant.pos(), variant.ref(), variant.alt());
+                assertThat(index, equalTo((long) i));
+                assertThat(store.indexOf(variant.key()), equalTo((long) i));
+                assertThat(store.key(index), equalTo(variant.key()));
+                assertThat(store.getFloat(index, af), equalTo(i / 1000f));
+                assertThat(store.getInt(index, ac), equalTo(i));
+                byte[] expectedBytes = {(byte) variant.ref().charAt(0), 0, 0};
+                assertThat(store.getBytes(index, clnsig), equalTo(expectedBytes));
+            }
+            // the hash of a non-reversible key includes the alleles but not the position
+            assertThat(store.indexOf("1", 1_000_001, "ACGTN", "A"), equalTo(-1L));
+            assertThat(store.indexOf("X", 1, "A", "G"), equalTo(-1L));
+            assertThat(store.indexOf(VariantKeys.encodeVariantKey("X", 1, "ACGTN", "A")), equalTo(-1L));
+        }
+    }
+
+    @Test
+    void nonReversibleKeysCheckAlleles() {
+        Variant hashed = Variant.of("1", 1000, "ACGTN", "A");
+        assertThat(VariantKeys.isReversible(hashed.key()), is(false));
+        Path path = write(List.of(hashed));
+        try (VariantKeyValueStore store = VariantKeyValueStore.open(path)) {
+            assertThat(store.indexOf("1", 1000, "ACGTN", "A"), equalTo(0L));
+            // only possible with a hash collision, but the alleles stored for the key do not match
+            assertThat(store.indexOf("1", 1000, "ACGTN", "C"), equalTo(-1L));
+        }
+    }
+
+    @Test
+    void nonReversibleAllelesUseNrvkTableLayout() throws Exception {
+        Variant hashed = Variant.of("1", 1000, "ACGTN", "A");
+        Variant reversible = Variant.of("1", 1001, "A", "G");
+        Path path = write(List.of(hashed, reversible));
+        int header = Integer.BYTES + 1 + Integer.BYTES + 3 * (1 + Integer.BYTES + 2) + "AF".length() + "AC".length() + "CLNSIG".length();
+        int recordWidth = Long.BYTES + Float.BYTES + Integer.BYTES + 3;
+        assertThat(Files.size(path), equalTo((long) header + 2L * recordWidth + NrvkTableFormat.ENTRY_BYTES + "ACGTNA".length() + VariantKeyValueStoreFormat.FOOTER_BYTES));
+        try (VariantKeyValueStore store = VariantKeyValueStore.open(path)) {
+            assertThat(store.indexOf("1", 1000, "ACGTN", "A"), equalTo(0L));
+            assertThat(store.indexOf("1", 1001, "A", "G"), equalTo(1L));
+        }
+    }
+
+    @Test
+    void sortedLookups() {
+        Random random = new Random(7);
+        List<Variant> variants = randomVariants(random, 2000);
+        Path path = write(variants.subList(0, 1000));
+        long[] keys = variants.stream()
+                .mapToLong(Variant::key)
+                .map(key -> key ^ Long.MIN_VALUE)
+                .sorted()
+                .map(key -> key ^ Long.MIN_VALUE)
+                .toArray();
+        try (VariantKeyValueStore store = VariantKeyValueStore.open(path)) {
+            long[] indexes = new long[keys.length];
+            store.indexesOf(keys, indexes);
+            for (int i = 0; i < keys.length; i++) {
+                assertThat(indexes[i], equalTo(store.indexOf(keys[i])));
+            }
+            // in place
+            long[] inPlace = keys.clone();
+            store.indexesOf(inPlace, inPlace);
+            assertThat(inPlace, equalTo(indexes));
+
+            VariantKeyValueStore.Cursor cursor = store.cursor();
+            cursor.indexOf(keys[10]);
+            assertThat(cursor.indexOf(keys[10]), equalTo(indexes[10]));
+            assertThrows(IllegalArgumentException.class, () -> cursor.indexOf(keys[9]));
+            assertThrows(IllegalArgumentException.class, () -> store.indexesOf(new long[]{keys[1], keys[0]}, new long[2]));
+            assertThrows(IllegalArgumentException.class, () -> store.indexesOf(keys, new long[1]));
+        }
+    }
+
+    @Test
+    void wrongColumnType() {
+        Path path = write(randomVariants(new Random(1), 10));
+        try (VariantKeyValueStore store = VariantKeyValueStore.open(path)) {
+            assertThrows(IllegalArgumentException.class, () -> store.getInt(0, 0));
+            assertThrows(IllegalArgumentException.class, () -> store.getFloat(0, 2));
+            assertThrows(IllegalArgumentException.class, () -> store.columnIndex("AN"));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.getFloat(10, 0));
+        }
+    }
+
+    @Test
+    void writeOutOfOrder() {
+        try (VariantKeyValueStoreWriter writer = VariantKeyValueStoreWriter.builder().intColumn("AC").tempDirectory(tempDir).build(tempDir.resolve("store.vkv"))) {
+            VariantKeyValueStoreWriter.Row row = writer.newRow();
+            writer.write("1", 100, "A", "G", row);
+            assertThrows(IllegalArgumentException.class, () -> writer.write("1", 99, "A", "G", row));
+            assertThrows(IllegalArgumentException.class, () -> writer.write("1", 100, "A", "G", row));
+
+            writer.write("1", 200, "ACGTN", "A", row);
+            assertThrows(IllegalArgumentException.class, () -> writer.write("1", 200, "ACGTN", "A", row));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(VariantKeys.encodeVariantKey("1", 300, "ACGTN", "A"), row));
+            assertThrows(IllegalArgumentException.class, () -> row.setFloat(0, 1f));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(VariantKeys.encodeVariantKey("1", 400, "A", "C"), VariantKeyValueStoreWriter.builder().build(tempDir.resolve("other.vkv")).newRow()));
+        }
+    }
+
+    @Test
+    void failedBuildDeletesTemporaryFiles() throws Exception {
+        Path missingDirectory = tempDir.resolve("missing");
+        VariantKeyValueStoreWriter.Builder builder = VariantKeyValueStoreWriter.builder().intColumn("AC").tempDirectory(tempDir);
+        assertThrows(UncheckedIOException.class, () -> builder.build(missingDirectory.resolve("store.vkv")));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.toList(), is(empty()));
+        }
+    }
+
+    @Test
+    void notAStore() throws Exception {
+        Path path = tempDir.resolve("not-a-store");
+        Files.write(path, new byte[100]);
+        assertThrows(IllegalArgumentException.class, () -> VariantKeyValueStore.open(path));
+    }
+}
@@ -0,0 +1,140 @@
+package org.monarchinitiative.svart.variantkey;
+
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.variant.CompactSequenceVariant;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding VariantKeys from the CHROM, POS, REF and ALT fields of VCF lines by creating a String for each
+ * field and by passing the byte slices of the line directly, and from {@link CompactSequenceVariant}s by decoding the
+ * alleles and by transcoding the bits.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 3)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VariantKeysBenchmarks {
+
+    private static final String[] CHROMS = {"chr1", "chr2", "chr10", "chrX"};
+    private static final String[] ALLELES = {"A", "C", "G", "T", "AC", "TTG", "ACGTACGTACGTA", "<DEL>"};
+
+    private byte[][] lines;
+    private Contig contig;
+    private CompactSequenceVariant[] variants;
+    private long[] compactBits;
+    private long[] variantKeys;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lines = new byte[100_000][];
+        for (int i = 0; i < lines.length; i++) {
+            String line = CHROMS[random.nextInt(CHROMS.length)] + '\t' + random.nextInt(1, 100_000_000) + "\t.\t"
+                          + ALLELES[random.nextInt(ALLELES.length)] + '\t' + ALLELES[random.nextInt(ALLELES.length)] + "\t.\tPASS\t.";
+            lines[i] = line.getBytes(StandardCharsets.US_ASCII);
+        }
+        contig = GenomicAssemblies.GRCh38p13().contigByName("1");
+        variants = new CompactSequenceVariant[100_000];
+        compactBits = new long[variants.length];
+        variantKeys = new long[variants.length];
+        for (int i = 0; i < variants.length; i++) {
+            String ref = ALLELES[random.nextInt(4)];
+            String alt = ALLELES[random.nextInt(6)];
+            variants[i] = CompactSequenceVariant.of(contig, Strand.POSITIVE, CoordinateSystem.ONE_BASED, random.nextInt(1, 100_000_000), ref, alt);
+            compactBits[i] = variants[i].bits();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(Path.of("target/benchmarks"));
+        Instant startTime = Instant.now();
+        Options opt = new OptionsBuilder()
+                .forks(1)
+                .include(VariantKeysBenchmarks.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/benchmarks/variant-keys-benchmarks-" + startTime.toString() + ".json")
+                .build();
+        new Runner(opt).run();
+    }
+
+    private static int nextTab(byte[] line, int from) {
+        int i = from;
+        while (line[i] != '\t') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int parsePos(byte[] line, int start, int end) {
+        int pos = 0;
+        for (int i = start; i < end; i++) {
+            pos = pos * 10 + line[i] - '0';
+        }
+        return pos;
+    }
+
+    @Benchmark
+    public void encodeFromStrings(Blackhole blackhole) {
+        for (byte[] line : lines) {
+            int chromEnd = nextTab(line, 0);
+            int posEnd = nextTab(line, chromEnd + 1);
+            int refStart = nextTab(line, posEnd + 1) + 1;
+            int refEnd = nextTab(line, refStart);
+            int altEnd = nextTab(line, refEnd + 1);
+            String chrom = new String(line, 0, chromEnd, StandardCharsets.US_ASCII);
+            String ref = new String(line, refStart, refEnd - refStart, StandardCharsets.US_ASCII);
+            String alt = new String(line, refEnd + 1, altEnd - refEnd - 1, StandardCharsets.US_ASCII);
+            blackhole.consume(VariantKeys.encodeVariantKey(chrom, parsePos(line, chromEnd + 1, posEnd), ref, alt));
+        }
+    }
+
+    @Benchmark
+    public void encodeFromBytes(Blackhole blackhole) {
+        for (byte[] line : lines) {
+            int chromEnd = nextTab(line, 0);
+            int posEnd = nextTab(line, chromEnd + 1);
+            int refStart = nextTab(line, posEnd + 1) + 1;
+            int refEnd = nextTab(line, refStart);
+            int altEnd = nextTab(line, refEnd + 1);
+            blackhole.consume(VariantKeys.encodeVariantKey(line, 0, chromEnd, parsePos(line, chromEnd + 1, posEnd),
+                    line, refStart, refEnd - refStart, line, refEnd + 1, altEnd - refEnd - 1));
+        }
+    }
+
+    @Benchmark
+    public void compactViaAlleles(Blackhole blackhole) {
+        for (CompactSequenceVariant variant : variants) {
+            blackhole.consume(VariantKeys.encodeVariantKey(variant.contig().name(), variant.startZeroBased(), variant.ref(), variant.alt()));
+        }
+    }
+
+    @Benchmark
+    public void compactTranscoded(Blackhole blackhole) {
+        for (CompactSequenceVariant variant : variants) {
+            blackhole.consume(CompactVariantKeys.variantKey(variant));
+        }
+    }
+
+    @Benchmark
+    public long[] compactTranscodedBulk() {
+        CompactVariantKeys.variantKeys(contig, compactBits, variantKeys);
+        return variantKeys;
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -178,18 +180,99 @@ class VariantKeysTest {
         assertThrows(IllegalArgumentException.class, () -> VariantKeys.encodeVariantKey((short) -1, 12345, "A", "C"));
     }
 
+    private static long encodeFromBytes(String chrom, int pos, String ref, String alt) {
+        // the fields of a VCF line, with the offsets of the slices
+        byte[] line = ("x\t" + chrom + "\t" + ref + "\t" + alt + "\n").getBytes(StandardCharsets.UTF_8);
+        int chromOffset = 2;
+        int chromLength = chrom.getBytes(StandardCharsets.UTF_8).length;
+        int refOffset = chromOffset + chromLength + 1;
+        int refLength = ref.getBytes(StandardCharsets.UTF_8).length;
+        int altOffset = refOffset + refLength + 1;
+        int altLength = alt.getBytes(StandardCharsets.UTF_8).length;
+        long key = VariantKeys.encodeVariantKey(line, chromOffset, chromLength, pos, line, refOffset, refLength, line, altOffset, altLength);
+
+        ByteBuffer heap = ByteBuffer.wrap(line);
+        ByteBuffer direct = ByteBuffer.allocateDirect(line.length).put(line).flip();
+        direct.position(1);
+        for (ByteBuffer buffer : List.of(heap, direct)) {
+            int position = buffer.position();
+            long bufferKey = VariantKeys.encodeVariantKey(buffer, chromOffset, chromLength, pos, buffer, refOffset, refLength, buffer, altOffset, altLength);
+            assertThat(bufferKey, equalTo(key));
+            assertThat(buffer.position(), equalTo(position));
+        }
+        assertThat(VariantKeys.encodeVariantKey(new StringBuilder(chrom), pos, new StringBuilder(ref), new StringBuilder(alt)), equalTo(key));
+        return key;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "chr1, 268435455, C, T",
+            "CHR22, 1, ac, gt",
+            "1, 324728, T, *",
+            "1, 324728, T, <DEL>",
+            "1, 324728, T, [chr3:12345[ATTC",
+            "1, 324739, ACGTUWSMKRYBDHVN, A*C*G*T*U*W*S*M*K*R*Y*B*D*H*V*N",
+            "X, 445978, AAAGAAAGAAA, ''",
+            "Y, 445978, AAAGAAAGAAAG, ''",
+            "MT, 445978, AAAGAAAGAAAGAAAGAAAG, A",
+            "chrM, 10, A, é",
+    })
+    void encodeVariantKeyFromBytes(String chrom, int pos, String ref, String alt) {
+        assertThat(encodeFromBytes(chrom, pos, ref, alt), equalTo(VariantKeys.encodeVariantKey(chrom, pos, ref, alt)));
+    }
+
+    @Test
+    void encodeVariantKeyFromBytesRandomAlleles() {
+        Random random = new Random(42);
+        byte[] bases = "ACGTacgtN*<>[]:".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < 100_000; i++) {
+            String chrom = CHROMS[random.nextInt(CHROMS.length)];
+            int pos = random.nextInt(VariantKeys.MAX_POS);
+            String ref = randomAllele(random, bases, random.nextInt(0, 16));
+            String alt = randomAllele(random, bases, random.nextInt(0, 16));
+            assertThat(encodeFromBytes(chrom, pos, ref, alt), equalTo(VariantKeys.encodeVariantKey(chrom, pos, ref, alt)));
+        }
+    }
+
+    private static String randomAllele(Random random, byte[] bases, int length) {
+        // mostly ACGT, to cover the reversible encoding
+        int alphabet = random.nextBoolean() ? 4 : bases.length;
+        byte[] allele = new byte[length];
+        for (int i = 0; i < length; i++) {
+            allele[i] = bases[random.nextInt(alphabet)];
+        }
+        return new String(allele, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void encodeVariantKeyFromBytesOutOfBounds() {
+        byte[] line = "1\tA\tC".getBytes(StandardCharsets.US_ASCII);
+        assertThrows(IndexOutOfBoundsException.class, () -> VariantKeys.encodeVariantKey(line, 0, 1, 10, line, 2, 1, line, 4, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> VariantKeys.encodeVariantKey(line, -1, 1, 10, line, 2, 1, line, 4, 1));
+        ByteBuffer buffer = ByteBuffer.wrap(line).limit(4);
+        assertThrows(IndexOutOfBoundsException.class, () -> VariantKeys.encodeVariantKey(buffer, 0, 1, 10, buffer, 2, 1, buffer, 4, 1));
+    }
+
     @ParameterizedTest
     @CsvSource({
             "chr",
             "chrUnk_KI12345.1",
             "chr0",
+            "chr01",
+            "chr23",
             "chr25",
+            "chrchr1",
+            "Chr1",
+            "MX",
             "0",
             "25",
     })
     void encodeChromThrowsExceptionWith(String chrom) {
         Exception exception = assertThrows(IllegalArgumentException.class, () -> VariantKeys.encodeChrom(chrom));
         assertThat(exception.getMessage(), equalTo("Invalid chrom: " + chrom + " Must be (chr)?[1-22,X,Y,M,MT]"));
+        byte[] bytes = ("\t" + chrom).getBytes(StandardCharsets.UTF_8);
+        Exception bytesException = assertThrows(IllegalArgumentException.class, () -> VariantKeys.encodeChrom(bytes, 1, bytes.length - 1));
+        assertThat(bytesException.getMessage(), equalTo(exception.getMessage()));
     }
 
     @ParameterizedTest
@@ -239,6 +322,36 @@ class VariantKeysTest {
         }
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "1,  0,         A,          G",
+            "1,  12345,     ACGTACGTAC, A",
+            "X,  155270559, ACGTN,      A",
+            "MT, 16568,     T,          ''",
+    })
+    void rangeStartAndEnd(String chrom, int pos, String ref, String alt) {
+        long key = VariantKeys.encodeVariantKey(chrom, pos, ref, alt);
+        long start = VariantKeys.rangeStart(chrom, pos);
+        long end = VariantKeys.rangeEnd(chrom, pos);
+        assertThat(Long.compareUnsigned(start, key) <= 0, is(true));
+        assertThat(Long.compareUnsigned(key, end) <= 0, is(true));
+        assertThat(VariantKeys.decodePos(start), equalTo((long) pos));
+        assertThat(VariantKeys.decodePos(end), equalTo((long) pos));
+        assertThat(VariantKeys.decodeChrom(end), equalTo(chrom));
+        assertThat(Long.compareUnsigned(end, VariantKeys.rangeStart(chrom, pos + 1)) < 0, is(true));
+        assertThat(end + 1, equalTo(VariantKeys.rangeStart(chrom, pos + 1)));
+        int chromCode = VariantKeys.decodeChromToInt(key);
+        assertThat(VariantKeys.rangeStart(chromCode, pos), equalTo(start));
+        assertThat(VariantKeys.rangeEnd(chromCode, pos), equalTo(end));
+    }
+
+    @Test
+    void rangeStartInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> VariantKeys.rangeStart("chrUn", 1));
+        assertThrows(IllegalArgumentException.class, () -> VariantKeys.rangeStart(26, 1));
+        assertThrows(IllegalArgumentException.class, () -> VariantKeys.rangeEnd("1", VariantKeys.MAX_POS + 1));
+    }
+
     static final String[] CHROMS = {
             "1", "2", "3", "4", "5",
             "6", "7", "8", "9", "10",
@@ -0,0 +1,132 @@
+package org.monarchinitiative.svart.vcf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svart.*;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.sequence.VariantTrimmer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VcfLineScannerTest {
+
+    private final GenomicAssembly b37 = GenomicAssembly.readAssembly(Path.of("src/test/resources/GCF_000001405.25_GRCh37.p13_assembly_report.txt"));
+    private final Contig chr1 = b37.contigById(1);
+    private final VcfConverter vcfConverter = new VcfConverter(b37, VariantTrimmer.leftShiftingTrimmer(VariantTrimmer.removingCommonBase()));
+    private final VcfLineScanner instance = VcfLineScanner.of(vcfConverter);
+
+    private static byte[] bytes(String line) {
+        return line.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "rs123, 12345, A,    T",
+            ".,     12345, AT,   A",
+            "'',    12345, A,    ATTG",
+            "rs1,   12345, GCAT, GTTT",
+    })
+    void sequenceVariantMatchesVcfConverter(String id, int pos, String ref, String alt) {
+        String line = String.join("\t", "1", String.valueOf(pos), id, ref, alt, "50", "PASS", "DP=10", "GT", "0/1");
+        LazyVcfVariant variant = instance.scan(bytes(line));
+
+        assertThat(variant.contig(), equalTo(chr1));
+        assertThat(variant.pos(), equalTo(pos));
+        assertThat(variant.id(), equalTo(id));
+        assertThat(variant.strand(), equalTo(Strand.POSITIVE));
+        assertThat(variant.coordinateSystem(), equalTo(CoordinateSystem.ONE_BASED));
+        assertThat(variant.isMaterialised(), is(false));
+
+        GenomicVariant expected = vcfConverter.convert(chr1, id, pos, ref, alt);
+        assertThat(variant.ref(), equalTo(expected.ref()));
+        assertThat(variant.isMaterialised(), is(true));
+        assertThat(variant.materialise(), equalTo(expected));
+        assertThat(variant.materialise().id(), equalTo(expected.id()));
+        assertThat(variant.start(), equalTo(expected.start()));
+        assertThat(variant.end(), equalTo(expected.end()));
+        assertThat(variant.alt(), equalTo(expected.alt()));
+        assertThat(variant.variantType(), equalTo(expected.variantType()));
+        assertThat(variant.changeLength(), equalTo(expected.changeLength()));
+        assertThat(variant, equalTo(instance.scan(bytes(line))));
+        assertThat(variant, not(equalTo(expected)));
+        assertThat(expected, not(equalTo(variant)));
+        assertThat(variant.hashCode(), equalTo(expected.hashCode()));
+        assertThat(GenomicVariant.compare(variant, expected), equalTo(0));
+    }
+
+    @Test
+    void scanSliceOfBuffer() {
+        byte[] buffer = bytes("##header\n1\t100\trs1\tA\tC\n");
+        LazyVcfVariant variant = instance.scan(buffer, 9, 13);
+        assertThat(variant.materialise(), equalTo(vcfConverter.convert(chr1, "rs1", 100, "A", "C")));
+    }
+
+    @Test
+    void symbolicVariantUsesInfoFields() {
+        String line = "1\t1000\tsv1\tC\t<DEL>\t.\tPASS\tSVTYPE=DEL;END=2000;SVLEN=-1000;CIPOS=-10,20;CIEND=-5,5;EVENT=event1";
+        LazyVcfVariant variant = instance.scan(bytes(line));
+
+        GenomicVariant expected = vcfConverter.convertSymbolic(chr1, "sv1", 1000, ConfidenceInterval.of(-10, 20), 2000, ConfidenceInterval.of(-5, 5), "C", "<DEL>", -1000, "", "event1");
+        assertThat(variant.materialise(), equalTo(expected));
+        assertThat(variant.changeLength(), equalTo(-1000));
+        assertThat(variant.startConfidenceInterval(), equalTo(ConfidenceInterval.of(-10, 20)));
+        assertThat(variant.eventId(), equalTo("event1"));
+    }
+
+    @Test
+    void symbolicVariantWithoutSvLen() {
+        String line = "1\t1000\t.\tC\t<DEL>\t.\tPASS\tEND=2000";
+        assertThat(instance.scan(bytes(line)).changeLength(), equalTo(-1000));
+    }
+
+    @Test
+    void breakendVariant() {
+        String line = "1\t1000\tbnd_U\tC\tC[2:321682[\t6\tPASS\tSVTYPE=BND;MATEID=bnd_V;EVENT=tra1";
+        LazyVcfVariant variant = instance.scan(bytes(line));
+
+        GenomicVariant expected = vcfConverter.convertBreakend(chr1, "bnd_U", 1000, ConfidenceInterval.precise(), "C", "C[2:321682[", ConfidenceInterval.precise(), "bnd_V", "tra1");
+        assertThat(variant.materialise(), equalTo(expected));
+        assertThat(variant.materialise(), instanceOf(GenomicBreakendVariant.class));
+        assertThat(variant.isBreakend(), is(true));
+    }
+
+    @Test
+    void unknownContig() {
+        LazyVcfVariant variant = instance.scan(bytes("chrUnknown\t100\t.\tA\tC"));
+        assertThat(variant.contig().isUnknown(), is(true));
+        assertThat(variant.pos(), equalTo(100));
+    }
+
+    @Test
+    void contigIsResolvedPerDistinctName() {
+        LazyVcfVariant first = instance.scan(bytes("1\t100\t.\tA\tC"));
+        LazyVcfVariant second = instance.scan(bytes("1\t200\t.\tA\tC"));
+        LazyVcfVariant third = instance.scan(bytes("2\t200\t.\tA\tC"));
+        assertThat(second.contig(), sameInstance(first.contig()));
+        assertThat(third.contig(), equalTo(b37.contigById(2)));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'1\t100\t.\tA'",
+            "'1\tABC\t.\tA\tC'",
+            "'1\t\t.\tA\tC'",
+            "'1\t99999999999\t.\tA\tC'",
+    })
+    void invalidLineThrowsException(String line) {
+        assertThrows(IllegalArgumentException.class, () -> instance.scan(bytes(line)));
+    }
+
+    @Test
+    void multiAllelicThrowsExceptionWhenMaterialised() {
+        LazyVcfVariant variant = instance.scan(bytes("1\t100\t.\tA\tC,T"));
+        assertThat(variant.pos(), equalTo(100));
+        assertThrows(IllegalArgumentException.class, variant::materialise);
+    }
+}